@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.api;
+
+import org.apache.hadoop.classification.InterfaceStability;
+
+/**
+ * A {@link Sink} which can process several tuples in one call.
+ * The engine hands the tuples to such a sink in batches, which saves the per tuple cost of the call and the
+ * bookkeeping when the tuples are small and arrive at a high rate.
+ */
+@InterfaceStability.Evolving
+public interface BatchSink<T> extends Sink<T>
+{
+  /**
+   * Process the tuples in the given range of the array in order, with the same effect as calling
+   * {@link #put(Object)} with each of them. The caller checks the bounds of the range. The sink does not keep a
+   * reference to the array, which the caller may reuse after the call returns.
+   *
+   * @param tuples the tuples
+   * @param offset index of the first tuple to process
+   * @param length number of the tuples to process
+   */
+  void putAll(T[] tuples, int offset, int length);
+
+}
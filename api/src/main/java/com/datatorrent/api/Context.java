@@ -116,6 +116,19 @@ public interface Context
     ENABLE, FOLLOW_HADOOP_AUTH, FOLLOW_HADOOP_HTTP_AUTH, DISABLE
   }
 
+  /**
+   * The way an operator thread waits when there is no work for the operator.<br/><br/>
+   * SLEEP - Sleep with the sleep time growing linearly up to SPIN_MILLIS.<br/>
+   * BUSY_SPIN - Poll the input ports continuously, occupies a processor core.<br/>
+   * YIELD - Yield the processor to the other threads between the polls.<br/>
+   * PARK - Park the thread with the park time growing exponentially from a microsecond up to SPIN_MILLIS.<br/>
+   * BLOCK - Park the thread until a tuple arrives at an input port or at most SPIN_MILLIS.
+   */
+  enum IdleStrategy
+  {
+    SLEEP, BUSY_SPIN, YIELD, PARK, BLOCK
+  }
+
   interface PortContext extends Context
   {
     /**
@@ -200,6 +213,12 @@ public interface Context
      * Default value is 10 milliseconds.
      */
     Attribute<Integer> SPIN_MILLIS = new Attribute<>(10);
+    /**
+     * The way the operator thread waits when there are no tuples available on any of the input ports of the operator,
+     * or when an input operator emits no tuples. SPIN_MILLIS bounds the wait of the strategies which back off.
+     * Default value is SLEEP.
+     */
+    Attribute<IdleStrategy> IDLE_STRATEGY = new Attribute<>(IdleStrategy.SLEEP);
     /**
      * The maximum number of attempts to restart a failing operator before shutting down the application.
      * Until this number is reached, when an operator fails to start it is re-spawned in a new container. Once all the
@@ -25,6 +25,8 @@ import com.datatorrent.api.Operator.InputPort;
  * Default abstract implementation for input ports.
  * An operator would typically define a derived inner class with the process method.
  * This class is designed for use with a transient field, i.e. not to be serialized with the operator state.
+ * The engine passes the tuples to the port one at a time through {@link #put(Object)}. A subclass which processes
+ * the tuples in batches opts in by implementing {@link BatchSink}.
  *
  * @param <T>
  * @since 0.3.2
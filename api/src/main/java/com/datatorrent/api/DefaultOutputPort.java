@@ -59,6 +59,44 @@ public class DefaultOutputPort<T> implements Operator.OutputPort<T>
     sink.put(tuple);
   }
 
+  /**
+   * Emit the tuples in the given range of the array, in order, as payloads for downstream operators interested in
+   * this port. The tuples are handed to the downstream in one call when it is a {@link BatchSink}. The array may be
+   * reused after the call returns.
+   *
+   * @param tuples payloads which need to be emitted.
+   * @param offset index of the first tuple to emit.
+   * @param length number of the tuples to emit.
+   */
+  @SuppressWarnings("unchecked")
+  public void emitBatch(T[] tuples, int offset, int length)
+  {
+    if (offset < 0 || length < 0 || length > tuples.length - offset) {
+      throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for " +
+          tuples.length + " tuples");
+    }
+    verifyOperatorThread();
+    final Sink<Object> sink = this.sink;
+    if (sink instanceof BatchSink) {
+      ((BatchSink<Object>)sink).putAll(tuples, offset, length);
+    } else {
+      for (int i = offset, end = offset + length; i < end; i++) {
+        sink.put(tuples[i]);
+      }
+    }
+  }
+
+  /**
+   * Emit all the tuples of the array.
+   *
+   * @param tuples payloads which need to be emitted.
+   * @see #emitBatch(Object[], int, int)
+   */
+  public void emitBatch(T[] tuples)
+  {
+    emitBatch(tuples, 0, tuples.length);
+  }
+
   protected void verifyOperatorThread()
   {
     // operatorThread could be null if setup() never got called.
@@ -18,6 +18,8 @@
  */
 package com.datatorrent.api;
 
+import org.apache.hadoop.classification.InterfaceStability;
+
 import com.datatorrent.api.Context.OperatorContext;
 import com.datatorrent.api.Context.PortContext;
 import com.datatorrent.api.DAG.GenericOperator;
@@ -99,6 +101,41 @@ public interface Operator extends Component<OperatorContext>, GenericOperator
 
   }
 
+  /**
+   * Unifier whose aggregate of the tuples can be computed in parts and combined. When the output port is unified over
+   * a sliding window, the platform keeps one partial aggregate per application window and combines the partial
+   * aggregates when the sliding window is complete instead of passing all the tuples of the sliding window to
+   * {@link #process(Object)}.
+   *
+   * @param <T> Type of the tuple emitted by the output port which is being unified
+   * @param <A> Type of the aggregate
+   */
+  @InterfaceStability.Evolving
+  interface CombinableUnifier<T, A> extends Unifier<T>
+  {
+    /**
+     * @param tuple a tuple of the unified port
+     * @return aggregate of the single tuple
+     */
+    A aggregate(T tuple);
+
+    /**
+     * Combine two aggregates. The combination has to be associative and must not modify the given aggregates.
+     *
+     * @param older aggregate of the older tuples
+     * @param newer aggregate of the newer tuples
+     * @return aggregate of all the tuples
+     */
+    A combine(A older, A newer);
+
+    /**
+     * Emit the aggregate of the tuples of a complete sliding window. Not called when the sliding window has no tuples.
+     *
+     * @param aggregate aggregate of the sliding window
+     */
+    void emitAggregate(A aggregate);
+  }
+
   /**
    * DelayOperator is an operator of which the outgoing streaming window id is incremented by *one* by the
    * engine, thus allowing loops in the "DAG". The output ports of a DelayOperator, if connected, *must*
@@ -40,11 +40,20 @@ public interface Stats extends Serializable
   {
     public long checkpointStartTime;
     public long checkpointTime;
+    /**
+     * Number of the bytes of the checkpoint before the compression, 0 if not reported by the storage agent
+     */
+    public long checkpointRawSize;
+    /**
+     * Number of the bytes of the checkpoint stored, 0 if not reported by the storage agent
+     */
+    public long checkpointSize;
 
     @Override
     public String toString()
     {
-      return "CheckpointStats{" + "checkpointStartTime=" + checkpointStartTime + ", checkpointTime=" + checkpointTime + '}';
+      return "CheckpointStats{" + "checkpointStartTime=" + checkpointStartTime + ", checkpointTime=" + checkpointTime +
+          ", checkpointRawSize=" + checkpointRawSize + ", checkpointSize=" + checkpointSize + '}';
     }
   }
 
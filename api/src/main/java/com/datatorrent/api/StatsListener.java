@@ -26,6 +26,8 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.List;
 
+import org.apache.hadoop.classification.InterfaceStability;
+
 import com.datatorrent.api.Stats.OperatorStats;
 
 
@@ -115,6 +117,27 @@ public interface StatsListener
     List<OperatorResponse> getOperatorResponse();
   }
 
+  /**
+   * Operator stats with the percentiles of the recent latencies of the operator and the queue sizes of its input
+   * ports, in addition to the moving averages.
+   */
+  @InterfaceStability.Evolving
+  interface PercentileOperatorStats extends BatchedOperatorStats
+  {
+    /**
+     * @param percentile the fraction of the values below the percentile, for example 0.99
+     * @return the percentile of the recent latencies of the operator in milliseconds
+     */
+    long getLatencyPercentile(double percentile);
+
+    /**
+     * @param portName name of the input port
+     * @param percentile the fraction of the values below the percentile, for example 0.99
+     * @return the percentile of the recent queue sizes of the input port, 0 if the port is not known
+     */
+    long getQueueSizePercentile(String portName, double percentile);
+  }
+
   class Response implements Serializable
   {
     /**
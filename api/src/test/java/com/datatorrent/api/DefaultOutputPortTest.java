@@ -77,6 +77,35 @@ public class DefaultOutputPortTest
     // if it comes here it passes
   }
 
+  @Test
+  public void testEmitBatch()
+  {
+    final StringBuilder received = new StringBuilder();
+    DefaultInputPort<Object> inputPort = new DefaultInputPort<Object>()
+    {
+      @Override
+      public void process(Object tuple)
+      {
+        received.append(tuple);
+      }
+    };
+    port.setSink(inputPort);
+    port.setup(null);
+    port.emitBatch(new Object[] {"a", "b", "c", "d"}, 1, 2);
+    Assert.assertEquals("bc", received.toString());
+    Assert.assertEquals(2, inputPort.getCount(false));
+
+    port.setSink(sink);
+    port.emitBatch(new Object[] {"a", "b", "c"});
+    Assert.assertEquals(3, sink.getCount(false));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testEmitBatchOutOfBounds()
+  {
+    port.emitBatch(new Object[] {"a", "b"}, 1, 2);
+  }
+
   volatile boolean pass = false;
 
   /*
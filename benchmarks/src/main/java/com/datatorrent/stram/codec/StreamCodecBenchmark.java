@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.codec;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.datatorrent.stram.codec.StatefulStreamCodec.DataStatePair;
+
+/**
+ * Serialization of the tuples by the default stream codec, on its own and followed by the deserialization by the
+ * codec of a downstream operator that has already received the codec state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamCodecBenchmark
+{
+  @Param({"string", "pojo"})
+  public String payload;
+
+  private Object tuple;
+  private DefaultStatefulStreamCodec<Object> upstream;
+  private DefaultStatefulStreamCodec<Object> downstream;
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    switch (payload) {
+      case "string":
+        tuple = "The quick brown fox jumps over the lazy dog";
+        break;
+
+      case "pojo":
+        tuple = new Event(42, System.currentTimeMillis(), "The quick brown fox", 3.14);
+        break;
+
+      default:
+        throw new IllegalArgumentException("Unknown payload " + payload);
+    }
+
+    upstream = new DefaultStatefulStreamCodec<>();
+    downstream = new DefaultStatefulStreamCodec<>();
+    /* the first tuple carries the registration of its class in the codec state */
+    downstream.fromDataStatePair(upstream.toDataStatePair(tuple));
+  }
+
+  @Benchmark
+  public DataStatePair serialize()
+  {
+    return upstream.toDataStatePair(tuple);
+  }
+
+  @Benchmark
+  public Object roundTrip()
+  {
+    return downstream.fromDataStatePair(upstream.toDataStatePair(tuple));
+  }
+
+  /**
+   * Tuple with the mix of the field types typical for the application tuples.
+   */
+  public static class Event
+  {
+    int id;
+    long timestamp;
+    String name;
+    double value;
+
+    @SuppressWarnings("unused")
+    private Event()
+    {
+    }
+
+    Event(int id, long timestamp, String name, double value)
+    {
+      this.id = id;
+      this.timestamp = timestamp;
+      this.name = name;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.datatorrent.api.Attribute.AttributeMap.DefaultAttributeMap;
+import com.datatorrent.api.DefaultInputPort;
+import com.datatorrent.api.DefaultOutputPort;
+import com.datatorrent.api.Sink;
+import com.datatorrent.api.annotation.InputPortFieldAnnotation;
+import com.datatorrent.bufferserver.packet.MessageType;
+import com.datatorrent.common.util.BaseOperator;
+import com.datatorrent.stram.tuple.EndWindowTuple;
+import com.datatorrent.stram.tuple.Tuple;
+
+/**
+ * Rate of the windows processed by a generic node running in its own thread. Each invocation puts a window with the
+ * given number of data tuples into every input port of the node and waits until the node emits the end window, so
+ * the score measures the window boundary processing of the node: synchronizing the begin and end windows of the
+ * input ports, calling the operator callbacks, reporting the stats and handling the requests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericNodeBenchmark
+{
+  @Param({"1", "2"})
+  public int inputPorts;
+
+  @Param({"0", "100"})
+  public int tuplesPerWindow;
+
+  private final Object tuple = new Object();
+  private GenericNode node;
+  private Thread thread;
+  private AbstractReservoir[] reservoirs;
+  private EndWindowCounter output;
+  private long windowId;
+
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    node = new GenericNode(new PassThroughOperator(), new OperatorContext(1, "operator", new DefaultAttributeMap(),
+        null));
+    node.setId(1);
+    reservoirs = new AbstractReservoir[inputPorts];
+    for (int i = 0; i < inputPorts; i++) {
+      reservoirs[i] = AbstractReservoir.newReservoir("input" + i, 16 * 1024);
+      node.connectInputPort("input" + i, reservoirs[i]);
+    }
+    output = new EndWindowCounter();
+    node.connectOutputPort("output", output);
+    node.firstWindowMillis = 0;
+    node.windowWidthMillis = 500;
+
+    thread = new Thread("benchmark-node")
+    {
+      @Override
+      public void run()
+      {
+        node.activate();
+        node.run();
+        node.deactivate();
+      }
+    };
+    thread.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() throws InterruptedException
+  {
+    node.shutdown();
+    thread.join();
+  }
+
+  @Benchmark
+  public void window() throws InterruptedException
+  {
+    windowId++;
+    final Tuple beginWindow = new Tuple(MessageType.BEGIN_WINDOW, windowId);
+    final Tuple endWindow = new EndWindowTuple(windowId);
+    for (AbstractReservoir reservoir : reservoirs) {
+      reservoir.put(beginWindow);
+      for (int i = tuplesPerWindow; i-- > 0; ) {
+        reservoir.put(tuple);
+      }
+      reservoir.put(endWindow);
+    }
+
+    while (output.endWindows < windowId) {
+      Thread.yield();
+    }
+  }
+
+  public static class PassThroughOperator extends BaseOperator
+  {
+    public final transient DefaultOutputPort<Object> output = new DefaultOutputPort<>();
+
+    public final transient DefaultInputPort<Object> input0 = new DefaultInputPort<Object>()
+    {
+      @Override
+      public void process(Object tuple)
+      {
+        output.emit(tuple);
+      }
+    };
+
+    @InputPortFieldAnnotation(optional = true)
+    public final transient DefaultInputPort<Object> input1 = new DefaultInputPort<Object>()
+    {
+      @Override
+      public void process(Object tuple)
+      {
+        output.emit(tuple);
+      }
+    };
+  }
+
+  private static class EndWindowCounter implements Sink<Object>
+  {
+    volatile long endWindows;
+
+    @Override
+    public void put(Object tuple)
+    {
+      if (tuple instanceof EndWindowTuple) {
+        endWindows = ((EndWindowTuple)tuple).getWindowId();
+      }
+    }
+
+    @Override
+    public int getCount(boolean reset)
+    {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import com.datatorrent.api.Sink;
+
+/**
+ * Throughput of the data tuples passed through a reservoir by a single producer thread that puts the tuples and a
+ * single consumer thread that sweeps them into the sink, as an output port and the node reading the input port do.
+ * Each put operation adds a tuple and each sweep operation moves at least one tuple to the sink; the number of the
+ * tuples moved to the sink is reported as the swept secondary metric.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservoirBenchmark
+{
+  @Param({"SpscArrayQueueReservoir", "SpscArrayBlockingQueueReservoir", "CircularBufferReservoir",
+      "ArrayBlockingQueueReservoir"})
+  public String reservoirClass;
+
+  @Param("16384")
+  public int capacity;
+
+  private final Object tuple = new Object();
+  private AbstractReservoir reservoir;
+  private CountingSink sink;
+
+  @Setup(Level.Iteration)
+  public void setup()
+  {
+    final String property = System.getProperty(AbstractReservoir.reservoirClassNameProperty);
+    System.setProperty(AbstractReservoir.reservoirClassNameProperty,
+        AbstractReservoir.class.getName() + '$' + reservoirClass);
+    try {
+      reservoir = AbstractReservoir.newReservoir("benchmark", capacity);
+    } finally {
+      if (property == null) {
+        System.clearProperty(AbstractReservoir.reservoirClassNameProperty);
+      } else {
+        System.setProperty(AbstractReservoir.reservoirClassNameProperty, property);
+      }
+    }
+    sink = new CountingSink();
+    reservoir.setSink(sink);
+  }
+
+  @Benchmark
+  @Group("spsc")
+  @GroupThreads(1)
+  public void put(Control control)
+  {
+    while (!reservoir.offer(tuple) && !control.stopMeasurement) {
+      Thread.yield();
+    }
+  }
+
+  @Benchmark
+  @Group("spsc")
+  @GroupThreads(1)
+  public void sweep(Control control, SweptTuples swept)
+  {
+    do {
+      reservoir.sweep();
+    } while (sink.count == 0 && !control.stopMeasurement);
+    swept.swept += sink.count;
+    sink.count = 0;
+  }
+
+  /**
+   * Number of the tuples the consumer moved to the sink.
+   */
+  @AuxCounters
+  @State(Scope.Thread)
+  public static class SweptTuples
+  {
+    public long swept;
+
+    @Setup(Level.Iteration)
+    public void reset()
+    {
+      swept = 0;
+    }
+  }
+
+  private static class CountingSink implements Sink<Object>
+  {
+    long count;
+
+    @Override
+    public void put(Object tuple)
+    {
+      count++;
+    }
+
+    @Override
+    public int getCount(boolean reset)
+    {
+      return (int)count;
+    }
+  }
+}
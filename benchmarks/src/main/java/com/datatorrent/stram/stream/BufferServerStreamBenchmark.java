@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.stream;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.datatorrent.api.Sink;
+import com.datatorrent.bufferserver.packet.MessageType;
+import com.datatorrent.bufferserver.server.Server;
+import com.datatorrent.netlet.DefaultEventLoop;
+import com.datatorrent.stram.codec.DefaultStatefulStreamCodec;
+import com.datatorrent.stram.engine.StreamContext;
+import com.datatorrent.stram.engine.SweepableReservoir;
+import com.datatorrent.stram.engine.WindowGenerator;
+import com.datatorrent.stram.tuple.EndWindowTuple;
+import com.datatorrent.stram.tuple.ResetWindowTuple;
+import com.datatorrent.stram.tuple.Tuple;
+
+/**
+ * Throughput of the tuples published to a buffer server over the loopback interface and received by a subscriber,
+ * including the serialization and the deserialization by the default stream codec. Each invocation publishes a window
+ * and waits until the subscriber receives its end window. The windows received by the subscriber are purged from the
+ * buffer server the way the container purges the committed windows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferServerStreamBenchmark
+{
+  private static final String STREAM = "benchmarkStream";
+  private static final String PUBLISHER = "publisher";
+  private static final String SUBSCRIBER = "subscriber";
+  private static final int TUPLES_PER_WINDOW = 1000;
+  private static final int WINDOW_WIDTH_MILLIS = 500;
+
+  /**
+   * size of the chunks the publisher serializes the tuples into, 0 to serialize each tuple into an array of its own.
+   */
+  @Param({"0", "65536"})
+  public int publisherBufferSize;
+
+  private final String tuple = "The quick brown fox jumps over the lazy dog";
+  private DefaultEventLoop eventloop;
+  private Server server;
+  private BufferServerPublisher publisher;
+  private BufferServerSubscriber subscriber;
+  private SweepableReservoir reservoir;
+  private long baseSeconds;
+  private int windowId;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException
+  {
+    eventloop = DefaultEventLoop.createEventLoop("benchmark");
+    eventloop.start();
+    server = new Server(eventloop, 0, 4 * 1024 * 1024, 8);
+    final int port = server.run().getPort();
+
+    final DefaultStatefulStreamCodec<Object> codec = new DefaultStatefulStreamCodec<>();
+    StreamContext subscriberContext = new StreamContext(STREAM);
+    subscriberContext.setSourceId(PUBLISHER);
+    subscriberContext.setSinkId(SUBSCRIBER);
+    subscriberContext.setFinishedWindowId(-1);
+    subscriberContext.setBufferServerAddress(InetSocketAddress.createUnresolved("localhost", port));
+    subscriberContext.put(StreamContext.CODEC, codec);
+    subscriberContext.put(StreamContext.EVENT_LOOP, eventloop);
+    subscriber = new BufferServerSubscriber(SUBSCRIBER, 1024);
+    subscriber.setup(subscriberContext);
+    reservoir = subscriber.acquireReservoir("benchmark", 16 * 1024);
+    reservoir.setSink(Sink.BLACKHOLE);
+
+    StreamContext publisherContext = new StreamContext(STREAM);
+    publisherContext.setSourceId(PUBLISHER);
+    publisherContext.setSinkId(SUBSCRIBER);
+    publisherContext.setFinishedWindowId(-1);
+    publisherContext.setBufferServerAddress(InetSocketAddress.createUnresolved("localhost", port));
+    publisherContext.put(StreamContext.CODEC, codec);
+    publisherContext.put(StreamContext.EVENT_LOOP, eventloop);
+    publisher = new BufferServerPublisher(PUBLISHER, 1024, publisherBufferSize);
+    publisher.setup(publisherContext);
+
+    subscriber.activate(subscriberContext);
+    publisher.activate(publisherContext);
+
+    baseSeconds = 1L << 32;
+    publisher.put(new ResetWindowTuple(baseSeconds | WINDOW_WIDTH_MILLIS));
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown()
+  {
+    publisher.deactivate();
+    subscriber.deactivate();
+    server.stop();
+    eventloop.stop();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TUPLES_PER_WINDOW)
+  public void publishSubscribe()
+  {
+    if (++windowId > WindowGenerator.MAX_WINDOW_ID) {
+      baseSeconds += 1L << 32;
+      windowId = 1;
+      publisher.put(new ResetWindowTuple(baseSeconds | WINDOW_WIDTH_MILLIS));
+    }
+
+    publisher.put(new Tuple(MessageType.BEGIN_WINDOW, baseSeconds | windowId));
+    for (int i = TUPLES_PER_WINDOW; i-- > 0; ) {
+      publisher.put(tuple);
+    }
+    publisher.put(new EndWindowTuple(baseSeconds | windowId));
+
+    Tuple t;
+    do {
+      while ((t = reservoir.sweep()) == null) {
+        Thread.yield();
+      }
+      reservoir.remove();
+    } while (!(t instanceof EndWindowTuple));
+
+    server.purge(baseSeconds | (windowId - 1));
+  }
+}
@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.datatorrent.bufferserver.packet.PublishRequestTuple;
+import com.datatorrent.bufferserver.server.Server;
 
 /**
  * <p>Abstract Publisher class.</p>
@@ -32,6 +33,7 @@ import com.datatorrent.bufferserver.packet.PublishRequestTuple;
 public abstract class Publisher extends AuthClient
 {
   private final String id;
+  private Server.InProcessPublisher inProcessConnection;
 
   public Publisher(String id)
   {
@@ -54,6 +56,47 @@ public abstract class Publisher extends AuthClient
     write(PublishRequestTuple.getSerializedRequest(version, id, windowId));
   }
 
+  /**
+   * Publish through a buffer server running in this JVM. The messages are written into the memory of the server
+   * instead of being sent over a socket.
+   *
+   * @param server the buffer server
+   * @param windowId window the publisher starts publishing at
+   */
+  public void connectInProcess(Server server, long windowId)
+  {
+    inProcessConnection = server.connectPublisher(id, windowId);
+  }
+
+  /**
+   * @return true if the publisher is connected to a buffer server in this JVM
+   */
+  public boolean isConnectedInProcess()
+  {
+    return inProcessConnection != null;
+  }
+
+  /**
+   * Send the message to the buffer server in this JVM.
+   *
+   * @return false if the server has no memory for the message, the message needs to be sent again later
+   */
+  public boolean sendInProcess(byte[] array, int offset, int length)
+  {
+    return inProcessConnection.send(array, offset, length);
+  }
+
+  /**
+   * Disconnect from the buffer server in this JVM.
+   */
+  public void disconnectInProcess()
+  {
+    if (inProcessConnection != null) {
+      inProcessConnection.disconnect();
+      inProcessConnection = null;
+    }
+  }
+
   @Override
   public String toString()
   {
@@ -23,6 +23,8 @@ import java.util.Collection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.datatorrent.bufferserver.server.Server;
+
 import static com.datatorrent.bufferserver.packet.SubscribeRequestTuple.getSerializedRequest;
 
 /**
@@ -38,7 +40,15 @@ import static com.datatorrent.bufferserver.packet.SubscribeRequestTuple.getSeria
  */
 public abstract class Subscriber extends AuthClient
 {
+  private static final int IN_PROCESS_BUFFER_SIZE = 64 * 1024;
   private final String id;
+  private volatile Server.InProcessSubscriber inProcessConnection;
+  private volatile boolean readSuspended;
+  /**
+   * the messages received in process are copied into this buffer, which is replaced by a new one when full.
+   */
+  private byte[] inProcessBuffer;
+  private int inProcessOffset;
 
   public Subscriber(String id)
   {
@@ -53,6 +63,98 @@ public abstract class Subscriber extends AuthClient
     write(getSerializedRequest(version, id, type, sourceId, mask, partitions, windowId, bufferSize));
   }
 
+  /**
+   * Subscribe through a buffer server running in this JVM. The server passes the messages to {@link #receive} from the
+   * memory of the publisher instead of sending them over a socket, suspending the read stops the server from passing
+   * more messages until the read is resumed.
+   *
+   * @param server the buffer server
+   * @param type stream type
+   * @param sourceId identifier of the upstream publisher
+   * @param mask partition mask
+   * @param partitions partitions of the subscriber
+   * @param windowId window the subscriber receives the data after
+   */
+  public void connectInProcess(final Server server, final String type, final String sourceId, final int mask,
+      final Collection<Integer> partitions, final long windowId)
+  {
+    inProcessConnection = server.connectSubscriber(this, id, type, sourceId, mask, partitions, windowId);
+  }
+
+  /**
+   * @return true if the subscriber is connected to a buffer server in this JVM
+   */
+  public boolean isConnectedInProcess()
+  {
+    return inProcessConnection != null;
+  }
+
+  /**
+   * Disconnect from the buffer server in this JVM.
+   */
+  public void disconnectInProcess()
+  {
+    if (inProcessConnection != null) {
+      inProcessConnection.disconnect();
+      inProcessConnection = null;
+    }
+  }
+
+  /**
+   * Receive a message from the buffer server in this JVM. The buffer holds the data of the publisher, which is reused
+   * once the data is purged, so the message is copied before it is passed to {@link #onMessage}. Like the read buffer
+   * of a socket, the copies are made into a buffer which is replaced instead of overwritten when full.
+   *
+   * @return false if the read is suspended and the message needs to be passed again later
+   */
+  public boolean receive(byte[] buffer, int offset, int size)
+  {
+    if (readSuspended) {
+      return false;
+    }
+    if (inProcessBuffer == null || inProcessBuffer.length - inProcessOffset < size) {
+      inProcessBuffer = new byte[Math.max(IN_PROCESS_BUFFER_SIZE, size)];
+      inProcessOffset = 0;
+    }
+    System.arraycopy(buffer, offset, inProcessBuffer, inProcessOffset, size);
+    final int messageOffset = inProcessOffset;
+    inProcessOffset += size;
+    onMessage(inProcessBuffer, messageOffset, size);
+    return true;
+  }
+
+  @Override
+  public boolean isReadSuspended()
+  {
+    return inProcessConnection == null ? super.isReadSuspended() : readSuspended;
+  }
+
+  @Override
+  public boolean suspendReadIfResumed()
+  {
+    if (inProcessConnection == null) {
+      return super.suspendReadIfResumed();
+    }
+    if (readSuspended) {
+      return false;
+    }
+    readSuspended = true;
+    return true;
+  }
+
+  @Override
+  public boolean resumeReadIfSuspended()
+  {
+    if (inProcessConnection == null) {
+      return super.resumeReadIfSuspended();
+    }
+    if (!readSuspended) {
+      return false;
+    }
+    readSuspended = false;
+    return true;
+  }
+
   @Override
   public String toString()
   {
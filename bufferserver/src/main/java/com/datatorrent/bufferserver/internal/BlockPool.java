@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.bufferserver.internal;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of the memory blocks shared by the data lists of a buffer server.<p>
+ * <br>
+ * Data lists return the blocks of the purged data nobody reads anymore to the pool and take the blocks for the new
+ * data and for the data retrieved from the secondary storage from it. The blocks of the rewound and reset data are
+ * not returned as the pending writes of the subscribers may still refer to them. The pool keeps at most the
+ * configured number of blocks, the blocks returned to a full pool are left to the garbage collector.
+ * <br>
+ */
+public class BlockPool
+{
+  private final int blockSize;
+  private final ArrayDeque<byte[]> blocks = new ArrayDeque<>();
+  private int maxPooledBlocks;
+  private long allocatedBlockCount;
+  private long reusedBlockCount;
+  private long droppedBlockCount;
+
+  /**
+   *
+   * @param blockSize size of the blocks in the pool
+   * @param maxPooledBlocks maximum number of the blocks the pool keeps
+   */
+  public BlockPool(int blockSize, int maxPooledBlocks)
+  {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("Invalid block size " + blockSize);
+    }
+    this.blockSize = blockSize;
+    setMaxPooledBlocks(maxPooledBlocks);
+  }
+
+  public int getBlockSize()
+  {
+    return blockSize;
+  }
+
+  /**
+   * Take a block from the pool or allocate a new one if the pool is empty.
+   *
+   * @return block of the pool block size
+   */
+  public byte[] allocate()
+  {
+    synchronized (blocks) {
+      final byte[] block = blocks.poll();
+      if (block != null) {
+        reusedBlockCount++;
+        return block;
+      }
+      allocatedBlockCount++;
+    }
+    return new byte[blockSize];
+  }
+
+  /**
+   * Return the block to the pool. The caller must not access the block after it is released.
+   *
+   * @param block the block to return
+   * @return true if the block was added to the pool
+   */
+  public boolean release(byte[] block)
+  {
+    if (block.length == blockSize) {
+      synchronized (blocks) {
+        if (blocks.size() < maxPooledBlocks) {
+          blocks.push(block);
+          return true;
+        }
+        droppedBlockCount++;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Set the maximum number of blocks the pool keeps, blocks above the new maximum are dropped.
+   *
+   * @param maxPooledBlocks the maximum number of the blocks
+   */
+  public void setMaxPooledBlocks(int maxPooledBlocks)
+  {
+    if (maxPooledBlocks < 0) {
+      throw new IllegalArgumentException("Invalid maximum number of pooled blocks " + maxPooledBlocks);
+    }
+    synchronized (blocks) {
+      this.maxPooledBlocks = maxPooledBlocks;
+      while (blocks.size() > maxPooledBlocks) {
+        blocks.poll();
+        droppedBlockCount++;
+      }
+    }
+  }
+
+  public int getMaxPooledBlocks()
+  {
+    synchronized (blocks) {
+      return maxPooledBlocks;
+    }
+  }
+
+  /**
+   * @return number of the blocks currently held by the pool
+   */
+  public int getPooledBlockCount()
+  {
+    synchronized (blocks) {
+      return blocks.size();
+    }
+  }
+
+  /**
+   * @return number of the bytes currently held by the pool
+   */
+  public long getPooledBytes()
+  {
+    return (long)getPooledBlockCount() * blockSize;
+  }
+
+  /**
+   * @return number of the blocks allocated because the pool was empty
+   */
+  public long getAllocatedBlockCount()
+  {
+    synchronized (blocks) {
+      return allocatedBlockCount;
+    }
+  }
+
+  /**
+   * @return number of the blocks taken from the pool
+   */
+  public long getReusedBlockCount()
+  {
+    synchronized (blocks) {
+      return reusedBlockCount;
+    }
+  }
+
+  /**
+   * @return number of the blocks left to the garbage collector because the pool was full
+   */
+  public long getDroppedBlockCount()
+  {
+    synchronized (blocks) {
+      return droppedBlockCount;
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    synchronized (blocks) {
+      return getClass().getSimpleName() + '@' + Integer.toHexString(hashCode()) + "{blockSize=" + blockSize +
+          ", pooled=" + blocks.size() + ", maxPooled=" + maxPooledBlocks + ", allocated=" + allocatedBlockCount +
+          ", reused=" + reusedBlockCount + ", dropped=" + droppedBlockCount + '}';
+    }
+  }
+}
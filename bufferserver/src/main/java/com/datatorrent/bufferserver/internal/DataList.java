@@ -34,8 +34,10 @@ import org.slf4j.LoggerFactory;
 
 import com.datatorrent.bufferserver.packet.BeginWindowTuple;
 import com.datatorrent.bufferserver.packet.MessageType;
+import com.datatorrent.bufferserver.packet.PayloadTuple;
 import com.datatorrent.bufferserver.packet.ResetWindowTuple;
 import com.datatorrent.bufferserver.packet.Tuple;
+import com.datatorrent.bufferserver.storage.BufferedStorage;
 import com.datatorrent.bufferserver.storage.Storage;
 import com.datatorrent.bufferserver.util.BitVector;
 import com.datatorrent.bufferserver.util.Codec;
@@ -70,21 +72,37 @@ public class DataList
   protected long baseSeconds;
   private final Set<AbstractClient> suspendedClients = newHashSet();
   private final AtomicInteger numberOfInMemBlockPermits;
+  /**
+   * pool for the memory blocks of the purged data nobody reads anymore. Blocks of the rewound and reset data and blocks
+   * released to the secondary storage are not returned to the pool as subscribers may still have the data queued for
+   * sending.
+   */
+  private final BlockPool blockPool;
   private MutableInt nextOffset = new MutableInt();
   private final ListenersNotifier listenersNotifier = new ListenersNotifier();
   private final boolean backPressureEnabled;
 
   public DataList(final String identifier, final int blockSize, final int numberOfCacheBlocks, final boolean backPressureEnabled)
+  {
+    this(identifier, blockSize, numberOfCacheBlocks, backPressureEnabled, new BlockPool(blockSize, 0));
+  }
+
+  public DataList(final String identifier, final int blockSize, final int numberOfCacheBlocks,
+      final boolean backPressureEnabled, final BlockPool blockPool)
   {
     if (numberOfCacheBlocks < 1) {
       throw new IllegalArgumentException("Invalid number of Data List Memory blocks " + numberOfCacheBlocks);
     }
+    if (blockPool.getBlockSize() != blockSize) {
+      throw new IllegalArgumentException("Block pool " + blockPool + " does not match block size " + blockSize);
+    }
+    this.blockPool = blockPool;
     this.MAX_COUNT_OF_INMEM_BLOCKS = numberOfCacheBlocks;
     numberOfInMemBlockPermits = new AtomicInteger(MAX_COUNT_OF_INMEM_BLOCKS - 1);
     this.identifier = identifier;
     this.blockSize = blockSize;
     this.backPressureEnabled = backPressureEnabled;
-    first = last = new Block(identifier, blockSize);
+    first = last = new Block(identifier, blockPool.allocate());
   }
 
   public DataList(String identifier)
@@ -123,6 +141,7 @@ public class DataList
                   throw new IllegalStateException("Discarded block " + temp + " has positive reference count!");
                 }
                 if (temp.data != null) {
+                  /* the subscribers may still send slices of the discarded data, it is left to the garbage collector */
                   temp.data = null;
                   numberOfInMemBlockRewound++;
                 }
@@ -160,17 +179,18 @@ public class DataList
     all_listeners.clear();
 
     synchronized (this) {
-      if (storage != null) {
-        Block temp = first;
-        while (temp != last) {
-          temp.discard(false);
-          synchronized (temp) {
-            if (temp.refCount.get() != 0) {
+      Block temp = first;
+      while (temp != last) {
+        temp.discard(false);
+        synchronized (temp) {
+          if (temp.refCount.get() != 0) {
+            if (storage != null) {
               throw new IllegalStateException("Discarded block " + temp + " not zero reference count!");
             }
+          } else {
             temp.data = null;
-            temp = temp.next;
           }
+          temp = temp.next;
         }
       }
       first = last;
@@ -185,6 +205,7 @@ public class DataList
         Codec.getStringWindowId(windowId));
 
     int numberOfInMemBlockPurged = 0;
+    final ArrayList<byte[]> released = new ArrayList<>();
     synchronized (this) {
       for (Block prev = null, temp = first; temp != null && temp.starting_window <= windowId;
           prev = temp, temp = temp.next) {
@@ -203,6 +224,7 @@ public class DataList
             throw new IllegalStateException("Discarded block " + temp + " has positive reference count!");
           }
           if (temp.data != null) {
+            released.add(temp.data);
             temp.data = null;
             numberOfInMemBlockPurged++;
           }
@@ -211,6 +233,7 @@ public class DataList
     }
 
     final int numberOfInMemBlockPermits = this.numberOfInMemBlockPermits.addAndGet(numberOfInMemBlockPurged);
+    recycleBuffers(released);
     assert numberOfInMemBlockPermits < MAX_COUNT_OF_INMEM_BLOCKS : "Number of in memory block permits " +
         numberOfInMemBlockPermits + " exceeded configured maximum " + MAX_COUNT_OF_INMEM_BLOCKS + '.';
     resumeSuspendedClients(numberOfInMemBlockPermits);
@@ -332,6 +355,19 @@ public class DataList
     return getIterator(temp);
   }
 
+  /**
+   * Create an iterator positioned at the same data as the passed iterator.
+   *
+   * @param position the iterator whose position the new iterator starts at
+   * @return new iterator
+   */
+  DataListIterator newIterator(DataListIterator position)
+  {
+    final DataListIterator iterator = getIterator(position.da);
+    iterator.readOffset = position.readOffset;
+    return iterator;
+  }
+
   public void addDataListener(DataListener dl)
   {
     all_listeners.add(dl);
@@ -415,7 +451,19 @@ public class DataList
           "Proceeding with allocating larger block that may cause out of memory exception.", size, blockSize);
       return new byte[size];
     }
-    return new byte[blockSize];
+    return blockPool.allocate();
+  }
+
+  private void recycleBuffers(final ArrayList<byte[]> arrays)
+  {
+    for (byte[] array : arrays) {
+      blockPool.release(array);
+    }
+  }
+
+  public BlockPool getBlockPool()
+  {
+    return blockPool;
   }
 
   public synchronized void addBuffer(byte[] array)
@@ -539,6 +587,10 @@ public class DataList
      * when the data is null, uniqueIdentifier is the identifier in the backup storage to retrieve the object.
      */
     int uniqueIdentifier;
+    /**
+     * the offset of the first byte of the data stored in the backup storage.
+     */
+    int spooledOffset;
     /**
      * the next in the chain.
      */
@@ -731,11 +783,24 @@ public class DataList
         @Override
         public void run()
         {
-          byte[] data = storage.retrieve(identifier, uniqueIdentifier);
+          byte[] data = null;
+          int offset = 0;
+          if (storage instanceof BufferedStorage && writingOffset == blockSize) {
+            data = blockPool.allocate();
+            offset = spooledOffset;
+            if (((BufferedStorage)storage).retrieve(identifier, uniqueIdentifier, data, offset) != blockSize - offset) {
+              blockPool.release(data);
+              data = null;
+            }
+          }
+          if (data == null) {
+            data = storage.retrieve(identifier, uniqueIdentifier);
+            offset = 0;
+          }
           synchronized (Block.this) {
             if (Block.this.data == null) {
               Block.this.data = data;
-              readingOffset = 0;
+              readingOffset = offset;
               writingOffset = data.length;
               Block.this.notifyAll();
               int numberOfInMemBlockPermits = DataList.this.numberOfInMemBlockPermits.decrementAndGet();
@@ -744,6 +809,7 @@ public class DataList
               }
             } else {
               logger.debug("Block {} was already loaded into memory", Block.this);
+              blockPool.release(data);
             }
           }
         }
@@ -794,6 +860,7 @@ public class DataList
         public void run()
         {
           if (uniqueIdentifier == 0) {
+            spooledOffset = readingOffset;
             uniqueIdentifier = storage.store(identifier, data, readingOffset, writingOffset);
           }
           if (uniqueIdentifier == 0) {
@@ -1043,6 +1110,25 @@ public class DataList
       size = 0;
     }
 
+    /**
+     * Move this iterator to the position of the other iterator.
+     *
+     * @param other the iterator to move to
+     */
+    void moveTo(DataListIterator other)
+    {
+      if (da != other.da) {
+        other.da.acquire(true);
+        if (da != null) {
+          da.release(false, false);
+        }
+        da = other.da;
+        buffer = da.data;
+      }
+      readOffset = other.readOffset;
+      size = 0;
+    }
+
     @Override
     public String toString()
     {
@@ -1074,18 +1160,117 @@ public class DataList
       }
     }
 
+    private final ArrayList<DataListener> individualListeners = new ArrayList<>();
+    private final ArrayList<ArrayList<LogicalNode>> groups = new ArrayList<>();
+
     private boolean addedData()
     {
       boolean doesAtLeastOneListenerHaveDataToSend = false;
+      try {
+        group();
+        for (ArrayList<LogicalNode> group : groups) {
+          if (group.size() > 1) {
+            doesAtLeastOneListenerHaveDataToSend |= addedData(group);
+          } else {
+            individualListeners.add(group.get(0));
+          }
+        }
+
+        for (DataListener dl : individualListeners) {
+          try {
+            doesAtLeastOneListenerHaveDataToSend |= dl.addedData(false);
+          } catch (RuntimeException e) {
+            logger.error("{}: removing DataListener {} due to exception", DataList.this, dl, e);
+            removeDataListener(dl);
+            break;
+          }
+        }
+      } finally {
+        individualListeners.clear();
+        groups.clear();
+      }
+      return doesAtLeastOneListenerHaveDataToSend;
+    }
+
+    /**
+     * Group the caught up logical nodes that are ready to consume the data at the same position in the list, so that
+     * each such group reads the data once instead of once per logical node.
+     */
+    private void group()
+    {
+      outer:
       for (DataListener dl : all_listeners) {
+        if (dl instanceof LogicalNode) {
+          final LogicalNode ln = (LogicalNode)dl;
+          final DataListIterator iterator = ln.getIterator();
+          if (ln.isCaughtUp() && iterator.da != null && ln.isReady()) {
+            for (ArrayList<LogicalNode> group : groups) {
+              final DataListIterator other = group.get(0).getIterator();
+              if (other.da == iterator.da && other.readOffset == iterator.readOffset) {
+                group.add(ln);
+                continue outer;
+              }
+            }
+            final ArrayList<LogicalNode> group = new ArrayList<>();
+            group.add(ln);
+            groups.add(group);
+            continue;
+          }
+        }
+        individualListeners.add(dl);
+      }
+    }
+
+    /**
+     * Send the data to the group of logical nodes reading it with a single iterator. A logical node that can't take more
+     * data leaves the group at the position it reached.
+     *
+     * @param group logical nodes positioned at the same data
+     * @return true if at least one of the logical nodes has more data to send
+     */
+    private boolean addedData(ArrayList<LogicalNode> group)
+    {
+      final ArrayList<LogicalNode> nodes = new ArrayList<>(group);
+      boolean partitioned = false;
+      for (LogicalNode ln : nodes) {
+        partitioned |= ln.isPartitioned();
+      }
+
+      try (DataListIterator cursor = newIterator(nodes.get(0).getIterator())) {
         try {
-          doesAtLeastOneListenerHaveDataToSend |= dl.addedData(false);
+          while (!nodes.isEmpty() && cursor.hasNext()) {
+            final SerializedData data = cursor.next();
+            final int partition = partitioned && data.buffer[data.dataOffset] == MessageType.PAYLOAD_VALUE ?
+                PayloadTuple.getPartition(data.buffer, data.dataOffset) : 0;
+            for (int i = nodes.size(); i-- > 0; ) {
+              final LogicalNode ln = nodes.get(i);
+              try {
+                if (ln.dispatch(data, partition)) {
+                  continue;
+                }
+              } catch (Exception e) {
+                logger.error("Disconnecting {}", ln, e);
+                ln.boot();
+              }
+              ln.getIterator().moveTo(cursor);
+              nodes.remove(i);
+            }
+          }
         } catch (RuntimeException e) {
-          logger.error("{}: removing DataListener {} due to exception", DataList.this, dl, e);
-          removeDataListener(dl);
-          break;
+          logger.error("{}: disconnecting {} due to exception", DataList.this, nodes, e);
+          for (LogicalNode ln : nodes) {
+            ln.boot();
+          }
+        }
+        for (LogicalNode ln : nodes) {
+          ln.getIterator().moveTo(cursor);
         }
       }
+
+      boolean doesAtLeastOneListenerHaveDataToSend = false;
+      for (LogicalNode ln : group) {
+        doesAtLeastOneListenerHaveDataToSend |= ln.getIterator().hasNext();
+      }
       return doesAtLeastOneListenerHaveDataToSend;
     }
 
@@ -42,6 +42,12 @@ public class FastDataList extends DataList
     super(identifier, blocksize, numberOfCacheBlocks, backPressureEnabled);
   }
 
+  public FastDataList(String identifier, int blocksize, int numberOfCacheBlocks, boolean backPressureEnabled,
+      BlockPool blockPool)
+  {
+    super(identifier, blocksize, numberOfCacheBlocks, backPressureEnabled, blockPool);
+  }
+
   long item;
 
   @Override
@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import com.datatorrent.bufferserver.internal.DataList.DataListIterator;
 import com.datatorrent.bufferserver.packet.MessageType;
+import com.datatorrent.bufferserver.packet.PayloadTuple;
 import com.datatorrent.bufferserver.packet.Tuple;
 import com.datatorrent.bufferserver.policy.GiveAll;
 import com.datatorrent.bufferserver.policy.Policy;
@@ -46,11 +47,21 @@ import com.datatorrent.netlet.WriteOnlyClient;
  */
 public class LogicalNode implements DataListener
 {
+  /**
+   * largest partition mask for which the partitions are looked up in a table.
+   */
+  private static final int MAX_PARTITION_TABLE_MASK = 0xffff;
   private final String identifier;
   private final String upstream;
   private final String group;
   private final HashSet<PhysicalNode> physicalNodes;
   private final HashSet<BitVector> partitions;
+  /**
+   * partitions indexed by the partition value masked with partitionMask, null when the partitions use different masks
+   * or the mask is too large for a table.
+   */
+  private boolean[] partitionTable;
+  private int partitionMask;
   private final Policy policy = GiveAll.getInstance();
   private final DataListIterator iterator;
   private final long skipWindowId;
@@ -130,9 +141,49 @@ public class LogicalNode implements DataListener
    */
   public void addPartition(int partition, int mask)
   {
+    if (partitions.isEmpty()) {
+      partitionMask = mask;
+      partitionTable = mask >= 0 && mask <= MAX_PARTITION_TABLE_MASK ? new boolean[mask + 1] : null;
+    } else if (mask != partitionMask) {
+      partitionTable = null;
+    }
+    if (partitionTable != null) {
+      partitionTable[partition & mask] = true;
+    }
     partitions.add(new BitVector(partition, mask));
   }
 
+  /**
+   *
+   * @param partition partition of a payload tuple
+   * @return true if the payload tuple needs to be sent to this logical node
+   */
+  boolean matches(int partition)
+  {
+    if (partitions.isEmpty()) {
+      return true;
+    }
+    if (partitionTable != null) {
+      return partitionTable[partition & partitionMask];
+    }
+    for (BitVector bv : partitions) {
+      if (bv.matches(partition)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean isPartitioned()
+  {
+    return !partitions.isEmpty();
+  }
+
+  boolean isCaughtUp()
+  {
+    return caughtup;
+  }
+
   boolean ready = true;
 
   public boolean isReady()
@@ -237,61 +288,13 @@ public class LogicalNode implements DataListener
           /*
            * consume as much data as you can before running out of steam
            */
-          if (partitions.isEmpty()) {
-            while (ready && iterator.hasNext()) {
-              SerializedData data = iterator.next();
-              switch (data.buffer[data.dataOffset]) {
-                case MessageType.PAYLOAD_VALUE:
-                  ready = policy.distribute(physicalNodes, data);
-                  break;
-
-                case MessageType.NO_MESSAGE_VALUE:
-                case MessageType.NO_MESSAGE_ODD_VALUE:
-                  break;
-
-                case MessageType.RESET_WINDOW_VALUE:
-                  final int length = data.length - data.dataOffset + data.offset;
-                  Tuple resetWindow = Tuple.getTuple(data.buffer, data.dataOffset, length);
-                  baseSeconds = (long)resetWindow.getBaseSeconds() << 32;
-                  ready = GiveAll.getInstance().distribute(physicalNodes, data);
-                  break;
-
-                default:
-                  //logger.debug("sending data of type {}", MessageType.valueOf(data.buffer[data.dataOffset]));
-                  ready = GiveAll.getInstance().distribute(physicalNodes, data);
-                  break;
-              }
-            }
-          } else {
-            while (ready && iterator.hasNext()) {
-              SerializedData data = iterator.next();
-              final int length = data.length - data.dataOffset + data.offset;
-              switch (data.buffer[data.dataOffset]) {
-                case MessageType.PAYLOAD_VALUE:
-                  Tuple tuple = Tuple.getTuple(data.buffer, data.dataOffset, length);
-                  int value = tuple.getPartition();
-                  for (BitVector bv : partitions) {
-                    if (bv.matches(value)) {
-                      ready = policy.distribute(physicalNodes, data);
-                      break;
-                    }
-                  }
-                  break;
-
-                case MessageType.NO_MESSAGE_VALUE:
-                case MessageType.NO_MESSAGE_ODD_VALUE:
-                  break;
-
-                case MessageType.RESET_WINDOW_VALUE:
-                  tuple = Tuple.getTuple(data.buffer, data.dataOffset, length);
-                  baseSeconds = (long)tuple.getBaseSeconds() << 32;
-                  ready = GiveAll.getInstance().distribute(physicalNodes, data);
-                  break;
-
-                default:
-                  ready = GiveAll.getInstance().distribute(physicalNodes, data);
-                  break;
-              }
+          final boolean partitioned = isPartitioned();
+          while (ready && iterator.hasNext()) {
+            SerializedData data = iterator.next();
+            if (partitioned && data.buffer[data.dataOffset] == MessageType.PAYLOAD_VALUE) {
+              dispatch(data, PayloadTuple.getPartition(data.buffer, data.dataOffset));
+            } else {
+              dispatch(data, 0);
             }
           }
         } catch (Exception e) {
@@ -305,6 +308,42 @@ public class LogicalNode implements DataListener
     return iterator.hasNext();
   }
 
+  /**
+   * Send the data to the physical nodes of this logical node if the data is destined to it.
+   *
+   * @param data the data read by the iterator of this logical node or by an iterator shared by several logical nodes
+   * @param partition partition of the data if it is a payload tuple
+   * @return false if a physical node is blocked and the logical node can't take more data
+   * @throws InterruptedException
+   */
+  boolean dispatch(SerializedData data, int partition) throws InterruptedException
+  {
+    switch (data.buffer[data.dataOffset]) {
+      case MessageType.PAYLOAD_VALUE:
+        if (matches(partition)) {
+          ready = policy.distribute(physicalNodes, data);
+        }
+        break;
+
+      case MessageType.NO_MESSAGE_VALUE:
+      case MessageType.NO_MESSAGE_ODD_VALUE:
+        break;
+
+      case MessageType.RESET_WINDOW_VALUE:
+        final int length = data.length - data.dataOffset + data.offset;
+        Tuple resetWindow = Tuple.getTuple(data.buffer, data.dataOffset, length);
+        baseSeconds = (long)resetWindow.getBaseSeconds() << 32;
+        ready = GiveAll.getInstance().distribute(physicalNodes, data);
+        break;
+
+      default:
+        //logger.debug("sending data of type {}", MessageType.valueOf(data.buffer[data.dataOffset]));
+        ready = GiveAll.getInstance().distribute(physicalNodes, data);
+        break;
+    }
+    return ready;
+  }
+
   /**
    *
    * @param partitions
@@ -58,6 +58,19 @@ public class PayloadTuple extends Tuple
     return "PayloadTuple{" + getPartition() + ", " + getData() + '}';
   }
 
+  /**
+   * Read the partition of the serialized payload tuple without creating the tuple.
+   *
+   * @param buffer the buffer holding the serialized tuple
+   * @param offset the offset of the message type of the tuple in the buffer
+   * @return partition of the tuple
+   */
+  public static int getPartition(byte[] buffer, int offset)
+  {
+    return buffer[offset + 1] << 24 | (buffer[offset + 2] & 0xff) << 16 | (buffer[offset + 3] & 0xff) << 8 |
+        (buffer[offset + 4] & 0xff);
+  }
+
   public static byte[] getSerializedTuple(int partition, int size)
   {
     byte[] array = new byte[size + 5];
@@ -25,6 +25,7 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -39,6 +40,7 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.datatorrent.bufferserver.internal.BlockPool;
 import com.datatorrent.bufferserver.internal.DataList;
 import com.datatorrent.bufferserver.internal.FastDataList;
 import com.datatorrent.bufferserver.internal.LogicalNode;
@@ -49,11 +51,13 @@ import com.datatorrent.bufferserver.packet.ResetRequestTuple;
 import com.datatorrent.bufferserver.packet.SubscribeRequestTuple;
 import com.datatorrent.bufferserver.packet.Tuple;
 import com.datatorrent.bufferserver.storage.Storage;
+import com.datatorrent.bufferserver.util.Codec;
 import com.datatorrent.common.util.NameableThreadFactory;
 import com.datatorrent.netlet.AbstractLengthPrependerClient;
 import com.datatorrent.netlet.AbstractServer;
 import com.datatorrent.netlet.DefaultEventLoop;
 import com.datatorrent.netlet.EventLoop;
+import com.datatorrent.netlet.WriteOnlyClient;
 import com.datatorrent.netlet.WriteOnlyLengthPrependerClient;
 import com.datatorrent.netlet.util.VarInt;
 
@@ -70,6 +74,7 @@ public class Server extends AbstractServer
   private final int port;
   private String identity;
   private Storage storage;
+  private final BlockPool blockPool;
   private final EventLoop eventloop;
   private final ExecutorService serverHelperExecutor;
   private final ExecutorService storageHelperExecutor;
@@ -79,6 +84,11 @@ public class Server extends AbstractServer
 
   private static final boolean BACK_PRESSURE_ENABLED = !Boolean.getBoolean("org.apache.apex.bufferserver.backpressure.disable");
 
+  /**
+   * servers listening in this JVM by their port, for the publishers and subscribers that connect to them in process.
+   */
+  private static final ConcurrentHashMap<Integer, Server> inProcessServers = new ConcurrentHashMap<>();
+
   /**
    * @param port - port number to bind to or 0 to auto select a free port
    */
@@ -93,6 +103,7 @@ public class Server extends AbstractServer
     this.port = port;
     this.blockSize = blocksize;
     this.numberOfCacheBlocks = numberOfCacheBlocks;
+    blockPool = new BlockPool(blocksize, 0);
     serverHelperExecutor = Executors.newSingleThreadExecutor(new NameableThreadFactory("ServerHelper"));
     final ArrayBlockingQueue<Runnable> workQueue = new ArrayBlockingQueue<>(numberOfCacheBlocks);
     final NameableThreadFactory threadFactory = new NameableThreadFactory("StorageHelper");
@@ -105,10 +116,42 @@ public class Server extends AbstractServer
     this.storage = storage;
   }
 
+  /**
+   * Set the maximum number of the memory blocks kept for reuse by all the publishers of the server. The pooled blocks
+   * are held in addition to the blocks cached by each publisher. Defaults to 0, the pooling is disabled.
+   *
+   * @param maxPooledBlocks maximum number of the pooled blocks, 0 disables pooling
+   */
+  public void setMaxPooledBlocks(int maxPooledBlocks)
+  {
+    blockPool.setMaxPooledBlocks(maxPooledBlocks);
+  }
+
+  /**
+   * @return the pool of the memory blocks shared by the publishers of the server
+   */
+  public BlockPool getBlockPool()
+  {
+    return blockPool;
+  }
+
+  /**
+   * Get the server listening at the port in this JVM. The publishers and subscribers of the streams served by the
+   * server can connect to it in process and exchange the messages through the memory of its data lists.
+   *
+   * @param port port the server listens at
+   * @return the server or null if no server in this JVM listens at the port
+   */
+  public static Server getInProcessServer(int port)
+  {
+    return inProcessServers.get(port);
+  }
+
   @Override
   public void registered(SelectionKey key)
   {
     super.registered(key);
+    inProcessServers.put(((InetSocketAddress)getServerAddress()).getPort(), this);
     logger.info("Server started listening at {}", getServerAddress());
     latch.countDown();
     latch = null;
@@ -117,6 +160,7 @@ public class Server extends AbstractServer
   @Override
   public void unregistered(SelectionKey key)
   {
+    inProcessServers.remove(((InetSocketAddress)getServerAddress()).getPort(), this);
     for (LogicalNode ln : subscriberGroups.values()) {
       ln.boot();
     }
@@ -335,40 +379,9 @@ public class Server extends AbstractServer
         @Override
         public void run()
         {
-          final String upstream_identifier = request.getUpstreamIdentifier();
-
-          /*
-           * if there is already a datalist registered for the type in which this client is interested,
-           * then get a iterator on the data items of that data list. If the datalist is not registered,
-           * then create one and register it. Hopefully this one would be used by future upstream nodes.
-           */
-          DataList dl = publisherBuffers.get(upstream_identifier);
-          if (dl == null) {
-            dl = Tuple.FAST_VERSION.equals(request.getVersion()) ?
-                new FastDataList(upstream_identifier, blockSize, numberOfCacheBlocks, BACK_PRESSURE_ENABLED) :
-                new DataList(upstream_identifier, blockSize, numberOfCacheBlocks, BACK_PRESSURE_ENABLED);
-            DataList odl = publisherBuffers.putIfAbsent(upstream_identifier, dl);
-            if (odl != null) {
-              dl = odl;
-            }
-          }
-
-          final String identifier = request.getIdentifier();
-          final String type = request.getStreamType();
-          final long skipWindowId = (long)request.getBaseSeconds() << 32 | request.getWindowId();
-          final LogicalNode ln = new LogicalNode(identifier, upstream_identifier, type, dl
-              .newIterator(skipWindowId), skipWindowId, eventloop);
-
-          int mask = request.getMask();
-          if (mask != 0) {
-            for (Integer bs : request.getPartitions()) {
-              ln.addPartition(bs, mask);
-            }
-          }
-          final LogicalNode oln = subscriberGroups.put(type, ln);
-          if (oln != null) {
-            oln.boot();
-          }
+          final LogicalNode ln = addLogicalNode(request.getIdentifier(), request.getUpstreamIdentifier(),
+              request.getStreamType(), request.getVersion(), request.getMask(), request.getPartitions(),
+              (long)request.getBaseSeconds() << 32 | request.getWindowId());
           final Subscriber subscriber = new Subscriber(ln, request.getBufferSize());
           eventloop.submit(new Runnable()
           {
@@ -407,16 +420,7 @@ public class Server extends AbstractServer
             try {
               final LogicalNode ln = subscriber.ln;
               if (ln != null) {
-                ln.removeChannel(subscriber);
-                if (ln.getPhysicalNodeCount() == 0) {
-                  DataList dl = publisherBuffers.get(ln.getUpstream());
-                  if (dl != null) {
-                    logger.info("Removing ln {} from dl {}", ln, dl);
-                    dl.removeDataListener(ln);
-                  }
-                  subscriberGroups.remove(ln.getGroup(), ln);
-                  ln.getIterator().close();
-                }
+                removeSubscriber(subscriber, ln);
                 subscriber.ln = null;
               }
             } catch (Throwable t) {
@@ -440,6 +444,73 @@ public class Server extends AbstractServer
     }
   }
 
+  /**
+   * Create the logical node of a subscriber, which replaces the logical node of the same stream type.
+   *
+   * @return the logical node positioned at the window the subscriber needs
+   */
+  private LogicalNode addLogicalNode(String identifier, String upstreamIdentifier, String type, String version,
+      int mask, int[] partitions, long skipWindowId)
+  {
+    /*
+     * if there is already a datalist registered for the type in which this client is interested,
+     * then get a iterator on the data items of that data list. If the datalist is not registered,
+     * then create one and register it. Hopefully this one would be used by future upstream nodes.
+     */
+    DataList dl = publisherBuffers.get(upstreamIdentifier);
+    if (dl == null) {
+      dl = Tuple.FAST_VERSION.equals(version) ?
+          new FastDataList(upstreamIdentifier, blockSize, numberOfCacheBlocks, BACK_PRESSURE_ENABLED, blockPool) :
+          new DataList(upstreamIdentifier, blockSize, numberOfCacheBlocks, BACK_PRESSURE_ENABLED, blockPool);
+      DataList odl = publisherBuffers.putIfAbsent(upstreamIdentifier, dl);
+      if (odl != null) {
+        dl = odl;
+      }
+    }
+
+    final LogicalNode ln = new LogicalNode(identifier, upstreamIdentifier, type, dl.newIterator(skipWindowId),
+        skipWindowId, eventloop);
+    if (mask != 0) {
+      for (int partition : partitions) {
+        ln.addPartition(partition, mask);
+      }
+    }
+    final LogicalNode oln = subscriberGroups.put(type, ln);
+    if (oln != null) {
+      oln.boot();
+    }
+    return ln;
+  }
+
+  /**
+   * Start sending the data of the upstream publisher to the connected subscriber.
+   */
+  private void addDataListener(LogicalNode ln, Object subscriber)
+  {
+    final DataList dl = publisherBuffers.get(ln.getUpstream());
+    if (dl != null) {
+      ln.catchUp();
+      dl.addDataListener(ln);
+    } else {
+      logger.error("Disconnecting {} with no matching data list.", subscriber);
+      ln.boot();
+    }
+  }
+
+  private void removeSubscriber(WriteOnlyClient client, LogicalNode ln)
+  {
+    ln.removeChannel(client);
+    if (ln.getPhysicalNodeCount() == 0) {
+      DataList dl = publisherBuffers.get(ln.getUpstream());
+      if (dl != null) {
+        logger.info("Removing ln {} from dl {}", ln, dl);
+        dl.removeDataListener(ln);
+      }
+      subscriberGroups.remove(ln.getGroup(), ln);
+      ln.getIterator().close();
+    }
+  }
+
   /**
    *
    * @param request
@@ -448,28 +519,39 @@ public class Server extends AbstractServer
    */
   public DataList handlePublisherRequest(PublishRequestTuple request, AbstractLengthPrependerClient connection)
   {
-    String identifier = request.getIdentifier();
+    return getPublisherDataList(request.getIdentifier(), request.getVersion(), request.getBaseSeconds(),
+        request.getWindowId(), connection);
+  }
 
+  /**
+   * Get the data list of a publisher rewound to the window the publisher starts at.
+   *
+   * @param connection connection of the publisher, null if the publisher is connected in process
+   */
+  private DataList getPublisherDataList(String identifier, String version, int baseSeconds, int windowId,
+      AbstractLengthPrependerClient connection)
+  {
     DataList dl = publisherBuffers.get(identifier);
 
     if (dl != null) {
       /*
        * close previous connection with the same identifier which is guaranteed to be unique.
        */
-      AbstractLengthPrependerClient previous = publisherChannels.put(identifier, connection);
+      AbstractLengthPrependerClient previous = connection == null ? publisherChannels.remove(identifier) :
+          publisherChannels.put(identifier, connection);
       if (previous != null) {
         eventloop.disconnect(previous);
       }
 
       try {
-        dl.rewind(request.getBaseSeconds(), request.getWindowId());
+        dl.rewind(baseSeconds, windowId);
       } catch (IOException ie) {
         throw new RuntimeException(ie);
       }
     } else {
-      dl = Tuple.FAST_VERSION.equals(request.getVersion()) ?
-          new FastDataList(identifier, blockSize, numberOfCacheBlocks, BACK_PRESSURE_ENABLED) :
-          new DataList(identifier, blockSize, numberOfCacheBlocks, BACK_PRESSURE_ENABLED);
+      dl = Tuple.FAST_VERSION.equals(version) ?
+          new FastDataList(identifier, blockSize, numberOfCacheBlocks, BACK_PRESSURE_ENABLED, blockPool) :
+          new DataList(identifier, blockSize, numberOfCacheBlocks, BACK_PRESSURE_ENABLED, blockPool);
       DataList odl = publisherBuffers.putIfAbsent(identifier, dl);
       if (odl != null) {
         dl = odl;
@@ -480,6 +562,86 @@ public class Server extends AbstractServer
     return dl;
   }
 
+  /**
+   * Connect a publisher running in this JVM. The publisher writes the messages into its data list directly instead of
+   * sending them to the server over a socket.
+   *
+   * @param identifier identifier of the publisher
+   * @param windowId window the publisher starts publishing at
+   * @return the connection of the publisher
+   */
+  public InProcessPublisher connectPublisher(String identifier, long windowId)
+  {
+    logger.info("Connecting in process publisher {} at window {}", identifier, Codec.getStringWindowId(windowId));
+    final DataList dl = getPublisherDataList(identifier, null, (int)(windowId >> 32), (int)windowId, null);
+    dl.setAutoFlushExecutor(serverHelperExecutor);
+    return new InProcessPublisher(dl, windowId);
+  }
+
+  /**
+   * Connect a subscriber running in this JVM. The server passes the messages to the subscriber straight from the
+   * memory of the data list of the upstream publisher instead of sending them over a socket.
+   *
+   * @param subscriber the subscriber
+   * @param identifier identifier of the subscriber
+   * @param type stream type, the subscriber replaces the subscriber of the same type
+   * @param upstreamIdentifier identifier of the upstream publisher
+   * @param mask partition mask
+   * @param partitions partitions the subscriber receives the payload tuples of
+   * @param windowId window the subscriber receives the data after
+   * @return the connection of the subscriber
+   */
+  public InProcessSubscriber connectSubscriber(final com.datatorrent.bufferserver.client.Subscriber subscriber,
+      final String identifier, final String type, final String upstreamIdentifier, final int mask,
+      final Collection<Integer> partitions, final long windowId)
+  {
+    logger.info("Connecting in process subscriber {} of {} after window {}", identifier, upstreamIdentifier,
+        Codec.getStringWindowId(windowId));
+    final InProcessSubscriber connection = new InProcessSubscriber(subscriber);
+    final int[] partitionArray = new int[partitions == null ? 0 : partitions.size()];
+    if (partitions != null) {
+      int i = 0;
+      for (Integer partition : partitions) {
+        partitionArray[i++] = partition;
+      }
+    }
+    serverHelperExecutor.submit(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        if (connection.disconnected) {
+          return;
+        }
+        final LogicalNode ln = addLogicalNode(identifier, upstreamIdentifier, type, null, mask, partitionArray,
+            windowId);
+        ln.addConnection(connection);
+        connection.ln = ln;
+        addDataListener(ln, connection);
+      }
+    });
+    return connection;
+  }
+
+  /**
+   * Disconnect the subscribers of the publisher, which are not going to receive any more data from it.
+   */
+  private void bootSubscribers(String publisherIdentifier)
+  {
+    ArrayList<LogicalNode> list = new ArrayList<>();
+    Iterator<LogicalNode> iterator = subscriberGroups.values().iterator();
+    while (iterator.hasNext()) {
+      LogicalNode ln = iterator.next();
+      if (publisherIdentifier.equals(ln.getUpstream())) {
+        list.add(ln);
+      }
+    }
+
+    for (LogicalNode ln : list) {
+      ln.boot();
+    }
+  }
+
   @Override
   public ClientListener getClientConnection(SocketChannel sc, ServerSocketChannel ssc)
   {
@@ -646,14 +808,7 @@ public class Server extends AbstractServer
         @Override
         public void run()
         {
-          final DataList dl = publisherBuffers.get(ln.getUpstream());
-          if (dl != null) {
-            ln.catchUp();
-            dl.addDataListener(ln);
-          } else {
-            logger.error("Disconnecting {} with no matching data list.", this);
-            ln.boot();
-          }
+          addDataListener(ln, Subscriber.this);
         }
       });
     }
@@ -883,21 +1038,143 @@ public class Server extends AbstractServer
         }
       }
 
-      ArrayList<LogicalNode> list = new ArrayList<>();
-      String publisherIdentifier = datalist.getIdentifier();
-      Iterator<LogicalNode> iterator = subscriberGroups.values().iterator();
-      while (iterator.hasNext()) {
-        LogicalNode ln = iterator.next();
-        if (publisherIdentifier.equals(ln.getUpstream())) {
-          list.add(ln);
+      bootSubscribers(datalist.getIdentifier());
+    }
+
+  }
+
+  /**
+   * Connection of a publisher in the same JVM as the server. The messages are appended to the data list of the
+   * publisher the same way the server side of a socket publisher appends the bytes it reads.
+   */
+  public class InProcessPublisher
+  {
+    private final DataList datalist;
+    private byte[] buffer;
+    private int writeOffset;
+
+    InProcessPublisher(DataList dl, long windowId)
+    {
+      this.datalist = dl;
+      this.buffer = dl.getBuffer(windowId);
+      this.writeOffset = dl.getPosition();
+    }
+
+    /**
+     * Append the message to the data list and notify the subscribers.
+     *
+     * @param array array holding the message
+     * @param offset offset of the message in the array
+     * @param length length of the message
+     * @return false if there is no memory block for the message, the message needs to be sent again after the
+     * subscribers caught up
+     */
+    public boolean send(byte[] array, int offset, int length)
+    {
+      final int size = VarInt.getSize(length) + length;
+      if (buffer.length - writeOffset >= size) {
+        writeOffset = VarInt.write(length, buffer, writeOffset);
+        System.arraycopy(array, offset, buffer, writeOffset, length);
+        writeOffset += length;
+      } else if (datalist.isMemoryBlockAvailable()) {
+        final byte[] newBuffer = datalist.newBuffer(size);
+        final int position = VarInt.write(length, newBuffer, 0);
+        System.arraycopy(array, offset, newBuffer, position, length);
+        if (writeOffset < buffer.length) {
+          /*
+           * the iterators switch to the next block when the remainder of a full block holds an incomplete message, so
+           * the remainder is filled with the beginning of the message as if it was read from a socket
+           */
+          System.arraycopy(newBuffer, 0, buffer, writeOffset, buffer.length - writeOffset);
+          datalist.flush(buffer.length);
         }
+        datalist.addBuffer(newBuffer);
+        buffer = newBuffer;
+        writeOffset = size;
+      } else {
+        datalist.notifyListeners();
+        return false;
+      }
+      datalist.flush(writeOffset);
+      return true;
+    }
+
+    /**
+     * Disconnect the publisher and its subscribers like the server does when the socket of a publisher is closed.
+     */
+    public void disconnect()
+    {
+      try {
+        serverHelperExecutor.submit(new Runnable()
+        {
+          @Override
+          public void run()
+          {
+            bootSubscribers(datalist.getIdentifier());
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        logger.warn("Publisher {} disconnected after server {} termination.", this, Server.this);
       }
+    }
+
+    @Override
+    public String toString()
+    {
+      return getClass().getSimpleName() + '@' + Integer.toHexString(hashCode()) + "{datalist=" + datalist + '}';
+    }
+  }
 
-      for (LogicalNode ln : list) {
-        ln.boot();
+  /**
+   * Connection of a subscriber in the same JVM as the server. The logical node of the subscriber sends the messages
+   * to it like to the socket of a subscriber, the messages are passed to the subscriber without being copied.
+   */
+  public class InProcessSubscriber extends WriteOnlyClient
+  {
+    private final com.datatorrent.bufferserver.client.Subscriber subscriber;
+    private LogicalNode ln;
+    private volatile boolean disconnected;
+
+    InProcessSubscriber(com.datatorrent.bufferserver.client.Subscriber subscriber)
+    {
+      super(0, 2);
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public boolean send(byte[] array, int offset, int length)
+    {
+      return !disconnected && subscriber.receive(array, offset, length);
+    }
+
+    /**
+     * Disconnect the subscriber from the logical node, no more messages are passed to it.
+     */
+    public void disconnect()
+    {
+      disconnected = true;
+      try {
+        serverHelperExecutor.submit(new Runnable()
+        {
+          @Override
+          public void run()
+          {
+            if (ln != null) {
+              removeSubscriber(InProcessSubscriber.this, ln);
+              ln = null;
+            }
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        logger.warn("Subscriber {} disconnected after server {} termination.", this, Server.this);
       }
     }
 
+    @Override
+    public String toString()
+    {
+      return getClass().getSimpleName() + '@' + Integer.toHexString(hashCode()) + "{subscriber=" + subscriber + '}';
+    }
   }
 
   abstract class SeedDataClient extends AbstractLengthPrependerClient
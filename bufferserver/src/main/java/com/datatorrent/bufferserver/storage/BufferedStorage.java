@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.bufferserver.storage;
+
+/**
+ * Storage that can retrieve a stored block into a buffer supplied by the caller.
+ *
+ * {@link Storage#retrieve(String, int)} allocates a new array for every retrieved block. When a slow subscriber
+ * replays a large backlog, the messaging service retrieves many blocks, each of them as large as the memory block,
+ * so it prefers to read them into the memory blocks it already owns when the storage supports it.
+ */
+public interface BufferedStorage extends Storage
+{
+  /**
+   * Retrieve the block into the passed buffer.
+   *
+   * @param identifier primary identifier of the block which typically identifies the data source.
+   * @param uniqueIdentifier secondary and unique identifier of the block which needs to be retrieved.
+   * @param buffer the buffer to copy the block into.
+   * @param offset the offset in the buffer to copy the first byte of the block to.
+   * @return the number of bytes of the block copied into the buffer or -1 if the block does not fit into the buffer.
+   */
+  int retrieve(String identifier, int uniqueIdentifier, byte[] buffer, int offset);
+}
@@ -19,6 +19,7 @@
 package com.datatorrent.bufferserver.storage;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
@@ -26,6 +27,7 @@ import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 
 /**
@@ -33,7 +35,7 @@ import com.google.common.io.Files;
  *
  * @since 0.3.2
  */
-public class DiskStorage implements Storage
+public class DiskStorage implements BufferedStorage
 {
   private static final Logger logger = LoggerFactory.getLogger(DiskStorage.class);
   final String basePath;
@@ -157,6 +159,31 @@ public class DiskStorage implements Storage
 
   @Override
   public byte[] retrieve(String identifier, int uniqueIdentifier)
+  {
+    try {
+      return Files.toByteArray(getBlockFile(identifier, uniqueIdentifier));
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  @Override
+  public int retrieve(String identifier, int uniqueIdentifier, byte[] buffer, int offset)
+  {
+    File filename = getBlockFile(identifier, uniqueIdentifier);
+    long length = filename.length();
+    if (offset + length > buffer.length) {
+      return -1;
+    }
+    try (FileInputStream stream = new FileInputStream(filename)) {
+      ByteStreams.readFully(stream, buffer, offset, (int)length);
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+    return (int)length;
+  }
+
+  private File getBlockFile(String identifier, int uniqueIdentifier)
   {
     String normalizedFilename = normalizeFileName(identifier);
     File directory = new File(basePath, normalizedFilename);
@@ -168,7 +195,7 @@ public class DiskStorage implements Storage
           if (Arrays.equals(stored, identifier.getBytes())) {
             File filename = new File(directory, String.valueOf(uniqueIdentifier));
             if (filename.exists() && filename.isFile()) {
-              return Files.toByteArray(filename);
+              return filename;
             } else {
               throw new RuntimeException("File " + filename.getPath() + " either is non existent or not a file!");
             }
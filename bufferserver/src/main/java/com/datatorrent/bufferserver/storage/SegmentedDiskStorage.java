@@ -0,0 +1,307 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.bufferserver.storage;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage that appends spooled blocks into large preallocated segment files.
+ *
+ * Unlike {@link DiskStorage}, which creates a new file for each stored block, this storage keeps an in-memory index
+ * from the unique identifier of a block to its location (segment, offset and length). Blocks are appended to the
+ * currently open segment until it is full, at which point the segment is sealed and a new one is preallocated.
+ * Discarding a block only updates the index; a sealed segment is deleted once all the blocks in it are discarded.
+ *
+ * The identifier passed to the storage methods is recorded for diagnostics only; the unique identifiers returned by
+ * {@link #store(String, byte[], int, int)} are unique across all the identifiers that share the instance.
+ *
+ * Blocks of a sealed segment are read back through a read only memory mapping of the segment, blocks of the open
+ * segment through its channel, so retrieving a block into a buffer supplied by the caller does not allocate any heap
+ * or direct memory.
+ */
+public class SegmentedDiskStorage implements BufferedStorage
+{
+  private static final Logger logger = LoggerFactory.getLogger(SegmentedDiskStorage.class);
+  /**
+   * Default size of a segment file, 4 default sized buffer server blocks.
+   */
+  public static final long DEFAULT_SEGMENT_SIZE = 4L * 64 * 1024 * 1024;
+  final String basePath;
+  final long segmentSize;
+  private final File directory;
+  private final Map<Integer, Location> index = new HashMap<>();
+  private Segment current;
+  private int segmentSequence;
+  private int segmentCount;
+  private int uniqueIdentifier;
+
+  public SegmentedDiskStorage(String baseDirectory, long segmentSize) throws IOException
+  {
+    if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid segment size " + segmentSize);
+    }
+    basePath = baseDirectory;
+    this.segmentSize = segmentSize;
+    directory = Files.createTempDirectory(new File(basePath).toPath(), "segments").toFile();
+    directory.deleteOnExit();
+    logger.info("Using {} for spooling into segments of {} bytes.", directory, segmentSize);
+  }
+
+  public SegmentedDiskStorage() throws IOException
+  {
+    this(System.getProperty("java.io.tmpdir"), DEFAULT_SEGMENT_SIZE);
+  }
+
+  @Override
+  public Storage getInstance() throws IOException
+  {
+    return new SegmentedDiskStorage(basePath, segmentSize);
+  }
+
+  @Override
+  public int store(String identifier, byte[] bytes, int startingOffset, int endingOffset)
+  {
+    final int length = endingOffset - startingOffset;
+    final int lUniqueIdentifier;
+    final Location location;
+    synchronized (this) {
+      try {
+        if (current != null && current.liveBlocks == 0) {
+          /* all the blocks in the current segment were discarded, reuse it from the beginning */
+          current.writePosition = 0;
+        }
+        if (current == null || current.writePosition + length > current.capacity) {
+          if (current != null) {
+            seal(current);
+          }
+          current = new Segment(++segmentSequence, Math.max(segmentSize, length));
+        }
+      } catch (IOException ex) {
+        throw new RuntimeException(ex);
+      }
+
+      location = new Location(identifier, current, current.writePosition, length);
+      current.writePosition += length;
+      current.liveBlocks++;
+      current.pendingWrites++;
+      lUniqueIdentifier = ++uniqueIdentifier;
+      index.put(lUniqueIdentifier, location);
+    }
+
+    try {
+      write(location, ByteBuffer.wrap(bytes, startingOffset, length));
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    } finally {
+      synchronized (this) {
+        location.segment.pendingWrites--;
+      }
+    }
+
+    return lUniqueIdentifier;
+  }
+
+  @Override
+  public byte[] retrieve(String identifier, int uniqueIdentifier)
+  {
+    final Location location = getLocation(identifier, uniqueIdentifier);
+    final byte[] bytes = new byte[location.length];
+    read(location, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public int retrieve(String identifier, int uniqueIdentifier, byte[] buffer, int offset)
+  {
+    final Location location = getLocation(identifier, uniqueIdentifier);
+    if (offset + location.length > buffer.length) {
+      return -1;
+    }
+    read(location, buffer, offset);
+    return location.length;
+  }
+
+  @Override
+  public void discard(String identifier, int uniqueIdentifier)
+  {
+    synchronized (this) {
+      final Segment segment = getLocation(identifier, uniqueIdentifier).segment;
+      index.remove(uniqueIdentifier);
+      if (--segment.liveBlocks == 0 && segment.sealed) {
+        reclaim(segment);
+      }
+    }
+  }
+
+  /**
+   * @return number of the segment files currently held on the disk.
+   */
+  public synchronized int getSegmentCount()
+  {
+    return segmentCount;
+  }
+
+  protected synchronized Location getLocation(String identifier, int uniqueIdentifier)
+  {
+    final Location location = index.get(uniqueIdentifier);
+    if (location == null) {
+      throw new RuntimeException("Block " + uniqueIdentifier + " for " + identifier + " does not exist!");
+    }
+    if (!location.identifier.equals(identifier)) {
+      throw new RuntimeException("Collision in the identifier name, block " + uniqueIdentifier + " was stored for [" +
+          location.identifier + "] and requested for [" + identifier + "].");
+    }
+    return location;
+  }
+
+  protected void write(Location location, ByteBuffer buffer) throws IOException
+  {
+    long position = location.offset;
+    while (buffer.hasRemaining()) {
+      position += location.segment.channel.write(buffer, position);
+    }
+  }
+
+  /**
+   * Reads the block from the mapping of a sealed segment, or through the channel while the segment may still be
+   * written. The writes through the channel are not guaranteed to be visible in an existing mapping, so the segment is
+   * mapped only once nothing is written into it anymore.
+   */
+  protected void read(Location location, byte[] buffer, int offset)
+  {
+    final Segment segment = location.segment;
+    try {
+      final MappedByteBuffer mapped;
+      synchronized (this) {
+        mapped = segment.sealed && segment.pendingWrites == 0 ? segment.map() : null;
+      }
+      if (mapped != null) {
+        final ByteBuffer duplicate = mapped.duplicate();
+        duplicate.position((int)location.offset);
+        duplicate.get(buffer, offset, location.length);
+      } else {
+        final ByteBuffer bb = ByteBuffer.wrap(buffer, offset, location.length);
+        long position = location.offset;
+        while (bb.hasRemaining()) {
+          int read = segment.channel.read(bb, position);
+          if (read < 0) {
+            throw new EOFException("Segment " + segment.file + " ends at " + position);
+          }
+          position += read;
+        }
+      }
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  private void seal(Segment segment)
+  {
+    segment.sealed = true;
+    if (segment.liveBlocks == 0) {
+      reclaim(segment);
+    }
+  }
+
+  private void reclaim(Segment segment)
+  {
+    logger.debug("Reclaiming segment {}", segment.file);
+    if (segment == current) {
+      current = null;
+    }
+    try {
+      segment.channel.close();
+    } catch (IOException ex) {
+      logger.warn("Failed to close segment {}", segment.file, ex);
+    }
+    segment.mapped = null;
+    segmentCount--;
+    if (!segment.file.delete()) {
+      /* the mapping of the segment may still be held until it is garbage collected */
+      logger.warn("File {} could not be deleted!", segment.file);
+    }
+  }
+
+  /**
+   * Location of the stored block within a segment.
+   */
+  protected static class Location
+  {
+    final String identifier;
+    final Segment segment;
+    final long offset;
+    final int length;
+
+    Location(String identifier, Segment segment, long offset, int length)
+    {
+      this.identifier = identifier;
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Preallocated file into which blocks are appended.
+   */
+  protected class Segment
+  {
+    final File file;
+    final FileChannel channel;
+    final long capacity;
+    long writePosition;
+    int liveBlocks;
+    int pendingWrites;
+    boolean sealed;
+    private MappedByteBuffer mapped;
+
+    @SuppressWarnings("resource")
+    Segment(int sequence, long capacity) throws IOException
+    {
+      file = new File(directory, "segment-" + sequence);
+      file.deleteOnExit();
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      raf.setLength(capacity);
+      this.channel = raf.getChannel();
+      this.capacity = capacity;
+      segmentCount++;
+    }
+
+    synchronized MappedByteBuffer map() throws IOException
+    {
+      if (mapped == null) {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, capacity);
+      }
+      return mapped;
+    }
+  }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.bufferserver.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.annotations.Test;
+
+import com.datatorrent.bufferserver.packet.BeginWindowTuple;
+import com.datatorrent.bufferserver.packet.EndWindowTuple;
+import com.datatorrent.bufferserver.packet.PayloadTuple;
+import com.datatorrent.bufferserver.packet.ResetWindowTuple;
+import com.datatorrent.bufferserver.util.VarInt;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ *
+ */
+public class BlockPoolTest
+{
+  @Test
+  public void testAllocateRelease()
+  {
+    BlockPool pool = new BlockPool(1024, 2);
+
+    byte[] first = pool.allocate();
+    byte[] second = pool.allocate();
+    byte[] third = pool.allocate();
+    assertEquals(first.length, 1024);
+    assertEquals(pool.getAllocatedBlockCount(), 3);
+
+    assertTrue(pool.release(first));
+    assertTrue(pool.release(second));
+    assertFalse(pool.release(third));
+    assertFalse(pool.release(new byte[512]));
+    assertEquals(pool.getPooledBlockCount(), 2);
+    assertEquals(pool.getPooledBytes(), 2048);
+    assertEquals(pool.getDroppedBlockCount(), 1);
+
+    assertSame(pool.allocate(), second);
+    assertEquals(pool.getReusedBlockCount(), 1);
+
+    pool.setMaxPooledBlocks(0);
+    assertEquals(pool.getPooledBlockCount(), 0);
+    assertEquals(pool.getDroppedBlockCount(), 2);
+  }
+
+  @Test
+  public void testDataListReset()
+  {
+    BlockPool pool = new BlockPool(1024, 8);
+    DataList dl = new DataList("MyPublisher", 1024, 8, true, pool);
+    assertEquals(pool.getAllocatedBlockCount(), 1);
+
+    dl.addBuffer(dl.newBuffer(1024));
+    dl.addBuffer(dl.newBuffer(1024));
+    assertEquals(pool.getAllocatedBlockCount(), 3);
+
+    /* the pending writes of the subscribers may still refer to the reset blocks */
+    dl.reset();
+    assertEquals(pool.getPooledBlockCount(), 0);
+
+    dl.addBuffer(dl.newBuffer(1024));
+    assertEquals(pool.getAllocatedBlockCount(), 4);
+    assertEquals(pool.getReusedBlockCount(), 0);
+  }
+
+  @Test
+  public void testDataListPurge()
+  {
+    BlockPool pool = new BlockPool(1024, 8);
+    DataList dl = new DataList("MyPublisher", 1024, 8, true, pool);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    dl.setAutoFlushExecutor(executor);
+    Writer writer = new Writer(dl);
+    writer.write(ResetWindowTuple.getSerializedTuple(0x7afebabe, 500));
+    byte[] payload = PayloadTuple.getSerializedTuple(0, 600);
+    for (int i = 0; i < 4; i++) {
+      writer.write(BeginWindowTuple.getSerializedTuple(i));
+      writer.write(payload);
+      writer.write(EndWindowTuple.getSerializedTuple(i));
+    }
+    assertEquals(pool.getAllocatedBlockCount(), 4);
+
+    dl.purge((long)0x7afebabe << 32 | 1);
+    assertEquals(pool.getPooledBlockCount(), 1);
+
+    writer.write(BeginWindowTuple.getSerializedTuple(4));
+    writer.write(payload);
+    assertEquals(pool.getAllocatedBlockCount(), 4);
+    assertEquals(pool.getReusedBlockCount(), 1);
+    executor.shutdown();
+  }
+
+  /**
+   * Appends the messages to a data list the way the in process publisher of the server does.
+   */
+  private static class Writer
+  {
+    private final DataList dl;
+    private byte[] buffer;
+    private int offset;
+
+    Writer(DataList dl)
+    {
+      this.dl = dl;
+      this.buffer = dl.getBuffer(0);
+      this.offset = dl.getPosition();
+    }
+
+    void write(byte[] message)
+    {
+      int size = VarInt.getSize(message.length) + message.length;
+      if (buffer.length - offset < size) {
+        byte[] newBuffer = dl.newBuffer(size);
+        int position = VarInt.write(message.length, newBuffer, 0);
+        System.arraycopy(message, 0, newBuffer, position, message.length);
+        if (offset < buffer.length) {
+          System.arraycopy(newBuffer, 0, buffer, offset, buffer.length - offset);
+          dl.flush(buffer.length);
+        }
+        dl.addBuffer(newBuffer);
+        buffer = newBuffer;
+        offset = size;
+      } else {
+        offset = VarInt.write(message.length, buffer, offset);
+        System.arraycopy(message, 0, buffer, offset, message.length);
+        offset += message.length;
+      }
+      dl.flush(offset);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.bufferserver.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.annotations.Test;
+
+import com.datatorrent.bufferserver.packet.BeginWindowTuple;
+import com.datatorrent.bufferserver.packet.EndWindowTuple;
+import com.datatorrent.bufferserver.packet.PayloadTuple;
+import com.datatorrent.netlet.util.VarInt;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ *
+ */
+public class LogicalNodeTest
+{
+  private static LogicalNode newLogicalNode(DataList dl)
+  {
+    return new LogicalNode("node", "upstream", "group", dl.newIterator(0), 0, null);
+  }
+
+  @Test
+  public void testPartitionMatching()
+  {
+    DataList dl = new DataList("MyPublisher", 1024, 8, true);
+
+    LogicalNode unpartitioned = newLogicalNode(dl);
+    assertFalse(unpartitioned.isPartitioned());
+    assertTrue(unpartitioned.matches(5));
+
+    LogicalNode table = newLogicalNode(dl);
+    table.addPartition(1, 3);
+    table.addPartition(2, 3);
+    assertTrue(table.isPartitioned());
+    assertTrue(table.matches(5));
+    assertTrue(table.matches(6));
+    assertFalse(table.matches(4));
+    assertFalse(table.matches(7));
+
+    LogicalNode mixed = newLogicalNode(dl);
+    mixed.addPartition(1, 3);
+    mixed.addPartition(0, 4);
+    assertTrue(mixed.matches(1));
+    assertTrue(mixed.matches(2));
+    assertFalse(mixed.matches(7));
+
+    LogicalNode wide = newLogicalNode(dl);
+    wide.addPartition(0x10001, 0x10001);
+    assertTrue(wide.matches(0x30001));
+    assertFalse(wide.matches(0x00001));
+  }
+
+  @Test
+  public void testPayloadPartition()
+  {
+    byte[] tuple = PayloadTuple.getSerializedTuple(-2, 3);
+    assertEquals(PayloadTuple.getPartition(tuple, 0), -2);
+    assertEquals(PayloadTuple.getPartition(tuple, 0), new PayloadTuple(tuple, 0, tuple.length).getPartition());
+  }
+
+  private static int write(byte[] buffer, int offset, byte[] tuple)
+  {
+    offset = VarInt.write(tuple.length, buffer, offset);
+    System.arraycopy(tuple, 0, buffer, offset, tuple.length);
+    return offset + tuple.length;
+  }
+
+  private static void awaitReadOffset(LogicalNode ln, int offset) throws InterruptedException
+  {
+    for (int i = 0; i < 500 && ln.getIterator().getReadOffset() != offset; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(ln.getIterator().getReadOffset(), offset);
+  }
+
+  @Test
+  public void testSharedFanOut() throws InterruptedException
+  {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      DataList dl = new DataList("MyPublisher", 1024, 8, true);
+      dl.setAutoFlushExecutor(executor);
+
+      LogicalNode even = newLogicalNode(dl);
+      even.addPartition(0, 1);
+      LogicalNode odd = newLogicalNode(dl);
+      odd.addPartition(1, 1);
+      dl.addDataListener(even);
+      dl.addDataListener(odd);
+
+      byte[] buffer = dl.getBuffer(1);
+      int offset = write(buffer, 0, BeginWindowTuple.getSerializedTuple(1));
+      dl.flush(offset);
+      awaitReadOffset(even, offset);
+      awaitReadOffset(odd, offset);
+      assertTrue(even.isCaughtUp());
+      assertTrue(odd.isCaughtUp());
+
+      /* both logical nodes are caught up at the same position and read the rest of the window together */
+      for (int i = 0; i < 4; i++) {
+        offset = write(buffer, offset, PayloadTuple.getSerializedTuple(i, 16));
+      }
+      offset = write(buffer, offset, EndWindowTuple.getSerializedTuple(1));
+      dl.flush(offset);
+      awaitReadOffset(even, offset);
+      awaitReadOffset(odd, offset);
+      assertSame(even.getIterator().da, odd.getIterator().da);
+      assertFalse(even.getIterator().hasNext());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
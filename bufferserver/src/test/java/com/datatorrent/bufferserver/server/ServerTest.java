@@ -21,6 +21,7 @@ package com.datatorrent.bufferserver.server;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +41,9 @@ import com.datatorrent.netlet.DefaultEventLoop;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -530,5 +534,64 @@ public class ServerTest
     assertTrue(bss.resetPayloads.isEmpty());
   }
 
+  @Test
+  @SuppressWarnings("SleepWhileInLoop")
+  public void testInProcess() throws InterruptedException
+  {
+    final Server server = new Server(eventloopServer, 0, 4096, 8);
+    final int port = server.run().getPort();
+    assertSame(Server.getInProcessServer(port), server);
+
+    final Subscriber subscriber = new Subscriber("MyInProcessSubscriber");
+    subscriber.connectInProcess(server, "BufferServerOutput/InProcessSubscriber", "MyInProcessPublisher", 0, null, 0L);
+    assertTrue(subscriber.suspendReadIfResumed());
+    assertTrue(subscriber.isReadSuspended());
+    final Publisher publisher = new Publisher("MyInProcessPublisher");
+    publisher.connectInProcess(server, 0L);
+    assertTrue(publisher.isConnectedInProcess());
+
+    /* the payload tuples fill several blocks of the data list */
+    final byte[] resetWindow = ResetWindowTuple.getSerializedTuple(0x7afebabe, 500);
+    assertTrue(publisher.sendInProcess(resetWindow, 0, resetWindow.length));
+    final byte[] payload = PayloadTuple.getSerializedTuple(0, 1000);
+    for (int i = 0; i < 100; i++) {
+      final byte[] beginWindow = BeginWindowTuple.getSerializedTuple(i);
+      assertTrue(publisher.sendInProcess(beginWindow, 0, beginWindow.length));
+      assertTrue(publisher.sendInProcess(payload, 0, payload.length));
+      final byte[] endWindow = EndWindowTuple.getSerializedTuple(i);
+      assertTrue(publisher.sendInProcess(endWindow, 0, endWindow.length));
+    }
+
+    Thread.sleep(50);
+    assertEquals(subscriber.tupleCount.get(), 0);
+    assertTrue(subscriber.resumeReadIfSuspended());
+    for (int i = 0; i < spinCount && subscriber.tupleCount.get() < 301; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(subscriber.tupleCount.get(), 301);
+    assertEquals(subscriber.resetPayloads.size(), 1);
+    assertEquals(subscriber.lastPayload.getWindowId(), 99);
+
+    /* the subscriber keeps copies of the messages, the memory of the publisher is reused once it is purged */
+    final byte[][] received = new byte[1][];
+    final Subscriber copyingSubscriber = new Subscriber("MyCopyingSubscriber")
+    {
+      @Override
+      public void onMessage(byte[] buffer, int offset, int size)
+      {
+        received[0] = Arrays.copyOfRange(buffer, offset, offset + size);
+        assertNotSame(buffer, payload);
+      }
+    };
+    assertTrue(copyingSubscriber.receive(payload, 0, payload.length));
+    assertEquals(received[0], payload);
+
+    subscriber.disconnectInProcess();
+    publisher.disconnectInProcess();
+    assertFalse(subscriber.isConnectedInProcess());
+    server.stop();
+    assertNull(Server.getInProcessServer(port));
+  }
+
   private static final Logger logger = LoggerFactory.getLogger(ServerTest.class);
 }
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.bufferserver.storage;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ *
+ */
+public class SegmentedDiskStorageTest
+{
+  private static byte[] block(int size, int seed)
+  {
+    byte[] bytes = new byte[size];
+    for (int i = 0; i < size; i++) {
+      bytes[i] = (byte)(seed + i);
+    }
+    return bytes;
+  }
+
+  @Test
+  public void testStoreRetrieve() throws IOException
+  {
+    SegmentedDiskStorage storage = new SegmentedDiskStorage(System.getProperty("java.io.tmpdir"), 1024);
+
+    byte[] first = block(400, 1);
+    byte[] second = block(400, 2);
+    int firstId = storage.store("1.out", first, 0, first.length);
+    int secondId = storage.store("2.out", second, 100, second.length);
+    assertEquals(storage.getSegmentCount(), 1);
+
+    assertEquals(storage.retrieve("1.out", firstId), first);
+    byte[] retrieved = storage.retrieve("2.out", secondId);
+    assertEquals(retrieved.length, 300);
+    assertEquals(retrieved[0], second[100]);
+    assertEquals(retrieved[299], second[399]);
+  }
+
+  @Test
+  public void testRetrieveIntoBuffer() throws IOException
+  {
+    SegmentedDiskStorage storage = new SegmentedDiskStorage(System.getProperty("java.io.tmpdir"), 1024);
+
+    byte[] stored = block(512, 3);
+    int id = storage.store("1.out", stored, 12, stored.length);
+
+    byte[] buffer = new byte[512];
+    assertEquals(storage.retrieve("1.out", id, buffer, 12), 500);
+    assertEquals(Arrays.copyOfRange(buffer, 12, 512), Arrays.copyOfRange(stored, 12, 512));
+    assertEquals(storage.retrieve("1.out", id, buffer, 13), -1);
+  }
+
+  @Test(expectedExceptions = RuntimeException.class)
+  public void testIdentifierCollision() throws IOException
+  {
+    SegmentedDiskStorage storage = new SegmentedDiskStorage(System.getProperty("java.io.tmpdir"), 1024);
+    int id = storage.store("1.out", block(10, 0), 0, 10);
+    storage.retrieve("2.out", id);
+  }
+
+  @Test
+  public void testSegmentReclaim() throws IOException
+  {
+    SegmentedDiskStorage storage = new SegmentedDiskStorage(System.getProperty("java.io.tmpdir"), 1024);
+
+    int[] ids = new int[5];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = storage.store("1.out", block(500, i), 0, 500);
+    }
+    /* 2 blocks fit into a segment */
+    assertEquals(storage.getSegmentCount(), 3);
+
+    storage.discard("1.out", ids[0]);
+    assertEquals(storage.getSegmentCount(), 3);
+    storage.discard("1.out", ids[1]);
+    assertEquals(storage.getSegmentCount(), 2);
+
+    assertEquals(storage.retrieve("1.out", ids[2]), block(500, 2));
+
+    /* a block larger than the segment size gets a segment of its own */
+    byte[] large = block(2048, 7);
+    int largeId = storage.store("1.out", large, 0, large.length);
+    assertEquals(storage.getSegmentCount(), 3);
+    assertEquals(storage.retrieve("1.out", largeId), large);
+
+    storage.discard("1.out", ids[4]);
+    assertEquals(storage.getSegmentCount(), 2);
+    storage.discard("1.out", ids[2]);
+    storage.discard("1.out", ids[3]);
+    assertEquals(storage.getSegmentCount(), 1);
+    storage.discard("1.out", largeId);
+
+    /* the current segment is reused once all of its blocks are discarded */
+    int id = storage.store("1.out", block(500, 9), 0, 500);
+    assertEquals(storage.getSegmentCount(), 1);
+    assertEquals(storage.retrieve("1.out", id), block(500, 9));
+  }
+
+  @Test
+  public void testRewrittenSegment() throws IOException
+  {
+    SegmentedDiskStorage storage = new SegmentedDiskStorage(System.getProperty("java.io.tmpdir"), 1024);
+
+    /* the blocks of the open segment are read before and after the segment is rewritten from the beginning */
+    int id = storage.store("1.out", block(500, 1), 0, 500);
+    assertEquals(storage.retrieve("1.out", id), block(500, 1));
+    storage.discard("1.out", id);
+    id = storage.store("1.out", block(500, 2), 0, 500);
+    assertEquals(storage.retrieve("1.out", id), block(500, 2));
+
+    /* the sealed segment is read through its mapping */
+    int next = storage.store("1.out", block(500, 3), 0, 500);
+    int sealed = storage.store("1.out", block(500, 4), 0, 500);
+    assertEquals(storage.getSegmentCount(), 2);
+    assertEquals(storage.retrieve("1.out", id), block(500, 2));
+    assertEquals(storage.retrieve("1.out", next), block(500, 3));
+    assertEquals(storage.retrieve("1.out", sealed), block(500, 4));
+  }
+
+}
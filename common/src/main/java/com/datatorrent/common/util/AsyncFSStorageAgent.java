@@ -18,40 +18,49 @@
  */
 package com.datatorrent.common.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectStreamException;
+import java.io.OutputStream;
 import java.nio.file.Files;
-import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.apex.common.util.AsyncStorageAgent;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.CreateFlag;
-import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileUtil;
-import org.apache.hadoop.fs.Options;
-import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IOUtils;
 
-import com.google.common.base.Throwables;
-
 /**
  * <p>AsyncFSStorageAgent class.</p>
  *
+ * When the local cache size is set, the local copies of the checkpoints are kept in a cache of the node after they
+ * are copied to the file system, and a container restarted on the same node loads its checkpoints from the cache
+ * instead of the file system, see {@link #setLocalCacheSize(long)}.
+ *
  * @since 3.1.0
  */
 public class AsyncFSStorageAgent extends FSStorageAgent implements AsyncStorageAgent
 {
   private final transient Configuration conf;
   private transient volatile String localBasePath;
+  /**
+   * Windows of the deltas which are compacted by the flush of the window.
+   */
+  private final transient ConcurrentMap<Integer, Long> compactions = new ConcurrentHashMap<>();
 
   private boolean syncCheckpoint = false;
+  private long localCacheSize = 0;
+  private transient volatile LocalCheckpointCache localCache;
 
   @SuppressWarnings("unused")
   private AsyncFSStorageAgent()
@@ -97,11 +106,33 @@ public class AsyncFSStorageAgent extends FSStorageAgent implements AsyncStorageA
     if (!directory.exists()) {
       directory.mkdirs();
     }
+    if (getFullCheckpointInterval() > 1) {
+      final IncrementalWriter writer = new IncrementalWriter(object, windowId, getBase(operatorId));
+      try (FileOutputStream stream = new FileOutputStream(new File(directory, String.valueOf(windowId)))) {
+        writer.write(stream);
+      } catch (IOException | RuntimeException ex) {
+        resetBase(operatorId);
+        throw ex;
+      }
+      saved(operatorId, windowId, writer);
+      return;
+    }
     try (FileOutputStream stream = new FileOutputStream(new File(directory, String.valueOf(windowId)))) {
       store(stream, object);
     }
   }
 
+  @Override
+  protected void compact(int operatorId, long windowId)
+  {
+    if (syncCheckpoint) {
+      super.compact(operatorId, windowId);
+      return;
+    }
+    /* the flush of the window compacts the delta once it is copied to the file system */
+    compactions.put(operatorId, windowId);
+  }
+
   public void copyToHDFS(final int operatorId, final long windowId) throws IOException
   {
     if (this.localBasePath == null) {
@@ -109,41 +140,92 @@ public class AsyncFSStorageAgent extends FSStorageAgent implements AsyncStorageA
     }
     String operatorIdStr = String.valueOf(operatorId);
     File directory = new File(localBasePath, operatorIdStr);
-    String window = Long.toHexString(windowId);
-    Path lPath = new Path(path + Path.SEPARATOR + operatorIdStr + Path.SEPARATOR + TMP_FILE);
-    File srcFile = new File(directory, String.valueOf(windowId));
-    FSDataOutputStream stream = null;
-    boolean stateSaved = false;
+    final File srcFile = new File(directory, String.valueOf(windowId));
+
     try {
-      // Create the temporary file with OverWrite option to avoid dangling lease issue and avoid exception if file already exists
-      stream = fileContext.create(lPath, EnumSet.of(CreateFlag.CREATE, CreateFlag.OVERWRITE), Options.CreateOpts.CreateParent.createParent());
-      InputStream in = null;
-      try {
-        in = new FileInputStream(srcFile);
-        IOUtils.copyBytes(in, stream, conf, false);
-      } finally {
-        IOUtils.closeStream(in);
+      recordSize(operatorId, write(operatorId, windowId, TMP_FILE, new CheckpointWriter()
+      {
+        @Override
+        public void write(OutputStream out) throws IOException
+        {
+          InputStream in = null;
+          try {
+            in = new FileInputStream(srcFile);
+            IOUtils.copyBytes(in, out, conf, false);
+          } finally {
+            IOUtils.closeStream(in);
+          }
+        }
+      }));
+      LocalCheckpointCache cache = getLocalCache();
+      if (cache != null) {
+        cache.put(operatorId, windowId, srcFile, getFileStatus(operatorId, windowId));
+      }
+      Long compaction = compactions.get(operatorId);
+      if (compaction != null && compaction <= windowId) {
+        compactions.remove(operatorId);
+        if (compaction == windowId) {
+          rewrite(operatorId, windowId);
+        } else {
+          cancelCompaction(operatorId);
+        }
       }
-      stateSaved = true;
-    } catch (Throwable t) {
-      logger.debug("while saving {} {}", operatorId, window, t);
-      stateSaved = false;
-      throw Throwables.propagate(t);
+    } catch (IOException | RuntimeException ex) {
+      resetBase(operatorId);
+      throw ex;
     } finally {
+      FileUtil.fullyDelete(srcFile);
+    }
+  }
+
+  @Override
+  public Object load(int operatorId, long windowId) throws IOException
+  {
+    LocalCheckpointCache cache = getLocalCache();
+    if (cache != null) {
+      byte[] checkpoint;
       try {
-        if (stream != null) {
-          stream.close();
-        }
-      } catch (IOException ie) {
-        stateSaved = false;
-        throw new RuntimeException(ie);
-      } finally {
-        if (stateSaved) {
-          fileContext.rename(lPath, new Path(path + Path.SEPARATOR + operatorIdStr + Path.SEPARATOR + window), Options.Rename.OVERWRITE);
+        checkpoint = cache.get(operatorId, windowId, getFileStatus(operatorId, windowId));
+      } catch (FileNotFoundException ex) {
+        checkpoint = null;
+      }
+      if (checkpoint != null) {
+        logger.debug("Loading {} {} from the local cache", operatorId, windowId);
+        return load(operatorId, new DataInputStream(new ByteArrayInputStream(checkpoint)));
+      }
+    }
+    return super.load(operatorId, windowId);
+  }
+
+  @Override
+  public void delete(int operatorId, long windowId) throws IOException
+  {
+    LocalCheckpointCache cache = getLocalCache();
+    if (cache != null) {
+      cache.remove(operatorId, windowId);
+    }
+    super.delete(operatorId, windowId);
+  }
+
+  LocalCheckpointCache getLocalCache()
+  {
+    if (localCacheSize <= 0) {
+      return null;
+    }
+    if (localCache == null) {
+      synchronized (this) {
+        if (localCache == null) {
+          /* the local directories of the application are shared by its containers on the node */
+          String localDirs = System.getenv(LOCAL_DIRS_ENV);
+          File directory = localDirs == null ? new File(System.getProperty("java.io.tmpdir"), "apex-checkpoints") :
+              new File(localDirs.split(",")[0], "checkpoints");
+          localCache = new LocalCheckpointCache(new File(directory, Integer.toHexString(path.hashCode())),
+              localCacheSize);
+          logger.info("using {} as the local checkpoint cache.", localCache.getDirectory());
         }
-        FileUtil.fullyDelete(srcFile);
       }
     }
+    return localCache;
   }
 
   @Override
@@ -161,6 +243,13 @@ public class AsyncFSStorageAgent extends FSStorageAgent implements AsyncStorageA
   {
     AsyncFSStorageAgent asyncFSStorageAgent = new AsyncFSStorageAgent(this.path, null);
     asyncFSStorageAgent.setSyncCheckpoint(syncCheckpoint);
+    asyncFSStorageAgent.setLocalCacheSize(localCacheSize);
+    asyncFSStorageAgent.setFullCheckpointInterval(getFullCheckpointInterval());
+    asyncFSStorageAgent.setCompressionCodec(getCompressionCodec());
+    if (getCompressionLevel() != null) {
+      // null when serialized before the compression level was added
+      asyncFSStorageAgent.setCompressionLevel(getCompressionLevel());
+    }
     return asyncFSStorageAgent;
   }
 
@@ -175,6 +264,23 @@ public class AsyncFSStorageAgent extends FSStorageAgent implements AsyncStorageA
     this.syncCheckpoint = syncCheckpoint;
   }
 
+  public long getLocalCacheSize()
+  {
+    return localCacheSize;
+  }
+
+  /**
+   * Set the size in bytes of the cache of the checkpoints on each node, 0 disables the cache. The cache is consulted
+   * before the file system when the operators are loaded.
+   *
+   * @param localCacheSize
+   */
+  public void setLocalCacheSize(long localCacheSize)
+  {
+    this.localCacheSize = localCacheSize;
+  }
+
+  private static final String LOCAL_DIRS_ENV = "LOCAL_DIRS";
   private static final long serialVersionUID = 201507241610L;
   private static final Logger logger = LoggerFactory.getLogger(AsyncFSStorageAgent.class);
 }
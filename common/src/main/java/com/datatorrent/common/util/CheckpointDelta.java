@@ -0,0 +1,407 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.common.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Random;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Encoding of a checkpoint as the difference to the serialized state of an earlier checkpoint.<p>
+ * <br>
+ * The serialized states are split into chunks at the positions determined by their content, so that an insertion or
+ * a removal in the middle of the state changes only the chunks around it. The delta refers to the chunks found in the
+ * base and carries the bytes of the other chunks. The chunks of the base are identified by their 128 bit hashes, so
+ * neither the encoding nor the index of the base keeps the serialized state in memory.
+ * <br>
+ * A delta starts with {@link #MAGIC} which is not a valid beginning of a Kryo serialized object, followed by the window
+ * id of the base, the length of the base and the copy and literal operations which reconstruct the state from the
+ * base.
+ * <br>
+ */
+final class CheckpointDelta
+{
+  static final int MAGIC = 0xFFDE17A1;
+  /**
+   * Longest state which is indexed as a base, the deltas are applied to the base held in an array.
+   */
+  static final long MAX_BASE_LENGTH = Integer.MAX_VALUE - 8;
+  private static final int MIN_CHUNK_SIZE = 512;
+  private static final int NORMAL_CHUNK_SIZE = 4096;
+  private static final int MAX_CHUNK_SIZE = 32 * 1024;
+  /*
+   * the high bits of the gear hash depend on the last 64 bytes, the stricter mask before the normal chunk size and
+   * the looser one after it keep the chunk sizes close to the normal size
+   */
+  private static final long STRICT_CHUNK_MASK = ((1L << 14) - 1) << 50;
+  private static final long LOOSE_CHUNK_MASK = ((1L << 10) - 1) << 54;
+  private static final long[] GEAR = new long[256];
+  private static final HashFunction FINGERPRINT = Hashing.murmur3_128();
+  private static final byte COPY = 0;
+  private static final byte LITERAL = 1;
+  private static final byte END = 2;
+
+  static {
+    final Random random = new Random(0x5DEECE66DL);
+    for (int i = 0; i < GEAR.length; i++) {
+      GEAR[i] = random.nextLong();
+    }
+  }
+
+  private CheckpointDelta()
+  {
+  }
+
+  /**
+   * Chunks of a serialized state indexed by their content.
+   */
+  static class Index
+  {
+    final long windowId;
+    private long length;
+    private final HashMap<HashCode, Chunk> chunks = new HashMap<>();
+
+    Index(long windowId)
+    {
+      this.windowId = windowId;
+    }
+
+    private void add(HashCode fingerprint, long offset, int length)
+    {
+      if (!chunks.containsKey(fingerprint)) {
+        chunks.put(fingerprint, new Chunk(offset, length));
+      }
+      this.length = offset + length;
+    }
+
+    /**
+     * @return offset of the chunk with the same content in the base state or -1 if there is none
+     */
+    private long find(HashCode fingerprint, int length)
+    {
+      final Chunk chunk = chunks.get(fingerprint);
+      return chunk == null || chunk.length != length ? -1 : chunk.offset;
+    }
+
+    long getLength()
+    {
+      return length;
+    }
+  }
+
+  private static class Chunk
+  {
+    final long offset;
+    final int length;
+
+    Chunk(long offset, int length)
+    {
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Stream which encodes the state written to it as a delta of the base or, without a base, passes the state through
+   * as a full checkpoint and indexes it.
+   */
+  static class Encoder extends OutputStream
+  {
+    private final Index base;
+    private final Index index;
+    private final DataOutputStream out;
+    private final byte[] buffer = new byte[2 * MAX_CHUNK_SIZE];
+    private int start;
+    private int limit;
+    private long position;
+    private long copyOffset;
+    private long copyLength;
+
+    /**
+     * @param windowId window id of the state
+     * @param base the base index, null for a full checkpoint
+     * @param out the checkpoint
+     * @throws IOException
+     */
+    Encoder(long windowId, Index base, OutputStream out) throws IOException
+    {
+      this.base = base;
+      this.out = new DataOutputStream(out);
+      if (base == null) {
+        index = new Index(windowId);
+      } else {
+        index = null;
+        this.out.writeInt(MAGIC);
+        this.out.writeLong(base.windowId);
+        this.out.writeLong(base.length);
+      }
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+      if (limit == buffer.length) {
+        compact();
+      }
+      buffer[limit++] = (byte)b;
+      if (limit - start >= MAX_CHUNK_SIZE) {
+        chunk();
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+      while (len > 0) {
+        if (limit == buffer.length) {
+          compact();
+        }
+        final int length = Math.min(len, buffer.length - limit);
+        System.arraycopy(b, off, buffer, limit, length);
+        limit += length;
+        off += length;
+        len -= length;
+        while (limit - start >= MAX_CHUNK_SIZE) {
+          chunk();
+        }
+      }
+    }
+
+    /**
+     * Encode the rest of the state. The underlying stream is flushed and left open.
+     */
+    void finish() throws IOException
+    {
+      while (start < limit) {
+        chunk();
+      }
+      if (base != null) {
+        writeCopy();
+        out.writeByte(END);
+      }
+      out.flush();
+    }
+
+    /**
+     * @return whether the state is encoded as a delta
+     */
+    boolean isDelta()
+    {
+      return base != null;
+    }
+
+    /**
+     * @return the index of the full checkpoint or null if the state is a delta or too long to be a base
+     */
+    Index getIndex()
+    {
+      return index == null || position > MAX_BASE_LENGTH ? null : index;
+    }
+
+    private void compact()
+    {
+      System.arraycopy(buffer, start, buffer, 0, limit - start);
+      limit -= start;
+      start = 0;
+    }
+
+    private void chunk() throws IOException
+    {
+      final int end = boundary(buffer, start, limit);
+      final int length = end - start;
+      final HashCode fingerprint = FINGERPRINT.hashBytes(buffer, start, length);
+      if (base == null) {
+        out.write(buffer, start, length);
+        if (position <= MAX_BASE_LENGTH) {
+          index.add(fingerprint, position, length);
+        }
+      } else {
+        final long baseOffset = base.find(fingerprint, length);
+        if (baseOffset < 0) {
+          writeCopy();
+          out.writeByte(LITERAL);
+          out.writeInt(length);
+          out.write(buffer, start, length);
+        } else {
+          if (copyLength > 0 && copyOffset + copyLength != baseOffset) {
+            writeCopy();
+          }
+          if (copyLength == 0) {
+            copyOffset = baseOffset;
+          }
+          copyLength += length;
+        }
+      }
+      position += length;
+      start = end;
+    }
+
+    private void writeCopy() throws IOException
+    {
+      if (copyLength > 0) {
+        out.writeByte(COPY);
+        out.writeLong(copyOffset);
+        out.writeLong(copyLength);
+        copyLength = 0;
+      }
+    }
+  }
+
+  /**
+   * Read the magic number of a delta from the beginning of the checkpoint.
+   *
+   * @param in the checkpoint
+   * @return true if the checkpoint is a delta, in which case the window id of its base follows
+   * @throws IOException
+   */
+  static boolean isDelta(DataInputStream in) throws IOException
+  {
+    try {
+      return in.readInt() == MAGIC;
+    } catch (EOFException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * Reconstruct the state from the base and the delta which follows the window id of the base in the input. The
+   * state is reconstructed as it is read from the returned stream.
+   *
+   * @param base the serialized state of the base
+   * @param in the input positioned after the window id of the base
+   * @return the serialized state
+   * @throws IOException
+   */
+  static InputStream apply(final byte[] base, final DataInputStream in) throws IOException
+  {
+    final long baseLength = in.readLong();
+    if (baseLength != base.length) {
+      throw new IOException("Base of the delta has " + base.length + " bytes instead of " + baseLength);
+    }
+
+    return new InputStream()
+    {
+      private final byte[] single = new byte[1];
+      private byte op = -1;
+      private int offset;
+      private int remaining;
+
+      @Override
+      public int read() throws IOException
+      {
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException
+      {
+        if (len == 0) {
+          return 0;
+        }
+        while (remaining == 0) {
+          if (op == END) {
+            return -1;
+          }
+          next();
+        }
+        final int length = Math.min(len, remaining);
+        if (op == COPY) {
+          System.arraycopy(base, offset, b, off, length);
+          offset += length;
+        } else {
+          in.readFully(b, off, length);
+        }
+        remaining -= length;
+        return length;
+      }
+
+      private void next() throws IOException
+      {
+        op = in.readByte();
+        switch (op) {
+          case COPY:
+            final long copyOffset = in.readLong();
+            final long copyLength = in.readLong();
+            if (copyOffset < 0 || copyLength < 0 || copyOffset + copyLength > base.length) {
+              throw new IOException("Invalid copy of " + copyLength + " bytes at " + copyOffset);
+            }
+            offset = (int)copyOffset;
+            remaining = (int)copyLength;
+            break;
+
+          case LITERAL:
+            remaining = in.readInt();
+            break;
+
+          case END:
+            break;
+
+          default:
+            throw new IOException("Invalid delta operation " + op);
+        }
+      }
+
+      @Override
+      public void close() throws IOException
+      {
+        in.close();
+      }
+    };
+  }
+
+  /**
+   * @return end of the chunk starting at the offset
+   */
+  private static int boundary(byte[] data, int offset, int end)
+  {
+    final int limit = Math.min(end, offset + MAX_CHUNK_SIZE);
+    if (limit - offset <= MIN_CHUNK_SIZE) {
+      return limit;
+    }
+    final int normal = Math.min(limit, offset + NORMAL_CHUNK_SIZE);
+    long hash = 0;
+    int i = offset;
+    while (i < offset + MIN_CHUNK_SIZE) {
+      hash = (hash << 1) + GEAR[data[i++] & 0xff];
+    }
+    while (i < normal) {
+      hash = (hash << 1) + GEAR[data[i++] & 0xff];
+      if ((hash & STRICT_CHUNK_MASK) == 0) {
+        return i;
+      }
+    }
+    while (i < limit) {
+      hash = (hash << 1) + GEAR[data[i++] & 0xff];
+      if ((hash & LOOSE_CHUNK_MASK) == 0) {
+        return i;
+      }
+    }
+    return limit;
+  }
+
+}
@@ -18,6 +18,9 @@
  */
 package com.datatorrent.common.util;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -27,11 +30,20 @@ import java.io.Serializable;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.apex.common.util.IncrementalStorageAgent;
+import org.apache.apex.common.util.StatsAwareStorageAgent;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.CreateFlag;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -42,32 +54,85 @@ import org.apache.hadoop.fs.Options;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.io.compress.zlib.ZlibCompressor;
+import org.apache.hadoop.io.compress.zlib.ZlibFactory;
+import org.apache.hadoop.util.ReflectionUtils;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.google.common.base.Throwables;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
 
-import com.datatorrent.api.StorageAgent;
+import com.datatorrent.api.Stats;
 import com.datatorrent.api.annotation.Stateless;
 
 /**
  * FSStorageAgent
  *
+ * When the full checkpoint interval is more than 1, the checkpoints between the full checkpoints of an operator are
+ * saved as the deltas of the last full checkpoint, see {@link IncrementalStorageAgent}. The state is encoded as it is
+ * serialized, the agent keeps only the index of the chunks of the last full checkpoint of each operator in memory. A
+ * delta which reaches the interval is rewritten in the background as a full checkpoint saved next to it with the
+ * {@link #BASE_FILE_PREFIX}, which becomes the base of the following deltas. A full checkpoint which is deleted is
+ * renamed with the prefix. The retained bases are purged when no checkpoint refers to them anymore, all of them when
+ * the operator has no checkpoints left.
+ *
+ * When a compression codec is set, the checkpoints are compressed with it. A compressed checkpoint starts with a header
+ * recording the codec, the checkpoints without the header are loaded as they are.
+ *
  * @since 0.3.2
  */
-public class FSStorageAgent implements StorageAgent, Serializable
+public class FSStorageAgent implements IncrementalStorageAgent, StatsAwareStorageAgent, Serializable
 {
   public static final String TMP_FILE = "_tmp";
+  public static final String BASE_FILE_PREFIX = "_base_";
+  private static final String COMPACT_TMP_FILE = "_tmp_compact";
+  /* not a valid beginning of a Kryo serialized object, see CheckpointDelta */
+  private static final int COMPRESSED_MAGIC = 0xFFC0DEC0;
+  private static final ConcurrentMap<String, CompressionCodec> codecs = new ConcurrentHashMap<>();
   protected static final String STATELESS_CHECKPOINT_WINDOW_ID = Long.toHexString(Stateless.WINDOW_ID);
   public final String path;
   protected final transient FileContext fileContext;
+  /**
+   * @deprecated not used by {@link #store(OutputStream, Object)} and {@link #retrieve(InputStream)} which serialize
+   * with a Kryo instance of the calling thread.
+   */
+  @Deprecated
   protected static final transient Kryo kryo;
 
   static {
     kryo = new Kryo();
   }
 
+  private static ExecutorService compactor;
+  private int fullCheckpointInterval;
+  private final transient ConcurrentMap<Integer, DeltaBase> deltaBases = new ConcurrentHashMap<>();
+  private String compressionCodec;
+  private ZlibCompressor.CompressionLevel compressionLevel = ZlibCompressor.CompressionLevel.DEFAULT_COMPRESSION;
+  private transient CompressionCodec codec;
+  private transient Configuration codecConf;
+  private final transient ConcurrentMap<Integer, CheckpointSize> checkpointSizes = new ConcurrentHashMap<>();
+
+  /**
+   * Kryo instances of the threads storing and retrieving the checkpoints so that the operators of a container are
+   * serialized in parallel. An instance keeps the classes it resolved and its buffers across the calls of the thread.
+   */
+  private static final ThreadLocal<Serde> serdes = new ThreadLocal<Serde>()
+  {
+    @Override
+    protected Serde initialValue()
+    {
+      return new Serde(Thread.currentThread().getContextClassLoader());
+    }
+  };
+
   protected FSStorageAgent()
   {
     path = null;
@@ -92,19 +157,127 @@ public class FSStorageAgent implements StorageAgent, Serializable
     }
   }
 
-  @SuppressWarnings("ThrowFromFinallyBlock")
   @Override
-  public void save(Object object, int operatorId, long windowId) throws IOException
+  public void save(final Object object, int operatorId, long windowId) throws IOException
+  {
+    if (fullCheckpointInterval > 1) {
+      final IncrementalWriter writer = new IncrementalWriter(object, windowId, getBase(operatorId));
+      try {
+        recordSize(operatorId, write(operatorId, windowId, TMP_FILE, writer));
+      } catch (IOException | RuntimeException ex) {
+        resetBase(operatorId);
+        throw ex;
+      }
+      saved(operatorId, windowId, writer);
+    } else {
+      recordSize(operatorId, write(operatorId, windowId, TMP_FILE, new CheckpointWriter()
+      {
+        @Override
+        public void write(OutputStream out) throws IOException
+        {
+          store(out, object);
+        }
+      }));
+    }
+  }
+
+  /**
+   * Source of the content of a checkpoint.
+   */
+  protected interface CheckpointWriter
+  {
+    void write(OutputStream out) throws IOException;
+  }
+
+  /**
+   * Sizes of the checkpoint of a window.
+   */
+  protected static class CheckpointSize
+  {
+    final long windowId;
+    final long rawSize;
+    final long size;
+
+    CheckpointSize(long windowId, long rawSize, long size)
+    {
+      this.windowId = windowId;
+      this.rawSize = rawSize;
+      this.size = size;
+    }
+  }
+
+  /**
+   * Writer which encodes the state of the operator as a delta of the base, or as a full checkpoint without a base.
+   */
+  static class IncrementalWriter implements CheckpointWriter
+  {
+    private final Object object;
+    private final long windowId;
+    private final CheckpointDelta.Index base;
+    private CheckpointDelta.Index index;
+
+    IncrementalWriter(Object object, long windowId, CheckpointDelta.Index base)
+    {
+      this.object = object;
+      this.windowId = windowId;
+      this.base = base;
+    }
+
+    @Override
+    public void write(OutputStream out) throws IOException
+    {
+      final CheckpointDelta.Encoder encoder = new CheckpointDelta.Encoder(windowId, base, out);
+      store(encoder, object);
+      encoder.finish();
+      index = encoder.getIndex();
+    }
+  }
+
+  /**
+   * Write the checkpoint to the temporary file, compressed if the compression codec is set, and rename it to the
+   * window id.
+   *
+   * @return the sizes of the checkpoint
+   */
+  protected CheckpointSize write(int operatorId, long windowId, String tmpFile, CheckpointWriter writer)
+      throws IOException
+  {
+    return write(operatorId, windowId, tmpFile, Long.toHexString(windowId), writer);
+  }
+
+  @SuppressWarnings("ThrowFromFinallyBlock")
+  private CheckpointSize write(int operatorId, long windowId, String tmpFile, String fileName,
+      CheckpointWriter writer) throws IOException
   {
     String operatorIdStr = String.valueOf(operatorId);
-    Path lPath = new Path(path + Path.SEPARATOR + operatorIdStr + Path.SEPARATOR + TMP_FILE);
+    Path lPath = new Path(path + Path.SEPARATOR + operatorIdStr + Path.SEPARATOR + tmpFile);
     String window = Long.toHexString(windowId);
     boolean stateSaved = false;
     FSDataOutputStream stream = null;
+    CheckpointSize size = null;
     try {
+      // Create the temporary file with OverWrite option to avoid dangling lease issue and avoid exception if file already exists
       stream = fileContext.create(lPath, EnumSet.of(CreateFlag.CREATE, CreateFlag.OVERWRITE),
         Options.CreateOpts.CreateParent.createParent());
-      store(stream, object);
+      final CompressionCodec codec = getCodec();
+      if (codec == null) {
+        writer.write(stream);
+        size = new CheckpointSize(windowId, stream.getPos(), stream.getPos());
+      } else {
+        stream.writeInt(COMPRESSED_MAGIC);
+        stream.writeUTF(codec.getClass().getName());
+        final Compressor compressor = CodecPool.getCompressor(codec, codecConf);
+        try {
+          CompressionOutputStream compressed = codec.createOutputStream(stream, compressor);
+          CountingOutputStream counter = new CountingOutputStream(compressed);
+          writer.write(counter);
+          counter.flush();
+          compressed.finish();
+          size = new CheckpointSize(windowId, counter.getCount(), stream.getPos());
+        } finally {
+          CodecPool.returnCompressor(compressor);
+        }
+      }
       stateSaved = true;
     } catch (Throwable t) {
       logger.debug("while saving {} {}", operatorId, window, t);
@@ -121,11 +294,93 @@ public class FSStorageAgent implements StorageAgent, Serializable
       } finally {
         if (stateSaved) {
           logger.debug("Saving {}: {}", operatorId, window);
-          fileContext.rename(lPath, new Path(path + Path.SEPARATOR + operatorIdStr + Path.SEPARATOR + window),
+          fileContext.rename(lPath, new Path(path + Path.SEPARATOR + operatorIdStr + Path.SEPARATOR + fileName),
               Options.Rename.OVERWRITE);
         }
       }
     }
+    return size;
+  }
+
+  /**
+   * Record the sizes of the checkpoint saved for the operator to report them in the checkpoint stats.
+   */
+  protected void recordSize(int operatorId, CheckpointSize size)
+  {
+    checkpointSizes.put(operatorId, size);
+  }
+
+  @Override
+  public boolean fillCheckpointStats(int operatorId, long windowId, Stats.CheckpointStats stats)
+  {
+    final CheckpointSize size = checkpointSizes.get(operatorId);
+    if (size == null || size.windowId != windowId) {
+      return false;
+    }
+    checkpointSizes.remove(operatorId, size);
+    stats.checkpointRawSize = size.rawSize;
+    stats.checkpointSize = size.size;
+    return true;
+  }
+
+  private synchronized CompressionCodec getCodec()
+  {
+    if (codec == null && compressionCodec != null) {
+      codecConf = new Configuration();
+      ZlibFactory.setCompressionLevel(codecConf, compressionLevel);
+      codec = newCodec(compressionCodec, codecConf);
+    }
+    return codec;
+  }
+
+  private static CompressionCodec newCodec(String name, Configuration conf)
+  {
+    try {
+      return (CompressionCodec)ReflectionUtils.newInstance(Class.forName(name, true,
+          Thread.currentThread().getContextClassLoader()), conf);
+    } catch (ClassNotFoundException | ClassCastException ex) {
+      throw new IllegalArgumentException("Invalid compression codec " + name, ex);
+    }
+  }
+
+  /**
+   * Open the checkpoint file. The stream decompresses the compressed checkpoint and supports mark.
+   */
+  private DataInputStream open(Path lPath) throws IOException
+  {
+    final FSDataInputStream stream = fileContext.open(lPath);
+    try {
+      try {
+        if (stream.readInt() == COMPRESSED_MAGIC) {
+          final String name = stream.readUTF();
+          CompressionCodec codec = codecs.get(name);
+          if (codec == null) {
+            codec = newCodec(name, new Configuration());
+            codecs.putIfAbsent(name, codec);
+          }
+          final Decompressor decompressor = CodecPool.getDecompressor(codec);
+          return new DataInputStream(new BufferedInputStream(codec.createInputStream(stream, decompressor)))
+          {
+            @Override
+            public void close() throws IOException
+            {
+              try {
+                super.close();
+              } finally {
+                CodecPool.returnDecompressor(decompressor);
+              }
+            }
+          };
+        }
+      } catch (EOFException ex) {
+        logger.debug("Empty checkpoint {}", lPath);
+      }
+      stream.seek(0);
+      return new DataInputStream(new BufferedInputStream(stream));
+    } catch (IOException | RuntimeException ex) {
+      stream.close();
+      throw ex;
+    }
   }
 
   @Override
@@ -134,12 +389,38 @@ public class FSStorageAgent implements StorageAgent, Serializable
     Path lPath = new Path(path + Path.SEPARATOR + String.valueOf(operatorId) + Path.SEPARATOR + Long.toHexString(windowId));
     logger.debug("Loading: {}", lPath);
 
-    FSDataInputStream stream = fileContext.open(lPath);
-    try {
-      return retrieve(stream);
-    } finally {
-      stream.close();
+    try (DataInputStream stream = open(lPath)) {
+      return load(operatorId, stream);
+    }
+  }
+
+  /**
+   * Load the operator from the uncompressed checkpoint, which may be a delta.
+   *
+   * @param operatorId
+   * @param stream the checkpoint, the stream supports mark
+   * @return the operator
+   * @throws IOException
+   */
+  protected Object load(int operatorId, DataInputStream stream) throws IOException
+  {
+    stream.mark(4);
+    if (CheckpointDelta.isDelta(stream)) {
+      return retrieve(loadDelta(operatorId, stream));
     }
+    stream.reset();
+    return retrieve(stream);
+  }
+
+  /**
+   * Get the status of the checkpoint in the file system.
+   *
+   * @throws FileNotFoundException if there is no checkpoint for the window
+   */
+  protected FileStatus getFileStatus(int operatorId, long windowId) throws IOException
+  {
+    return fileContext.getFileStatus(new Path(path + Path.SEPARATOR + String.valueOf(operatorId) + Path.SEPARATOR +
+        Long.toHexString(windowId)));
   }
 
   @Override
@@ -148,9 +429,36 @@ public class FSStorageAgent implements StorageAgent, Serializable
     Path lPath = new Path(path + Path.SEPARATOR + String.valueOf(operatorId) + Path.SEPARATOR + Long.toHexString(windowId));
     logger.debug("Deleting: {}", lPath);
 
+    if (fullCheckpointInterval > 1) {
+      boolean delta = true;
+      try (DataInputStream stream = open(lPath)) {
+        delta = CheckpointDelta.isDelta(stream);
+      } catch (FileNotFoundException ex) {
+        logger.debug("Checkpoint {} already deleted", lPath);
+      }
+      if (delta) {
+        fileContext.delete(lPath, false);
+      } else {
+        /* the deltas saved by the container may refer to the full checkpoint */
+        fileContext.rename(lPath, new Path(path + Path.SEPARATOR + String.valueOf(operatorId) + Path.SEPARATOR +
+            BASE_FILE_PREFIX + Long.toHexString(windowId)), Options.Rename.OVERWRITE);
+      }
+      purgeBases(operatorId);
+      return;
+    }
     fileContext.delete(lPath, false);
   }
 
+  @Override
+  public long getBaseWindowId(int operatorId, long windowId) throws IOException
+  {
+    try (DataInputStream stream = open(operatorId, windowId)) {
+      return CheckpointDelta.isDelta(stream) ? stream.readLong() : windowId;
+    } catch (FileNotFoundException ex) {
+      return windowId;
+    }
+  }
+
   @Override
   public long[] getWindowIds(int operatorId) throws IOException
   {
@@ -170,7 +478,8 @@ public class FSStorageAgent implements StorageAgent, Serializable
     while (fileStatusRemoteIterator.hasNext()) {
       FileStatus fileStatus = fileStatusRemoteIterator.next();
       String name = fileStatus.getPath().getName();
-      if (name.equals(TMP_FILE)) {
+      if (name.startsWith("_")) {
+        /* temporary files and retained bases */
         continue;
       }
       lwindows.add(STATELESS_CHECKPOINT_WINDOW_ID.equals(name) ? Stateless.WINDOW_ID : Long.parseLong(name, 16));
@@ -182,28 +491,412 @@ public class FSStorageAgent implements StorageAgent, Serializable
     return windowIds;
   }
 
+  /**
+   * Open the full checkpoint of the window, the retained or compacted base if there is one, the checkpoint otherwise.
+   */
+  private DataInputStream open(int operatorId, long windowId) throws IOException
+  {
+    String operatorPath = path + Path.SEPARATOR + String.valueOf(operatorId) + Path.SEPARATOR;
+    String window = Long.toHexString(windowId);
+    try {
+      return open(new Path(operatorPath + BASE_FILE_PREFIX + window));
+    } catch (FileNotFoundException ex) {
+      try {
+        return open(new Path(operatorPath + window));
+      } catch (FileNotFoundException fnfe) {
+        /* renamed to the retained base by the delete meanwhile */
+        return open(new Path(operatorPath + BASE_FILE_PREFIX + window));
+      }
+    }
+  }
+
+  /**
+   * Reconstruct the serialized state of the delta checkpoint positioned after the magic number. The base is read
+   * into memory, the state is reconstructed as it is read from the returned stream.
+   */
+  private InputStream loadDelta(int operatorId, DataInputStream delta) throws IOException
+  {
+    final long baseWindowId = delta.readLong();
+    final byte[] base;
+    try (DataInputStream stream = open(operatorId, baseWindowId)) {
+      stream.mark(4);
+      if (CheckpointDelta.isDelta(stream)) {
+        try (InputStream state = loadDelta(operatorId, stream)) {
+          base = ByteStreams.toByteArray(state);
+        }
+      } else {
+        stream.reset();
+        base = ByteStreams.toByteArray(stream);
+      }
+    }
+    return CheckpointDelta.apply(base, delta);
+  }
+
+  /**
+   * Get the index of the base of the operator the next checkpoint is encoded as a delta of.
+   *
+   * @return the index of the base or null if the next checkpoint is a full checkpoint
+   */
+  protected CheckpointDelta.Index getBase(int operatorId)
+  {
+    final DeltaBase base = deltaBases.get(operatorId);
+    if (base == null) {
+      return null;
+    }
+    synchronized (base) {
+      return base.index;
+    }
+  }
+
+  /**
+   * Update the base of the operator after the checkpoint was saved by the writer. The full checkpoint becomes the new
+   * base, the delta which reaches the full checkpoint interval is compacted.
+   */
+  void saved(int operatorId, long windowId, IncrementalWriter writer)
+  {
+    if (writer.base == null) {
+      if (writer.index == null) {
+        logger.debug("Checkpoint {} of operator {} is too large to be a base", Long.toHexString(windowId), operatorId);
+        resetBase(operatorId);
+      } else {
+        promote(operatorId, windowId, writer.index);
+      }
+      return;
+    }
+
+    final DeltaBase base = deltaBases.get(operatorId);
+    if (base != null) {
+      final boolean compact;
+      synchronized (base) {
+        compact = !base.compacting && ++base.deltaCount >= fullCheckpointInterval - 1;
+        base.compacting |= compact;
+      }
+      if (compact) {
+        compact(operatorId, windowId);
+      }
+    }
+  }
+
+  /**
+   * Rewrite the delta checkpoint of the window as a full checkpoint in the background and make it the base of the
+   * following deltas.
+   *
+   * @param operatorId
+   * @param windowId
+   */
+  protected void compact(final int operatorId, final long windowId)
+  {
+    getCompactor().submit(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        rewrite(operatorId, windowId);
+      }
+    });
+  }
+
+  /**
+   * Write the full checkpoint of the delta of the window next to it with the {@link #BASE_FILE_PREFIX} and make it the
+   * base of the following deltas. The delta itself is left in place, so the compaction never brings back a
+   * checkpoint deleted meanwhile.
+   */
+  protected void rewrite(int operatorId, final long windowId)
+  {
+    final String window = Long.toHexString(windowId);
+    try (DataInputStream stream = open(new Path(path + Path.SEPARATOR + String.valueOf(operatorId) + Path.SEPARATOR +
+        window))) {
+      if (CheckpointDelta.isDelta(stream)) {
+        final InputStream state = loadDelta(operatorId, stream);
+        final CheckpointDelta.Index[] index = new CheckpointDelta.Index[1];
+        write(operatorId, windowId, COMPACT_TMP_FILE, BASE_FILE_PREFIX + window, new CheckpointWriter()
+        {
+          @Override
+          public void write(OutputStream out) throws IOException
+          {
+            final CheckpointDelta.Encoder encoder = new CheckpointDelta.Encoder(windowId, null, out);
+            ByteStreams.copy(state, encoder);
+            encoder.finish();
+            index[0] = encoder.getIndex();
+          }
+        });
+        if (index[0] != null) {
+          promote(operatorId, windowId, index[0]);
+          return;
+        }
+      }
+    } catch (FileNotFoundException ex) {
+      logger.debug("Checkpoint {} of operator {} deleted before the compaction", window, operatorId);
+    } catch (IOException | RuntimeException ex) {
+      logger.warn("Failed to compact checkpoint {} of operator {}", window, operatorId, ex);
+    }
+    cancelCompaction(operatorId);
+  }
+
+  protected void cancelCompaction(int operatorId)
+  {
+    final DeltaBase base = deltaBases.get(operatorId);
+    if (base != null) {
+      synchronized (base) {
+        base.compacting = false;
+      }
+    }
+  }
+
+  /**
+   * Make the full checkpoint of the window the base of the following deltas and purge the retained bases the
+   * checkpoints do not refer to anymore.
+   */
+  void promote(final int operatorId, final long windowId, CheckpointDelta.Index index)
+  {
+    DeltaBase base = deltaBases.get(operatorId);
+    if (base == null) {
+      base = new DeltaBase();
+      DeltaBase existing = deltaBases.putIfAbsent(operatorId, base);
+      if (existing != null) {
+        base = existing;
+      }
+    }
+    final long previousWindowId;
+    synchronized (base) {
+      previousWindowId = base.index == null ? windowId : base.index.windowId;
+      base.index = index;
+      base.deltaCount = 0;
+      base.compacting = false;
+    }
+
+    getCompactor().submit(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        try {
+          purgeBases(operatorId, windowId, previousWindowId);
+        } catch (IOException | RuntimeException ex) {
+          logger.warn("Failed to purge the checkpoint bases of operator {}", operatorId, ex);
+        }
+      }
+    });
+  }
+
+  /**
+   * Forget the base of the operator so that its next checkpoint is a full checkpoint.
+   */
+  protected void resetBase(int operatorId)
+  {
+    deltaBases.remove(operatorId);
+  }
+
+  /**
+   * Delete the retained bases of the operator no checkpoint refers to. The bases of the given windows may be referred
+   * to by the deltas being saved and are kept, and so are the bases not older than the oldest checkpoint and the
+   * latest base, which the container may still be saving deltas of. All the bases are deleted when the operator has
+   * no checkpoints left.
+   */
+  private void purgeBases(int operatorId, long... retainedWindowIds) throws IOException
+  {
+    Map<Long, Path> bases = new HashMap<>();
+    Map<Long, Path> checkpoints = new HashMap<>();
+    RemoteIterator<FileStatus> fileStatusRemoteIterator;
+    try {
+      fileStatusRemoteIterator = fileContext.listStatus(new Path(path + Path.SEPARATOR + String.valueOf(operatorId)));
+    } catch (FileNotFoundException ex) {
+      return;
+    }
+    long oldestWindowId = Long.MAX_VALUE;
+    long latestBaseWindowId = Long.MIN_VALUE;
+    while (fileStatusRemoteIterator.hasNext()) {
+      Path checkpoint = fileStatusRemoteIterator.next().getPath();
+      String name = checkpoint.getName();
+      if (name.startsWith(BASE_FILE_PREFIX)) {
+        long baseWindowId = Long.parseLong(name.substring(BASE_FILE_PREFIX.length()), 16);
+        bases.put(baseWindowId, checkpoint);
+        latestBaseWindowId = Math.max(latestBaseWindowId, baseWindowId);
+      } else if (!name.startsWith("_") && !STATELESS_CHECKPOINT_WINDOW_ID.equals(name)) {
+        long windowId = Long.parseLong(name, 16);
+        checkpoints.put(windowId, checkpoint);
+        oldestWindowId = Math.min(oldestWindowId, windowId);
+      }
+    }
+
+    if (!checkpoints.isEmpty()) {
+      /* the compacted deltas are loaded from their own bases */
+      checkpoints.keySet().removeAll(bases.keySet());
+      for (long windowId : retainedWindowIds) {
+        bases.remove(windowId);
+      }
+      bases.remove(latestBaseWindowId);
+      for (Iterator<Long> iterator = bases.keySet().iterator(); iterator.hasNext(); ) {
+        if (iterator.next() >= oldestWindowId) {
+          iterator.remove();
+        }
+      }
+      for (Path checkpoint : checkpoints.values()) {
+        if (bases.isEmpty()) {
+          break;
+        }
+        try (DataInputStream stream = open(checkpoint)) {
+          if (CheckpointDelta.isDelta(stream)) {
+            bases.remove(stream.readLong());
+          }
+        } catch (FileNotFoundException ex) {
+          logger.debug("Checkpoint {} deleted while purging the bases", checkpoint);
+        }
+      }
+    }
+    for (Path base : bases.values()) {
+      logger.debug("Purging base {}", base);
+      fileContext.delete(base, false);
+    }
+  }
+
+  private static synchronized ExecutorService getCompactor()
+  {
+    if (compactor == null) {
+      compactor = Executors.newSingleThreadExecutor(new NameableThreadFactory("CheckpointCompactor", true));
+    }
+    return compactor;
+  }
+
   public static void store(OutputStream stream, Object operator)
   {
-    synchronized (kryo) {
-      Output output = new Output(4096, Integer.MAX_VALUE);
-      output.setOutputStream(stream);
-      kryo.writeClassAndObject(output, operator);
-      output.flush();
+    final Serde serde = acquire(null);
+    try {
+      serde.output.setOutputStream(stream);
+      serde.kryo.writeClassAndObject(serde.output, operator);
+      serde.output.flush();
+    } finally {
+      serde.output.setOutputStream(null);
+      serde.busy = false;
     }
   }
 
   public static Object retrieve(InputStream stream)
   {
-    synchronized (kryo) {
-      kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
-      Input input = new Input(stream);
-      return kryo.readClassAndObject(input);
+    final Serde serde = acquire(Thread.currentThread().getContextClassLoader());
+    try {
+      serde.input.setInputStream(stream);
+      return serde.kryo.readClassAndObject(serde.input);
+    } finally {
+      serde.input.setInputStream(null);
+      serde.busy = false;
+    }
+  }
+
+  /**
+   * Get the Kryo instance of the current thread.
+   *
+   * @param classLoader class loader to resolve the classes with, null for any
+   * @return Kryo instance marked busy until released by the caller
+   */
+  private static Serde acquire(ClassLoader classLoader)
+  {
+    Serde serde = serdes.get();
+    if (serde.busy) {
+      /* store or retrieve called by a serializer of the object being stored or retrieved */
+      serde = new Serde(classLoader == null ? serde.kryo.getClassLoader() : classLoader);
+    } else if (classLoader != null && classLoader != serde.kryo.getClassLoader()) {
+      /* the resolved classes of the other class loader are not valid anymore */
+      serde = new Serde(classLoader);
+      serdes.set(serde);
+    }
+    serde.busy = true;
+    return serde;
+  }
+
+  /**
+   * Base of the deltas of an operator.
+   */
+  private static class DeltaBase
+  {
+    CheckpointDelta.Index index;
+    int deltaCount;
+    boolean compacting;
+  }
+
+  private static class Serde
+  {
+    final Kryo kryo = new Kryo();
+    final Output output = new Output(4096, Integer.MAX_VALUE);
+    final Input input = new Input(4096);
+    boolean busy;
+
+    Serde(ClassLoader classLoader)
+    {
+      if (classLoader != null) {
+        kryo.setClassLoader(classLoader);
+      }
+    }
+  }
+
+  /**
+   * Set the number of the checkpoints of an operator between two full checkpoints. The checkpoints in between are
+   * saved as deltas. Default is 0, every checkpoint is a full checkpoint.
+   *
+   * @param fullCheckpointInterval the full checkpoint interval
+   */
+  public void setFullCheckpointInterval(int fullCheckpointInterval)
+  {
+    if (fullCheckpointInterval < 0) {
+      throw new IllegalArgumentException("Invalid full checkpoint interval " + fullCheckpointInterval);
     }
+    this.fullCheckpointInterval = fullCheckpointInterval;
+  }
+
+  @Override
+  public int getFullCheckpointInterval()
+  {
+    return fullCheckpointInterval;
+  }
+
+  /**
+   * Set the class name of the Hadoop compression codec the checkpoints are compressed with, for example
+   * org.apache.hadoop.io.compress.Lz4Codec, org.apache.hadoop.io.compress.SnappyCodec or
+   * org.apache.hadoop.io.compress.DefaultCodec. Default is null, the checkpoints are not compressed.
+   *
+   * @param compressionCodec the class name of the codec
+   */
+  public synchronized void setCompressionCodec(String compressionCodec)
+  {
+    this.compressionCodec = compressionCodec;
+    codec = null;
+  }
+
+  public synchronized String getCompressionCodec()
+  {
+    return compressionCodec;
+  }
+
+  /**
+   * Set the level of the deflate based compression codecs, DefaultCodec and GzipCodec. Default is
+   * DEFAULT_COMPRESSION.
+   *
+   * @param compressionLevel the compression level
+   */
+  public synchronized void setCompressionLevel(ZlibCompressor.CompressionLevel compressionLevel)
+  {
+    if (compressionLevel == null) {
+      throw new IllegalArgumentException("Invalid compression level " + compressionLevel);
+    }
+    this.compressionLevel = compressionLevel;
+    codec = null;
+  }
+
+  public synchronized ZlibCompressor.CompressionLevel getCompressionLevel()
+  {
+    return compressionLevel;
   }
 
   public Object readResolve() throws ObjectStreamException
   {
-    return new FSStorageAgent(this.path, null);
+    FSStorageAgent fsStorageAgent = new FSStorageAgent(this.path, null);
+    fsStorageAgent.setFullCheckpointInterval(fullCheckpointInterval);
+    fsStorageAgent.setCompressionCodec(compressionCodec);
+    if (compressionLevel != null) {
+      // null when serialized before the compression level was added
+      fsStorageAgent.setCompressionLevel(compressionLevel);
+    }
+    return fsStorageAgent;
   }
 
   private static final long serialVersionUID = 201404031201L;
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.common.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.hadoop.fs.FileStatus;
+
+/**
+ * Bounded cache of the checkpoints of the operators in a directory of the node.<p>
+ * <br>
+ * A container which saves the checkpoints asynchronously keeps the local copy of a checkpoint in the cache after it
+ * was copied to the file system of the storage agent, so that a container restarted on the same node loads the
+ * checkpoint from the local disk. A cached checkpoint starts with {@link #MAGIC}, the length and the modification time
+ * of the remote checkpoint and the CRC32 checksum of the content. The cached checkpoint is used only when the remote
+ * checkpoint has the same length and modification time and the content matches the checksum.
+ * <br>
+ * The containers of the application on the node share the directory. The least recently used checkpoints, ordered by
+ * the modification time of their files, are evicted when the cache exceeds its size.
+ * <br>
+ */
+final class LocalCheckpointCache
+{
+  private static final int MAGIC = 0xFFCAC4E1;
+  private static final int HEADER_SIZE = 4 + 8 + 8 + 8;
+  private static final String TMP_FILE_PREFIX = "_tmp_";
+  private final File directory;
+  private final long maxSize;
+
+  LocalCheckpointCache(File directory, long maxSize)
+  {
+    this.directory = directory;
+    this.maxSize = maxSize;
+  }
+
+  File getDirectory()
+  {
+    return directory;
+  }
+
+  private File getFile(int operatorId, long windowId)
+  {
+    return new File(new File(directory, String.valueOf(operatorId)), Long.toHexString(windowId));
+  }
+
+  /**
+   * Copy the local copy of a checkpoint into the cache. A checkpoint which cannot be cached is logged and skipped.
+   *
+   * @param operatorId
+   * @param windowId
+   * @param source the local copy of the checkpoint
+   * @param remote status of the checkpoint in the file system of the storage agent
+   */
+  void put(int operatorId, long windowId, File source, FileStatus remote)
+  {
+    if (source.length() + HEADER_SIZE > maxSize) {
+      return;
+    }
+    final File file = getFile(operatorId, windowId);
+    final File tmpFile = new File(file.getParentFile(), TMP_FILE_PREFIX + file.getName());
+    try {
+      Files.createDirectories(file.getParentFile().toPath());
+      final CRC32 checksum = new CRC32();
+      try (RandomAccessFile out = new RandomAccessFile(tmpFile, "rw");
+          FileInputStream in = new FileInputStream(source)) {
+        out.setLength(0);
+        out.writeInt(MAGIC);
+        out.writeLong(remote.getLen());
+        out.writeLong(remote.getModificationTime());
+        out.writeLong(0);
+        final byte[] buffer = new byte[64 * 1024];
+        for (int count = in.read(buffer); count >= 0; count = in.read(buffer)) {
+          checksum.update(buffer, 0, count);
+          out.write(buffer, 0, count);
+        }
+        out.seek(HEADER_SIZE - 8);
+        out.writeLong(checksum.getValue());
+      }
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      logger.warn("Cannot cache the checkpoint {} of operator {} in {}", windowId, operatorId, directory, ex);
+      tmpFile.delete();
+      return;
+    }
+    evict();
+  }
+
+  /**
+   * Get the cached checkpoint.
+   *
+   * @param operatorId
+   * @param windowId
+   * @param remote status of the checkpoint in the file system of the storage agent
+   * @return the content of the checkpoint or null if it is not cached or does not match the remote checkpoint
+   */
+  byte[] get(int operatorId, long windowId, FileStatus remote)
+  {
+    final File file = getFile(operatorId, windowId);
+    final long length = file.length() - HEADER_SIZE;
+    if (length < 0 || length > Integer.MAX_VALUE) {
+      return null;
+    }
+    final byte[] checkpoint = new byte[(int)length];
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readLong() != remote.getLen() || in.readLong() != remote.getModificationTime()) {
+        logger.debug("Cached checkpoint {} of operator {} does not match the remote checkpoint", windowId, operatorId);
+        return null;
+      }
+      final long expectedChecksum = in.readLong();
+      in.readFully(checkpoint);
+      final CRC32 checksum = new CRC32();
+      checksum.update(checkpoint);
+      if (checksum.getValue() != expectedChecksum) {
+        logger.warn("Corrupted cached checkpoint {}", file);
+        file.delete();
+        return null;
+      }
+    } catch (IOException ex) {
+      /* evicted by another container meanwhile */
+      logger.debug("Cannot read the cached checkpoint {}", file, ex);
+      return null;
+    }
+    file.setLastModified(System.currentTimeMillis());
+    return checkpoint;
+  }
+
+  void remove(int operatorId, long windowId)
+  {
+    getFile(operatorId, windowId).delete();
+  }
+
+  /**
+   * Delete the least recently used checkpoints until the cache fits its size.
+   */
+  private synchronized void evict()
+  {
+    /* the modification times are read once, the other containers may touch the files meanwhile */
+    final List<Pair<Long, File>> files = new ArrayList<>();
+    long size = 0;
+    final File[] operators = directory.listFiles();
+    if (operators == null) {
+      return;
+    }
+    for (File operator : operators) {
+      final File[] checkpoints = operator.listFiles();
+      if (checkpoints == null) {
+        continue;
+      }
+      for (File checkpoint : checkpoints) {
+        if (!checkpoint.getName().startsWith(TMP_FILE_PREFIX)) {
+          files.add(new Pair<>(checkpoint.lastModified(), checkpoint));
+          size += checkpoint.length();
+        }
+      }
+    }
+    if (size <= maxSize) {
+      return;
+    }
+    Collections.sort(files, new Comparator<Pair<Long, File>>()
+    {
+      @Override
+      public int compare(Pair<Long, File> p1, Pair<Long, File> p2)
+      {
+        return Long.compare(p1.first, p2.first);
+      }
+    });
+    for (int i = 0; i < files.size() && size > maxSize; i++) {
+      final File file = files.get(i).second;
+      final long length = file.length();
+      if (file.delete()) {
+        logger.debug("Evicted cached checkpoint {}", file);
+        size -= length;
+      }
+    }
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(LocalCheckpointCache.class);
+}
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.apex.common.util;
+
+import java.io.IOException;
+
+import org.apache.hadoop.classification.InterfaceStability;
+
+import com.datatorrent.api.StorageAgent;
+
+/**
+ * Storage agent which can save the checkpoints of an operator as deltas of an earlier full checkpoint.
+ * An IncrementalStorageAgent periodically writes a full checkpoint of the operator, the base, and writes only the
+ * difference to the base for the checkpoints in between. Deltas are compacted into new bases in the background.
+ * The {@link #load(int, long)} call reconstructs the operator from the base and the delta transparently, a base
+ * remains available for loading the deltas after it is deleted.
+ */
+@InterfaceStability.Evolving
+public interface IncrementalStorageAgent extends StorageAgent
+{
+  /**
+   * Get the number of the checkpoints of an operator between two full checkpoints.
+   *
+   * @return the full checkpoint interval, 1 or less if every checkpoint is a full checkpoint.
+   */
+  int getFullCheckpointInterval();
+
+  /**
+   * Get the window id of the full checkpoint the checkpoint of the given window is a delta of.
+   *
+   * @param operatorId
+   * @param windowId
+   * @return window id of the base or the given window id if the checkpoint is a full checkpoint.
+   * @throws IOException
+   */
+  long getBaseWindowId(int operatorId, long windowId) throws IOException;
+
+}
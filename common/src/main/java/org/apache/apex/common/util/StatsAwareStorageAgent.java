@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.apex.common.util;
+
+import org.apache.hadoop.classification.InterfaceStability;
+
+import com.datatorrent.api.Stats;
+import com.datatorrent.api.StorageAgent;
+
+/**
+ * Storage agent which reports the sizes of the checkpoints it saved.
+ * The platform reports the sizes in the checkpoint stats of the operator once the checkpoint is saved, after
+ * {@link AsyncStorageAgent#flush(int, long)} for the asynchronous storage agents.
+ */
+@InterfaceStability.Evolving
+public interface StatsAwareStorageAgent extends StorageAgent
+{
+  /**
+   * Fill the raw and the stored size of the last checkpoint saved for the operator in the stats.
+   *
+   * @param operatorId
+   * @param windowId
+   * @param stats the stats of the checkpoint
+   * @return true if the last checkpoint saved for the operator is the checkpoint of the window
+   */
+  boolean fillCheckpointStats(int operatorId, long windowId, Stats.CheckpointStats stats);
+
+}
@@ -31,11 +31,14 @@ import org.junit.runner.Description;
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.fs.FileContext;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.io.compress.zlib.ZlibCompressor;
 
 import com.google.common.collect.Maps;
 
 import com.datatorrent.api.Attribute;
 import com.datatorrent.api.DAG;
+import com.datatorrent.api.Stats;
 
 public class AsyncFSStorageAgentTest
 {
@@ -134,4 +137,123 @@ public class AsyncFSStorageAgentTest
     Assert.assertTrue("operator 2 window 1", fileContext.util().exists(new Path(appPath + "/" + 2 + "/" + 1)));
     Assert.assertFalse("operator 1 window 1", fileContext.util().exists(new Path(appPath + "/" + 1 + "/" + 1)));
   }
+
+  @Test
+  public void testIncrementalCheckpoints() throws IOException
+  {
+    AsyncFSStorageAgent storageAgent = testMeta.storageAgent;
+    storageAgent.setFullCheckpointInterval(3);
+
+    Map<Integer, String> data = Maps.newHashMap();
+    for (int i = 0; i < 10000; i++) {
+      data.put(i, "value of " + i);
+    }
+    storageAgent.save(data, 1, 1);
+
+    /* the second delta reaches the interval and its flush copies a full checkpoint */
+    data.put(5000, "changed");
+    storageAgent.save(data, 1, 2);
+    data.put(6000, "changed");
+    storageAgent.save(data, 1, 3);
+    storageAgent.flush(1, 1);
+    storageAgent.flush(1, 2);
+    storageAgent.flush(1, 3);
+    Assert.assertEquals("delta checkpoint", 1, storageAgent.getBaseWindowId(1, 2));
+    Assert.assertEquals("compacted checkpoint", 3, storageAgent.getBaseWindowId(1, 3));
+    Assert.assertEquals("window 3", data, storageAgent.load(1, 3));
+
+    data.put(7000, "changed");
+    storageAgent.save(data, 1, 4);
+    storageAgent.flush(1, 4);
+    Assert.assertEquals("delta checkpoint", 3, storageAgent.getBaseWindowId(1, 4));
+    Assert.assertEquals("window 4", data, storageAgent.load(1, 4));
+  }
+
+  @Test
+  public void testCompression() throws IOException
+  {
+    AsyncFSStorageAgent storageAgent = testMeta.storageAgent;
+    storageAgent.setCompressionCodec(DefaultCodec.class.getName());
+
+    Map<Integer, String> data = Maps.newHashMap();
+    for (int i = 0; i < 10000; i++) {
+      data.put(i, "value of " + i);
+    }
+    storageAgent.save(data, 1, 1);
+    storageAgent.flush(1, 1);
+
+    Stats.CheckpointStats stats = new Stats.CheckpointStats();
+    Assert.assertTrue("stats of window 1", storageAgent.fillCheckpointStats(1, 1, stats));
+    Assert.assertTrue("compressed", stats.checkpointSize * 2 < stats.checkpointRawSize);
+    Assert.assertEquals("window 1", data, storageAgent.load(1, 1));
+  }
+
+  @Test
+  public void testDeserializeWithoutCompression() throws Exception
+  {
+    Map<Integer, String> data = Maps.newHashMap();
+    data.put(1, "one");
+    AsyncFSStorageAgent storageAgent = (AsyncFSStorageAgent)FSStorageAgentTest.deserializeWithoutFields(
+        testMeta.storageAgent, "fullCheckpointInterval", "compressionCodec", "compressionLevel", "localCacheSize");
+    Assert.assertEquals("compression level", ZlibCompressor.CompressionLevel.DEFAULT_COMPRESSION,
+        storageAgent.getCompressionLevel());
+    Assert.assertEquals("local cache size", 0, storageAgent.getLocalCacheSize());
+    storageAgent.save(data, 1, 1);
+    storageAgent.flush(1, 1);
+    Assert.assertEquals("window 1", data, storageAgent.load(1, 1));
+  }
+
+  @Test
+  public void testLocalCache() throws IOException
+  {
+    AsyncFSStorageAgent storageAgent = testMeta.storageAgent;
+    storageAgent.setLocalCacheSize(1024 * 1024);
+    File directory = storageAgent.getLocalCache().getDirectory();
+    FileUtils.deleteDirectory(directory);
+    try {
+      Map<Integer, String> data = Maps.newHashMap();
+      for (int i = 0; i < 10000; i++) {
+        data.put(i, "value of " + i);
+      }
+      storageAgent.save(data, 1, 1);
+      storageAgent.flush(1, 1);
+      File cached = new File(directory, "1/1");
+      Assert.assertTrue("cached " + cached, cached.isFile());
+
+      /* the agent of the restarted container loads the checkpoint from the cache */
+      storageAgent = (AsyncFSStorageAgent)storageAgent.readResolve();
+      Assert.assertTrue("last modified", cached.setLastModified(0));
+      Assert.assertEquals("window 1", data, storageAgent.load(1, 1));
+      Assert.assertTrue("loaded from cache", cached.lastModified() > 0);
+
+      /* the corrupted checkpoint is loaded from the file system */
+      byte[] bytes = FileUtils.readFileToByteArray(cached);
+      bytes[bytes.length / 2] ^= 1;
+      FileUtils.writeByteArrayToFile(cached, bytes);
+      Assert.assertEquals("window 1", data, storageAgent.load(1, 1));
+      Assert.assertFalse("corrupted " + cached, cached.exists());
+
+      /* the least recently used checkpoint is evicted */
+      storageAgent.save(data, 1, 2);
+      storageAgent.flush(1, 2);
+      long length = new File(directory, "1/2").length();
+      storageAgent.setLocalCacheSize(length * 5 / 2);
+      storageAgent = (AsyncFSStorageAgent)storageAgent.readResolve();
+      storageAgent.save(data, 1, 3);
+      storageAgent.flush(1, 3);
+      Assert.assertTrue(new File(directory, "1/2").setLastModified(1000));
+      Assert.assertTrue(new File(directory, "1/3").setLastModified(2000));
+      Assert.assertEquals("window 2", data, storageAgent.load(1, 2));
+      storageAgent.save(data, 1, 4);
+      storageAgent.flush(1, 4);
+      Assert.assertTrue("window 2 cached", new File(directory, "1/2").exists());
+      Assert.assertFalse("window 3 evicted", new File(directory, "1/3").exists());
+      Assert.assertTrue("window 4 cached", new File(directory, "1/4").exists());
+
+      storageAgent.delete(1, 4);
+      Assert.assertFalse("window 4 deleted", new File(directory, "1/4").exists());
+    } finally {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
 }
@@ -18,9 +18,21 @@
  */
 package com.datatorrent.common.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Assert;
 import org.junit.Rule;
@@ -31,11 +43,16 @@ import org.junit.runner.Description;
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.fs.FileContext;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.io.compress.zlib.ZlibCompressor;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import com.datatorrent.api.Attribute;
 import com.datatorrent.api.DAG;
+import com.datatorrent.api.Stats;
 
 public class FSStorageAgentTest
 {
@@ -131,4 +148,226 @@ public class FSStorageAgentTest
     Assert.assertFalse("operator 1 window 1", fileContext.util().exists(new Path(appPath + "/" + 1 + "/" + 1)));
   }
 
+  @Test
+  public void testConcurrentSaveLoad() throws Exception
+  {
+    final int operators = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Map<Integer, String>>> futures = Lists.newArrayList();
+      for (int i = 0; i < operators; i++) {
+        final int operatorId = i;
+        futures.add(executor.submit(new Callable<Map<Integer, String>>()
+        {
+          @Override
+          @SuppressWarnings("unchecked")
+          public Map<Integer, String> call() throws Exception
+          {
+            for (int windowId = 1; windowId <= 10; windowId++) {
+              Map<Integer, String> data = Maps.newHashMap();
+              for (int j = 0; j < 100; j++) {
+                data.put(j, operatorId + ":" + windowId + ":" + j);
+              }
+              testMeta.storageAgent.save(data, operatorId, windowId);
+              Assert.assertEquals("data of " + operatorId, data, testMeta.storageAgent.load(operatorId, windowId));
+            }
+            return (Map<Integer, String>)testMeta.storageAgent.load(operatorId, 10);
+          }
+        }));
+      }
+      for (int i = 0; i < operators; i++) {
+        Map<Integer, String> decoded = futures.get(i).get();
+        Assert.assertEquals("size of " + i, 100, decoded.size());
+        Assert.assertEquals("last window of " + i, i + ":10:99", decoded.get(99));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testIncrementalCheckpoints() throws Exception
+  {
+    FSStorageAgent storageAgent = testMeta.storageAgent;
+    storageAgent.setFullCheckpointInterval(3);
+    Path operatorPath = new Path(testMeta.applicationPath + "/1");
+    FileContext fileContext = FileContext.getFileContext();
+
+    Map<Integer, String> data = Maps.newHashMap();
+    for (int i = 0; i < 10000; i++) {
+      data.put(i, "value of " + i);
+    }
+    storageAgent.save(data, 1, 1);
+    Assert.assertEquals("full checkpoint", 1, storageAgent.getBaseWindowId(1, 1));
+
+    data.put(5000, "changed");
+    storageAgent.save(data, 1, 2);
+    Assert.assertEquals("delta checkpoint", 1, storageAgent.getBaseWindowId(1, 2));
+    Assert.assertTrue("delta size", fileContext.getFileStatus(new Path(operatorPath, "2")).getLen() * 10 <
+        fileContext.getFileStatus(new Path(operatorPath, "1")).getLen());
+    Assert.assertEquals("window 2", data, storageAgent.load(1, 2));
+
+    /* the second delta reaches the interval and is compacted */
+    data.remove(10);
+    storageAgent.save(data, 1, 3);
+    for (int i = 0; i < 100 && storageAgent.getBaseWindowId(1, 3) != 3; i++) {
+      Thread.sleep(50);
+    }
+    Assert.assertEquals("compacted checkpoint", 3, storageAgent.getBaseWindowId(1, 3));
+    Assert.assertEquals("window 3", data, storageAgent.load(1, 3));
+
+    /* the deleted base is retained for the delta of window 2 */
+    storageAgent.delete(1, 1);
+    long[] windowIds = storageAgent.getWindowIds(1);
+    Arrays.sort(windowIds);
+    Assert.assertArrayEquals("window ids", new long[]{2, 3}, windowIds);
+    Map<Integer, String> decoded = (Map<Integer, String>)storageAgent.load(1, 2);
+    Assert.assertEquals("window 2 after delete", "changed", decoded.get(5000));
+    Assert.assertEquals("window 2 after delete", "value of 10", decoded.get(10));
+
+    /* the base is purged when no delta refers to it */
+    storageAgent.delete(1, 2);
+    data.put(1, "changed");
+    storageAgent.save(data, 1, 4);
+    storageAgent.save(data, 1, 5);
+    Path base = new Path(operatorPath, FSStorageAgent.BASE_FILE_PREFIX + "1");
+    for (int i = 0; i < 100 && fileContext.util().exists(base); i++) {
+      Thread.sleep(50);
+    }
+    Assert.assertFalse("purged base", fileContext.util().exists(base));
+    Assert.assertEquals("window 4", data, storageAgent.load(1, 4));
+
+    /* a new agent loads the checkpoints and starts with a full checkpoint */
+    storageAgent = (FSStorageAgent)storageAgent.readResolve();
+    Assert.assertEquals("full checkpoint interval", 3, storageAgent.getFullCheckpointInterval());
+    Assert.assertEquals("window 5", data, storageAgent.load(1, 5));
+    storageAgent.save(data, 1, 6);
+    Assert.assertEquals("full checkpoint", 6, storageAgent.getBaseWindowId(1, 6));
+  }
+
+  @Test
+  public void testCompactionOfDeletedCheckpoints() throws Exception
+  {
+    FSStorageAgent storageAgent = testMeta.storageAgent;
+    storageAgent.setFullCheckpointInterval(10);
+    Path operatorPath = new Path(testMeta.applicationPath + "/1");
+    FileContext fileContext = FileContext.getFileContext();
+
+    Map<Integer, String> data = Maps.newHashMap();
+    for (int i = 0; i < 10000; i++) {
+      data.put(i, "value of " + i);
+    }
+    storageAgent.save(data, 1, 1);
+    data.put(5000, "changed");
+    storageAgent.save(data, 1, 2);
+    data.put(6000, "changed");
+    storageAgent.save(data, 1, 3);
+
+    /* the compaction does not bring back the checkpoint deleted before it */
+    storageAgent.delete(1, 3);
+    storageAgent.rewrite(1, 3);
+    Assert.assertFalse("deleted checkpoint", fileContext.util().exists(new Path(operatorPath, "3")));
+    Assert.assertFalse("base of deleted checkpoint",
+        fileContext.util().exists(new Path(operatorPath, FSStorageAgent.BASE_FILE_PREFIX + "3")));
+
+    /* the compacted base is saved next to the delta */
+    storageAgent.rewrite(1, 2);
+    Assert.assertEquals("compacted checkpoint", 2, storageAgent.getBaseWindowId(1, 2));
+    data.put(6000, "value of 6000");
+    Assert.assertEquals("window 2", data, storageAgent.load(1, 2));
+    long[] windowIds = storageAgent.getWindowIds(1);
+    Arrays.sort(windowIds);
+    Assert.assertArrayEquals("window ids", new long[]{1, 2}, windowIds);
+
+    /* the bases are purged with the last checkpoint of a removed operator */
+    storageAgent.delete(1, 1);
+    storageAgent.delete(1, 2);
+    Assert.assertEquals("files left", 0, fileContext.util().listStatus(operatorPath).length);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCompression() throws IOException
+  {
+    Map<Integer, String> data = Maps.newHashMap();
+    for (int i = 0; i < 10000; i++) {
+      data.put(i, "value of " + i);
+    }
+    /* checkpoint saved before the compression was enabled */
+    testMeta.storageAgent.save(data, 1, 1);
+
+    FSStorageAgent storageAgent = new FSStorageAgent(testMeta.applicationPath, null);
+    storageAgent.setCompressionCodec(DefaultCodec.class.getName());
+    storageAgent.setCompressionLevel(ZlibCompressor.CompressionLevel.BEST_SPEED);
+    storageAgent = (FSStorageAgent)storageAgent.readResolve();
+    storageAgent.save(data, 1, 2);
+
+    Stats.CheckpointStats stats = new Stats.CheckpointStats();
+    Assert.assertFalse("stats of window 1", storageAgent.fillCheckpointStats(1, 1, stats));
+    Assert.assertTrue("stats of window 2", storageAgent.fillCheckpointStats(1, 2, stats));
+    Path operatorPath = new Path(testMeta.applicationPath + "/1");
+    FileContext fileContext = FileContext.getFileContext();
+    Assert.assertEquals("raw size", fileContext.getFileStatus(new Path(operatorPath, "1")).getLen(),
+        stats.checkpointRawSize);
+    Assert.assertEquals("size", fileContext.getFileStatus(new Path(operatorPath, "2")).getLen(), stats.checkpointSize);
+    Assert.assertTrue("compressed", stats.checkpointSize * 2 < stats.checkpointRawSize);
+
+    Assert.assertEquals("uncompressed checkpoint", data, storageAgent.load(1, 1));
+    Assert.assertEquals("compressed checkpoint", data, storageAgent.load(1, 2));
+    Assert.assertEquals("codec recorded in the checkpoint", data, testMeta.storageAgent.load(1, 2));
+
+    /* compressed deltas of a checkpoint compressed with another codec */
+    storageAgent.setCompressionCodec(GzipCodec.class.getName());
+    storageAgent.setFullCheckpointInterval(3);
+    storageAgent.save(data, 1, 3);
+    data.put(5000, "changed");
+    storageAgent.save(data, 1, 4);
+    Assert.assertEquals("delta checkpoint", 3, storageAgent.getBaseWindowId(1, 4));
+    Assert.assertEquals("compressed delta", data, storageAgent.load(1, 4));
+  }
+
+  @Test
+  public void testDeserializeWithoutCompression() throws Exception
+  {
+    Map<Integer, String> data = Maps.newHashMap();
+    data.put(1, "one");
+    FSStorageAgent storageAgent = (FSStorageAgent)deserializeWithoutFields(testMeta.storageAgent,
+        "fullCheckpointInterval", "compressionCodec", "compressionLevel");
+    Assert.assertEquals("full checkpoint interval", 0, storageAgent.getFullCheckpointInterval());
+    Assert.assertNull("compression codec", storageAgent.getCompressionCodec());
+    Assert.assertEquals("compression level", ZlibCompressor.CompressionLevel.DEFAULT_COMPRESSION,
+        storageAgent.getCompressionLevel());
+    storageAgent.save(data, 1, 1);
+    Assert.assertEquals("window 1", data, storageAgent.load(1, 1));
+  }
+
+  /**
+   * Serializes the object with the given fields renamed in the stream and deserializes it, the way an object
+   * serialized before the fields were added is read.
+   */
+  static Object deserializeWithoutFields(Serializable object, String... fields) throws Exception
+  {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+      oos.writeObject(object);
+    }
+    byte[] bytes = bos.toByteArray();
+    for (String field : fields) {
+      byte[] name = field.getBytes(StandardCharsets.UTF_8);
+      int offset = -1;
+      for (int i = 2; offset < 0 && i + name.length <= bytes.length; i++) {
+        if (bytes[i - 2] == 0 && bytes[i - 1] == name.length &&
+            Arrays.equals(name, Arrays.copyOfRange(bytes, i, i + name.length))) {
+          offset = i;
+        }
+      }
+      Assert.assertTrue("field " + field, offset >= 0);
+      bytes[offset] = '_';
+    }
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return ois.readObject();
+    }
+  }
+
 }
@@ -0,0 +1,233 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.datatorrent.stram.client.StramClientUtils;
+
+/**
+ * Content addressed cache of the library jars of the applications on the DFS.<p>
+ * <br>
+ * A jar is stored once under the checksum of its content as {@code <cache>/<checksum>/<name>} and the launched
+ * applications refer to the cached copy instead of a copy in their application directory. As the path and the
+ * modification time of the jar do not change between the launches, the node managers localize it from their private
+ * cache as well.
+ * <br>
+ * The jars an application refers to are recorded in {@code <cache>/apps/<appId>} before the cache is looked up.
+ * An entry which is not referenced by a recent or a running application is removed once it is older than the expiry.
+ * <br>
+ */
+public abstract class JarCache
+{
+  private static final Logger LOG = LoggerFactory.getLogger(JarCache.class);
+  private static final String SUBDIR_APPS = "apps";
+  private static final String CLEANUP_FILE = ".cleanup";
+  private static final long CLEANUP_INTERVAL_MILLIS = 60 * 60 * 1000L;
+
+  private final FileSystem fs;
+  private final Path basePath;
+  private final long expiryMillis;
+
+  /**
+   * @param fs file system of the cache
+   * @param basePath directory of the cache
+   * @param expiryMillis age after which the entries and the references of the finished applications are removed
+   */
+  public JarCache(FileSystem fs, Path basePath, long expiryMillis)
+  {
+    this.fs = fs;
+    this.basePath = fs.makeQualified(basePath);
+    this.expiryMillis = expiryMillis;
+  }
+
+  /**
+   * Check whether the application is no longer running. The references of a finished application are removed.
+   *
+   * @param appId id of the application
+   * @return true if the application finished or is unknown
+   * @throws IOException
+   */
+  protected abstract boolean isFinished(String appId) throws IOException;
+
+  /**
+   * @return true if the path is a jar in a cache
+   */
+  public static boolean isCachedPath(Path path)
+  {
+    Path parent = path.getParent();
+    return parent != null && parent.getParent() != null
+        && StramClientUtils.SUBDIR_JAR_CACHE.equals(parent.getParent().getName());
+  }
+
+  /**
+   * @return true if the path is a jar in this cache
+   */
+  public boolean contains(Path path)
+  {
+    Path qualifiedPath = fs.makeQualified(path);
+    return isCachedPath(qualifiedPath) && basePath.equals(qualifiedPath.getParent().getParent());
+  }
+
+  /**
+   * Get the path of the local file in the cache, which depends only on the name and the content of the file.
+   *
+   * @param localFile the local file
+   * @return path in the cache
+   * @throws IOException
+   */
+  public Path getPath(File localFile) throws IOException
+  {
+    String checksum;
+    try (InputStream in = new FileInputStream(localFile)) {
+      checksum = DigestUtils.sha256Hex(in);
+    }
+    return new Path(new Path(basePath, checksum), localFile.getName());
+  }
+
+  /**
+   * Record the jars an application refers to. The jars need not be in the cache yet.
+   *
+   * @param appId id of the application
+   * @param paths paths in the cache
+   * @throws IOException
+   */
+  public void addReferences(String appId, Collection<Path> paths) throws IOException
+  {
+    try (Writer writer = new OutputStreamWriter(fs.create(new Path(new Path(basePath, SUBDIR_APPS), appId), true),
+        StandardCharsets.UTF_8)) {
+      for (Path path : paths) {
+        writer.write(path.toString());
+        writer.write('\n');
+      }
+    }
+  }
+
+  /**
+   * Copy the local file to its path in the cache unless it is there already.
+   *
+   * @param localFile the local file
+   * @param path the path returned by {@link #getPath(File)}
+   * @return true if the file was copied
+   * @throws IOException
+   */
+  public boolean add(File localFile, Path path) throws IOException
+  {
+    if (fs.exists(path)) {
+      LOG.debug("Found {} in the cache as {}", localFile, path);
+      try {
+        // a cleanup which did not see the reference of this launch yet keeps the recently used entry
+        fs.setTimes(path.getParent(), System.currentTimeMillis(), -1);
+        return false;
+      } catch (FileNotFoundException e) {
+        LOG.debug("{} was removed from the cache", path);
+      }
+    }
+    // an entry appears complete or not at all to the concurrent launches
+    Path tmpPath = new Path(path.getParent(), "." + path.getName() + "." + UUID.randomUUID());
+    LOG.info("Copy {} from local filesystem to {}", localFile, path);
+    fs.copyFromLocalFile(false, true, new Path(localFile.toURI()), tmpPath);
+    if (!fs.rename(tmpPath, path)) {
+      fs.delete(tmpPath, false);
+      if (!fs.exists(path)) {
+        throw new IOException("Failed to add " + localFile + " to the cache as " + path);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Remove the references of the applications which finished before the expiry and the entries older than the expiry
+   * which are no longer referenced. Does nothing if the cache was cleaned up recently.
+   *
+   * @param currentTimeMillis the current time
+   * @throws IOException
+   */
+  public void cleanup(long currentTimeMillis) throws IOException
+  {
+    Path cleanupPath = new Path(basePath, CLEANUP_FILE);
+    if (!fs.exists(basePath)
+        || fs.exists(cleanupPath) && fs.getFileStatus(cleanupPath).getModificationTime() > currentTimeMillis - CLEANUP_INTERVAL_MILLIS) {
+      return;
+    }
+    fs.create(cleanupPath, true).close();
+    fs.setTimes(cleanupPath, currentTimeMillis, -1);
+
+    FileStatus[] entries = fs.listStatus(basePath);
+    Set<String> referenced = new HashSet<>();
+    Path appsPath = new Path(basePath, SUBDIR_APPS);
+    if (fs.exists(appsPath)) {
+      for (FileStatus status : fs.listStatus(appsPath)) {
+        String appId = status.getPath().getName();
+        if (status.getModificationTime() < currentTimeMillis - expiryMillis && isFinished(appId)) {
+          LOG.debug("Remove the jar cache references of {}", appId);
+          fs.delete(status.getPath(), false);
+          continue;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(status.getPath()), StandardCharsets.UTF_8))) {
+          for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            Path entryPath = new Path(line).getParent();
+            if (entryPath != null) {
+              referenced.add(entryPath.getName());
+            }
+          }
+        }
+      }
+    }
+
+    for (FileStatus entry : entries) {
+      String checksum = entry.getPath().getName();
+      if (entry.isDirectory() && !SUBDIR_APPS.equals(checksum) && !referenced.contains(checksum)
+          && entry.getModificationTime() < currentTimeMillis - expiryMillis) {
+        // a launch which added its references after they were read may have used the entry since it was listed
+        try {
+          if (fs.getFileStatus(entry.getPath()).getModificationTime() >= currentTimeMillis - expiryMillis) {
+            continue;
+          }
+        } catch (FileNotFoundException e) {
+          continue;
+        }
+        LOG.info("Remove {} from the jar cache", entry.getPath());
+        fs.delete(entry.getPath(), true);
+      }
+    }
+  }
+
+}
@@ -23,7 +23,9 @@ import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -34,6 +36,7 @@ import org.apache.apex.engine.security.ACLManager;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.text.StrSubstitutor;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -86,8 +89,51 @@ public class LaunchContainerRunnable implements Runnable
   private final Container container;
   private final NMClientAsync nmClient;
   private final StreamingContainerAgent sca;
+  private final SharedResources sharedResources;
   private static final int MB_TO_B = 1024 * 1024;
 
+  /**
+   * Files localized for all the containers of the application. The file status is looked up once and the local
+   * resources of each container are built from it.
+   */
+  public static class SharedResources
+  {
+    private final Configuration conf;
+    private final LogicalPlan dag;
+    private Map<String, FileStatus> files;
+    private Map<String, FileStatus> archives;
+
+    public SharedResources(Configuration conf, LogicalPlan dag)
+    {
+      this.conf = conf;
+      this.dag = dag;
+    }
+
+    /**
+     * Add the library jars and the archives of the application to the local resources of a container.
+     *
+     * @param localResources
+     * @throws IOException
+     */
+    public synchronized void addTo(Map<String, LocalResource> localResources) throws IOException
+    {
+      if (files == null) {
+        try (FileSystem fs = StramClientUtils.newFileSystemInstance(conf)) {
+          Map<String, FileStatus> files = getFileStatuses(dag.getAttributes().get(Context.DAGContext.LIBRARY_JARS), fs);
+          String archives = dag.getAttributes().get(LogicalPlan.ARCHIVES);
+          this.archives = archives == null ? Collections.<String, FileStatus>emptyMap() : getFileStatuses(archives, fs);
+          this.files = files;
+        }
+      }
+      for (Map.Entry<String, FileStatus> entry : files.entrySet()) {
+        addFileToLocalResources(entry.getKey(), entry.getValue(), LocalResourceType.FILE, localResources);
+      }
+      for (Map.Entry<String, FileStatus> entry : archives.entrySet()) {
+        addFileToLocalResources(entry.getKey(), entry.getValue(), LocalResourceType.ARCHIVE, localResources);
+      }
+    }
+  }
+
   /**
    * @param lcontainer Allocated container
    * @param nmClient
@@ -95,12 +141,25 @@ public class LaunchContainerRunnable implements Runnable
    * @param tokens
    */
   public LaunchContainerRunnable(Container lcontainer, NMClientAsync nmClient, StreamingContainerAgent sca, ByteBuffer tokens)
+  {
+    this(lcontainer, nmClient, sca, tokens, new SharedResources(nmClient.getConfig(), sca.getContainer().getPlan().getLogicalPlan()));
+  }
+
+  /**
+   * @param lcontainer Allocated container
+   * @param nmClient
+   * @param sca
+   * @param tokens
+   * @param sharedResources resources shared with the other containers of the application
+   */
+  public LaunchContainerRunnable(Container lcontainer, NMClientAsync nmClient, StreamingContainerAgent sca, ByteBuffer tokens, SharedResources sharedResources)
   {
     this.container = lcontainer;
     this.nmClient = nmClient;
     this.dag = sca.getContainer().getPlan().getLogicalPlan();
     this.tokens = tokens;
     this.sca = sca;
+    this.sharedResources = sharedResources;
   }
 
   private void setClasspath(Map<String, String> env)
@@ -129,18 +188,29 @@ public class LaunchContainerRunnable implements Runnable
 
   public static void addFileToLocalResources(final String name, final FileStatus fileStatus, final LocalResourceType type, final Map<String, LocalResource> localResources)
   {
+    // the jars of the jar cache are shared by the applications, the node manager keeps them in its private cache
+    final LocalResourceVisibility visibility = JarCache.isCachedPath(fileStatus.getPath()) ? LocalResourceVisibility.PRIVATE : LocalResourceVisibility.APPLICATION;
     final LocalResource localResource = LocalResource.newInstance(ConverterUtils.getYarnUrlFromPath(fileStatus.getPath()),
-        type, LocalResourceVisibility.APPLICATION, fileStatus.getLen(), fileStatus.getModificationTime());
+        type, visibility, fileStatus.getLen(), fileStatus.getModificationTime());
     localResources.put(name, localResource);
   }
 
   public static void addFilesToLocalResources(LocalResourceType type, String commaSeparatedFileNames, Map<String, LocalResource> localResources, FileSystem fs) throws IOException
   {
+    for (Map.Entry<String, FileStatus> entry : getFileStatuses(commaSeparatedFileNames, fs).entrySet()) {
+      addFileToLocalResources(entry.getKey(), entry.getValue(), type, localResources);
+    }
+  }
+
+  private static Map<String, FileStatus> getFileStatuses(String commaSeparatedFileNames, FileSystem fs) throws IOException
+  {
+    Map<String, FileStatus> fileStatuses = new LinkedHashMap<>();
     String[] files = StringUtils.splitByWholeSeparator(commaSeparatedFileNames, StramClient.LIB_JARS_SEP);
     for (String file : files) {
       final Path dst = new Path(file);
-      addFileToLocalResources(dst.getName(), fs.getFileStatus(dst), type, localResources);
+      fileStatuses.put(dst.getName(), fs.getFileStatus(dst));
     }
+    return fileStatuses;
   }
 
   /**
@@ -191,14 +261,8 @@ public class LaunchContainerRunnable implements Runnable
     // add resources for child VM
     try {
       // child VM dependencies
-      try (FileSystem fs = StramClientUtils.newFileSystemInstance(nmClient.getConfig())) {
-        addFilesToLocalResources(LocalResourceType.FILE, dag.getAttributes().get(Context.DAGContext.LIBRARY_JARS), localResources, fs);
-        String archives = dag.getAttributes().get(LogicalPlan.ARCHIVES);
-        if (archives != null) {
-          addFilesToLocalResources(LocalResourceType.ARCHIVE, archives, localResources, fs);
-        }
-        ctx.setLocalResources(localResources);
-      }
+      sharedResources.addTo(localResources);
+      ctx.setLocalResources(localResources);
     } catch (IOException e) {
       LOG.error("Failed to prepare local resources.", e);
       return;
@@ -219,6 +283,7 @@ public class LaunchContainerRunnable implements Runnable
     ctx.setCommands(commands);
 
     nmClient.startContainerAsync(container, ctx);
+    sca.launchedMillis = System.currentTimeMillis();
   }
 
   /**
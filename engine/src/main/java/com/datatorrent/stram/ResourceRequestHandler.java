@@ -39,6 +39,10 @@ import org.apache.hadoop.yarn.util.Records;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
+import com.datatorrent.api.Context.OperatorContext;
+import com.datatorrent.api.StorageAgent;
+import com.datatorrent.api.annotation.Stateless;
+import com.datatorrent.common.util.AsyncFSStorageAgent;
 import com.datatorrent.stram.StreamingContainerAgent.ContainerStartRequest;
 import com.datatorrent.stram.plan.physical.PTContainer;
 import com.datatorrent.stram.plan.physical.PTOperator;
@@ -132,6 +136,14 @@ public class ResourceRequestHandler
        */
       return new ContainerRequest(capability, nodes, racks, Priority.newInstance(priority), false);
     }
+    if (first) {
+      // prefer the node which holds the checkpoints of the restarted operators, if any
+      host = getCheckpointHost(csr.container);
+      if (host != null) {
+        LOG.info("Preferring {} with the local checkpoints of {}", host, csr.container);
+        nodes = new String[]{host};
+      }
+    }
     // For now, only memory is supported so we set memory requirements
     return new ContainerRequest(capability, nodes, racks, Priority.newInstance(priority));
   }
@@ -140,6 +152,7 @@ public class ResourceRequestHandler
   private final Map<Set<PTOperator>, String> nodeLocalMapping = Maps.newHashMap();
   private final Map<String, String> nodeToRack = Maps.newHashMap();
   private final Map<PTContainer, String> antiAffinityMapping = Maps.newHashMap();
+  private final Set<String> blacklistedNodes = Sets.newHashSet();
 
   public void clearNodeMapping()
   {
@@ -162,6 +175,22 @@ public class ResourceRequestHandler
     }
   }
 
+  /**
+   * Tracks the nodes blacklisted due to consecutive container failures. Containers are not preferred on these nodes.
+   *
+   * @param blacklistAdditions nodes added to the blacklist or null
+   * @param blacklistRemovals nodes removed from the blacklist or null
+   */
+  public void updateBlacklist(List<String> blacklistAdditions, List<String> blacklistRemovals)
+  {
+    if (blacklistAdditions != null) {
+      blacklistedNodes.addAll(blacklistAdditions);
+    }
+    if (blacklistRemovals != null) {
+      blacklistedNodes.removeAll(blacklistRemovals);
+    }
+  }
+
   public List<String> getNodesExceptHost(List<String> hostNames)
   {
     List<String> nodesList = new ArrayList<>();
@@ -272,6 +301,41 @@ public class ResourceRequestHandler
     return host;
   }
 
+  /**
+   * Get the node on which the operators of a restarted container ran before, if their storage agent keeps the
+   * checkpoints in the local cache of the node.
+   *
+   * @param c container
+   * @return host name or null if the container has no checkpoints cached on a node or may not run on the node
+   */
+  public String getCheckpointHost(PTContainer c)
+  {
+    if (c.host == null) {
+      return null;
+    }
+    for (PTOperator oper : c.getOperators()) {
+      StorageAgent agent = oper.getOperatorMeta().getValue(OperatorContext.STORAGE_AGENT);
+      if (agent instanceof AsyncFSStorageAgent && ((AsyncFSStorageAgent)agent).getLocalCacheSize() > 0
+          && oper.getRecoveryCheckpoint().windowId != Stateless.WINDOW_ID) {
+        // the host is recorded with the port of the node manager
+        String host = c.host.split(":")[0];
+        NodeReport report = nodeReportMap.get(host);
+        if (blacklistedNodes.contains(host) || (report != null && report.getNodeState() != NodeState.RUNNING)) {
+          LOG.debug("Not preferring unavailable node {} for {}", host, c);
+          return null;
+        }
+        List<String> antiHosts = new ArrayList<>();
+        populateAntiHostList(c, antiHosts);
+        if (antiHosts.contains(host)) {
+          LOG.debug("Not preferring node {} for {} due to anti-affinity", host, c);
+          return null;
+        }
+        return host;
+      }
+    }
+    return null;
+  }
+
   /**
    * Populate list of nodes where container cannot be allocated due to anti-affinity constraints
    * @param c container
@@ -18,6 +18,7 @@
  */
 package com.datatorrent.stram;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -28,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -66,10 +68,12 @@ import org.apache.hadoop.yarn.api.records.Priority;
 import org.apache.hadoop.yarn.api.records.QueueACL;
 import org.apache.hadoop.yarn.api.records.QueueUserACLInfo;
 import org.apache.hadoop.yarn.api.records.Resource;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
 import org.apache.hadoop.yarn.api.records.YarnClusterMetrics;
 import org.apache.hadoop.yarn.client.api.YarnClient;
 import org.apache.hadoop.yarn.client.api.YarnClientApplication;
 import org.apache.hadoop.yarn.conf.YarnConfiguration;
+import org.apache.hadoop.yarn.exceptions.ApplicationNotFoundException;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 import org.apache.hadoop.yarn.util.ConverterUtils;
 import org.apache.hadoop.yarn.util.Records;
@@ -255,6 +259,68 @@ public class StramClient
     return csv.toString();
   }
 
+  /**
+   * Refer to the local jars through the jar cache, the jars which are not in the cache yet are copied to it. Jars on
+   * the DFS outside of the cache are copied to the application directory.
+   */
+  private String copyToJarCache(FileSystem fs, Path appPath, String[] files) throws IOException
+  {
+    Path cachePath = new Path(StramClientUtils.getDTDFSRootDir(fs, conf), StramClientUtils.SUBDIR_JAR_CACHE);
+    long expiryMillis = conf.getLong(StramClientUtils.DT_JAR_CACHE_EXPIRY_MILLIS, StramClientUtils.DEFAULT_JAR_CACHE_EXPIRY_MILLIS);
+    JarCache cache = new JarCache(fs, cachePath, expiryMillis)
+    {
+      @Override
+      protected boolean isFinished(String appId) throws IOException
+      {
+        try {
+          YarnApplicationState state = yarnClient.getApplicationReport(ConverterUtils.toApplicationId(appId)).getYarnApplicationState();
+          return state == YarnApplicationState.FINISHED || state == YarnApplicationState.FAILED || state == YarnApplicationState.KILLED;
+        } catch (ApplicationNotFoundException e) {
+          return true;
+        } catch (YarnException e) {
+          throw new IOException(e);
+        }
+      }
+
+    };
+
+    String[] paths = new String[files.length];
+    List<Path> references = new ArrayList<>();
+    Map<Path, File> localFiles = new LinkedHashMap<>();
+    for (int i = 0; i < files.length; i++) {
+      URI localFileURI;
+      try {
+        localFileURI = new URI(files[i]);
+      } catch (URISyntaxException e) {
+        throw new IOException(e);
+      }
+      if (localFileURI.getScheme() == null || localFileURI.getScheme().startsWith("file")) {
+        File localFile = new File(new Path(files[i]).toUri().getPath());
+        Path dst = cache.getPath(localFile);
+        localFiles.put(dst, localFile);
+        references.add(dst);
+        paths[i] = dst.toString();
+      } else if (cache.contains(new Path(files[i]))) {
+        references.add(new Path(files[i]));
+        paths[i] = files[i];
+      } else {
+        paths[i] = copyFromLocal(fs, appPath, new String[]{files[i]});
+      }
+    }
+
+    // the references protect the entries from the cleanup by the concurrent launches
+    cache.addReferences(appId.toString(), references);
+    for (Map.Entry<Path, File> entry : localFiles.entrySet()) {
+      cache.add(entry.getValue(), entry.getKey());
+    }
+    try {
+      cache.cleanup(System.currentTimeMillis());
+    } catch (IOException ex) {
+      LOG.warn("Failed to clean up the jar cache {}", cachePath, ex);
+    }
+    return StringUtils.join(paths, LIB_JARS_SEP);
+  }
+
   public void copyInitialState(Path origAppDir) throws IOException
   {
     // locate previous snapshot
@@ -453,7 +519,13 @@ public class StramClient
       } else {
         appPath = new Path(configuredAppPath);
       }
-      String libJarsCsv = copyFromLocal(fs, appPath, localJarFiles.toArray(new String[]{}));
+      String[] jars = localJarFiles.toArray(new String[]{});
+      String libJarsCsv;
+      if (conf.getBoolean(StramClientUtils.DT_JAR_CACHE_ENABLED, true)) {
+        libJarsCsv = copyToJarCache(fs, appPath, jars);
+      } else {
+        libJarsCsv = copyFromLocal(fs, appPath, jars);
+      }
 
       LOG.info("libjars: {}", libJarsCsv);
       dag.getAttributes().put(Context.DAGContext.LIBRARY_JARS, libJarsCsv);
@@ -23,6 +23,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -77,6 +78,7 @@ public class StramLocalCluster implements Runnable, Controller
   private final UmbilicalProtocolLocalImpl umbilical;
   private InetSocketAddress bufferServerAddress;
   private boolean perContainerBufferServer;
+  private boolean inProcessBufferServer = true;
   private Server bufferServer = null;
   private final Map<String, LocalStreamingContainer> childContainers = new ConcurrentHashMap<>();
   private int containerSeq = 0;
@@ -140,9 +142,9 @@ public class StramLocalCluster implements Runnable, Controller
       }
       try {
         ContainerHeartbeatResponse rsp = dnmgr.processHeartbeat(msg);
-        if (rsp != null) {
-          // clone to not share attributes (stream codec etc.) between threads.
-          rsp = SerializationUtils.clone(rsp);
+        if (rsp != null && rsp.deployRequest != null) {
+          // clone to not share attributes (stream codec etc.) between threads, the rest of the response is not shared.
+          rsp.deployRequest = SerializationUtils.clone(new ArrayList<>(rsp.deployRequest));
         }
         return rsp;
       } finally {
@@ -195,6 +197,11 @@ public class StramLocalCluster implements Runnable, Controller
       }
     }
 
+    void setInProcessBufferServer(boolean inProcessBufferServer)
+    {
+      this.inProcessBufferServer = inProcessBufferServer;
+    }
+
     public void waitForHeartbeat(int waitMillis) throws InterruptedException
     {
       synchronized (heartbeatCount) {
@@ -251,6 +258,7 @@ public class StramLocalCluster implements Runnable, Controller
         wingen = mockComponentFactory.setupWindowGenerator();
       }
       this.child = new LocalStreamingContainer(containerId, umbilical, wingen);
+      child.setInProcessBufferServer(inProcessBufferServer);
       ContainerResource cr = new ContainerResource(cdr.container.getResourceRequestPriority(), containerId, "localhost", cdr.container.getRequiredMemoryMB(), cdr.container.getRequiredVCores(), null);
       StreamingContainerAgent sca = dnmgr.assignContainer(cr, perContainerBufferServer ? null : bufferServerAddress);
       if (sca != null) {
@@ -448,6 +456,17 @@ public class StramLocalCluster implements Runnable, Controller
     this.perContainerBufferServer = perContainerBufferServer;
   }
 
+  /**
+   * Connect the publishers and subscribers of the containers to the buffer servers in process instead of over loopback
+   * sockets, enabled by default.
+   *
+   * @param inProcessBufferServer whether the streams connect to the buffer servers in process
+   */
+  public void setInProcessBufferServer(boolean inProcessBufferServer)
+  {
+    this.inProcessBufferServer = inProcessBufferServer;
+  }
+
   public void setExitCondition(Callable<Boolean> exitCondition)
   {
     this.exitCondition = exitCondition;
@@ -35,6 +35,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.bind.annotation.XmlElement;
@@ -94,6 +96,7 @@ import com.datatorrent.api.AutoMetric;
 import com.datatorrent.api.Context.DAGContext;
 import com.datatorrent.api.DAG;
 import com.datatorrent.api.StringCodec;
+import com.datatorrent.common.util.NameableThreadFactory;
 import com.datatorrent.stram.StreamingContainerAgent.ContainerStartRequest;
 import com.datatorrent.stram.StreamingContainerManager.ContainerResource;
 import com.datatorrent.stram.api.AppDataSource;
@@ -162,6 +165,8 @@ public class StreamingAppMasterService extends CompositeService
   private StramDelegationTokenManager delegationTokenManager = null;
   private AppDataPushAgent appDataPushAgent;
   private ApexPluginDispatcher apexPluginDispatcher;
+  private ExecutorService containerLauncher;
+  private LaunchContainerRunnable.SharedResources sharedResources;
 
   public StreamingAppMasterService(ApplicationAttemptId appAttemptID)
   {
@@ -573,6 +578,8 @@ public class StreamingAppMasterService extends CompositeService
     }
     this.nmClient = new NMClientAsyncImpl(new NMCallbackHandler());
     addService(nmClient);
+    this.containerLauncher = Executors.newFixedThreadPool(dag.getValue(LogicalPlan.CONTAINER_LAUNCH_THREADS), new NameableThreadFactory("ContainerLauncher"));
+    this.sharedResources = new LaunchContainerRunnable.SharedResources(conf, dag);
     this.amRmClient = AMRMClient.createAMRMClient();
     addService(amRmClient);
 
@@ -656,6 +663,9 @@ public class StreamingAppMasterService extends CompositeService
     if (UserGroupInformation.isSecurityEnabled()) {
       delegationTokenManager.stopThreads();
     }
+    if (containerLauncher != null) {
+      containerLauncher.shutdownNow();
+    }
     if (nmClient != null) {
       nmClient.stop();
     }
@@ -865,6 +875,7 @@ public class StreamingAppMasterService extends CompositeService
       }
       if (!blacklistRemovals.isEmpty()) {
         amRmClient.updateBlacklist(null, blacklistRemovals);
+        resourceRequestor.updateBlacklist(null, blacklistRemovals);
         LOG.info("Removing nodes {} from blacklist: time elapsed since last blacklisting due to failure is greater than specified timeout", blacklistRemovals.toString());
         failedBlackListedNodes.removeAll(blacklistRemovals);
       }
@@ -934,11 +945,8 @@ public class StreamingAppMasterService extends CompositeService
             //ByteBuffer tokens = LaunchContainerRunnable.getTokens(delegationTokenManager, heartbeatListener.getAddress());
             tokens = LaunchContainerRunnable.getTokens(ugi, delegationToken);
           }
-          LaunchContainerRunnable launchContainer = new LaunchContainerRunnable(allocatedContainer, nmClient, sca, tokens);
-          // Thread launchThread = new Thread(runnableLaunchContainer);
-          // launchThreads.add(launchThread);
-          // launchThread.start();
-          launchContainer.run(); // communication with NMs is now async
+          // the launch contexts are prepared in parallel, communication with NMs is async
+          containerLauncher.execute(new LaunchContainerRunnable(allocatedContainer, nmClient, sca, tokens, sharedResources));
 
           // record container start event
           StramEvent ev = new StramEvent.StartContainerEvent(allocatedContainer.getId().toString(), allocatedContainer.getNodeId().toString());
@@ -1033,6 +1041,7 @@ public class StreamingAppMasterService extends CompositeService
 
       if (!blacklistAdditions.isEmpty()) {
         amRmClient.updateBlacklist(blacklistAdditions, null);
+        resourceRequestor.updateBlacklist(blacklistAdditions, null);
         long timeStamp = System.currentTimeMillis();
         for (String hostname : blacklistAdditions) {
           NodeFailureStats stats = failedContainerNodesMap.get(hostname);
@@ -46,6 +46,7 @@ import com.datatorrent.api.StorageAgent;
 import com.datatorrent.api.StreamCodec;
 import com.datatorrent.api.annotation.Stateless;
 import com.datatorrent.stram.api.Checkpoint;
+import com.datatorrent.stram.api.ContainerStatsCodec;
 import com.datatorrent.stram.api.OperatorDeployInfo;
 import com.datatorrent.stram.api.OperatorDeployInfo.InputDeployInfo;
 import com.datatorrent.stram.api.OperatorDeployInfo.OperatorType;
@@ -106,6 +107,8 @@ public class StreamingContainerAgent
 
   long lastHeartbeatMillis = 0;
   long createdMillis = System.currentTimeMillis();
+  volatile long launchedMillis = -1;
+  long deployedMillis = -1;
   final PTContainer container;
   final StreamingContainerContext initCtx;
   String jvmName;
@@ -113,6 +116,7 @@ public class StreamingContainerAgent
   long gcCollectionCount;
   long gcCollectionTime;
   final StreamingContainerManager dnmgr;
+  final ContainerStatsCodec.Decoder statsDecoder = new ContainerStatsCodec.Decoder();
 
   private final ConcurrentLinkedQueue<StramToNodeRequest> operatorRequests = new ConcurrentLinkedQueue<>();
 
@@ -460,7 +464,10 @@ public class StreamingContainerAgent
     ci.memoryMBFree = this.memoryMBFree;
     ci.gcCollectionCount = this.gcCollectionCount;
     ci.gcCollectionTime = this.gcCollectionTime;
+    ci.allocatedTime = createdMillis;
+    ci.launchedTime = launchedMillis;
     ci.startedTime = container.getStartedTime();
+    ci.deployedTime = deployedMillis;
     ci.finishedTime = container.getFinishedTime();
     if (this.container.nodeHttpAddress != null) {
       YarnConfiguration conf = new YarnConfiguration();
@@ -236,8 +236,17 @@ public class StreamingContainerManager implements PlanContext
   // window id to node id to end window stats
   private final ConcurrentSkipListMap<Long, Map<Integer, EndWindowStats>> endWindowStatsOperatorMap = new ConcurrentSkipListMap<>();
   private final ConcurrentMap<PTOperator, PTOperator> slowestUpstreamOp = new ConcurrentHashMap<>();
+  // operators that reported end window stats or lost their slowest upstream operator since the last latency update
+  private final Set<PTOperator> latencyUpdateOperators = Collections.newSetFromMap(new ConcurrentHashMap<PTOperator, Boolean>());
+  // relative latency change of an operator on the critical path that is tolerated before the path is found again
+  @VisibleForTesting
+  double criticalPathLatencyTolerance = 0.1;
+  // critical path ending at the operator, kept while the operators on the path keep their latency and slowest upstream
+  private final Map<PTOperator, CriticalPathNode> criticalPathNodes = new HashMap<>();
+  private int criticalPathDeployChangeCnt = -1;
   private long committedWindowId;
   private long lastCommittedWindowId = Checkpoint.INITIAL_CHECKPOINT.getWindowId();
+  private final AtomicLong statsVersion = new AtomicLong();
   // (operator id, port name) to timestamp
   private final Map<Pair<Integer, String>, Long> operatorPortLastEndWindowTimestamps = Maps.newConcurrentMap();
   private final Map<Integer, Long> operatorLastEndWindowTimestamps = Maps.newConcurrentMap();
@@ -308,11 +317,33 @@ public class StreamingContainerManager implements PlanContext
       this.latency = latency;
       this.path = path;
     }
+  }
 
-    @Override
-    protected Object clone() throws CloneNotSupportedException
+  /**
+   * Operator on a critical path, linked to the previous operator on the path.
+   */
+  private static class CriticalPathNode
+  {
+    final int operatorId;
+    final long operatorLatency;
+    final long latency;
+    final CriticalPathNode upstream;
+
+    CriticalPathNode(int operatorId, long operatorLatency, CriticalPathNode upstream)
+    {
+      this.operatorId = operatorId;
+      this.operatorLatency = operatorLatency;
+      this.latency = (upstream == null ? 0 : upstream.latency) + operatorLatency;
+      this.upstream = upstream;
+    }
+
+    CriticalPathInfo toCriticalPathInfo()
     {
-      return new CriticalPathInfo(this.latency, (LinkedList<Integer>)this.path.clone());
+      LinkedList<Integer> path = new LinkedList<>();
+      for (CriticalPathNode node = this; node != null; node = node.upstream) {
+        path.addFirst(node.operatorId);
+      }
+      return new CriticalPathInfo(latency, path);
     }
   }
 
@@ -610,6 +641,17 @@ public class StreamingContainerManager implements PlanContext
     return committedWindowId;
   }
 
+  /**
+   * Get the number of the stats cycles of the master main loop. The views of the physical plan and its stats built
+   * in one cycle can be served until the version changes.
+   *
+   * @return version of the stats
+   */
+  public long getStatsVersion()
+  {
+    return statsVersion.get();
+  }
+
   public boolean isGatewayConnected()
   {
     return wsClient != null && wsClient.isConnectionOpen();
@@ -824,6 +866,7 @@ public class StreamingContainerManager implements PlanContext
     if (this.vars.enableStatsRecording) {
       recordStats(currentTms);
     }
+    statsVersion.incrementAndGet();
   }
 
   private void recordStats(long currentTms)
@@ -840,11 +883,7 @@ public class StreamingContainerManager implements PlanContext
   {
     Map<Integer, PTOperator> allOperators = plan.getAllOperators();
 
-    UpdateOperatorLatencyContext ctx = new UpdateOperatorLatencyContext(rpcLatencies, endWindowStatsOperatorMap);
-
-    for (PTOperator operator : allOperators.values()) {
-      updateOperatorLatency(operator, ctx);
-    }
+    updateLatencies(allOperators);
 
     if (!endWindowStatsOperatorMap.isEmpty()) {
 
@@ -865,7 +904,6 @@ public class StreamingContainerManager implements PlanContext
         Set<Integer> endWindowStatsOperators = endWindowStatsMap.keySet();
 
         aggregateMetrics(windowId, endWindowStatsMap);
-        criticalPathInfo = findCriticalPath();
 
         if (allOperators.keySet().containsAll(endWindowStatsOperators)) {
           if (endWindowStatsMap.size() < numOperators) {
@@ -1001,41 +1039,116 @@ public class StreamingContainerManager implements PlanContext
     return logicalMetrics.get(operatorName);
   }
 
-  private CriticalPathInfo findCriticalPath()
+  private void removeSlowestUpstream(PTOperator oper)
   {
-    CriticalPathInfo result = null;
-    List<PTOperator> leafOperators = plan.getLeafOperators();
-    Map<PTOperator, CriticalPathInfo> cache = new HashMap<>();
-    for (PTOperator leafOperator : leafOperators) {
-      CriticalPathInfo cpi = findCriticalPathHelper(leafOperator, cache);
-      if (result == null || result.latency < cpi.latency) {
-        result = cpi;
+    slowestUpstreamOp.remove(oper);
+    latencyUpdateOperators.add(oper);
+  }
+
+  /**
+   * Update the latencies of the operators that reported end window stats since the last update and of their
+   * downstream operators, and the critical path through the operators whose slowest upstream operator changed or
+   * whose latency moved by more than the tolerance. The latency of an operator is sampled only when it or one of its
+   * upstream operators reported.
+   */
+  private void updateLatencies(Map<Integer, PTOperator> allOperators)
+  {
+    Set<PTOperator> operators = new HashSet<>();
+    if (criticalPathDeployChangeCnt != deployChangeCnt) {
+      // the physical plan changed
+      criticalPathDeployChangeCnt = deployChangeCnt;
+      criticalPathNodes.clear();
+      latencyUpdateOperators.clear();
+      operators.addAll(allOperators.values());
+    } else {
+      Iterator<PTOperator> it = latencyUpdateOperators.iterator();
+      while (it.hasNext()) {
+        PTOperator operator = it.next();
+        it.remove();
+        if (allOperators.get(operator.getId()) == operator) {
+          operators.add(operator);
+          for (PTOutput output : operator.getOutputs()) {
+            for (PTInput sink : output.sinks) {
+              operators.add(sink.target);
+            }
+          }
+        }
       }
     }
-    return result;
+
+    UpdateOperatorLatencyContext ctx = new UpdateOperatorLatencyContext(rpcLatencies, endWindowStatsOperatorMap);
+    for (PTOperator operator : operators) {
+      updateOperatorLatency(operator, ctx);
+    }
+    for (PTOperator operator : operators) {
+      CriticalPathNode node = criticalPathNodes.get(operator);
+      if (node != null) {
+        PTOperator slowestUpstreamOperator = slowestUpstreamOp.get(operator);
+        if (Math.abs(operator.stats.getLatencyMA() - node.operatorLatency) >
+            criticalPathLatencyTolerance * node.operatorLatency || (node.upstream == null ?
+            slowestUpstreamOperator != null : slowestUpstreamOperator == null ||
+            slowestUpstreamOperator.getId() != node.upstream.operatorId)) {
+          invalidateCriticalPath(operator);
+        }
+      }
+    }
+
+    CriticalPathNode result = findCriticalPath(criticalPathNodes);
+    if (result != null) {
+      criticalPathInfo = result.toCriticalPathInfo();
+    }
   }
 
-  private CriticalPathInfo findCriticalPathHelper(PTOperator operator, Map<PTOperator, CriticalPathInfo> cache)
-  {
-    CriticalPathInfo cpi = cache.get(operator);
-    if (cpi != null) {
-      return cpi;
+  /**
+   * Remove the critical paths through the operator, they are found again when needed.
+   */
+  private void invalidateCriticalPath(PTOperator operator)
+  {
+    if (criticalPathNodes.remove(operator) != null) {
+      for (PTOutput output : operator.getOutputs()) {
+        for (PTInput sink : output.sinks) {
+          CriticalPathNode node = criticalPathNodes.get(sink.target);
+          if (node != null && node.upstream != null && node.upstream.operatorId == operator.getId()) {
+            invalidateCriticalPath(sink.target);
+          }
+        }
+      }
     }
-    PTOperator slowestUpstreamOperator = slowestUpstreamOp.get(operator);
-    if (slowestUpstreamOperator != null) {
-      cpi = findCriticalPathHelper(slowestUpstreamOperator, cache);
-      try {
-        cpi = (CriticalPathInfo)cpi.clone();
-      } catch (CloneNotSupportedException ex) {
-        throw new RuntimeException();
+  }
+
+  /**
+   * Find the critical path from scratch, without the paths kept by the previous updates.
+   */
+  @VisibleForTesting
+  CriticalPathInfo findCriticalPath()
+  {
+    CriticalPathNode result = findCriticalPath(new HashMap<PTOperator, CriticalPathNode>());
+    return result == null ? null : result.toCriticalPathInfo();
+  }
+
+  private CriticalPathNode findCriticalPath(Map<PTOperator, CriticalPathNode> nodes)
+  {
+    CriticalPathNode result = null;
+    for (PTOperator leafOperator : plan.getLeafOperators()) {
+      CriticalPathNode node = findCriticalPath(leafOperator, nodes);
+      if (result == null || result.latency < node.latency) {
+        result = node;
       }
-    } else {
-      cpi = new CriticalPathInfo();
     }
-    cpi.latency += operator.stats.getLatencyMA();
-    cpi.path.addLast(operator.getId());
-    cache.put(operator, cpi);
-    return cpi;
+    return result;
+  }
+
+  private CriticalPathNode findCriticalPath(PTOperator operator, Map<PTOperator, CriticalPathNode> nodes)
+  {
+    CriticalPathNode node = nodes.get(operator);
+    if (node == null) {
+      PTOperator slowestUpstreamOperator = slowestUpstreamOp.get(operator);
+      CriticalPathNode upstream = slowestUpstreamOperator == null ? null :
+          findCriticalPath(slowestUpstreamOperator, nodes);
+      node = new CriticalPathNode(operator.getId(), operator.stats.getLatencyMA(), upstream);
+      nodes.put(operator, node);
+    }
+    return node;
   }
 
   public int processEvents()
@@ -1379,14 +1492,14 @@ public class StreamingContainerManager implements PlanContext
               }
               oper.setState(State.INACTIVE);
               sca.undeployOpers.add(oper.getId());
-              slowestUpstreamOp.remove(oper);
+              removeSlowestUpstream(oper);
               // record operator stop event
               recordEventAsync(new StramEvent.StopOperatorEvent(oper.getName(), oper.getId(), oper.getContainer().getExternalId()));
               break;
             case FAILED:
               processOperatorFailure(oper);
               sca.undeployOpers.add(oper.getId());
-              slowestUpstreamOp.remove(oper);
+              removeSlowestUpstream(oper);
               recordEventAsync(new StramEvent.StopOperatorEvent(oper.getName(), oper.getId(), oper.getContainer().getExternalId()));
               break;
             case ACTIVE:
@@ -1404,7 +1517,7 @@ public class StreamingContainerManager implements PlanContext
         } else {
           // operator is currently deployed, request undeploy
           sca.undeployOpers.add(oper.getId());
-          slowestUpstreamOp.remove(oper);
+          removeSlowestUpstream(oper);
         }
         break;
       case PENDING_DEPLOY:
@@ -1426,7 +1539,7 @@ public class StreamingContainerManager implements PlanContext
         if (ds != null) {
           // operator was removed and needs to be undeployed from container
           sca.undeployOpers.add(oper.getId());
-          slowestUpstreamOp.remove(oper);
+          removeSlowestUpstream(oper);
           recordEventAsync(new StramEvent.StopOperatorEvent(oper.getName(), oper.getId(), oper.getContainer().getExternalId()));
         }
     }
@@ -1481,6 +1594,19 @@ public class StreamingContainerManager implements PlanContext
       return response;
     }
 
+    if (heartbeat.compactStats != null) {
+      synchronized (sca.statsDecoder) {
+        try {
+          heartbeat.stats = sca.statsDecoder.decode(heartbeat.getContainerId(), heartbeat.compactStats);
+        } catch (IOException ex) {
+          LOG.warn("Cannot decode the stats of container {}, requesting reset", sca.container.getExternalId(), ex);
+          ContainerHeartbeatResponse response = new ContainerHeartbeatResponse();
+          response.resetCompactStats = true;
+          return response;
+        }
+      }
+    }
+
     //LOG.debug("{} {} {}", new Object[]{sca.container.containerId, sca.container.bufferServerAddress, sca.container.getState()});
     if (sca.container.getState() == PTContainer.State.ALLOCATED) {
       // capture dynamically assigned address from container
@@ -1581,6 +1707,7 @@ public class StreamingContainerManager implements PlanContext
 
         final OperatorStatus status = oper.stats;
         status.statsRevs.checkout();
+        latencyUpdateOperators.add(oper);
 
         for (Map.Entry<String, PortStatus> entry : status.inputPortStatusList.entrySet()) {
           entry.getValue().recordingId = null;
@@ -1639,6 +1766,7 @@ public class StreamingContainerManager implements PlanContext
               ps.tuplesPMSMA.add(s.tupleCount, portElapsedMillis);
               ps.bufferServerBytesPMSMA.add(s.bufferServerBytes, portElapsedMillis);
               ps.queueSizeMA.add(s.queueSize);
+              ps.queueSizeHistogram.add(s.queueSize);
 
               operatorPortLastEndWindowTimestamps.put(operatorPortName, s.endWindowTimestamp);
               if (maxEndWindowTimestamp < s.endWindowTimestamp) {
@@ -1913,6 +2041,7 @@ public class StreamingContainerManager implements PlanContext
       }
       if (slowestUpstream != null) {
         status.latencyMA.add(latency);
+        status.latencyHistogram.add(latency);
         slowestUpstreamOp.put(oper, slowestUpstream);
         return latency;
       }
@@ -1937,13 +2066,19 @@ public class StreamingContainerManager implements PlanContext
 
     Set<PTOperator> deployOperators = sca.deployOpers;
     if (!deployOperators.isEmpty()) {
-      // deploy once all containers are running and no undeploy operations are pending.
-      for (PTContainer c : getPhysicalPlan().getContainers()) {
-        if (c.getState() != PTContainer.State.ACTIVE) {
-          LOG.debug("{} waiting for container activation {}", sca.container.toIdStateString(), c.toIdStateString());
-          rsp.hasPendingRequests = true;
-          return rsp;
+      // deploy once the containers of the upstream operators are running and no undeploy operations are pending,
+      // the subscribers connect to the buffer servers of the upstream containers before their publishers.
+      for (PTOperator oper : deployOperators) {
+        for (PTOperator.PTInput input : oper.getInputs()) {
+          PTContainer c = input.source.source.getContainer();
+          if (c.getState() != PTContainer.State.ACTIVE) {
+            LOG.debug("{} waiting for container activation {}", sca.container.toIdStateString(), c.toIdStateString());
+            rsp.hasPendingRequests = true;
+            return rsp;
+          }
         }
+      }
+      for (PTContainer c : getPhysicalPlan().getContainers()) {
         for (PTOperator oper : c.getOperators()) {
           if (oper.getState() == PTOperator.State.PENDING_UNDEPLOY) {
             LOG.debug("{} waiting for undeploy {} {}", sca.container.toIdStateString(), c.toIdStateString(), oper);
@@ -1962,6 +2097,9 @@ public class StreamingContainerManager implements PlanContext
           rsp.nodeRequests.addAll(o.deployRequests);
         }
       }
+      if (sca.deployedMillis < 0) {
+        sca.deployedMillis = System.currentTimeMillis();
+      }
       rsp.hasPendingRequests = false;
       return rsp;
     }
@@ -2553,6 +2691,8 @@ public class StreamingContainerManager implements PlanContext
     oi.tuplesEmittedPSMA = os.tuplesEmittedPSMA.get();
     oi.cpuPercentageMA = os.cpuNanosPMSMA.getAvg() / 10000;
     oi.latencyMA = os.latencyMA.getAvg();
+    oi.latencyP50 = os.latencyHistogram.getPercentile(0.5);
+    oi.latencyP99 = os.latencyHistogram.getPercentile(0.99);
     oi.failureCount = operator.failureCount;
     oi.recoveryWindowId = toWsWindowId(operator.getRecoveryCheckpoint().windowId);
     oi.currentWindowId = toWsWindowId(os.currentWindowId.get());
@@ -2562,6 +2702,8 @@ public class StreamingContainerManager implements PlanContext
     if (os.checkpointStats != null) {
       oi.checkpointTime = os.checkpointStats.checkpointTime;
       oi.checkpointStartTime = os.checkpointStats.checkpointStartTime;
+      oi.checkpointSize = os.checkpointStats.checkpointSize;
+      oi.checkpointRawSize = os.checkpointStats.checkpointRawSize;
     }
     oi.checkpointTimeMA = os.checkpointTimeMA.getAvg();
     for (PortStatus ps : os.inputPortStatusList.values()) {
@@ -2572,6 +2714,8 @@ public class StreamingContainerManager implements PlanContext
       pinfo.tuplesPSMA = Math.round(ps.tuplesPMSMA.getAvg() * 1000);
       pinfo.bufferServerBytesPSMA = Math.round(ps.bufferServerBytesPMSMA.getAvg() * 1000);
       pinfo.queueSizeMA = ps.queueSizeMA.getAvg();
+      pinfo.queueSizeP50 = ps.queueSizeHistogram.getPercentile(0.5);
+      pinfo.queueSizeP99 = ps.queueSizeHistogram.getPercentile(0.99);
       pinfo.recordingId = ps.recordingId;
       oi.addPort(pinfo);
     }
@@ -3287,17 +3431,30 @@ public class StreamingContainerManager implements PlanContext
     if (sa instanceof AsyncFSStorageAgent) {
       AsyncFSStorageAgent fssa = (AsyncFSStorageAgent)sa;
       if (fssa.path.contains(oldAppId)) {
-        return new AsyncFSStorageAgent(fssa.path.replace(oldAppId, appId), conf);
+        AsyncFSStorageAgent newAgent = new AsyncFSStorageAgent(fssa.path.replace(oldAppId, appId), conf);
+        copyFSStorageAgentSettings(fssa, newAgent);
+        newAgent.setSyncCheckpoint(fssa.isSyncCheckpoint());
+        newAgent.setLocalCacheSize(fssa.getLocalCacheSize());
+        return newAgent;
       }
     } else if (sa instanceof FSStorageAgent) {
       FSStorageAgent fssa = (FSStorageAgent)sa;
       if (fssa.path.contains(oldAppId)) {
-        return new FSStorageAgent(fssa.path.replace(oldAppId, appId), conf);
+        FSStorageAgent newAgent = new FSStorageAgent(fssa.path.replace(oldAppId, appId), conf);
+        copyFSStorageAgentSettings(fssa, newAgent);
+        return newAgent;
       }
     }
     return sa;
   }
 
+  private static void copyFSStorageAgentSettings(FSStorageAgent from, FSStorageAgent to)
+  {
+    to.setFullCheckpointInterval(from.getFullCheckpointInterval());
+    to.setCompressionCodec(from.getCompressionCodec());
+    to.setCompressionLevel(from.getCompressionLevel());
+  }
+
   public interface RecoveryHandler
   {
     /**
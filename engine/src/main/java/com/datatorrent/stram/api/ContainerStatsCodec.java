@@ -0,0 +1,674 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.ObjectUtils;
+
+import com.datatorrent.api.Stats;
+import com.datatorrent.api.StatsListener;
+import com.datatorrent.stram.api.StreamingContainerUmbilicalProtocol.ContainerStats;
+import com.datatorrent.stram.api.StreamingContainerUmbilicalProtocol.OperatorHeartbeat;
+import com.datatorrent.stram.api.StreamingContainerUmbilicalProtocol.OperatorHeartbeat.DeployState;
+
+/**
+ * Compact binary encoding of the operator stats a container sends with its heartbeat.<p>
+ * <br>
+ * The encoder in the container and the decoder in the application master keep the same state across the heartbeats of
+ * the container: the port ids and the metric names are sent once and referred to by their index afterwards, and the
+ * stats of each window are sent as the difference to the stats of the previous window of the operator, so that
+ * the counters which did not change are omitted. The stats of all the windows of all the operators processed during the
+ * heartbeat interval go into a single frame.
+ * <br>
+ * Each frame carries a sequence number. The first frame after a reset has sequence number 0 and is decoded without
+ * any earlier state. A decoder which receives a frame out of sequence, for example after the application master was
+ * restarted or a heartbeat was lost, fails and the container resets its encoder.
+ * <br>
+ *
+ * @see StreamingContainerUmbilicalProtocol.ContainerHeartbeat#compactStats
+ */
+public class ContainerStatsCodec
+{
+  private static final byte VERSION = 1;
+
+  /*
+   * fields present in the stats of an operator heartbeat
+   */
+  private static final int REQUEST_RESPONSE = 1;
+
+  /*
+   * fields present in the stats of a window
+   */
+  private static final int CHECKPOINT = 1;
+  private static final int CHECKPOINT_STATS = 1 << 1;
+  private static final int COUNTERS = 1 << 2;
+  private static final int METRICS = 1 << 3;
+  private static final int RECORDING_ID = 1 << 4;
+  private static final int INPUT_PORTS = 1 << 5;
+  private static final int OUTPUT_PORTS = 1 << 6;
+
+  /*
+   * fields of the port stats which changed since the previous window
+   */
+  private static final int TUPLE_COUNT = 1;
+  private static final int END_WINDOW_TIMESTAMP = 1 << 1;
+  private static final int BUFFER_SERVER_BYTES = 1 << 2;
+  private static final int QUEUE_SIZE = 1 << 3;
+  private static final int PORT_RECORDING_ID = 1 << 4;
+
+  /*
+   * types of the metric values
+   */
+  private static final byte NULL = 0;
+  private static final byte INTEGER = 1;
+  private static final byte LONG = 2;
+  private static final byte DOUBLE = 3;
+  private static final byte FLOAT = 4;
+  private static final byte STRING = 5;
+  private static final byte SERIALIZED = 6;
+
+  private static final DeployState[] DEPLOY_STATES = DeployState.values();
+
+  private ContainerStatsCodec()
+  {
+  }
+
+  /**
+   * Stats of the previous window of an operator, the base of the difference sent for the next window.
+   */
+  private static class OperatorBaseline
+  {
+    long generatedTms;
+    long windowId;
+    long cpuTimeUsed;
+    final Map<String, PortBaseline> inputPorts = new HashMap<>();
+    final Map<String, PortBaseline> outputPorts = new HashMap<>();
+    /*
+     * the values of the metrics as sent, non primitive values in the serialized form
+     */
+    final Map<String, Object> metrics = new HashMap<>();
+  }
+
+  private static class PortBaseline
+  {
+    int tupleCount;
+    long endWindowTimestamp;
+    long bufferServerBytes;
+    int queueSize;
+    String recordingId;
+  }
+
+  /**
+   * Encodes the stats of the container, used by the container.
+   * The encoder is not thread safe.
+   */
+  public static class Encoder
+  {
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final Map<Integer, OperatorBaseline> operators = new HashMap<>();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+    private long sequence;
+
+    /**
+     * Discard the state shared with the decoder, the next frame is encoded without reference to the earlier frames.
+     */
+    public void reset()
+    {
+      dictionary.clear();
+      operators.clear();
+      sequence = 0;
+    }
+
+    /**
+     * Encode the stats of all the operators of the container into a frame. The stats are not modified.
+     *
+     * @param stats the container stats
+     * @return the frame
+     */
+    public byte[] encode(ContainerStats stats)
+    {
+      bytes.reset();
+      final DataOutputStream out = new DataOutputStream(bytes);
+      try {
+        out.writeByte(VERSION);
+        writeVarLong(out, sequence++);
+        writeVarLong(out, stats.operators.size());
+        final Set<Integer> operatorIds = new HashSet<>();
+        for (OperatorHeartbeat hb : stats.operators) {
+          operatorIds.add(hb.nodeId);
+          OperatorBaseline baseline = operators.get(hb.nodeId);
+          if (baseline == null) {
+            baseline = new OperatorBaseline();
+            operators.put(hb.nodeId, baseline);
+          }
+          writeOperator(out, hb, baseline);
+        }
+        operators.keySet().retainAll(operatorIds);
+        out.flush();
+      } catch (IOException ex) {
+        reset();
+        throw new RuntimeException("Cannot encode the stats of container " + stats.id, ex);
+      }
+      return bytes.toByteArray();
+    }
+
+    private void writeOperator(DataOutputStream out, OperatorHeartbeat hb, OperatorBaseline baseline) throws IOException
+    {
+      writeVarLong(out, hb.nodeId);
+      out.writeByte(hb.state == null ? -1 : hb.state.ordinal());
+      out.writeByte(hb.requestResponse == null ? 0 : REQUEST_RESPONSE);
+      writeVarLong(out, zigzag(hb.generatedTms - baseline.generatedTms));
+      baseline.generatedTms = hb.generatedTms;
+      writeVarLong(out, hb.intervalMs);
+      if (hb.requestResponse != null) {
+        writeBlob(out, serialize(hb.requestResponse));
+      }
+
+      writeVarLong(out, hb.windowStats.size());
+      for (ContainerStats.OperatorStats os : hb.windowStats) {
+        int fields = 0;
+        fields |= os.checkpoint == null ? 0 : CHECKPOINT;
+        fields |= os.checkpointStats == null ? 0 : CHECKPOINT_STATS;
+        final Object counters = getCounters(os);
+        fields |= counters == null ? 0 : COUNTERS;
+        fields |= os.metrics == null ? 0 : METRICS;
+        fields |= os.recordingId == null ? 0 : RECORDING_ID;
+        fields |= os.inputPorts == null ? 0 : INPUT_PORTS;
+        fields |= os.outputPorts == null ? 0 : OUTPUT_PORTS;
+        out.writeByte(fields);
+
+        writeVarLong(out, zigzag(os.windowId - baseline.windowId));
+        baseline.windowId = os.windowId;
+        writeVarLong(out, zigzag(os.cpuTimeUsed - baseline.cpuTimeUsed));
+        baseline.cpuTimeUsed = os.cpuTimeUsed;
+
+        if (os.checkpoint != null) {
+          final Checkpoint checkpoint = (Checkpoint)os.checkpoint;
+          writeVarLong(out, zigzag(os.windowId - checkpoint.windowId));
+          writeVarLong(out, checkpoint.applicationWindowCount);
+          writeVarLong(out, checkpoint.checkpointWindowCount);
+        }
+        if (os.checkpointStats != null) {
+          writeVarLong(out, zigzag(os.checkpointStats.checkpointStartTime));
+          writeVarLong(out, zigzag(os.checkpointStats.checkpointTime));
+          writeVarLong(out, os.checkpointStats.checkpointRawSize);
+          writeVarLong(out, os.checkpointStats.checkpointSize);
+        }
+        if (counters != null) {
+          writeBlob(out, serialize(counters));
+        }
+        if (os.metrics != null) {
+          writeMetrics(out, os.metrics, baseline.metrics);
+        }
+        if (os.recordingId != null) {
+          out.writeUTF(os.recordingId);
+        }
+        if (os.inputPorts != null) {
+          writePorts(out, os.inputPorts, baseline.inputPorts);
+        }
+        if (os.outputPorts != null) {
+          writePorts(out, os.outputPorts, baseline.outputPorts);
+        }
+      }
+    }
+
+    private void writeMetrics(DataOutputStream out, Map<String, Object> metrics, Map<String, Object> baseline)
+        throws IOException
+    {
+      final List<String> removed = new ArrayList<>();
+      for (String name : baseline.keySet()) {
+        if (!metrics.containsKey(name)) {
+          removed.add(name);
+        }
+      }
+      writeVarLong(out, removed.size());
+      for (String name : removed) {
+        writeString(out, name);
+        baseline.remove(name);
+      }
+
+      final Map<String, Object> changed = new LinkedHashMap<>();
+      for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+        final Object value = toBaselineValue(entry.getValue());
+        final Object previous = baseline.get(entry.getKey());
+        if (!baseline.containsKey(entry.getKey()) || !baselineValueEquals(previous, value)) {
+          changed.put(entry.getKey(), value);
+          baseline.put(entry.getKey(), value);
+        }
+      }
+      writeVarLong(out, changed.size());
+      for (Map.Entry<String, Object> entry : changed.entrySet()) {
+        writeString(out, entry.getKey());
+        writeValue(out, entry.getValue());
+      }
+    }
+
+    private void writePorts(DataOutputStream out, List<ContainerStats.OperatorStats.PortStats> ports,
+        Map<String, PortBaseline> baselines) throws IOException
+    {
+      writeVarLong(out, ports.size());
+      for (ContainerStats.OperatorStats.PortStats ps : ports) {
+        writeString(out, ps.id);
+        PortBaseline baseline = baselines.get(ps.id);
+        if (baseline == null) {
+          baseline = new PortBaseline();
+          baselines.put(ps.id, baseline);
+        }
+
+        int changed = 0;
+        changed |= ps.tupleCount == baseline.tupleCount ? 0 : TUPLE_COUNT;
+        changed |= ps.endWindowTimestamp == baseline.endWindowTimestamp ? 0 : END_WINDOW_TIMESTAMP;
+        changed |= ps.bufferServerBytes == baseline.bufferServerBytes ? 0 : BUFFER_SERVER_BYTES;
+        changed |= ps.queueSize == baseline.queueSize ? 0 : QUEUE_SIZE;
+        changed |= ObjectUtils.equals(ps.recordingId, baseline.recordingId) ? 0 : PORT_RECORDING_ID;
+        out.writeByte(changed);
+
+        if ((changed & TUPLE_COUNT) != 0) {
+          writeVarLong(out, zigzag(ps.tupleCount));
+          baseline.tupleCount = ps.tupleCount;
+        }
+        if ((changed & END_WINDOW_TIMESTAMP) != 0) {
+          writeVarLong(out, zigzag(ps.endWindowTimestamp - baseline.endWindowTimestamp));
+          baseline.endWindowTimestamp = ps.endWindowTimestamp;
+        }
+        if ((changed & BUFFER_SERVER_BYTES) != 0) {
+          writeVarLong(out, zigzag(ps.bufferServerBytes - baseline.bufferServerBytes));
+          baseline.bufferServerBytes = ps.bufferServerBytes;
+        }
+        if ((changed & QUEUE_SIZE) != 0) {
+          writeVarLong(out, zigzag(ps.queueSize));
+          baseline.queueSize = ps.queueSize;
+        }
+        if ((changed & PORT_RECORDING_ID) != 0) {
+          out.writeBoolean(ps.recordingId != null);
+          if (ps.recordingId != null) {
+            out.writeUTF(ps.recordingId);
+          }
+          baseline.recordingId = ps.recordingId;
+        }
+      }
+    }
+
+    /**
+     * Write the index of the string, followed by the string itself when it is sent for the first time.
+     */
+    private void writeString(DataOutputStream out, String s) throws IOException
+    {
+      final Integer index = dictionary.get(s);
+      if (index != null) {
+        writeVarLong(out, index);
+      } else {
+        writeVarLong(out, dictionary.size());
+        out.writeUTF(s);
+        dictionary.put(s, dictionary.size());
+      }
+    }
+
+    private static Object toBaselineValue(Object value) throws IOException
+    {
+      if (value == null || value instanceof Integer || value instanceof Long || value instanceof Double ||
+          value instanceof Float || value instanceof String) {
+        return value;
+      }
+      /* mutable values are compared in the serialized form */
+      return serialize(value);
+    }
+
+    private static boolean baselineValueEquals(Object first, Object second)
+    {
+      if (first instanceof byte[] && second instanceof byte[]) {
+        return Arrays.equals((byte[])first, (byte[])second);
+      }
+      return ObjectUtils.equals(first, second);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException
+    {
+      if (value == null) {
+        out.writeByte(NULL);
+      } else if (value instanceof Integer) {
+        out.writeByte(INTEGER);
+        writeVarLong(out, zigzag((Integer)value));
+      } else if (value instanceof Long) {
+        out.writeByte(LONG);
+        writeVarLong(out, zigzag((Long)value));
+      } else if (value instanceof Double) {
+        out.writeByte(DOUBLE);
+        out.writeDouble((Double)value);
+      } else if (value instanceof Float) {
+        out.writeByte(FLOAT);
+        out.writeFloat((Float)value);
+      } else if (value instanceof String) {
+        out.writeByte(STRING);
+        out.writeUTF((String)value);
+      } else {
+        out.writeByte(SERIALIZED);
+        writeBlob(out, (byte[])value);
+      }
+    }
+  }
+
+  /**
+   * Decodes the frames of a container, used by the application master.
+   * The decoded stats do not share mutable state with the decoder.
+   */
+  public static class Decoder
+  {
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<Integer, OperatorBaseline> operators = new HashMap<>();
+    private long sequence;
+
+    /**
+     * Decode the frame into the stats of the operators of the container.
+     *
+     * @param containerId id of the container
+     * @param frame the frame
+     * @return the container stats
+     * @throws IOException when the frame is out of sequence or invalid, the state of the decoder is discarded
+     */
+    public ContainerStats decode(String containerId, byte[] frame) throws IOException
+    {
+      try {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        final byte version = in.readByte();
+        if (version != VERSION) {
+          throw new IOException("Unsupported stats encoding version " + version);
+        }
+        final long frameSequence = readVarLong(in);
+        if (frameSequence == 0) {
+          dictionary.clear();
+          operators.clear();
+        } else if (frameSequence != sequence) {
+          throw new IOException("Expected stats frame " + sequence + " but received " + frameSequence);
+        }
+
+        final ContainerStats stats = new ContainerStats(containerId);
+        final Set<Integer> operatorIds = new HashSet<>();
+        for (long i = readVarLong(in); i-- > 0;) {
+          final OperatorHeartbeat hb = readOperator(in);
+          operatorIds.add(hb.nodeId);
+          stats.addNodeStats(hb);
+        }
+        operators.keySet().retainAll(operatorIds);
+        sequence = frameSequence + 1;
+        return stats;
+      } catch (IOException | RuntimeException ex) {
+        reset();
+        throw ex instanceof IOException ? (IOException)ex : new IOException(ex);
+      }
+    }
+
+    /**
+     * Discard the state shared with the encoder, only a frame with sequence number 0 is accepted next.
+     */
+    public void reset()
+    {
+      dictionary.clear();
+      operators.clear();
+      sequence = -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private OperatorHeartbeat readOperator(DataInputStream in) throws IOException
+    {
+      final OperatorHeartbeat hb = new OperatorHeartbeat();
+      hb.nodeId = (int)readVarLong(in);
+      OperatorBaseline baseline = operators.get(hb.nodeId);
+      if (baseline == null) {
+        baseline = new OperatorBaseline();
+        operators.put(hb.nodeId, baseline);
+      }
+      final byte state = in.readByte();
+      hb.state = state < 0 ? null : DEPLOY_STATES[state];
+      final byte fields = in.readByte();
+      hb.generatedTms = baseline.generatedTms += unzigzag(readVarLong(in));
+      hb.intervalMs = readVarLong(in);
+      if ((fields & REQUEST_RESPONSE) != 0) {
+        hb.requestResponse = (ArrayList<StatsListener.OperatorResponse>)deserialize(readBlob(in));
+      }
+
+      for (long i = readVarLong(in); i-- > 0;) {
+        final ContainerStats.OperatorStats os = new ContainerStats.OperatorStats();
+        final byte windowFields = in.readByte();
+        os.windowId = baseline.windowId += unzigzag(readVarLong(in));
+        os.cpuTimeUsed = baseline.cpuTimeUsed += unzigzag(readVarLong(in));
+
+        if ((windowFields & CHECKPOINT) != 0) {
+          final long windowId = os.windowId - unzigzag(readVarLong(in));
+          os.checkpoint = new Checkpoint(windowId, (int)readVarLong(in), (int)readVarLong(in));
+        }
+        if ((windowFields & CHECKPOINT_STATS) != 0) {
+          os.checkpointStats = new Stats.CheckpointStats();
+          os.checkpointStats.checkpointStartTime = unzigzag(readVarLong(in));
+          os.checkpointStats.checkpointTime = unzigzag(readVarLong(in));
+          os.checkpointStats.checkpointRawSize = readVarLong(in);
+          os.checkpointStats.checkpointSize = readVarLong(in);
+        }
+        if ((windowFields & COUNTERS) != 0) {
+          setCounters(os, deserialize(readBlob(in)));
+        }
+        if ((windowFields & METRICS) != 0) {
+          os.metrics = readMetrics(in, baseline.metrics);
+        }
+        if ((windowFields & RECORDING_ID) != 0) {
+          os.recordingId = in.readUTF();
+        }
+        if ((windowFields & INPUT_PORTS) != 0) {
+          os.inputPorts = readPorts(in, baseline.inputPorts);
+        }
+        if ((windowFields & OUTPUT_PORTS) != 0) {
+          os.outputPorts = readPorts(in, baseline.outputPorts);
+        }
+        hb.windowStats.add(os);
+      }
+      return hb;
+    }
+
+    private Map<String, Object> readMetrics(DataInputStream in, Map<String, Object> baseline) throws IOException
+    {
+      for (long i = readVarLong(in); i-- > 0;) {
+        baseline.remove(readString(in));
+      }
+      for (long i = readVarLong(in); i-- > 0;) {
+        final String name = readString(in);
+        baseline.put(name, readValue(in));
+      }
+
+      final Map<String, Object> metrics = new HashMap<>();
+      for (Map.Entry<String, Object> entry : baseline.entrySet()) {
+        final Object value = entry.getValue();
+        metrics.put(entry.getKey(), value instanceof byte[] ? deserialize((byte[])value) : value);
+      }
+      return metrics;
+    }
+
+    private ArrayList<ContainerStats.OperatorStats.PortStats> readPorts(DataInputStream in,
+        Map<String, PortBaseline> baselines) throws IOException
+    {
+      final int count = (int)readVarLong(in);
+      final ArrayList<ContainerStats.OperatorStats.PortStats> ports = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        final String id = readString(in);
+        PortBaseline baseline = baselines.get(id);
+        if (baseline == null) {
+          baseline = new PortBaseline();
+          baselines.put(id, baseline);
+        }
+
+        final byte changed = in.readByte();
+        if ((changed & TUPLE_COUNT) != 0) {
+          baseline.tupleCount = (int)unzigzag(readVarLong(in));
+        }
+        if ((changed & END_WINDOW_TIMESTAMP) != 0) {
+          baseline.endWindowTimestamp += unzigzag(readVarLong(in));
+        }
+        if ((changed & BUFFER_SERVER_BYTES) != 0) {
+          baseline.bufferServerBytes += unzigzag(readVarLong(in));
+        }
+        if ((changed & QUEUE_SIZE) != 0) {
+          baseline.queueSize = (int)unzigzag(readVarLong(in));
+        }
+        if ((changed & PORT_RECORDING_ID) != 0) {
+          baseline.recordingId = in.readBoolean() ? in.readUTF() : null;
+        }
+
+        final ContainerStats.OperatorStats.PortStats ps = new ContainerStats.OperatorStats.PortStats(id);
+        ps.tupleCount = baseline.tupleCount;
+        ps.endWindowTimestamp = baseline.endWindowTimestamp;
+        ps.bufferServerBytes = baseline.bufferServerBytes;
+        ps.queueSize = baseline.queueSize;
+        ps.recordingId = baseline.recordingId;
+        ports.add(ps);
+      }
+      return ports;
+    }
+
+    private String readString(DataInputStream in) throws IOException
+    {
+      final long index = readVarLong(in);
+      if (index < dictionary.size()) {
+        return dictionary.get((int)index);
+      } else if (index == dictionary.size()) {
+        final String s = in.readUTF();
+        dictionary.add(s);
+        return s;
+      }
+      throw new IOException("Unknown string " + index + " in the stats dictionary of " + dictionary.size());
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException
+    {
+      final byte type = in.readByte();
+      switch (type) {
+        case NULL:
+          return null;
+        case INTEGER:
+          return (int)unzigzag(readVarLong(in));
+        case LONG:
+          return unzigzag(readVarLong(in));
+        case DOUBLE:
+          return in.readDouble();
+        case FLOAT:
+          return in.readFloat();
+        case STRING:
+          return in.readUTF();
+        case SERIALIZED:
+          return readBlob(in);
+        default:
+          throw new IOException("Invalid metric type " + type);
+      }
+    }
+  }
+
+  /**
+   * The counters are deprecated in favor of the metrics, the containers still report them for the counters aggregators.
+   */
+  @SuppressWarnings("deprecation")
+  private static Object getCounters(ContainerStats.OperatorStats os)
+  {
+    return os.counters;
+  }
+
+  @SuppressWarnings("deprecation")
+  private static void setCounters(ContainerStats.OperatorStats os, Object counters)
+  {
+    os.counters = counters;
+  }
+
+  private static long zigzag(long value)
+  {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unzigzag(long value)
+  {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarLong(DataOutput out, long value) throws IOException
+  {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int)((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int)value);
+  }
+
+  private static long readVarLong(DataInput in) throws IOException
+  {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = in.readByte();
+      value |= (long)(b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length number");
+  }
+
+  private static void writeBlob(DataOutput out, byte[] blob) throws IOException
+  {
+    writeVarLong(out, blob.length);
+    out.write(blob);
+  }
+
+  private static byte[] readBlob(DataInput in) throws IOException
+  {
+    final byte[] blob = new byte[(int)readVarLong(in)];
+    in.readFully(blob);
+    return blob;
+  }
+
+  private static byte[] serialize(Object object) throws IOException
+  {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+      oos.writeObject(object);
+    }
+    return bos.toByteArray();
+  }
+
+  private static Object deserialize(byte[] bytes) throws IOException
+  {
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return ois.readObject();
+    } catch (ClassNotFoundException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+}
@@ -238,6 +238,12 @@ public interface StreamingContainerUmbilicalProtocol extends VersionedProtocol
 
     public ContainerStats stats;
 
+    /**
+     * Operator stats encoded by {@link ContainerStatsCodec}, null when the stats are sent uncompressed.
+     * The {@link #stats} carry only the container id when set.
+     */
+    public byte[] compactStats;
+
     public long sentTms = System.currentTimeMillis();
 
     public ContainerStats getContainerStats()
@@ -403,6 +409,12 @@ public interface StreamingContainerUmbilicalProtocol extends VersionedProtocol
     public long committedWindowId = -1;
 
     public boolean stackTraceRequired = false;
+
+    /**
+     * Set when the compact stats of the heartbeat could not be decoded. The container needs to reset its encoder and
+     * send the stats again, no other field of the response is set.
+     */
+    public boolean resetCompactStats = false;
   }
 
   /**
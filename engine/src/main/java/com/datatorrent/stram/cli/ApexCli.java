@@ -2985,6 +2985,14 @@ public class ApexCli
 
   }
 
+  /**
+   * Directory of the saved indexes of the jars scanned for the operator classes.
+   */
+  private static File getOperatorIndexDirectory()
+  {
+    return new File(StramClientUtils.getUserDTDirectory(), "operator-index");
+  }
+
   private File copyToLocal(String[] files) throws IOException
   {
     File tmpDir = new File(System.getProperty("java.io.tmpdir") + "/datatorrent/" + ManagementFactory.getRuntimeMXBean().getName());
@@ -3079,7 +3087,7 @@ public class ApexCli
       String[] jarFiles = files.split(",");
       File tmpDir = copyToLocal(jarFiles);
       try {
-        OperatorDiscoverer operatorDiscoverer = new OperatorDiscoverer(jarFiles);
+        OperatorDiscoverer operatorDiscoverer = new OperatorDiscoverer(jarFiles, getOperatorIndexDirectory());
         String searchTerm = commandLineInfo.args.length > 1 ? commandLineInfo.args[1] : null;
         Set<String> operatorClasses = operatorDiscoverer.getOperatorClasses(parentName, searchTerm);
         JSONObject json = new JSONObject();
@@ -3139,7 +3147,7 @@ public class ApexCli
       String[] jarFiles = files.split(",");
       File tmpDir = copyToLocal(jarFiles);
       try {
-        OperatorDiscoverer operatorDiscoverer = new OperatorDiscoverer(jarFiles);
+        OperatorDiscoverer operatorDiscoverer = new OperatorDiscoverer(jarFiles, getOperatorIndexDirectory());
         Class<? extends Operator> operatorClass = operatorDiscoverer.getOperatorClass(args[2]);
         printJson(operatorDiscoverer.describeOperator(operatorClass.getName()));
       } finally {
@@ -108,6 +108,10 @@ public class StramClientUtils
   public static final String SUBDIR_APPS = "apps";
   public static final String SUBDIR_PROFILES = "profiles";
   public static final String SUBDIR_CONF = "conf";
+  public static final String SUBDIR_JAR_CACHE = "jarCache";
+  public static final String DT_JAR_CACHE_ENABLED = StreamingApplication.DT_PREFIX + "jarCache.enabled";
+  public static final String DT_JAR_CACHE_EXPIRY_MILLIS = StreamingApplication.DT_PREFIX + "jarCache.expiryMillis";
+  public static final long DEFAULT_JAR_CACHE_EXPIRY_MILLIS = 7 * 24 * 60 * 60 * 1000L;
   public static final long RESOURCEMANAGER_CONNECT_MAX_WAIT_MS_OVERRIDE = 10 * 1000;
   public static final String DT_HDFS_TOKEN_MAX_LIFE_TIME = StreamingApplication.DT_PREFIX + "namenode.delegation.token.max-lifetime";
   public static final String HDFS_TOKEN_MAX_LIFE_TIME = "dfs.namenode.delegation.token.max-lifetime";
@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.codec;
+
+import com.esotericsoftware.kryo.io.Output;
+
+import com.datatorrent.api.StreamCodec;
+import com.datatorrent.netlet.util.Slice;
+import com.datatorrent.stram.engine.StreamContext;
+import com.datatorrent.stram.plan.logical.DefaultKryoStreamCodec;
+
+/**
+ * A codec which serializes the tuples into the buffers supplied by the caller and deserializes them from a range of a
+ * shared buffer, so that neither direction needs to allocate a {@link Slice} or an array per tuple.<p>
+ * <br>
+ * The streams use the default codecs directly, the other codecs are used through the {@link StreamCodecAdapter}. That
+ * includes the subclasses of the default codecs, which may override the methods of {@link StreamCodec}.
+ * <br>
+ *
+ * @param <T> type of the tuples
+ */
+public interface BufferStreamCodec<T>
+{
+  /**
+   * Serialize the tuple at the position of the data output. A stateful codec writes the state it built while
+   * serializing the tuple, if any, at the position of the state output. The state needs to reach the deserializing
+   * codecs before the tuple.
+   *
+   * @param o the tuple
+   * @param data output for the serialized tuple
+   * @param state output for the state of the codec
+   */
+  void write(T o, Output data, Output state);
+
+  /**
+   * Apply the state written by the serializing codec.
+   *
+   * @param buffer buffer with the state
+   * @param offset offset of the state in the buffer
+   * @param length length of the state
+   */
+  void readState(byte[] buffer, int offset, int length);
+
+  /**
+   * Deserialize a tuple. The codec does not keep a reference to the buffer.
+   *
+   * @param buffer buffer with the serialized tuple
+   * @param offset offset of the tuple in the buffer
+   * @param length length of the serialized tuple
+   * @return the tuple
+   */
+  Object read(byte[] buffer, int offset, int length);
+
+  /**
+   * @param o the tuple
+   * @return partition of the tuple
+   * @see StreamCodec#getPartition(Object)
+   */
+  int getPartition(T o);
+
+  /**
+   * Reset the state of the codec, a no-op for a stateless codec.
+   *
+   * @see StatefulStreamCodec#resetState()
+   */
+  void resetState();
+
+  /**
+   * {@link BufferStreamCodec} which delegates to a {@link StreamCodec} and copies the slices it produces.
+   */
+  class StreamCodecAdapter<T> implements BufferStreamCodec<T>
+  {
+    private final StreamCodec<T> codec;
+
+    public StreamCodecAdapter(StreamCodec<T> codec)
+    {
+      this.codec = codec;
+    }
+
+    /**
+     * Get the buffer codec for the codec of a stream. A stateful codec is instantiated for the exclusive use of the
+     * caller, the default codec of the streams is used if the codec is null.
+     *
+     * @param codec codec of the stream
+     * @return the buffer codec
+     */
+    @SuppressWarnings("unchecked")
+    public static BufferStreamCodec<Object> forStream(StreamCodec<?> codec)
+    {
+      if (codec == null) {
+        codec = StreamContext.CODEC.defaultValue;
+      }
+      if (codec instanceof StatefulStreamCodec) {
+        codec = ((StatefulStreamCodec<?>)codec).newInstance();
+      }
+      if (codec.getClass() == DefaultStatefulStreamCodec.class || codec.getClass() == DefaultKryoStreamCodec.class) {
+        return (BufferStreamCodec<Object>)codec;
+      }
+      if (codec instanceof StatefulStreamCodec) {
+        return new StatefulStreamCodecAdapter<>((StatefulStreamCodec<Object>)codec);
+      }
+      return new StreamCodecAdapter<>((StreamCodec<Object>)codec);
+    }
+
+    @Override
+    public void write(T o, Output data, Output state)
+    {
+      final Slice slice = codec.toByteArray(o);
+      data.writeBytes(slice.buffer, slice.offset, slice.length);
+    }
+
+    @Override
+    public void readState(byte[] buffer, int offset, int length)
+    {
+    }
+
+    @Override
+    public Object read(byte[] buffer, int offset, int length)
+    {
+      return codec.fromByteArray(new Slice(buffer, offset, length));
+    }
+
+    @Override
+    public int getPartition(T o)
+    {
+      return codec.getPartition(o);
+    }
+
+    @Override
+    public void resetState()
+    {
+    }
+
+  }
+
+  /**
+   * {@link BufferStreamCodec} which delegates to a {@link StatefulStreamCodec}.
+   */
+  class StatefulStreamCodecAdapter<T> implements BufferStreamCodec<T>
+  {
+    private final StatefulStreamCodec<T> codec;
+    private final StatefulStreamCodec.DataStatePair dsp = new StatefulStreamCodec.DataStatePair();
+
+    public StatefulStreamCodecAdapter(StatefulStreamCodec<T> codec)
+    {
+      this.codec = codec;
+    }
+
+    @Override
+    public void write(T o, Output data, Output state)
+    {
+      final StatefulStreamCodec.DataStatePair pair = codec.toDataStatePair(o);
+      if (pair.state != null) {
+        state.writeBytes(pair.state.buffer, pair.state.offset, pair.state.length);
+      }
+      data.writeBytes(pair.data.buffer, pair.data.offset, pair.data.length);
+    }
+
+    @Override
+    public void readState(byte[] buffer, int offset, int length)
+    {
+      /* the state is applied by the codec along with the next tuple */
+      dsp.state = new Slice(buffer, offset, length);
+    }
+
+    @Override
+    public Object read(byte[] buffer, int offset, int length)
+    {
+      dsp.data = new Slice(buffer, offset, length);
+      return codec.fromDataStatePair(dsp);
+    }
+
+    @Override
+    public int getPartition(T o)
+    {
+      return codec.getPartition(o);
+    }
+
+    @Override
+    public void resetState()
+    {
+      codec.resetState();
+    }
+
+  }
+
+}
@@ -44,7 +44,7 @@ import com.datatorrent.netlet.util.Slice;
  * @param <T>
  * @since 0.3.2
  */
-public class DefaultStatefulStreamCodec<T> extends Kryo implements StatefulStreamCodec<T>
+public class DefaultStatefulStreamCodec<T> extends Kryo implements StatefulStreamCodec<T>, BufferStreamCodec<T>
 {
   private final Output data;
   private final Output state;
@@ -72,63 +72,79 @@ public class DefaultStatefulStreamCodec<T> extends Kryo implements StatefulStrea
   {
     if (dspair.state != null) {
       try {
-        input.setBuffer(dspair.state.buffer, dspair.state.offset, dspair.state.length);
-        while (input.position() < input.limit()) {
-          ClassIdPair pair = (ClassIdPair)readClassAndObject(input);
-          classResolver.registerExplicit(pair);
-        }
-      } catch (Throwable th) {
-        logger.error("Catastrophic Error: Execution halted due to Kryo exception!", th);
-        synchronized (this) {
-          try {
-            wait();
-          } catch (InterruptedException ex) {
-            throw new RuntimeException("Serialization State Error Halt Interrupted", ex);
-          }
-        }
+        readState(dspair.state.buffer, dspair.state.offset, dspair.state.length);
       } finally {
         dspair.state = null;
       }
     }
 
-    input.setBuffer(dspair.data.buffer, dspair.data.offset, dspair.data.length);
-    // the following code does not need to be in the try-catch block. It can be
-    // taken out of it, once the stability of the code is validated by 4/1/2014.
-    try {
-      return (T)readClassAndObject(input);
-    } catch (Throwable th) {
-      logger.error("Catastrophic Error: Execution halted due to Kryo exception!", th);
-      synchronized (this) {
-        try {
-          wait();
-        } catch (InterruptedException ex) {
-          throw new RuntimeException("Serialization Data Error Halt Interrupted", ex);
-        }
-      }
-      return null;
-    }
+    return (T)read(dspair.data.buffer, dspair.data.offset, dspair.data.length);
   }
 
   @Override
   public DataStatePair toDataStatePair(T o)
   {
     data.setPosition(0);
+    state.setPosition(0);
+    write(o, data, state);
+    dataStatePair.state = state.position() == 0 ? null : new Slice(state.getBuffer(), 0, state.position());
+    dataStatePair.data = new Slice(data.getBuffer(), 0, data.position());
+    return dataStatePair;
+  }
+
+  @Override
+  public void write(T o, Output data, Output state)
+  {
     writeClassAndObject(data, o);
 
     if (!pairs.isEmpty()) {
-      state.setPosition(0);
       for (ClassIdPair cip : pairs) {
         writeClassAndObject(state, cip);
       }
       pairs.clear();
+    }
+  }
 
-      dataStatePair.state = new Slice(state.getBuffer(), 0, state.position());
-    } else {
-      dataStatePair.state = null;
+  @Override
+  public void readState(byte[] buffer, int offset, int length)
+  {
+    try {
+      input.setBuffer(buffer, offset, length);
+      while (input.position() < input.limit()) {
+        ClassIdPair pair = (ClassIdPair)readClassAndObject(input);
+        classResolver.registerExplicit(pair);
+      }
+    } catch (Throwable th) {
+      logger.error("Catastrophic Error: Execution halted due to Kryo exception!", th);
+      synchronized (this) {
+        try {
+          wait();
+        } catch (InterruptedException ex) {
+          throw new RuntimeException("Serialization State Error Halt Interrupted", ex);
+        }
+      }
     }
+  }
 
-    dataStatePair.data = new Slice(data.getBuffer(), 0, data.position());
-    return dataStatePair;
+  @Override
+  public Object read(byte[] buffer, int offset, int length)
+  {
+    input.setBuffer(buffer, offset, length);
+    // the following code does not need to be in the try-catch block. It can be
+    // taken out of it, once the stability of the code is validated by 4/1/2014.
+    try {
+      return readClassAndObject(input);
+    } catch (Throwable th) {
+      logger.error("Catastrophic Error: Execution halted due to Kryo exception!", th);
+      synchronized (this) {
+        try {
+          wait();
+        } catch (InterruptedException ex) {
+          throw new RuntimeException("Serialization Data Error Halt Interrupted", ex);
+        }
+      }
+      return null;
+    }
   }
 
   @Override
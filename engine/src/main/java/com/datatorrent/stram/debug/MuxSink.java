@@ -24,14 +24,16 @@ import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.datatorrent.api.BatchSink;
 import com.datatorrent.api.Sink;
+import com.datatorrent.stram.util.SinkUtil;
 
 /**
  * <p>MuxSink class.</p>
  *
  * @since 0.3.2
  */
-public class MuxSink implements Sink<Object>
+public class MuxSink implements BatchSink<Object>
 {
   Sink<Object>[] sinks;
   private int count;
@@ -56,6 +58,15 @@ public class MuxSink implements Sink<Object>
     }
   }
 
+  @Override
+  public void putAll(Object[] tuples, int offset, int length)
+  {
+    count += length;
+    for (int i = sinks.length; i-- > 0;) {
+      SinkUtil.putAll(sinks[i], tuples, offset, length);
+    }
+  }
+
   public void add(Sink<Object>... s)
   {
     int i = sinks.length;
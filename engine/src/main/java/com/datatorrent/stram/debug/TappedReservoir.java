@@ -19,15 +19,17 @@
 package com.datatorrent.stram.debug;
 
 import com.datatorrent.api.Sink;
+import com.datatorrent.stram.engine.Idler;
 import com.datatorrent.stram.engine.SweepableReservoir;
 import com.datatorrent.stram.tuple.Tuple;
+import com.datatorrent.stram.util.SinkUtil;
 
 /**
  * <p>TappedReservoir class.</p>
  *
  * @since 0.3.2
  */
-public class TappedReservoir extends MuxSink implements SweepableReservoir
+public class TappedReservoir extends MuxSink implements SweepableReservoir, Idler.Wakeable
 {
   public final SweepableReservoir reservoir;
   private Sink<Object> sink;
@@ -40,6 +42,14 @@ public class TappedReservoir extends MuxSink implements SweepableReservoir
     sink = reservoir.setSink(this);
   }
 
+  @Override
+  public void setIdler(Idler idler)
+  {
+    if (reservoir instanceof Idler.Wakeable) {
+      ((Idler.Wakeable)reservoir).setIdler(idler);
+    }
+  }
+
   @Override
   public Sink<Object> setSink(Sink<Object> sink)
   {
@@ -81,6 +91,13 @@ public class TappedReservoir extends MuxSink implements SweepableReservoir
     sink.put(tuple);
   }
 
+  @Override
+  public void putAll(Object[] tuples, int offset, int length)
+  {
+    super.putAll(tuples, offset, length);
+    SinkUtil.putAll(sink, tuples, offset, length);
+  }
+
   @Override
   public Object remove()
   {
@@ -19,6 +19,7 @@
 package com.datatorrent.stram.engine;
 
 import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -33,6 +34,7 @@ import org.jctools.queues.SpscArrayQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.datatorrent.api.BatchSink;
 import com.datatorrent.api.Sink;
 import com.datatorrent.netlet.util.CircularBuffer;
 import com.datatorrent.netlet.util.UnsafeBlockingQueue;
@@ -47,11 +49,15 @@ import static java.lang.Thread.sleep;
  *
  * @since 3.4.0
  */
-public abstract class AbstractReservoir implements SweepableReservoir, BlockingQueue<Object>
+public abstract class AbstractReservoir implements SweepableReservoir, BlockingQueue<Object>, Idler.Wakeable
 {
   private static final Logger logger = LoggerFactory.getLogger(AbstractReservoir.class);
   static final String reservoirClassNameProperty = "com.datatorrent.stram.engine.Reservoir";
   private static final int SPSC_ARRAY_BLOCKING_QUEUE_CAPACITY_THRESHOLD = 64 * 1024;
+  /**
+   * Maximum number of the data tuples a reservoir passes to a {@link BatchSink} in one call.
+   */
+  private static final int SWEEP_BATCH_SIZE = 256;
 
   /**
    * Reservoir factory. Constructs concrete implementation of {@link AbstractReservoir} based on
@@ -91,6 +97,7 @@ public abstract class AbstractReservoir implements SweepableReservoir, BlockingQ
   private Sink<Object> sink;
   private String id;
   protected int count;
+  private volatile Idler idler;
 
   protected AbstractReservoir(final String id)
   {
@@ -151,6 +158,26 @@ public abstract class AbstractReservoir implements SweepableReservoir, BlockingQ
     return sink;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setIdler(Idler idler)
+  {
+    this.idler = idler;
+  }
+
+  /**
+   * Wake up the consumer if it is idle, called by the producer after adding tuples to the reservoir.
+   */
+  public void wakeConsumer()
+  {
+    final Idler idler = this.idler;
+    if (idler != null) {
+      idler.wakeup();
+    }
+  }
+
   @Override
   public String toString()
   {
@@ -167,6 +194,7 @@ public abstract class AbstractReservoir implements SweepableReservoir, BlockingQ
   {
     private final int maxSpinMillis = 10;
     private final SpscArrayQueue<Object> queue;
+    private Object[] batch;
 
     private SpscArrayQueueReservoir(final String id, final int capacity)
     {
@@ -180,6 +208,14 @@ public abstract class AbstractReservoir implements SweepableReservoir, BlockingQ
       Object o;
       final SpscArrayQueue<Object> queue = this.queue;
       final Sink<Object> sink = getSink();
+      if (sink instanceof BatchSink) {
+        final Object[] batch = getBatch();
+        for (int n; (n = drainBatch(batch)) > 0;) {
+          putBatch(sink, batch, n);
+        }
+        o = queue.peek();
+        return o instanceof Tuple ? (Tuple)o : null;
+      }
       while ((o = queue.peek()) != null) {
         if (o instanceof Tuple) {
           return (Tuple)o;
@@ -377,6 +413,40 @@ public abstract class AbstractReservoir implements SweepableReservoir, BlockingQ
       return queue;
     }
 
+    protected Object[] getBatch()
+    {
+      if (batch == null) {
+        batch = new Object[Math.min(SWEEP_BATCH_SIZE, queue.capacity())];
+      }
+      return batch;
+    }
+
+    /**
+     * Move the data tuples at the head of the queue into the batch, up to the first control tuple.
+     *
+     * @return number of the tuples moved
+     */
+    protected int drainBatch(final Object[] batch)
+    {
+      final SpscArrayQueue<Object> queue = this.queue;
+      int n = 0;
+      Object o;
+      while (n < batch.length && (o = queue.peek()) != null && !(o instanceof Tuple)) {
+        batch[n++] = queue.poll();
+      }
+      return n;
+    }
+
+    protected void putBatch(final Sink<Object> sink, final Object[] batch, final int length)
+    {
+      count += length;
+      try {
+        ((BatchSink<Object>)sink).putAll(batch, 0, length);
+      } finally {
+        Arrays.fill(batch, 0, length, null);
+      }
+    }
+
   }
 
   /**
@@ -405,6 +475,18 @@ public abstract class AbstractReservoir implements SweepableReservoir, BlockingQ
       final Sink<Object> sink = getSink();
       lock.lock();
       try {
+        if (sink instanceof BatchSink) {
+          final Object[] batch = getBatch();
+          for (int n; (n = drainBatch(batch)) > 0;) {
+            notFull.signal();
+            putBatch(sink, batch, n);
+            if (lock.hasQueuedThreads()) {
+              return null;
+            }
+          }
+          o = queue.peek();
+          return o instanceof Tuple ? (Tuple)o : null;
+        }
         while ((o = queue.peek()) != null) {
           if (o instanceof Tuple) {
             return (Tuple)o;
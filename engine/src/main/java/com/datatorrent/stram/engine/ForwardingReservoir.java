@@ -24,7 +24,7 @@ import com.datatorrent.stram.tuple.Tuple;
 /**
  * @since 3.4.0
  */
-public class ForwardingReservoir implements SweepableReservoir
+public class ForwardingReservoir implements SweepableReservoir, Idler.Wakeable
 {
   public static ForwardingReservoir newReservoir(final String id, final int capacity)
   {
@@ -68,6 +68,13 @@ public class ForwardingReservoir implements SweepableReservoir
   public void put(Object o) throws InterruptedException
   {
     reservoir.put(o);
+    reservoir.wakeConsumer();
+  }
+
+  @Override
+  public void setIdler(Idler idler)
+  {
+    reservoir.setIdler(idler);
   }
 
   @Override
@@ -234,7 +234,7 @@ public class GenericNode extends Node<Operator>
     doCheckpoint = false;
 
     final long maxSpinMillis = context.getValue(OperatorContext.SPIN_MILLIS);
-    long spinMillis = 0;
+    final Idler idler = Idler.newInstance(context.getValue(OperatorContext.IDLE_STRATEGY), maxSpinMillis);
     final boolean handleIdleTime = operator instanceof IdleTimeHandler;
     int totalQueues = inputs.size();
     int regularQueues = totalQueues;
@@ -247,6 +247,9 @@ public class GenericNode extends Node<Operator>
 
     ArrayList<Map.Entry<String, SweepableReservoir>> activeQueues = new ArrayList<>();
     activeQueues.addAll(inputs.entrySet());
+    for (SweepableReservoir reservoir : inputs.values()) {
+      idler.watch(reservoir);
+    }
 
     int expectingBeginWindow = activeQueues.size();
     int receivedEndWindow = 0;
@@ -268,7 +271,7 @@ public class GenericNode extends Node<Operator>
           SweepableReservoir activePort = activePortEntry.getValue();
           Tuple t = activePort.sweep();
           if (t != null) {
-            spinMillis = 0;
+            idler.reset();
             boolean delay = (operator instanceof Operator.DelayOperator);
             long windowAhead = 0;
             if (delay) {
@@ -576,6 +579,7 @@ public class GenericNode extends Node<Operator>
                       if (e.getKey().equals(dic.portname)) {
                         connectInputPort(dic.portname, dic.reservoir);
                         dici.remove();
+                        idler.watch(dic.reservoir);
                         activeQueues.add(new AbstractMap.SimpleEntry<>(dic.portname, dic.reservoir));
                         break activequeue;
                       }
@@ -676,7 +680,7 @@ public class GenericNode extends Node<Operator>
           for (Map.Entry<String, SweepableReservoir> cb : activeQueues) {
             need2sleep = cb.getValue().isEmpty();
             if (!need2sleep) {
-              spinMillis = 0;
+              idler.reset();
               break;
             }
           }
@@ -685,8 +689,7 @@ public class GenericNode extends Node<Operator>
             if (handleIdleTime && insideWindow) {
               ((IdleTimeHandler)operator).handleIdleTime();
             } else {
-              Thread.sleep(spinMillis);
-              spinMillis = Math.min(maxSpinMillis, spinMillis + 1);
+              idler.idle();
             }
           }
         }
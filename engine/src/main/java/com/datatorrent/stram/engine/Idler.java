@@ -0,0 +1,237 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.datatorrent.api.Context.IdleStrategy;
+
+/**
+ * Waits of an operator thread which has no work to do.<p>
+ * <br>
+ * A node calls {@link #idle()} each time it finds no work and {@link #reset()} once it does some work, so that the
+ * strategies which back off start over with the shortest wait. The idler of the {@link IdleStrategy#BLOCK} strategy
+ * parks the thread until a {@link Wakeable} reservoir it watches receives a tuple.
+ * <br>
+ */
+public abstract class Idler
+{
+  /**
+   * Reservoir which wakes up the idle consumer when it receives tuples.
+   */
+  public interface Wakeable
+  {
+    /**
+     * @param idler the idler to wake up, null to stop waking up the consumer
+     */
+    void setIdler(Idler idler);
+  }
+
+  /**
+   * Create the idler of the given strategy.
+   *
+   * @param strategy idle strategy
+   * @param maxSpinMillis the maximum time of a single wait in milliseconds
+   * @return the idler
+   */
+  public static Idler newInstance(IdleStrategy strategy, long maxSpinMillis)
+  {
+    switch (strategy) {
+      case SLEEP:
+        return new Sleep(maxSpinMillis);
+
+      case BUSY_SPIN:
+        return new BusySpin();
+
+      case YIELD:
+        return new Yield();
+
+      case PARK:
+        return new Park(maxSpinMillis);
+
+      case BLOCK:
+        return new Block(maxSpinMillis);
+
+      default:
+        throw new IllegalArgumentException("Unsupported idle strategy " + strategy);
+    }
+  }
+
+  /**
+   * Wait as there is no work to do.
+   *
+   * @throws InterruptedException
+   */
+  public abstract void idle() throws InterruptedException;
+
+  /**
+   * Called when there is some work to do, the next wait starts over with the shortest wait.
+   */
+  public void reset()
+  {
+  }
+
+  /**
+   * Wake up the thread waiting in {@link #idle()}. Can be called from any thread.
+   */
+  public void wakeup()
+  {
+  }
+
+  /**
+   * Start watching the reservoir for the tuples if the idler needs to be woken up by it.
+   *
+   * @param reservoir the input reservoir of the idle thread
+   */
+  public void watch(SweepableReservoir reservoir)
+  {
+  }
+
+  private static void checkInterrupted() throws InterruptedException
+  {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  /**
+   * Sleep with the linear back off, the default.
+   */
+  static class Sleep extends Idler
+  {
+    private final long maxSpinMillis;
+    private long spinMillis;
+
+    Sleep(long maxSpinMillis)
+    {
+      this.maxSpinMillis = maxSpinMillis;
+    }
+
+    @Override
+    @SuppressWarnings("SleepWhileInLoop")
+    public void idle() throws InterruptedException
+    {
+      Thread.sleep(spinMillis);
+      spinMillis = Math.min(maxSpinMillis, spinMillis + 1);
+    }
+
+    @Override
+    public void reset()
+    {
+      spinMillis = 0;
+    }
+  }
+
+  static class BusySpin extends Idler
+  {
+    @Override
+    public void idle() throws InterruptedException
+    {
+      checkInterrupted();
+    }
+  }
+
+  static class Yield extends Idler
+  {
+    @Override
+    public void idle() throws InterruptedException
+    {
+      Thread.yield();
+      checkInterrupted();
+    }
+  }
+
+  /**
+   * Park with the exponential back off.
+   */
+  static class Park extends Idler
+  {
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private final long maxParkNanos;
+    private long parkNanos = MIN_PARK_NANOS;
+
+    Park(long maxSpinMillis)
+    {
+      maxParkNanos = Math.max(MIN_PARK_NANOS, TimeUnit.MILLISECONDS.toNanos(maxSpinMillis));
+    }
+
+    @Override
+    public void idle() throws InterruptedException
+    {
+      LockSupport.parkNanos(this, parkNanos);
+      checkInterrupted();
+      parkNanos = Math.min(maxParkNanos, parkNanos << 1);
+    }
+
+    @Override
+    public void reset()
+    {
+      parkNanos = MIN_PARK_NANOS;
+    }
+  }
+
+  /**
+   * Park until woken up by a reservoir. The wait is bounded for the reservoirs which can not wake the thread up.
+   */
+  static class Block extends Idler
+  {
+    private final long maxParkNanos;
+    private volatile boolean signalled;
+    private volatile Thread waiter;
+
+    Block(long maxSpinMillis)
+    {
+      maxParkNanos = Math.max(1, TimeUnit.MILLISECONDS.toNanos(maxSpinMillis));
+    }
+
+    @Override
+    public void idle() throws InterruptedException
+    {
+      waiter = Thread.currentThread();
+      if (!signalled) {
+        LockSupport.parkNanos(this, maxParkNanos);
+      }
+      /* the caller checks the reservoirs after clearing the signal so a tuple offered meanwhile is not missed */
+      signalled = false;
+      checkInterrupted();
+    }
+
+    @Override
+    public void wakeup()
+    {
+      if (!signalled) {
+        signalled = true;
+        final Thread thread = waiter;
+        if (thread != null) {
+          LockSupport.unpark(thread);
+        }
+      }
+    }
+
+    @Override
+    public void watch(SweepableReservoir reservoir)
+    {
+      if (reservoir instanceof Wakeable) {
+        ((Wakeable)reservoir).setIdler(this);
+      }
+    }
+  }
+
+}
@@ -67,8 +67,9 @@ public class InputNode extends Node<InputOperator>
   @SuppressWarnings(value = {"SleepWhileInLoop", "BroadCatchBlock", "TooBroadCatch"})
   public final void run()
   {
-    long maxSpinMillis = context.getValue(OperatorContext.SPIN_MILLIS);
-    long spinMillis = 0;
+    final Idler idler = Idler.newInstance(context.getValue(OperatorContext.IDLE_STRATEGY),
+        context.getValue(OperatorContext.SPIN_MILLIS));
+    idler.watch(controlTuples);
     final boolean handleIdleTime = operator instanceof IdleTimeHandler;
 
     boolean insideApplicationWindow = applicationWindowCount != 0;
@@ -98,11 +99,10 @@ public class InputNode extends Node<InputOperator>
               if (handleIdleTime) {
                 ((IdleTimeHandler)operator).handleIdleTime();
               } else {
-                Thread.sleep(spinMillis);
-                spinMillis = Math.min(spinMillis + 1, maxSpinMillis);
+                idler.idle();
               }
             } else {
-              spinMillis = 0;
+              idler.reset();
             }
           } else {
             Thread.sleep(0);
@@ -188,6 +188,7 @@ public class InputNode extends Node<InputOperator>
                 alive = false;
               } else {
                 controlTuples = deferredInputConnections.remove(0);
+                idler.watch(controlTuples);
               }
               break;
 
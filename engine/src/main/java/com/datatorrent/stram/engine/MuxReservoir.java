@@ -77,16 +77,36 @@ public abstract class MuxReservoir
 
   protected abstract Queue getQueue();
 
-  class SubReservoir extends CircularBuffer<Object> implements SweepableReservoir
+  /**
+   * Wake up the idle consumers of the reservoirs, called after adding tuples to the queue.
+   */
+  protected void wakeConsumers()
+  {
+    for (SubReservoir reservoir : reservoirs) {
+      final Idler idler = reservoir.idler;
+      if (idler != null) {
+        idler.wakeup();
+      }
+    }
+  }
+
+  class SubReservoir extends CircularBuffer<Object> implements SweepableReservoir, Idler.Wakeable
   {
     int count;
     private Sink<Object> sink;
+    private volatile Idler idler;
 
     SubReservoir(int capacity)
     {
       super(capacity);
     }
 
+    @Override
+    public void setIdler(Idler idler)
+    {
+      this.idler = idler;
+    }
+
     @Override
     public int size(final boolean dataTupleAware)
     {
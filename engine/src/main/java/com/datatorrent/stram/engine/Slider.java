@@ -20,6 +20,7 @@ package com.datatorrent.stram.engine;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -32,6 +33,13 @@ import com.datatorrent.api.StatsListener;
 
 /**
  * <p>Slider class.</p>
+ * Unifies the output of a port over a sliding window of application windows. The tuples of the sliding window are
+ * cached and passed to the unifier when the sliding window is complete. A {@link CombinableUnifier} is instead asked
+ * for a partial aggregate of each application window, the pane, and the panes are combined when the sliding window is
+ * complete. The panes are kept in two stacks: the newer panes with their running aggregate and the older panes with the
+ * aggregates of each pane and all the newer panes in the stack. The older panes are evicted from the second stack which
+ * is refilled from the first one when empty, so that each application window combines a constant number of aggregates
+ * on average.
  *
  * @since 3.2.0
  */
@@ -40,6 +48,17 @@ public class Slider implements Unifier<Object>, Operator.IdleTimeHandler, Operat
   private List<List<Object>> cache;
   private transient List<Object> currentList;
   private final Unifier<Object> unifier;
+  private final CombinableUnifier<Object, Object> combinableUnifier;
+  /**
+   * aggregates of the older panes, the oldest last, each combined with all the newer panes of the stack
+   */
+  private ArrayList<Object> olderPanes;
+  /**
+   * the newer panes, the newest last
+   */
+  private ArrayList<Object> newerPanes;
+  private Object newerPanesAggregate;
+  private transient Object pane;
   private final int numberOfBuckets;
   private final int numberOfSlideBuckets;
   private transient int spinMillis;
@@ -54,14 +73,23 @@ public class Slider implements Unifier<Object>, Operator.IdleTimeHandler, Operat
   private Slider()
   {
     unifier = null;
+    combinableUnifier = null;
     numberOfBuckets = -1;
     numberOfSlideBuckets = -1;
   }
 
+  @SuppressWarnings("unchecked")
   public Slider(Unifier<Object> uniOperator, int buckets, int numberOfSlideBuckets)
   {
     unifier = uniOperator;
     cache = new LinkedList<>();
+    if (uniOperator instanceof CombinableUnifier) {
+      combinableUnifier = (CombinableUnifier<Object, Object>)uniOperator;
+      olderPanes = new ArrayList<>();
+      newerPanes = new ArrayList<>();
+    } else {
+      combinableUnifier = null;
+    }
     this.numberOfBuckets = buckets;
     this.numberOfSlideBuckets = numberOfSlideBuckets;
   }
@@ -88,15 +116,52 @@ public class Slider implements Unifier<Object>, Operator.IdleTimeHandler, Operat
   @Override
   public void process(Object tuple)
   {
+    if (combinableUnifier != null) {
+      pane = combine(pane, combinableUnifier.aggregate(tuple));
+      return;
+    }
     if (cacheSize == numberOfBuckets - 1) {
       unifier.process(tuple);
     }
     currentList.add(tuple);
   }
 
+  /**
+   * @return combination of the aggregates, null stands for no tuples
+   */
+  private Object combine(Object older, Object newer)
+  {
+    if (older == null) {
+      return newer;
+    }
+    return newer == null ? older : combinableUnifier.combine(older, newer);
+  }
+
+  private void evictPane()
+  {
+    if (olderPanes.isEmpty()) {
+      Object aggregate = null;
+      for (int i = newerPanes.size(); i-- > 0;) {
+        aggregate = combine(newerPanes.get(i), aggregate);
+        olderPanes.add(aggregate);
+      }
+      newerPanes.clear();
+      newerPanesAggregate = null;
+    }
+    if (!olderPanes.isEmpty()) {
+      olderPanes.remove(olderPanes.size() - 1);
+    }
+  }
+
   @Override
   public void beginWindow(long windowId)
   {
+    if (combinableUnifier != null) {
+      cacheSize = olderPanes.size() + newerPanes.size();
+      unifier.beginWindow(windowId);
+      pane = null;
+      return;
+    }
     cacheSize = cache.size();
     unifier.beginWindow(windowId);
     if (cacheSize == numberOfBuckets - 1) {
@@ -112,6 +177,23 @@ public class Slider implements Unifier<Object>, Operator.IdleTimeHandler, Operat
   @Override
   public void endWindow()
   {
+    if (combinableUnifier != null) {
+      newerPanes.add(pane);
+      newerPanesAggregate = combine(newerPanesAggregate, pane);
+      pane = null;
+      if (cacheSize == numberOfBuckets - 1) {
+        Object olderPanesAggregate = olderPanes.isEmpty() ? null : olderPanes.get(olderPanes.size() - 1);
+        Object aggregate = combine(olderPanesAggregate, newerPanesAggregate);
+        if (aggregate != null) {
+          combinableUnifier.emitAggregate(aggregate);
+        }
+        for (int i = 0; i < numberOfSlideBuckets; i++) {
+          evictPane();
+        }
+      }
+      unifier.endWindow();
+      return;
+    }
     cache.add(currentList);
     if (cacheSize == numberOfBuckets - 1) {
       for (int i = 0; i < numberOfSlideBuckets; i++) {
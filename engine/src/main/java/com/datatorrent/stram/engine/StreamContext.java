@@ -35,6 +35,7 @@ import com.datatorrent.api.Attribute.AttributeMap.DefaultAttributeMap;
 import com.datatorrent.api.Context;
 import com.datatorrent.api.StreamCodec;
 
+import com.datatorrent.bufferserver.server.Server;
 import com.datatorrent.netlet.EventLoop;
 import com.datatorrent.stram.codec.DefaultStatefulStreamCodec;
 
@@ -49,6 +50,10 @@ public class StreamContext extends DefaultAttributeMap implements Context
   public static final Attribute<InetSocketAddress> BUFFER_SERVER_ADDRESS = new Attribute<>(null, null);
   public static final Attribute<byte[]> BUFFER_SERVER_TOKEN = new Attribute<>(null, null);
   public static final Attribute<EventLoop> EVENT_LOOP = new Attribute<>(null, null);
+  /**
+   * Buffer server in this JVM the stream connects to in process instead of the buffer server address.
+   */
+  public static final Attribute<Server> IN_PROCESS_BUFFER_SERVER = new Attribute<>(null, null);
   public static final Attribute<StreamCodec<?>> CODEC = new Attribute<StreamCodec<?>>(new DefaultStatefulStreamCodec<>(), null);
 
   @Override
@@ -71,6 +71,7 @@ import com.datatorrent.api.StringCodec;
 import com.datatorrent.api.annotation.Stateless;
 import com.datatorrent.bufferserver.server.Server;
 import com.datatorrent.bufferserver.storage.DiskStorage;
+import com.datatorrent.bufferserver.storage.SegmentedDiskStorage;
 import com.datatorrent.bufferserver.util.Codec;
 import com.datatorrent.common.util.ScheduledThreadPoolExecutor;
 import com.datatorrent.netlet.DefaultEventLoop;
@@ -88,6 +89,7 @@ import com.datatorrent.stram.api.ContainerEvent.NodeActivationEvent;
 import com.datatorrent.stram.api.ContainerEvent.NodeDeactivationEvent;
 import com.datatorrent.stram.api.ContainerEvent.StreamActivationEvent;
 import com.datatorrent.stram.api.ContainerEvent.StreamDeactivationEvent;
+import com.datatorrent.stram.api.ContainerStatsCodec;
 import com.datatorrent.stram.api.OperatorDeployInfo;
 import com.datatorrent.stram.api.OperatorDeployInfo.OperatorType;
 import com.datatorrent.stram.api.OperatorDeployInfo.UnifierDeployInfo;
@@ -158,6 +160,12 @@ public class StreamingContainer extends YarnContainerMain
   protected Server bufferServer;
   private int checkpointWindowCount;
   private boolean fastPublisherSubscriber;
+  private int publisherBufferSize;
+  /**
+   * connect the streams to the buffer servers running in this JVM in process, set when all containers share the JVM.
+   */
+  protected boolean inProcessBufferServer;
+  private ContainerStatsCodec.Encoder statsEncoder;
   private StreamingContainerContext containerContext;
   private List<StramToNodeRequest> nodeRequests;
   private final HashMap<String, Object> singletons;
@@ -201,6 +209,8 @@ public class StreamingContainer extends YarnContainerMain
     checkpointWindowCount = ctx.getValue(Context.DAGContext.CHECKPOINT_WINDOW_COUNT);
 
     fastPublisherSubscriber = ctx.getValue(LogicalPlan.FAST_PUBLISHER_SUBSCRIBER);
+    publisherBufferSize = ctx.getValue(LogicalPlan.BUFFER_SERVER_PUBLISHER_BUFFER_SIZE);
+    statsEncoder = ctx.getValue(LogicalPlan.HEARTBEAT_COMPACT_STATS) ? new ContainerStatsCodec.Encoder() : null;
 
     Map<Class<?>, Class<? extends StringCodec<?>>> codecs = ctx.getValue(Context.DAGContext.STRING_CODECS);
     StringCodecs.loadConverters(codecs);
@@ -226,8 +236,15 @@ public class StreamingContainer extends YarnContainerMain
         // start buffer server, if it was not set externally
         bufferServer = new Server(eventloop, 0, blocksize * 1024 * 1024, blockCount);
         bufferServer.setAuthToken(ctx.getValue(StreamingContainerContext.BUFFER_SERVER_TOKEN));
+        int pooledBlocks = ctx.getValue(LogicalPlan.BUFFER_SERVER_POOLED_BLOCKS);
+        bufferServer.setMaxPooledBlocks(pooledBlocks < 0 ? blockCount : pooledBlocks);
         if (ctx.getValue(Context.DAGContext.BUFFER_SPOOLING)) {
-          bufferServer.setSpoolStorage(new DiskStorage());
+          long segmentSize = ctx.getValue(LogicalPlan.BUFFER_SPOOLING_SEGMENT_SIZE);
+          if (segmentSize > 0) {
+            bufferServer.setSpoolStorage(new SegmentedDiskStorage(System.getProperty("java.io.tmpdir"), segmentSize));
+          } else {
+            bufferServer.setSpoolStorage(new DiskStorage());
+          }
         }
         bufferServerAddress = NetUtils.getConnectAddress(bufferServer.run());
         logger.debug("Buffer server started: {}", bufferServerAddress);
@@ -618,19 +635,24 @@ public class StreamingContainer extends YarnContainerMain
     }
     String principal = containerContext.getValue(LogicalPlan.PRINCIPAL);
     String hdfsKeyTabFile = containerContext.getValue(LogicalPlan.KEY_TAB_FILE);
+    // the first heartbeat registers the container and fetches the deploy requests without delay
+    long heartbeatWaitMillis = 0;
     while (!exitHeartbeatLoop) {
 
       if (UserGroupInformation.isSecurityEnabled() && System.currentTimeMillis() >= expiryTime && hdfsKeyTabFile != null) {
         expiryTime = StramUserLogin.refreshTokens(tokenLifeTime, FileUtils.getTempDirectoryPath(), containerId, conf, principal, hdfsKeyTabFile, credentials, null, false);
       }
-      synchronized (this.heartbeatTrigger) {
-        try {
-          this.heartbeatTrigger.wait(heartbeatIntervalMillis);
-        } catch (InterruptedException e1) {
-          logger.warn("Interrupted in heartbeat loop, exiting..");
-          break;
+      if (heartbeatWaitMillis > 0) {
+        synchronized (this.heartbeatTrigger) {
+          try {
+            this.heartbeatTrigger.wait(heartbeatWaitMillis);
+          } catch (InterruptedException e1) {
+            logger.warn("Interrupted in heartbeat loop, exiting..");
+            break;
+          }
         }
       }
+      heartbeatWaitMillis = heartbeatIntervalMillis;
 
       long currentTime = System.currentTimeMillis();
       ContainerHeartbeat msg = new ContainerHeartbeat();
@@ -697,7 +719,19 @@ public class StreamingContainer extends YarnContainerMain
 
         msg.stackTrace = stackTrace;
 
-        rsp = umbilical.processHeartbeat(msg);
+        if (statsEncoder != null) {
+          msg.setContainerStats(new ContainerStats(containerId));
+          msg.compactStats = statsEncoder.encode(stats);
+          rsp = umbilical.processHeartbeat(msg);
+          if (rsp.resetCompactStats) {
+            logger.info("Resending the stats after the reset of the stats encoding");
+            statsEncoder.reset();
+            msg.compactStats = statsEncoder.encode(stats);
+            rsp = umbilical.processHeartbeat(msg);
+          }
+        } else {
+          rsp = umbilical.processHeartbeat(msg);
+        }
 
         if (rsp.stackTraceRequired) {
           stackTrace = StramUtils.getStackTrace().toString();
@@ -944,6 +978,15 @@ public class StreamingContainer extends YarnContainerMain
     }
   }
 
+  /**
+   * @return the buffer server listening at the port in this JVM if the streams connect to it in process, null if they
+   * connect over a socket
+   */
+  private Server getInProcessBufferServer(int port)
+  {
+    return inProcessBufferServer && !fastPublisherSubscriber ? Server.getInProcessServer(port) : null;
+  }
+
   private HashMap.SimpleEntry<String, ComponentContextPair<Stream, StreamContext>> deployBufferServerPublisher(
       String connIdentifier, StreamCodec<?> streamCodec, long finishedWindowId, int queueCapacity,
       OperatorDeployInfo.OutputDeployInfo nodi)
@@ -965,7 +1008,12 @@ public class StreamingContainer extends YarnContainerMain
       bssc.setBufferServerAddress(new InetSocketAddress(InetAddress.getByName(null), nodi.bufferServerPort));
     }
 
-    Stream publisher = fastPublisherSubscriber ? new FastPublisher(connIdentifier, queueCapacity * 256) : new BufferServerPublisher(connIdentifier, queueCapacity);
+    Server server = getInProcessBufferServer(nodi.bufferServerPort);
+    if (server != null) {
+      bssc.put(StreamContext.IN_PROCESS_BUFFER_SERVER, server);
+    }
+
+    Stream publisher = fastPublisherSubscriber ? new FastPublisher(connIdentifier, queueCapacity * 256) : new BufferServerPublisher(connIdentifier, queueCapacity, publisherBufferSize);
     return new HashMap.SimpleEntry<>(sinkIdentifier, new ComponentContextPair<>(publisher, bssc));
   }
 
@@ -1091,6 +1139,11 @@ public class StreamingContainer extends YarnContainerMain
      */
     ArrayList<OperatorDeployInfo> inputNodes = new ArrayList<>();
     long smallestCheckpointedWindowId = Long.MAX_VALUE;
+    /*
+     * the inline partitions of an operator share the codec instance, which lets the mux stream compute the partition
+     * of a tuple once for all of them
+     */
+    HashMap<String, StreamCodec<Object>> partitionCodecs = new HashMap<>();
     //a simple map which maps the oio node to it's the node which owns the thread.
     Map<Integer, Integer> oioNodes = new ConcurrentHashMap<>();
 
@@ -1163,6 +1216,10 @@ public class StreamingContainer extends YarnContainerMain
             context.setSourceId(connIdentifier);
             context.setSinkId(sinkIdentifier);
             context.setFinishedWindowId(checkpoint.windowId);
+            Server server = getInProcessBufferServer(nidi.bufferServerPort);
+            if (server != null) {
+              context.put(StreamContext.IN_PROCESS_BUFFER_SERVER, server);
+            }
 
             BufferServerSubscriber subscriber = fastPublisherSubscriber
                 ? new FastSubscriber("tcp://".concat(nidi.bufferServerHost).concat(":").concat(String.valueOf(nidi.bufferServerPort)).concat("/").concat(connIdentifier), queueCapacity)
@@ -1250,7 +1307,13 @@ public class StreamingContainer extends YarnContainerMain
                * generally speaking we do not have partitions on the inline streams so the control should not
                * come here but if it comes, then we are ready to handle it using the partition aware streams.
                */
-              PartitionAwareSink<Object> pas = new PartitionAwareSink<>(streamCodec == null ? nonSerializingStreamCodec : (StreamCodec<Object>)streamCodec, nidi.partitionKeys, nidi.partitionMask, stream);
+              String codecIdentifier = sourceIdentifier + Component.CONCAT_SEPARATOR + streamCodecIdentifier;
+              StreamCodec<Object> partitionCodec = partitionCodecs.get(codecIdentifier);
+              if (partitionCodec == null) {
+                partitionCodec = streamCodec == null ? nonSerializingStreamCodec : (StreamCodec<Object>)streamCodec;
+                partitionCodecs.put(codecIdentifier, partitionCodec);
+              }
+              PartitionAwareSink<Object> pas = new PartitionAwareSink<>(partitionCodec, nidi.partitionKeys, nidi.partitionMask, stream);
               ((Stream.MultiSinkCapableStream)pair.component).setSink(sinkIdentifier, pas);
             }
 
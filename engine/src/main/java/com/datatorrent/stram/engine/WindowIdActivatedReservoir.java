@@ -32,7 +32,7 @@ import com.datatorrent.stram.tuple.Tuple;
  *
  * @since 0.3.2
  */
-public class WindowIdActivatedReservoir implements SweepableReservoir
+public class WindowIdActivatedReservoir implements SweepableReservoir, Idler.Wakeable
 {
   private Sink<Object> sink;
   private final String identifier;
@@ -49,6 +49,14 @@ public class WindowIdActivatedReservoir implements SweepableReservoir
     reservoir.setSink(Sink.BLACKHOLE);
   }
 
+  @Override
+  public void setIdler(Idler idler)
+  {
+    if (reservoir instanceof Idler.Wakeable) {
+      ((Idler.Wakeable)reservoir).setIdler(idler);
+    }
+  }
+
   @Override
   public int size(final boolean dataTupleAware)
   {
@@ -28,6 +28,7 @@ import com.esotericsoftware.kryo.io.Output;
 import com.datatorrent.api.StreamCodec;
 import com.datatorrent.common.util.SerializableObject;
 import com.datatorrent.netlet.util.Slice;
+import com.datatorrent.stram.codec.BufferStreamCodec;
 
 /**
  * This codec is used for serializing the objects of class which are Kryo
@@ -35,12 +36,15 @@ import com.datatorrent.netlet.util.Slice;
  *
  * @since 3.2.0
  */
-public class DefaultKryoStreamCodec<T> extends SerializableObject implements StreamCodec<T>
+public class DefaultKryoStreamCodec<T> extends SerializableObject implements StreamCodec<T>, BufferStreamCodec<T>
 {
   private static final Logger logger = LoggerFactory.getLogger(DefaultKryoStreamCodec.class);
 
   private static final long serialVersionUID = 1L;
+  private static final byte[] EMPTY_BUFFER = new byte[0];
   protected final transient Kryo kryo;
+  // input for the tuples read by the stream, it is set to the buffer of each tuple
+  private final transient Input input = new Input();
 
   public DefaultKryoStreamCodec()
   {
@@ -71,9 +75,36 @@ public class DefaultKryoStreamCodec<T> extends SerializableObject implements Str
     return new Slice(output.getBuffer(), 0, output.position());
   }
 
+  @Override
+  public void write(T o, Output data, Output state)
+  {
+    kryo.writeClassAndObject(data, o);
+  }
+
+  @Override
+  public void readState(byte[] buffer, int offset, int length)
+  {
+  }
+
+  @Override
+  public Object read(byte[] buffer, int offset, int length)
+  {
+    input.setBuffer(buffer, offset, length);
+    try {
+      return kryo.readClassAndObject(input);
+    } finally {
+      input.setBuffer(EMPTY_BUFFER);
+    }
+  }
+
   @Override
   public int getPartition(T o)
   {
     return o.hashCode();
   }
+
+  @Override
+  public void resetState()
+  {
+  }
 }
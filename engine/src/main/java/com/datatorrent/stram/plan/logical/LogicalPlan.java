@@ -161,6 +161,33 @@ public class LogicalPlan implements Serializable, DAG
    * Then it can be moved back to DAGContext.
    */
   public static Attribute<Boolean> FAST_PUBLISHER_SUBSCRIBER = new Attribute<>(false);
+  /**
+   * Size in bytes of the segment files the buffer server spools blocks into. When positive, spooled blocks are
+   * appended into preallocated segments of this size instead of being written to a file per block.
+   */
+  public static Attribute<Long> BUFFER_SPOOLING_SEGMENT_SIZE = new Attribute<>(0L);
+  /**
+   * Maximum number of memory blocks the buffer server keeps for reuse by all its publishers, in addition to the blocks
+   * cached by each publisher. The default 0 disables the pool, a negative value keeps as many blocks as a publisher
+   * caches.
+   */
+  public static Attribute<Integer> BUFFER_SERVER_POOLED_BLOCKS = new Attribute<>(0);
+  /**
+   * Size in bytes of the chunks the buffer server publishers serialize the tuples into. When positive, the tuples are
+   * written back to back into a shared chunk instead of a new array per tuple. Ignored by the fast publisher.
+   */
+  public static Attribute<Integer> BUFFER_SERVER_PUBLISHER_BUFFER_SIZE = new Attribute<>(0);
+  /**
+   * Whether the containers send the operator stats with the heartbeat in the compact encoding, which sends the port ids
+   * once and only the stats which changed since the previous window. When false, the stats are sent as serialized
+   * objects. Defaults to false.
+   */
+  public static Attribute<Boolean> HEARTBEAT_COMPACT_STATS = new Attribute<>(false);
+  /**
+   * Number of threads of the application master which prepare the launch contexts of the allocated containers and
+   * submit them to the node managers, so that the launch of a container does not hold up the others.
+   */
+  public static Attribute<Integer> CONTAINER_LAUNCH_THREADS = new Attribute<>(4);
   public static Attribute<Long> HDFS_TOKEN_LIFE_TIME = new Attribute<>(604800000L);
   public static Attribute<Long> RM_TOKEN_LIFE_TIME = new Attribute<>(YarnConfiguration.DELEGATION_TOKEN_MAX_LIFETIME_DEFAULT);
   public static Attribute<String> PRINCIPAL = new Attribute<>(null, StringCodec.String2String.getInstance());
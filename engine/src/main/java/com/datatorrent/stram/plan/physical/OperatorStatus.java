@@ -27,13 +27,14 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import com.datatorrent.api.Stats;
 import com.datatorrent.api.Stats.OperatorStats;
 import com.datatorrent.api.StatsListener;
-import com.datatorrent.api.StatsListener.BatchedOperatorStats;
+import com.datatorrent.api.StatsListener.PercentileOperatorStats;
 
 import com.datatorrent.stram.api.StreamingContainerUmbilicalProtocol.OperatorHeartbeat;
 import com.datatorrent.stram.api.StreamingContainerUmbilicalProtocol.OperatorHeartbeat.DeployState;
 import com.datatorrent.stram.engine.OperatorContext;
 import com.datatorrent.stram.plan.logical.LogicalPlan;
 import com.datatorrent.stram.plan.physical.StatsRevisions.VersionedLong;
+import com.datatorrent.stram.util.Histogram;
 import com.datatorrent.stram.util.MovingAverage.MovingAverageLong;
 import com.datatorrent.stram.util.MovingAverage.TimedMovingAverageLong;
 
@@ -42,7 +43,7 @@ import com.datatorrent.stram.util.MovingAverage.TimedMovingAverageLong;
  *
  * @since 0.9.1
  */
-public class OperatorStatus implements BatchedOperatorStats, java.io.Serializable
+public class OperatorStatus implements PercentileOperatorStats, java.io.Serializable
 {
   private static final long serialVersionUID = 201312231552L;
 
@@ -54,12 +55,14 @@ public class OperatorStatus implements BatchedOperatorStats, java.io.Serializabl
     public final TimedMovingAverageLong tuplesPMSMA;
     public final TimedMovingAverageLong bufferServerBytesPMSMA;
     public final MovingAverageLong queueSizeMA;
+    public final Histogram queueSizeHistogram;
 
     public PortStatus()
     {
       tuplesPMSMA = new TimedMovingAverageLong(throughputCalculationMaxSamples, throughputCalculationInterval);
       bufferServerBytesPMSMA = new TimedMovingAverageLong(throughputCalculationMaxSamples, throughputCalculationInterval);
       queueSizeMA = new MovingAverageLong(10);
+      queueSizeHistogram = new Histogram.Sliding(throughputCalculationMaxSamples, 2);
     }
   }
 
@@ -76,6 +79,7 @@ public class OperatorStatus implements BatchedOperatorStats, java.io.Serializabl
   public final MovingAverageLong checkpointTimeMA;
   public final TimedMovingAverageLong cpuNanosPMSMA;
   public final MovingAverageLong latencyMA;
+  public final Histogram latencyHistogram;
   public final Map<String, PortStatus> inputPortStatusList = new ConcurrentHashMap<>();
   public final Map<String, PortStatus> outputPortStatusList = new ConcurrentHashMap<>();
   public List<OperatorStats> lastWindowedStats = Collections.emptyList();
@@ -101,6 +105,7 @@ public class OperatorStatus implements BatchedOperatorStats, java.io.Serializabl
 
     cpuNanosPMSMA = new TimedMovingAverageLong(throughputCalculationMaxSamples, throughputCalculationInterval);
     latencyMA = new MovingAverageLong(throughputCalculationInterval / heartbeatInterval);
+    latencyHistogram = new Histogram.Sliding(throughputCalculationMaxSamples, 4);
     checkpointTimeMA = new MovingAverageLong(throughputCalculationInterval / heartbeatInterval);
     this.windowProcessingTimeoutMillis = dag.getValue(LogicalPlan.STREAMING_WINDOW_SIZE_MILLIS)
       * om.getValue(OperatorContext.TIMEOUT_WINDOW_COUNT);
@@ -156,6 +161,19 @@ public class OperatorStatus implements BatchedOperatorStats, java.io.Serializabl
     return this.latencyMA.getAvg();
   }
 
+  @Override
+  public long getLatencyPercentile(double percentile)
+  {
+    return latencyHistogram.getPercentile(percentile);
+  }
+
+  @Override
+  public long getQueueSizePercentile(String portName, double percentile)
+  {
+    PortStatus ps = inputPortStatusList.get(portName);
+    return ps == null ? 0 : ps.queueSizeHistogram.getPercentile(percentile);
+  }
+
   @Override
   public List<StatsListener.OperatorResponse> getOperatorResponse()
   {
@@ -19,6 +19,7 @@
 package com.datatorrent.stram.stream;
 
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
@@ -26,20 +27,20 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.apex.api.operator.ControlTuple;
 
-import com.datatorrent.api.StreamCodec;
+import com.esotericsoftware.kryo.io.Output;
+
 import com.datatorrent.bufferserver.client.Publisher;
 import com.datatorrent.bufferserver.packet.BeginWindowTuple;
-import com.datatorrent.bufferserver.packet.DataTuple;
 import com.datatorrent.bufferserver.packet.EndStreamTuple;
 import com.datatorrent.bufferserver.packet.EndWindowTuple;
 import com.datatorrent.bufferserver.packet.MessageType;
-import com.datatorrent.bufferserver.packet.PayloadTuple;
 import com.datatorrent.bufferserver.packet.ResetWindowTuple;
 import com.datatorrent.bufferserver.packet.WindowIdTuple;
+import com.datatorrent.bufferserver.server.Server;
 import com.datatorrent.bufferserver.util.Codec;
 import com.datatorrent.netlet.EventLoop;
-import com.datatorrent.stram.codec.StatefulStreamCodec;
-import com.datatorrent.stram.codec.StatefulStreamCodec.DataStatePair;
+import com.datatorrent.netlet.util.VarInt;
+import com.datatorrent.stram.codec.BufferStreamCodec;
 import com.datatorrent.stram.engine.ByteCounterStream;
 import com.datatorrent.stram.engine.StreamContext;
 import com.datatorrent.stram.tuple.CustomControlTuple;
@@ -59,15 +60,44 @@ import static java.lang.Thread.sleep;
  */
 public class BufferServerPublisher extends Publisher implements ByteCounterStream
 {
-  private StreamCodec<Object> serde;
   private final AtomicLong publishedByteCount;
   private EventLoop eventloop;
   private int count;
-  private StatefulStreamCodec<Object> statefulSerde;
+  private BufferStreamCodec<Object> codec;
+  /**
+   * the codec serializes the tuples and its state right after the headers of the messages in these outputs.
+   */
+  private final Output data = new Output(4096, Integer.MAX_VALUE);
+  private final Output state = new Output(4096, Integer.MAX_VALUE);
+  /**
+   * size of the chunks the tuples are serialized into, 0 when each tuple is serialized into an array of its own.
+   */
+  private final int bufferSize;
+  private byte[] buffer;
+  private int bufferOffset;
 
   public BufferServerPublisher(String sourceId, int queueCapacity)
+  {
+    this(sourceId, queueCapacity, 0);
+  }
+
+  /**
+   * When the buffer size is positive, the publisher serializes the length prefixed tuples back to back into a chunk
+   * of that size and sends the slices of the chunk. The slices are queued by reference, so a full chunk is written
+   * from its beginning again only once netlet copied all the queued slices out, otherwise the next tuple goes into a
+   * new chunk.
+   *
+   * @param sourceId identifier of the publisher
+   * @param queueCapacity capacity of the send queue
+   * @param bufferSize size of the chunks to serialize the tuples into, 0 to allocate an array for each tuple
+   */
+  public BufferServerPublisher(String sourceId, int queueCapacity, int bufferSize)
   {
     super(sourceId, queueCapacity);
+    if (bufferSize < 0) {
+      throw new IllegalArgumentException("Invalid buffer size " + bufferSize);
+    }
+    this.bufferSize = bufferSize;
     this.publishedByteCount = new AtomicLong(0);
   }
 
@@ -76,19 +106,16 @@ public class BufferServerPublisher extends Publisher implements ByteCounterStrea
    * @param payload
    */
   @Override
-  @SuppressWarnings("SleepWhileInLoop")
   public void put(Object payload)
   {
     count++;
-    byte[] array;
     if (payload instanceof Tuple) {
       final Tuple t = (Tuple)payload;
+      byte[] array;
 
       switch (t.getType()) {
         case CHECKPOINT:
-          if (statefulSerde != null) {
-            statefulSerde.resetState();
-          }
+          codec.resetState();
           array = WindowIdTuple.getSerializedTuple((int)t.getWindowId());
           array[0] = MessageType.CHECKPOINT_VALUE;
           break;
@@ -102,26 +129,11 @@ public class BufferServerPublisher extends Publisher implements ByteCounterStrea
           break;
 
         case CUSTOM_CONTROL:
-          if (statefulSerde == null) {
-            array = com.datatorrent.bufferserver.packet.CustomControlTuple
-                .getSerializedTuple(MessageType.CUSTOM_CONTROL_VALUE, serde.toByteArray(payload));
-          } else {
-            DataStatePair dsp = statefulSerde.toDataStatePair(payload);
-            if (dsp.state != null) {
-              array = com.datatorrent.bufferserver.packet.CustomControlTuple
-                  .getSerializedTuple(MessageType.CODEC_STATE_VALUE, dsp.state);
-              try {
-                while (!write(array)) {
-                  sleep(5);
-                }
-              } catch (InterruptedException ie) {
-                throw new RuntimeException(ie);
-              }
-            }
-            array = com.datatorrent.bufferserver.packet.CustomControlTuple
-                .getSerializedTuple(MessageType.CUSTOM_CONTROL_VALUE, dsp.data);
-          }
-          break;
+          serialize(payload, 1);
+          data.getBuffer()[0] = MessageType.CUSTOM_CONTROL_VALUE;
+          publish(data);
+          publishedByteCount.addAndGet(data.position());
+          return;
 
         case END_STREAM:
           array = EndStreamTuple.getSerializedTuple((int)t.getWindowId());
@@ -135,39 +147,143 @@ public class BufferServerPublisher extends Publisher implements ByteCounterStrea
         default:
           throw new UnsupportedOperationException("this data type is not handled in the stream");
       }
+
+      publish(array);
+      publishedByteCount.addAndGet(array.length);
     } else {
-      if (statefulSerde == null) {
-        array = PayloadTuple.getSerializedTuple(serde.getPartition(payload), serde.toByteArray(payload));
-      } else {
-        DataStatePair dsp = statefulSerde.toDataStatePair(payload);
-        /*
-         * if there is any state write that for the subscriber before we write the data.
-         */
-        if (dsp.state != null) {
-          array = DataTuple.getSerializedTuple(MessageType.CODEC_STATE_VALUE, dsp.state);
-          try {
-            while (!write(array)) {
-              sleep(5);
-            }
-          } catch (InterruptedException ie) {
-            throw new RuntimeException(ie);
-          }
+      serialize(payload, 5);
+      final int partition = codec.getPartition(payload);
+      final byte[] array = data.getBuffer();
+      array[0] = MessageType.PAYLOAD_VALUE;
+      array[1] = (byte)(partition >>> 24);
+      array[2] = (byte)(partition >>> 16);
+      array[3] = (byte)(partition >>> 8);
+      array[4] = (byte)partition;
+      publish(data);
+      publishedByteCount.addAndGet(data.position());
+    }
+  }
+
+  /**
+   * Serialize the tuple after the header of the given size in the data output. If the codec produces any state, the
+   * state is published right away as the subscriber needs it before the tuple.
+   *
+   * @param payload the tuple
+   * @param headerSize size of the header of the message
+   */
+  private void serialize(Object payload, int headerSize)
+  {
+    data.setPosition(headerSize);
+    state.setPosition(1);
+    codec.write(payload, data, state);
+    if (state.position() > 1) {
+      state.getBuffer()[0] = MessageType.CODEC_STATE_VALUE;
+      publish(state);
+    }
+  }
+
+  @SuppressWarnings("SleepWhileInLoop")
+  private void publish(byte[] array)
+  {
+    if (isConnectedInProcess()) {
+      publishInProcess(array, array.length);
+    } else if (bufferSize == 0) {
+      try {
+        while (!write(array)) {
+          sleep(5);
         }
-        /*
-         * Now that the state if any has been sent, we can proceed with the actual data we want to send.
-         */
-        array = PayloadTuple.getSerializedTuple(statefulSerde.getPartition(payload), dsp.data);
+      } catch (InterruptedException ie) {
+        throw new RuntimeException(ie);
+      }
+    } else {
+      final int offset = reserve(array.length);
+      System.arraycopy(array, 0, buffer, offset, array.length);
+      commit(offset + array.length);
+    }
+  }
+
+  /**
+   * Publish the message serialized into the output. The message is copied as the output is reused for the next one.
+   *
+   * @param output the output with the message at its beginning
+   */
+  private void publish(Output output)
+  {
+    if (isConnectedInProcess()) {
+      publishInProcess(output.getBuffer(), output.position());
+    } else if (bufferSize == 0) {
+      publish(Arrays.copyOf(output.getBuffer(), output.position()));
+    } else {
+      final int length = output.position();
+      final int offset = reserve(length);
+      System.arraycopy(output.getBuffer(), 0, buffer, offset, length);
+      commit(offset + length);
+    }
+  }
+
+  /**
+   * Publish the message to the buffer server in this JVM, which copies it into the memory of the stream.
+   *
+   * @param array the array with the message at its beginning
+   * @param length length of the message
+   */
+  @SuppressWarnings("SleepWhileInLoop")
+  private void publishInProcess(byte[] array, int length)
+  {
+    try {
+      while (!sendInProcess(array, 0, length)) {
+        sleep(5);
+      }
+    } catch (InterruptedException ie) {
+      throw new RuntimeException(ie);
+    }
+  }
+
+  /**
+   * Write the length prefix of a message of the given size into the chunk, switching to a new chunk if the message
+   * does not fit into the remainder of the current one.
+   *
+   * @param size size of the message
+   * @return offset in the chunk to serialize the message at
+   */
+  private int reserve(int size)
+  {
+    final int required = VarInt.getSize(size) + size;
+    if (buffer == null || buffer.length - bufferOffset < required) {
+      if (buffer == null || buffer.length < required || !isSendQueueDrained()) {
+        buffer = new byte[Math.max(bufferSize, required)];
       }
+      bufferOffset = 0;
+    }
+    return VarInt.write(size, buffer, bufferOffset);
+  }
+
+  /**
+   * @return true if netlet copied all the queued slices out to the socket buffer, none of them refers to a chunk
+   */
+  private boolean isSendQueueDrained()
+  {
+    synchronized (bufferOfBuffers) {
+      return bufferOfBuffers.isEmpty() && sendBuffer4Polls.isEmpty() && sendBuffer4Offers.isEmpty();
     }
+  }
 
+  /**
+   * Send the message serialized into the chunk since the last sent message.
+   *
+   * @param end offset in the chunk right after the message
+   */
+  @SuppressWarnings("SleepWhileInLoop")
+  private void commit(int end)
+  {
     try {
-      while (!write(array)) {
+      while (!send(buffer, bufferOffset, end - bufferOffset)) {
         sleep(5);
       }
-      publishedByteCount.addAndGet(array.length);
     } catch (InterruptedException ie) {
       throw new RuntimeException(ie);
     }
+    bufferOffset = end;
   }
 
   @Override
@@ -185,6 +301,13 @@ public class BufferServerPublisher extends Publisher implements ByteCounterStrea
   @SuppressWarnings("unchecked")
   public void activate(StreamContext context)
   {
+    final Server server = context.get(StreamContext.IN_PROCESS_BUFFER_SERVER);
+    if (server != null) {
+      logger.debug("Registering in process publisher: {} {} windowId={} server={}", new Object[] {context.getSourceId(), context.getId(), Codec.getStringWindowId(context.getFinishedWindowId()), server});
+      connectInProcess(server, context.getFinishedWindowId());
+      return;
+    }
+
     setToken(context.get(StreamContext.BUFFER_SERVER_TOKEN));
     InetSocketAddress address = context.getBufferServerAddress();
     eventloop = context.get(StreamContext.EVENT_LOOP);
@@ -197,6 +320,10 @@ public class BufferServerPublisher extends Publisher implements ByteCounterStrea
   @Override
   public void deactivate()
   {
+    if (isConnectedInProcess()) {
+      disconnectInProcess();
+      return;
+    }
     setToken(null);
     eventloop.disconnect(this);
   }
@@ -211,14 +338,7 @@ public class BufferServerPublisher extends Publisher implements ByteCounterStrea
   @SuppressWarnings("unchecked")
   public void setup(StreamContext context)
   {
-    StreamCodec<?> codec = context.get(StreamContext.CODEC);
-    if (codec == null) {
-      statefulSerde = ((StatefulStreamCodec<Object>)StreamContext.CODEC.defaultValue).newInstance();
-    } else if (codec instanceof StatefulStreamCodec) {
-      statefulSerde = ((StatefulStreamCodec<Object>)codec).newInstance();
-    } else {
-      serde = (StreamCodec<Object>)codec;
-    }
+    codec = BufferStreamCodec.StreamCodecAdapter.forStream(context.get(StreamContext.CODEC));
   }
 
   @Override
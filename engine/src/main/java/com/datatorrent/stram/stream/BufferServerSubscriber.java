@@ -32,13 +32,14 @@ import org.apache.apex.api.operator.ControlTuple;
 import com.datatorrent.api.Sink;
 import com.datatorrent.api.StreamCodec;
 import com.datatorrent.bufferserver.client.Subscriber;
+import com.datatorrent.bufferserver.server.Server;
 import com.datatorrent.bufferserver.util.Codec;
 import com.datatorrent.netlet.EventLoop;
 import com.datatorrent.netlet.util.CircularBuffer;
 import com.datatorrent.netlet.util.Slice;
-import com.datatorrent.stram.codec.StatefulStreamCodec;
-import com.datatorrent.stram.codec.StatefulStreamCodec.DataStatePair;
+import com.datatorrent.stram.codec.BufferStreamCodec;
 import com.datatorrent.stram.engine.ByteCounterStream;
+import com.datatorrent.stram.engine.Idler;
 import com.datatorrent.stram.engine.StreamContext;
 import com.datatorrent.stram.engine.SweepableReservoir;
 import com.datatorrent.stram.engine.WindowGenerator;
@@ -61,10 +62,8 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
 {
   private boolean suspended;
   private long baseSeconds;
-  protected StreamCodec<Object> serde;
-  protected StatefulStreamCodec<Object> statefulSerde;
+  protected BufferStreamCodec<Object> codec;
   protected EventLoop eventloop;
-  private final DataStatePair dsp;
   CircularBuffer<Slice> offeredFragments;
   CircularBuffer<Slice> polledFragments;
   CircularBuffer<Slice> freeFragments;
@@ -78,7 +77,6 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
     this.reservoirs = new BufferReservoir[0];
     this.reservoirMap = new HashMap<>();
     this.readByteCount = new AtomicLong(0);
-    this.dsp = new DataStatePair();
     polledFragments = offeredFragments = new CircularBuffer<>(queueCapacity);
     freeFragments = new CircularBuffer<>(queueCapacity);
     backlog = new ArrayDeque<>();
@@ -91,9 +89,29 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
     readByteCount.addAndGet(len);
   }
 
+  @Override
+  public boolean receive(byte[] buffer, int offset, int size)
+  {
+    if (super.receive(buffer, offset, size)) {
+      readByteCount.addAndGet(size);
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public void activate(StreamContext context)
   {
+    final Server server = context.get(StreamContext.IN_PROCESS_BUFFER_SERVER);
+    if (server != null) {
+      logger.debug("Registering in process subscriber: id={} upstreamId={} streamLogicalName={} windowId={} mask={} "
+          + "partitions={} server={}", context.getSinkId(), context.getSourceId(), context.getId(),
+          Codec.getStringWindowId(context.getFinishedWindowId()), context.getPartitionMask(), context.getPartitions(),
+          server);
+      connectInProcess(server, context.getId() + '/' + context.getSinkId(), context.getSourceId(), context.getPartitionMask(), context.getPartitions(), context.getFinishedWindowId());
+      return;
+    }
+
     setToken(context.get(StreamContext.BUFFER_SERVER_TOKEN));
     InetSocketAddress address = context.getBufferServerAddress();
     eventloop = context.get(StreamContext.EVENT_LOOP);
@@ -119,7 +137,7 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
     if (!offeredFragments.offer(f)) {
       synchronized (backlog) {
         if (!suspended) {
-          suspendRead();
+          suspendReadIfResumed();
           suspended = true;
         }
         int newsize = offeredFragments.capacity() == MAX_SENDBUFFER_SIZE ? offeredFragments.capacity() : offeredFragments.capacity() << 1;
@@ -127,26 +145,26 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
         offeredFragments.add(f);
       }
     }
+
+    for (BufferReservoir reservoir : reservoirs) {
+      reservoir.wakeConsumer();
+    }
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public void setup(StreamContext context)
   {
-    StreamCodec<?> codec = context.get(StreamContext.CODEC);
-    if (codec == null) {
-      statefulSerde = ((StatefulStreamCodec<Object>)StreamContext.CODEC.defaultValue).newInstance();
-    } else if (codec instanceof StatefulStreamCodec) {
-      statefulSerde = ((StatefulStreamCodec<Object>)codec).newInstance();
-    } else {
-      serde = (StreamCodec<Object>)codec;
-    }
+    codec = BufferStreamCodec.StreamCodecAdapter.forStream(context.get(StreamContext.CODEC));
     baseSeconds = context.getFinishedWindowId() & 0xffffffff00000000L;
   }
 
   @Override
   public void deactivate()
   {
+    if (isConnectedInProcess()) {
+      disconnectInProcess();
+      return;
+    }
     eventloop.disconnect(this);
     setToken(null);
   }
@@ -239,10 +257,11 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
     return readByteCount.get();
   }
 
-  class BufferReservoir extends CircularBuffer<Object> implements SweepableReservoir
+  class BufferReservoir extends CircularBuffer<Object> implements SweepableReservoir, Idler.Wakeable
   {
     protected boolean skipObject = false;
     private Sink<Object> sink;
+    private volatile Idler idler;
     int count;
 
     BufferReservoir(int capacity)
@@ -250,6 +269,20 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
       super(capacity);
     }
 
+    @Override
+    public void setIdler(Idler idler)
+    {
+      this.idler = idler;
+    }
+
+    void wakeConsumer()
+    {
+      final Idler idler = this.idler;
+      if (idler != null) {
+        idler.wakeup();
+      }
+    }
+
     @Override
     public int size(final boolean dataTupleAware)
     {
@@ -297,7 +330,7 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
         if (min == 0) {
           if (offeredFragments == polledFragments) {
             if (suspended) {
-              resumeRead();
+              resumeReadIfSuspended();
               suspended = false;
             }
             return null;
@@ -322,7 +355,7 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
               continue;
 
             case CODEC_STATE:
-              dsp.state = data.getData();
+              codec.readState(fm.buffer, fm.offset + 1, fm.length - 1);
               freeFragments.offer(fm);
               continue;
 
@@ -336,13 +369,11 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
               break;
 
             case PAYLOAD:
-              o = processPayload(data);
+              o = processPayload(fm.buffer, fm.offset + 5, fm.length - 5);
               break;
 
             case CHECKPOINT:
-              if (statefulSerde != null) {
-                statefulSerde.resetState();
-              }
+              codec.resetState();
               o = new CheckpointTuple(baseSeconds | data.getWindowId());
               break;
 
@@ -352,7 +383,7 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
               break;
 
             case CUSTOM_CONTROL:
-              o = processPayload(data);
+              o = processPayload(fm.buffer, fm.offset + 1, fm.length - 1);
               break;
 
             case END_STREAM:
@@ -381,16 +412,12 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
       return null;
     }
 
-    protected Object processPayload(com.datatorrent.bufferserver.packet.Tuple data)
+    /**
+     * Deserialize the tuple in the given range of the buffer, which is reused once the call returns.
+     */
+    protected Object processPayload(byte[] buffer, int offset, int length)
     {
-      Object o;
-      if (statefulSerde == null) {
-        o = serde.fromByteArray(data.getData());
-      } else {
-        dsp.data = data.getData();
-        o = statefulSerde.fromDataStatePair(dsp);
-      }
-      return o;
+      return codec.read(buffer, offset, length);
     }
 
     @Override
@@ -410,17 +437,19 @@ public class BufferServerSubscriber extends Subscriber implements ByteCounterStr
   public class BufferReservoirForPersistStream extends BufferReservoir
   {
     StreamCodecWrapperForPersistance wrapperStreamCodec;
+    private final BufferStreamCodec<Object> persistCodec;
 
     BufferReservoirForPersistStream(int capacity, StreamCodecWrapperForPersistance<Object> streamCodec)
     {
       super(capacity);
       wrapperStreamCodec = streamCodec;
+      persistCodec = BufferStreamCodec.StreamCodecAdapter.forStream(streamCodec.getSpecifiedStreamCodec());
     }
 
     @Override
-    protected Object processPayload(com.datatorrent.bufferserver.packet.Tuple data)
+    protected Object processPayload(byte[] buffer, int offset, int length)
     {
-      Object o = wrapperStreamCodec.fromByteArray(data.getData());
+      Object o = persistCodec.read(buffer, offset, length);
       if (!wrapperStreamCodec.shouldCaptureEvent(o)) {
         skipObject = true;
       }
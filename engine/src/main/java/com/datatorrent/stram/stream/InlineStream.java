@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.apex.api.operator.ControlTuple;
 
+import com.datatorrent.api.BatchSink;
 import com.datatorrent.stram.engine.AbstractReservoir;
 import com.datatorrent.stram.engine.Stream;
 import com.datatorrent.stram.engine.StreamContext;
@@ -37,7 +38,7 @@ import com.datatorrent.stram.tuple.Tuple;
  *
  * @since 0.3.2
  */
-public class InlineStream implements Stream
+public class InlineStream implements Stream, BatchSink<Object>
 {
   private int count;
   private AbstractReservoir reservoir;
@@ -92,6 +93,7 @@ public class InlineStream implements Stream
   {
     try {
       reservoir.put(tuple);
+      reservoir.wakeConsumer();
       if (!(tuple instanceof Tuple)) {
         count++;
       }
@@ -101,6 +103,26 @@ public class InlineStream implements Stream
     }
   }
 
+  @Override
+  public void putAll(Object[] tuples, int offset, int length)
+  {
+    int dataTuples = 0;
+    try {
+      for (int i = offset, end = offset + length; i < end; i++) {
+        reservoir.put(tuples[i]);
+        if (!(tuples[i] instanceof Tuple)) {
+          dataTuples++;
+        }
+      }
+    } catch (InterruptedException ie) {
+      logger.debug("Interrupted", ie);
+      throw new RuntimeException(ie);
+    } finally {
+      count += dataTuples;
+      reservoir.wakeConsumer();
+    }
+  }
+
   @Override
   public boolean putControl(ControlTuple payload)
   {
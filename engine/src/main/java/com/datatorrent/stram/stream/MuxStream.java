@@ -19,24 +19,30 @@
 package com.datatorrent.stram.stream;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.apex.api.operator.ControlTuple;
 
+import com.datatorrent.api.BatchSink;
 import com.datatorrent.api.Sink;
+import com.datatorrent.api.StreamCodec;
 import com.datatorrent.stram.engine.Stream;
 import com.datatorrent.stram.engine.StreamContext;
 import com.datatorrent.stram.tuple.CustomControlTuple;
+import com.datatorrent.stram.tuple.Tuple;
+import com.datatorrent.stram.util.SinkUtil;
 
 /**
  * <p>MuxStream class.</p>
  *
  * @since 0.3.2
  */
-public class MuxStream implements Stream.MultiSinkCapableStream
+public class MuxStream implements Stream.MultiSinkCapableStream, BatchSink<Object>
 {
   public static final String MULTI_SINK_ID_CONCAT_SEPARATOR = ", ";
   private HashMap<String, Sink<Object>> outputs = new HashMap<>();
@@ -69,14 +75,41 @@ public class MuxStream implements Stream.MultiSinkCapableStream
   @Override
   public void activate(StreamContext context)
   {
-    @SuppressWarnings("unchecked")
-    Sink<Object>[] newSinks = (Sink<Object>[])Array.newInstance(Sink.class, outputs.size());
-
-    int i = 0;
+    /*
+     * the partitions of the same downstream operator share the codec, the partition of a tuple is computed once
+     * and the tuple is routed to the partitions which take it
+     */
+    List<Sink<Object>> newSinks = new ArrayList<>(outputs.size());
+    List<PartitionRouter> routers = new ArrayList<>();
     for (final Sink<Object> s: outputs.values()) {
-      newSinks[i++] = s;
+      if (s instanceof PartitionAwareSink && ((PartitionAwareSink<Object>)s).isRoutable()) {
+        PartitionAwareSink<Object> pas = (PartitionAwareSink<Object>)s;
+        PartitionRouter router = null;
+        for (PartitionRouter r : routers) {
+          if (r.serde == pas.getStreamCodec() && r.mask == pas.getMask()) {
+            router = r;
+            break;
+          }
+        }
+        if (router == null) {
+          routers.add(router = new PartitionRouter(pas.getStreamCodec(), pas.getMask()));
+        }
+        router.sinks.add(pas);
+      } else {
+        newSinks.add(s);
+      }
+    }
+    for (PartitionRouter router : routers) {
+      if (router.sinks.size() == 1) {
+        newSinks.add(router.sinks.get(0));
+      } else {
+        newSinks.add(router);
+      }
     }
-    sinks = newSinks;
+
+    @SuppressWarnings("unchecked")
+    Sink<Object>[] array = (Sink<Object>[])Array.newInstance(Sink.class, newSinks.size());
+    sinks = newSinks.toArray(array);
   }
 
   /**
@@ -122,6 +155,16 @@ public class MuxStream implements Stream.MultiSinkCapableStream
     }
   }
 
+  @Override
+  public void putAll(Object[] tuples, int offset, int length)
+  {
+    count += length;
+    final Sink<Object>[] sinks = this.sinks;
+    for (int i = sinks.length; i-- > 0;) {
+      SinkUtil.putAll(sinks[i], tuples, offset, length);
+    }
+  }
+
   @Override
   public boolean putControl(ControlTuple payload)
   {
@@ -141,5 +184,55 @@ public class MuxStream implements Stream.MultiSinkCapableStream
     }
   }
 
+  /**
+   * Sink which computes the partition of a tuple once for the partition aware sinks with the same codec and mask.
+   */
+  private static class PartitionRouter implements BatchSink<Object>
+  {
+    final StreamCodec<Object> serde;
+    final int mask;
+    final List<PartitionAwareSink<Object>> sinks = new ArrayList<>();
+    private int[] partitions = new int[0];
+
+    PartitionRouter(StreamCodec<Object> serde, int mask)
+    {
+      this.serde = serde;
+      this.mask = mask;
+    }
+
+    @Override
+    public void put(Object payload)
+    {
+      final int partition = payload instanceof Tuple ? 0 : serde.getPartition(payload);
+      for (int i = sinks.size(); i-- > 0;) {
+        sinks.get(i).put(payload, partition);
+      }
+    }
+
+    @Override
+    public void putAll(Object[] payloads, int offset, int length)
+    {
+      final int end = offset + length;
+      if (partitions.length < end) {
+        partitions = new int[end];
+      }
+      final int[] partitions = this.partitions;
+      for (int i = offset; i < end; i++) {
+        final Object payload = payloads[i];
+        partitions[i] = payload instanceof Tuple ? 0 : serde.getPartition(payload);
+      }
+      for (int i = sinks.size(); i-- > 0;) {
+        sinks.get(i).putAll(payloads, partitions, offset, length);
+      }
+    }
+
+    @Override
+    public int getCount(boolean reset)
+    {
+      return 0;
+    }
+
+  }
+
   private static final Logger logger = LoggerFactory.getLogger(MuxStream.class);
 }
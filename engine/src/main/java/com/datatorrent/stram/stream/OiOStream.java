@@ -20,12 +20,14 @@ package com.datatorrent.stram.stream;
 
 import org.apache.apex.api.operator.ControlTuple;
 
+import com.datatorrent.api.BatchSink;
 import com.datatorrent.api.Sink;
 import com.datatorrent.stram.engine.Stream;
 import com.datatorrent.stram.engine.StreamContext;
 import com.datatorrent.stram.engine.SweepableReservoir;
 import com.datatorrent.stram.tuple.CustomControlTuple;
 import com.datatorrent.stram.tuple.Tuple;
+import com.datatorrent.stram.util.SinkUtil;
 
 /**
  * A non buffering stream which facilitates the ThreadLocal implementation of an operator.</p>
@@ -40,7 +42,7 @@ import com.datatorrent.stram.tuple.Tuple;
  *
  * @since 0.3.5
  */
-public class OiOStream implements Stream
+public class OiOStream implements Stream, BatchSink<Object>
 {
   private Sink<Object> sink;
   private Sink<Tuple> control;
@@ -79,6 +81,30 @@ public class OiOStream implements Stream
     }
   }
 
+  @Override
+  public void putAll(Object[] tuples, int offset, int length)
+  {
+    int start = offset;
+    final int end = offset + length;
+    for (int i = offset; i < end; i++) {
+      if (tuples[i] instanceof Tuple) {
+        putData(tuples, start, i);
+        control.put((Tuple)tuples[i]);
+        start = i + 1;
+      }
+    }
+    putData(tuples, start, end);
+  }
+
+  private void putData(Object[] tuples, int start, int end)
+  {
+    if (end > start) {
+      count += end - start;
+      reservoir.count += end - start;
+      SinkUtil.putAll(sink, tuples, start, end - start);
+    }
+  }
+
   @Override
   public boolean putControl(ControlTuple payload)
   {
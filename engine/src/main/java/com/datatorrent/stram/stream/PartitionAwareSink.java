@@ -18,11 +18,14 @@
  */
 package com.datatorrent.stram.stream;
 
+import java.util.Arrays;
 import java.util.Set;
 
+import com.datatorrent.api.BatchSink;
 import com.datatorrent.api.Sink;
 import com.datatorrent.api.StreamCodec;
 import com.datatorrent.stram.tuple.Tuple;
+import com.datatorrent.stram.util.SinkUtil;
 
 /**
  * <p>PartitionAwareSink class.</p>
@@ -30,13 +33,25 @@ import com.datatorrent.stram.tuple.Tuple;
  * @param <T>
  * @since 0.3.2
  */
-public class PartitionAwareSink<T> implements Sink<T>
+public class PartitionAwareSink<T> implements BatchSink<T>
 {
+  /**
+   * largest partition mask for which the partitions are looked up in a table.
+   */
+  private static final int MAX_PARTITION_TABLE_MASK = 0xffff;
   private final StreamCodec<T> serde;
-  private final Set<Integer> partitions;
+  /**
+   * partitions indexed by the partition value masked with the mask, null when the mask is too large for a table.
+   */
+  private final boolean[] partitionTable;
+  /**
+   * sorted partitions when there is no table.
+   */
+  private final int[] sortedPartitions;
   private final int mask;
   private volatile Sink<T> output;
   private int count;
+  private Object[] selected = new Object[0];
 
   /**
    *
@@ -48,9 +63,23 @@ public class PartitionAwareSink<T> implements Sink<T>
   public PartitionAwareSink(StreamCodec<T> serde, Set<Integer> partitions, int mask, Sink<T> output)
   {
     this.serde = serde;
-    this.partitions = partitions;
     this.output = output;
     this.mask = mask;
+    if (mask >= 0 && mask <= MAX_PARTITION_TABLE_MASK) {
+      partitionTable = new boolean[mask + 1];
+      for (Integer partition : partitions) {
+        partitionTable[partition & mask] = true;
+      }
+      sortedPartitions = null;
+    } else {
+      partitionTable = null;
+      sortedPartitions = new int[partitions.size()];
+      int i = 0;
+      for (Integer partition : partitions) {
+        sortedPartitions[i++] = partition;
+      }
+      Arrays.sort(sortedPartitions);
+    }
   }
 
   /**
@@ -69,9 +98,108 @@ public class PartitionAwareSink<T> implements Sink<T>
     }
   }
 
+  /**
+   * Pass the tuples of the partitions of the sink to the output in one batch.
+   */
+  @Override
+  public void putAll(T[] payloads, int offset, int length)
+  {
+    if (selected.length < length) {
+      selected = new Object[length];
+    }
+    final Object[] selected = this.selected;
+    int n = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      final T payload = payloads[i];
+      if (payload instanceof Tuple || canSendToOutput(payload)) {
+        selected[n++] = payload;
+      }
+    }
+    putSelected(n);
+  }
+
+  /**
+   * Pass the tuple to the output if its partition computed by the caller is one of the partitions of the sink.
+   *
+   * @param payload the tuple
+   * @param partition partition of the tuple, ignored for the control tuples
+   */
+  void put(T payload, int partition)
+  {
+    if (payload instanceof Tuple || matches(partition)) {
+      count++;
+      output.put(payload);
+    }
+  }
+
+  /**
+   * Pass the tuples of the partitions of the sink to the output in one batch, the partitions of the tuples are
+   * computed by the caller.
+   *
+   * @param payloads the tuples
+   * @param partitions partitions of the tuples at the same positions, ignored for the control tuples
+   * @param offset position of the first tuple
+   * @param length number of the tuples
+   */
+  void putAll(T[] payloads, int[] partitions, int offset, int length)
+  {
+    if (selected.length < length) {
+      selected = new Object[length];
+    }
+    final Object[] selected = this.selected;
+    int n = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      final T payload = payloads[i];
+      if (payload instanceof Tuple || matches(partitions[i])) {
+        selected[n++] = payload;
+      }
+    }
+    putSelected(n);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void putSelected(int n)
+  {
+    count += n;
+    try {
+      SinkUtil.putAll((Sink<Object>)output, selected, 0, n);
+    } finally {
+      Arrays.fill(selected, 0, n, null);
+    }
+  }
+
   protected boolean canSendToOutput(T payload)
   {
-    return partitions.contains(serde.getPartition(payload) & mask);
+    return matches(serde.getPartition(payload));
+  }
+
+  private boolean matches(int partition)
+  {
+    if (partitionTable != null) {
+      return partitionTable[partition & mask];
+    }
+    return Arrays.binarySearch(sortedPartitions, partition & mask) >= 0;
+  }
+
+  /**
+   * Check whether the tuples can be routed to the sink by their partition computed once for all the sinks with the
+   * same codec and mask, which is not the case when a subclass selects the tuples differently.
+   *
+   * @return true if the sink selects the tuples only by their partition
+   */
+  boolean isRoutable()
+  {
+    return getClass() == PartitionAwareSink.class;
+  }
+
+  StreamCodec<T> getStreamCodec()
+  {
+    return serde;
+  }
+
+  int getMask()
+  {
+    return mask;
   }
 
   @Override
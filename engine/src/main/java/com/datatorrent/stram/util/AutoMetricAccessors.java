@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.util;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.hadoop.util.ReflectionUtils;
+
+import com.datatorrent.api.AutoMetric;
+
+/**
+ * Accessors of the {@link AutoMetric} fields and getters of a class.<p>
+ * <br>
+ * The fields and the getters are looked up once per class and read through method handles typed to the primitive
+ * type of the metric, so that reading the metrics does not box the values. A {@link Record} keeps the values read
+ * last and boxes a value only when it changes.
+ * <br>
+ */
+public final class AutoMetricAccessors
+{
+  private static final byte OBJECT = 0;
+  private static final byte INT = 1;
+  private static final byte LONG = 2;
+  private static final byte FLOAT = 3;
+  private static final byte DOUBLE = 4;
+
+  private static final ConcurrentMap<Class<?>, AutoMetricAccessors> accessors = new ConcurrentHashMap<>();
+
+  private final String[] names;
+  private final byte[] types;
+  private final MethodHandle[] handles;
+
+  private AutoMetricAccessors(Class<?> clazz)
+  {
+    final List<String> names = new ArrayList<>();
+    final List<MethodHandle> handles = new ArrayList<>();
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      for (Field field : ReflectionUtils.getDeclaredFieldsIncludingInherited(clazz)) {
+        if (field.isAnnotationPresent(AutoMetric.class)) {
+          field.setAccessible(true);
+          names.add(field.getName());
+          handles.add(lookup.unreflectGetter(field));
+        }
+      }
+
+      for (PropertyDescriptor pd : Introspector.getBeanInfo(clazz).getPropertyDescriptors()) {
+        Method readMethod = pd.getReadMethod();
+        if (readMethod != null && readMethod.isAnnotationPresent(AutoMetric.class)) {
+          readMethod.setAccessible(true);
+          names.add(pd.getName());
+          handles.add(lookup.unreflect(readMethod));
+        }
+      }
+    } catch (IntrospectionException | IllegalAccessException ex) {
+      throw new RuntimeException("Unable to access the metrics of " + clazz, ex);
+    }
+
+    this.names = names.toArray(new String[names.size()]);
+    this.types = new byte[this.names.length];
+    this.handles = new MethodHandle[this.names.length];
+    for (int i = 0; i < this.names.length; i++) {
+      MethodHandle handle = handles.get(i);
+      Class<?> type = handle.type().returnType();
+      if (type == int.class) {
+        types[i] = INT;
+      } else if (type == long.class) {
+        types[i] = LONG;
+      } else if (type == float.class) {
+        types[i] = FLOAT;
+      } else if (type == double.class) {
+        types[i] = DOUBLE;
+      } else {
+        types[i] = OBJECT;
+        type = Object.class;
+      }
+      this.handles[i] = handle.asType(MethodType.methodType(type, Object.class));
+    }
+  }
+
+  /**
+   * Get the accessors of the metrics of a class, creating them on the first call for the class.
+   *
+   * @param clazz the class
+   * @return the accessors
+   */
+  public static AutoMetricAccessors get(Class<?> clazz)
+  {
+    AutoMetricAccessors metricAccessors = accessors.get(clazz);
+    if (metricAccessors == null) {
+      AutoMetricAccessors newAccessors = new AutoMetricAccessors(clazz);
+      metricAccessors = accessors.putIfAbsent(clazz, newAccessors);
+      if (metricAccessors == null) {
+        metricAccessors = newAccessors;
+      }
+    }
+    return metricAccessors;
+  }
+
+  /**
+   * @return number of the metrics
+   */
+  public int size()
+  {
+    return names.length;
+  }
+
+  /**
+   * @return a new record for reading the metrics of an object of the class
+   */
+  public Record newRecord()
+  {
+    return new Record();
+  }
+
+  /**
+   * Values of the metrics of an object, reused from one reading to the next.
+   */
+  public class Record
+  {
+    private final long[] longs = new long[names.length];
+    private final double[] doubles = new double[names.length];
+    private final Object[] values = new Object[names.length];
+
+    /**
+     * Read the metrics of the object into the record and put the values of the selected metrics into the map.
+     *
+     * @param o the object
+     * @param selected names of the metrics to read, all the metrics if null
+     * @param map the map to put the values into
+     */
+    public void collect(Object o, Collection<String> selected, Map<String, Object> map)
+    {
+      try {
+        for (int i = 0; i < names.length; i++) {
+          if (selected != null && !selected.contains(names[i])) {
+            continue;
+          }
+          switch (types[i]) {
+            case INT:
+              final int intValue = (int)handles[i].invokeExact(o);
+              if (values[i] == null || longs[i] != intValue) {
+                longs[i] = intValue;
+                values[i] = intValue;
+              }
+              break;
+
+            case LONG:
+              final long longValue = (long)handles[i].invokeExact(o);
+              if (values[i] == null || longs[i] != longValue) {
+                longs[i] = longValue;
+                values[i] = longValue;
+              }
+              break;
+
+            case FLOAT:
+              final float floatValue = (float)handles[i].invokeExact(o);
+              if (values[i] == null || Double.doubleToRawLongBits(doubles[i]) != Double.doubleToRawLongBits(floatValue)) {
+                doubles[i] = floatValue;
+                values[i] = floatValue;
+              }
+              break;
+
+            case DOUBLE:
+              final double doubleValue = (double)handles[i].invokeExact(o);
+              if (values[i] == null || Double.doubleToRawLongBits(doubles[i]) != Double.doubleToRawLongBits(doubleValue)) {
+                doubles[i] = doubleValue;
+                values[i] = doubleValue;
+              }
+              break;
+
+            default:
+              values[i] = (Object)handles[i].invokeExact(o);
+              break;
+          }
+          map.put(names[i], values[i]);
+        }
+      } catch (RuntimeException | Error ex) {
+        throw ex;
+      } catch (Throwable th) {
+        throw new RuntimeException(th);
+      }
+    }
+  }
+
+}
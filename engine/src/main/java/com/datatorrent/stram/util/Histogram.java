@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Histogram of non-negative long values with the percentiles.<p>
+ * <br>
+ * The values are counted in buckets with a relative width of at most 1/8, values below 8 have buckets of their own
+ * and values of 2<sup>40</sup> or more are counted in the last bucket. The histograms can be merged. A histogram is
+ * updated by one thread at a time and read by any thread without locking.
+ * <br>
+ */
+public class Histogram implements java.io.Serializable
+{
+  private static final long serialVersionUID = 201611011200L;
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 39;
+  static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+  private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKETS);
+  private volatile long count;
+
+  static int getBucket(long value)
+  {
+    if (value < SUB_BUCKETS) {
+      return value < 0 ? 0 : (int)value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    final int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * @return the largest value counted in the bucket
+   */
+  static long getHighestValue(int bucket)
+  {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int shift = bucket / SUB_BUCKETS - 1;
+    final long lowest = (long)(SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  public void add(long value)
+  {
+    counts.incrementAndGet(getBucket(value));
+    count++;
+  }
+
+  /**
+   * Add the counts of another histogram to this one.
+   *
+   * @param other the other histogram
+   */
+  public void merge(Histogram other)
+  {
+    for (int i = 0; i < BUCKETS; i++) {
+      final int c = other.counts.get(i);
+      if (c != 0) {
+        counts.addAndGet(i, c);
+      }
+    }
+    count += other.count;
+  }
+
+  /**
+   * Remove the counts of another histogram merged into this one earlier.
+   *
+   * @param other the other histogram
+   */
+  void subtract(Histogram other)
+  {
+    for (int i = 0; i < BUCKETS; i++) {
+      final int c = other.counts.get(i);
+      if (c != 0) {
+        counts.addAndGet(i, -c);
+      }
+    }
+    count -= other.count;
+  }
+
+  public void reset()
+  {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    count = 0;
+  }
+
+  public long getCount()
+  {
+    return count;
+  }
+
+  /**
+   * Get the value below which the given fraction of the values falls.
+   *
+   * @param percentile the fraction, for example 0.99 for the 99th percentile
+   * @return the largest value in the bucket of the percentile, 0 if the histogram is empty
+   */
+  public long getPercentile(double percentile)
+  {
+    if (percentile < 0 || percentile > 1) {
+      throw new IllegalArgumentException("Percentile " + percentile + " not between 0 and 1");
+    }
+    final long total = count;
+    if (total <= 0) {
+      return 0;
+    }
+    /* the tolerance keeps the rounding error of the product from moving the rank */
+    final long rank = Math.max(1, (long)Math.ceil(percentile * total - 1e-9));
+    long seen = 0;
+    int last = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      final int c = counts.get(i);
+      if (c > 0) {
+        last = i;
+        seen += c;
+        if (seen >= rank) {
+          return getHighestValue(i);
+        }
+      }
+    }
+    /* the count was read before a concurrent update of the buckets */
+    return getHighestValue(last);
+  }
+
+  /**
+   * Histogram of the most recent values, made of the histograms of the consecutive slices of the values.
+   */
+  public static class Sliding extends Histogram
+  {
+    private static final long serialVersionUID = 201611011200L;
+    private final Histogram[] slices;
+    private final int sliceSize;
+    private int slice;
+    private long sliceCount;
+
+    /**
+     * @param samples number of the most recent values in the histogram
+     * @param slices number of the slices the values are dropped in, at most the number of samples
+     */
+    public Sliding(int samples, int slices)
+    {
+      if (samples < 1 || slices < 1) {
+        throw new IllegalArgumentException("Invalid number of samples " + samples + " or slices " + slices);
+      }
+      this.slices = new Histogram[Math.min(samples, slices)];
+      for (int i = 0; i < this.slices.length; i++) {
+        this.slices[i] = new Histogram();
+      }
+      this.sliceSize = (samples + this.slices.length - 1) / this.slices.length;
+    }
+
+    @Override
+    public void add(long value)
+    {
+      if (sliceCount >= sliceSize) {
+        slice = (slice + 1) % slices.length;
+        super.subtract(slices[slice]);
+        slices[slice].reset();
+        sliceCount = 0;
+      }
+      slices[slice].add(value);
+      sliceCount++;
+      super.add(value);
+    }
+
+    /**
+     * Add the counts of another histogram as values of the current slice, they are dropped together with the slice.
+     *
+     * @param other the other histogram
+     */
+    @Override
+    public void merge(Histogram other)
+    {
+      final long otherCount = other.getCount();
+      slices[slice].merge(other);
+      sliceCount += otherCount;
+      super.merge(other);
+    }
+
+    @Override
+    public void reset()
+    {
+      super.reset();
+      for (Histogram h : slices) {
+        h.reset();
+      }
+      slice = 0;
+      sliceCount = 0;
+    }
+  }
+
+}
@@ -19,7 +19,11 @@
 package com.datatorrent.stram.util;
 
 /**
- * Moving average calculations.
+ * Moving average calculations.<p>
+ * <br>
+ * The averages keep running sums updated by {@link #add}, so that reading an average is a single volatile read. The
+ * averages are updated by one thread at a time and read by any thread without locking.
+ * <br>
  *
  * @since 0.9.1
  */
@@ -27,11 +31,13 @@ public class MovingAverage
 {
   public static class MovingAverageLong implements java.io.Serializable
   {
-    private static final long serialVersionUID = 201404291550L;
+    private static final long serialVersionUID = 201611011200L;
     private final int periods;
     private final long[] values;
     private int index = 0;
     private boolean filled = false;
+    private long sum;
+    private volatile long avg;
 
     public MovingAverageLong(int periods)
     {
@@ -41,36 +47,30 @@ public class MovingAverage
 
     public synchronized void add(long val)
     {
+      sum += val - values[index];
       values[index++] = val;
       if (index == periods) {
         filled = true;
       }
       index %= periods;
+      avg = filled ? sum / periods : sum / (index == 0 ? periods : index);
     }
 
-    public synchronized long getAvg()
+    public long getAvg()
     {
-      long sum = 0;
-      for (int i = 0; i < periods; i++) {
-        sum += values[i];
-      }
-
-      if (!filled) {
-        return index == 0 ? 0 : sum / index;
-      } else {
-        return sum / periods;
-      }
+      return avg;
     }
   }
 
   // Generics don't work with numbers.  Hence this mess.
   public static class MovingAverageDouble implements java.io.Serializable
   {
-    private static final long serialVersionUID = 201404291550L;
+    private static final long serialVersionUID = 201611011200L;
     private final int periods;
     private final double[] values;
     private int index = 0;
     private boolean filled = false;
+    private volatile double avg;
 
     public MovingAverageDouble(int periods)
     {
@@ -85,31 +85,40 @@ public class MovingAverage
         filled = true;
       }
       index %= periods;
-    }
-
-    public synchronized double getAvg()
-    {
+      /* a running sum of doubles accumulates the rounding errors, the periods are few */
       double sum = 0;
       for (int i = 0; i < periods; i++) {
         sum += values[i];
       }
+      avg = filled ? sum / periods : sum / (index == 0 ? periods : index);
+    }
 
-      if (!filled) {
-        return index == 0 ? 0 : sum / index;
-      } else {
-        return sum / periods;
-      }
+    public double getAvg()
+    {
+      return avg;
     }
   }
 
+  /**
+   * Average of the values per unit of time over the most recent samples which cover at least the base time interval.
+   */
   public static class TimedMovingAverageLong implements java.io.Serializable
   {
-    private static final long serialVersionUID = 201404291550L;
+    private static final long serialVersionUID = 201611011200L;
     private final int periods;
     private final long[] values;
     private final long[] timeIntervals;
     private int index = 0;
     private final long baseTimeInterval;
+    /*
+     * the samples in the average start at the first index and end before the index, their sums are maintained as the
+     * samples are added and dropped
+     */
+    private int first;
+    private int count;
+    private long sumValues;
+    private long sumTimeIntervals;
+    private volatile double avg;
 
     public TimedMovingAverageLong(int samples, long baseTimeInterval)
     {
@@ -121,37 +130,33 @@ public class MovingAverage
 
     public synchronized void add(long val, long time)
     {
+      while (count > 0 && count >= periods - 1) {
+        drop();
+      }
       values[index] = val;
       timeIntervals[index] = time;
+      sumValues += val;
+      sumTimeIntervals += time;
+      count++;
       index++;
       index %= periods;
+      while (count > 0 && sumTimeIntervals - timeIntervals[first] >= baseTimeInterval) {
+        drop();
+      }
+      avg = sumTimeIntervals == 0 ? 0 : ((double)sumValues) / sumTimeIntervals;
     }
 
-    public synchronized double getAvg()
+    private void drop()
     {
-      long sumValues = 0;
-      long sumTimeIntervals = 0;
-      int i = index;
-      while (true) {
-        i--;
-        if (i < 0) {
-          i = periods - 1;
-        }
-        if (i == index) {
-          break;
-        }
-        sumValues += values[i];
-        sumTimeIntervals += timeIntervals[i];
-        if (sumTimeIntervals >= baseTimeInterval) {
-          break;
-        }
-      }
+      sumValues -= values[first];
+      sumTimeIntervals -= timeIntervals[first];
+      count--;
+      first = (first + 1) % periods;
+    }
 
-      if (sumTimeIntervals == 0) {
-        return 0;
-      } else {
-        return ((double)sumValues) / sumTimeIntervals;
-      }
+    public double getAvg()
+    {
+      return avg;
     }
   }
 
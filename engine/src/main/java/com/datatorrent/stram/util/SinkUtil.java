@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.util;
+
+import com.datatorrent.api.BatchSink;
+import com.datatorrent.api.Sink;
+
+/**
+ * Utilities for passing the tuples to the sinks.
+ */
+public class SinkUtil
+{
+  private SinkUtil()
+  {
+  }
+
+  /**
+   * Pass the tuples in the given range of the array to the sink, in one call if the sink is a {@link BatchSink}.
+   *
+   * @param sink the sink
+   * @param tuples the tuples
+   * @param offset index of the first tuple
+   * @param length number of the tuples
+   */
+  @SuppressWarnings("unchecked")
+  public static void putAll(Sink<Object> sink, Object[] tuples, int offset, int length)
+  {
+    if (sink instanceof BatchSink) {
+      ((BatchSink<Object>)sink).putAll(tuples, offset, length);
+    } else {
+      for (int i = offset, end = offset + length; i < end; i++) {
+        sink.put(tuples[i]);
+      }
+    }
+  }
+
+}
@@ -56,7 +56,10 @@ public class ContainerInfo
   public long gcCollectionCount;
   @RecordField(type = "meta", publish = false)
   public String containerLogsUrl;
+  public long allocatedTime = -1;
+  public long launchedTime = -1;
   public long startedTime = -1;
+  public long deployedTime = -1;
   public long finishedTime = -1;
   @RecordField(type = "meta", publish = false)
   public String rawContainerLogsUrl;
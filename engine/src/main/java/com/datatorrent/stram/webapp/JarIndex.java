@@ -0,0 +1,268 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.webapp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+
+import com.datatorrent.stram.webapp.asm.FastClassIndexReader;
+
+/**
+ * The classes, the resources and the javadoc of a jar which {@link OperatorDiscoverer} adds to the type graph.<p>
+ * <br>
+ * The index of a jar is saved in the index directory under the fingerprint of the jar, which is computed from the
+ * central directory of the jar: the names, the sizes and the CRC32 checksums of the entries. A jar which did not
+ * change is not scanned again, also when it is copied to another path. The indexes which were not used for
+ * {@link #MAX_INDEX_AGE_MILLIS} are deleted.
+ * <br>
+ */
+final class JarIndex
+{
+  private static final int MAGIC = 0x4A494458;
+  private static final int VERSION = 1;
+  private static final long MAX_INDEX_AGE_MILLIS = TimeUnit.DAYS.toMillis(30);
+  private static final String TMP_FILE_PREFIX = "_tmp_";
+  private static final String JAVADOC_SUFFIX = "-javadoc.xml";
+  private static final String CLASS_SUFFIX = ".class";
+
+  /**
+   * Class as read by {@link FastClassIndexReader}, the names are internal names.
+   */
+  static class ClassEntry
+  {
+    final String name;
+    final String superName;
+    final String[] interfaces;
+    final boolean instantiable;
+
+    ClassEntry(String name, String superName, String[] interfaces, boolean instantiable)
+    {
+      this.name = name;
+      this.superName = superName;
+      this.interfaces = interfaces;
+      this.instantiable = instantiable;
+    }
+  }
+
+  final List<ClassEntry> classes = new ArrayList<>();
+  final List<String> resources = new ArrayList<>();
+  final Map<String, byte[]> javadocs = new LinkedHashMap<>();
+
+  private JarIndex()
+  {
+  }
+
+  /**
+   * Get the index of the jar from the index directory or scan the jar and save its index.
+   *
+   * @param path path of the jar
+   * @param indexDirectory directory of the saved indexes or null to scan the jar
+   * @return the index of the jar
+   * @throws IOException if the jar cannot be read
+   */
+  static JarIndex get(String path, File indexDirectory) throws IOException
+  {
+    try (JarFile jar = new JarFile(path)) {
+      if (indexDirectory == null) {
+        return scan(jar);
+      }
+      File indexFile = new File(indexDirectory, fingerprint(jar));
+      if (indexFile.isFile()) {
+        try {
+          JarIndex index = read(indexFile);
+          indexFile.setLastModified(System.currentTimeMillis());
+          return index;
+        } catch (IOException ex) {
+          LOG.warn("Cannot read the index {} of {}", indexFile, path, ex);
+        }
+      }
+      JarIndex index = scan(jar);
+      try {
+        index.write(indexFile);
+        deleteUnused(indexDirectory);
+      } catch (IOException ex) {
+        LOG.warn("Cannot save the index {} of {}", indexFile, path, ex);
+      }
+      return index;
+    }
+  }
+
+  private static String fingerprint(JarFile jar) throws IOException
+  {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new RuntimeException(ex);
+    }
+    byte[] number = new byte[8];
+    for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements(); ) {
+      JarEntry entry = entries.nextElement();
+      digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+      update(digest, number, entry.getCrc());
+      update(digest, number, entry.getSize());
+    }
+    return Hex.encodeHexString(digest.digest());
+  }
+
+  private static void update(MessageDigest digest, byte[] number, long value)
+  {
+    for (int i = 0; i < number.length; i++) {
+      number[i] = (byte)(value >>> (i * 8));
+    }
+    digest.update(number);
+  }
+
+  private static JarIndex scan(JarFile jar) throws IOException
+  {
+    JarIndex index = new JarIndex();
+    for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements(); ) {
+      JarEntry entry = entries.nextElement();
+      String entryName = entry.getName();
+      if (entry.isDirectory()) {
+        continue;
+      }
+      try (InputStream is = jar.getInputStream(entry)) {
+        if (entryName.endsWith(JAVADOC_SUFFIX)) {
+          index.javadocs.put(entryName, IOUtils.toByteArray(is));
+        } else if (entryName.endsWith(CLASS_SUFFIX)) {
+          FastClassIndexReader reader = new FastClassIndexReader(is);
+          index.classes.add(new ClassEntry(reader.getName(), reader.getSuperName(), reader.getInterfaces(),
+              reader.isInstantiable()));
+        } else {
+          index.resources.add(entryName);
+        }
+      }
+    }
+    return index;
+  }
+
+  private static JarIndex read(File file) throws IOException
+  {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(
+        new FileInputStream(file))))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("Invalid index " + file);
+      }
+      JarIndex index = new JarIndex();
+      for (int i = in.readInt(); i-- > 0; ) {
+        String name = in.readUTF();
+        String superName = in.readBoolean() ? in.readUTF() : null;
+        String[] interfaces = new String[in.readInt()];
+        for (int j = 0; j < interfaces.length; j++) {
+          interfaces[j] = in.readUTF();
+        }
+        index.classes.add(new ClassEntry(name, superName, interfaces, in.readBoolean()));
+      }
+      for (int i = in.readInt(); i-- > 0; ) {
+        index.resources.add(in.readUTF());
+      }
+      for (int i = in.readInt(); i-- > 0; ) {
+        String name = in.readUTF();
+        byte[] javadoc = new byte[in.readInt()];
+        in.readFully(javadoc);
+        index.javadocs.put(name, javadoc);
+      }
+      return index;
+    }
+  }
+
+  private void write(File file) throws IOException
+  {
+    Files.createDirectories(file.getParentFile().toPath());
+    File tmpFile = new File(file.getParentFile(), TMP_FILE_PREFIX + file.getName());
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(
+          new FileOutputStream(tmpFile))))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(classes.size());
+        for (ClassEntry entry : classes) {
+          out.writeUTF(entry.name);
+          out.writeBoolean(entry.superName != null);
+          if (entry.superName != null) {
+            out.writeUTF(entry.superName);
+          }
+          String[] interfaces = entry.interfaces == null ? new String[0] : entry.interfaces;
+          out.writeInt(interfaces.length);
+          for (String iface : interfaces) {
+            out.writeUTF(iface);
+          }
+          out.writeBoolean(entry.instantiable);
+        }
+        out.writeInt(resources.size());
+        for (String resource : resources) {
+          out.writeUTF(resource);
+        }
+        out.writeInt(javadocs.size());
+        for (Map.Entry<String, byte[]> entry : javadocs.entrySet()) {
+          out.writeUTF(entry.getKey());
+          out.writeInt(entry.getValue().length);
+          out.write(entry.getValue());
+        }
+      }
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      tmpFile.delete();
+    }
+  }
+
+  private static void deleteUnused(File indexDirectory)
+  {
+    File[] files = indexDirectory.listFiles();
+    if (files != null) {
+      long expired = System.currentTimeMillis() - MAX_INDEX_AGE_MILLIS;
+      for (File file : files) {
+        if (file.lastModified() < expired) {
+          file.delete();
+        }
+      }
+    }
+  }
+
+  private static final Logger LOG = LoggerFactory.getLogger(JarIndex.class);
+}
@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.webapp;
+
+import javax.ws.rs.core.EntityTag;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * JSON of a physical plan resource serialized in one stats cycle of the application master.<p>
+ * <br>
+ * The snapshot is shared by all the requests for the resource until the stats version changes. The entity tag is
+ * derived from the content, so the tag of an unchanged resource remains the same over the cycles.
+ * <br>
+ *
+ * @param <T> type of the resource
+ */
+class JsonSnapshot<T>
+{
+  final long version;
+  final T value;
+  final byte[] json;
+  final EntityTag etag;
+
+  JsonSnapshot(long version, T value, byte[] json)
+  {
+    this.version = version;
+    this.value = value;
+    this.json = json;
+    this.etag = new EntityTag(Hashing.murmur3_128().hashBytes(json).toString());
+  }
+
+}
@@ -21,6 +21,7 @@ package com.datatorrent.stram.webapp;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -31,14 +32,16 @@ import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -71,6 +74,7 @@ import com.google.common.collect.Sets;
 import com.datatorrent.api.DAG.GenericOperator;
 import com.datatorrent.api.Module;
 import com.datatorrent.api.Operator;
+import com.datatorrent.common.util.NameableThreadFactory;
 import com.datatorrent.stram.util.ObjectMapperFactory;
 import com.datatorrent.stram.webapp.TypeDiscoverer.UI_TYPE;
 import com.datatorrent.stram.webapp.TypeGraph.TypeGraphVertex;
@@ -91,6 +95,7 @@ public class OperatorDiscoverer
   private static final Logger LOG = LoggerFactory.getLogger(OperatorDiscoverer.class);
   private final List<String> pathsToScan = new ArrayList<>();
   private final ClassLoader classLoader;
+  private final File indexDirectory;
   private static final String DT_OPERATOR_DOCLINK_PREFIX = "https://www.datatorrent.com/docs/apidocs/index.html";
   public static final String PORT_TYPE_INFO_KEY = "portTypeInfo";
   private final TypeGraph typeGraph = TypeGraphFactory.createTypeGraphProtoType();
@@ -292,11 +297,22 @@ public class OperatorDiscoverer
 
   public OperatorDiscoverer()
   {
+    indexDirectory = null;
     classLoader = ClassLoader.getSystemClassLoader();
   }
 
   public OperatorDiscoverer(String[] jars)
   {
+    this(jars, null);
+  }
+
+  /**
+   * @param jars the jars and the class files to scan
+   * @param indexDirectory directory to save the indexes of the scanned jars in or null to scan the jars every time
+   */
+  public OperatorDiscoverer(String[] jars, File indexDirectory)
+  {
+    this.indexDirectory = indexDirectory;
     URL[] urls = new URL[jars.length];
     for (int i = 0; i < jars.length; i++) {
       pathsToScan.add(jars[i]);
@@ -327,13 +343,36 @@ public class OperatorDiscoverer
     }
   }
 
+  /**
+   * Add the classes of the paths to scan to the type graph. The jars are scanned in parallel, the index of a jar is
+   * read from the index directory when the jar did not change since it was saved.
+   */
   public void buildTypeGraph()
   {
-    Map<String, JarFile> openJarFiles = new HashMap<>();
-    Map<String, File> openClassFiles = new HashMap<>();
-    // use global cache to load resource in/out of the same jar as the classes
-    Set<String> resourceCacheSet = new HashSet<>();
+    Map<String, Future<JarIndex>> jarIndexes = new HashMap<>();
+    ExecutorService executor = null;
     try {
+      for (final String path : pathsToScan) {
+        File f = new File(path);
+        if (f.getName().endsWith("jar") && !GENERATED_CLASSES_JAR.equals(f.getName()) && f.isFile()) {
+          if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.min(pathsToScan.size(),
+                Runtime.getRuntime().availableProcessors()), new NameableThreadFactory("OperatorDiscoverer"));
+          }
+          jarIndexes.put(path, executor.submit(new Callable<JarIndex>()
+          {
+            @Override
+            public JarIndex call() throws Exception
+            {
+              return JarIndex.get(path, indexDirectory);
+            }
+          }));
+        }
+      }
+
+      // use global set to find the resources in/out of the same jar as the classes
+      TreeSet<String> resources = new TreeSet<>();
+      Map<String, TypeGraph.TypeGraphVertex> classes = new HashMap<>();
       for (String path : pathsToScan) {
         File f = null;
         try {
@@ -346,67 +385,43 @@ public class OperatorDiscoverer
           }
           if (f.getName().endsWith("class")) {
             typeGraph.addNode(f);
-            openClassFiles.put(path, f);
           } else {
-            JarFile jar = new JarFile(path);
-            openJarFiles.put(path, jar);
-            java.util.Enumeration<JarEntry> entriesEnum = jar.entries();
-            while (entriesEnum.hasMoreElements()) {
-              final java.util.jar.JarEntry jarEntry = entriesEnum.nextElement();
-              String entryName = jarEntry.getName();
-              if (jarEntry.isDirectory()) {
-                continue;
-              }
-              if (entryName.endsWith("-javadoc.xml")) {
-                try {
-                  processJavadocXml(jar.getInputStream(jarEntry));
-                  // break;
-                } catch (Exception ex) {
-                  LOG.warn("Cannot process javadoc {} : ", entryName, ex);
-                }
-              } else if (entryName.endsWith(".class")) {
-                TypeGraph.TypeGraphVertex newNode = typeGraph.addNode(jarEntry, jar);
-                // check if any visited resources belong to this type
-                for (Iterator<String> iter = resourceCacheSet.iterator(); iter.hasNext(); ) {
-                  String entry = iter.next();
-                  if (entry.startsWith(entryName.substring(0, entryName.length() - 6))) {
-                    newNode.setHasResource(true);
-                    iter.remove();
-                  }
-                }
-              } else {
-                String className = entryName;
-                boolean foundClass = false;
-                // check if this resource belongs to any visited type
-                while (className.contains("/")) {
-                  className = className.substring(0, className.lastIndexOf('/'));
-                  TypeGraph.TypeGraphVertex tgv = typeGraph.getNode(className.replace('/', '.'));
-                  if (tgv != null) {
-                    tgv.setHasResource(true);
-                    foundClass = true;
-                    break;
-                  }
-                }
-                if (!foundClass) {
-                  resourceCacheSet.add(entryName);
-                }
+            JarIndex jarIndex = jarIndexes.get(path).get();
+            for (Map.Entry<String, byte[]> javadoc : jarIndex.javadocs.entrySet()) {
+              try {
+                processJavadocXml(new ByteArrayInputStream(javadoc.getValue()));
+              } catch (Exception ex) {
+                LOG.warn("Cannot process javadoc {} : ", javadoc.getKey(), ex);
               }
             }
+            for (JarIndex.ClassEntry entry : jarIndex.classes) {
+              classes.put(entry.name, typeGraph.addNode(entry.name, entry.superName, entry.interfaces,
+                  entry.instantiable, path));
+            }
+            resources.addAll(jarIndex.resources);
           }
         } catch (IOException ex) {
           LOG.warn("Cannot process file {}", f, ex);
+        } catch (ExecutionException ex) {
+          LOG.warn("Cannot process file {}", f, ex.getCause());
+        } catch (InterruptedException ex) {
+          throw Throwables.propagate(ex);
+        }
+      }
+
+      // the resources of a class are found under its name
+      for (Map.Entry<String, TypeGraph.TypeGraphVertex> entry : classes.entrySet()) {
+        String resource = resources.ceiling(entry.getKey());
+        if (resource != null && resource.startsWith(entry.getKey())) {
+          entry.getValue().setHasResource(true);
         }
       }
 
       typeGraph.trim();
 
     } finally {
-      for (Entry<String, JarFile> entry : openJarFiles.entrySet()) {
-        try {
-          entry.getValue().close();
-        } catch (IOException e) {
-          throw Throwables.propagate(e);
-        }
+      if (executor != null) {
+        executor.shutdownNow();
       }
     }
   }
@@ -71,6 +71,8 @@ public class OperatorInfo
   public double cpuPercentageMA;
   @RecordField(type = "stats")
   public long latencyMA;
+  public long latencyP50;
+  public long latencyP99;
   public String status;
   public long lastHeartbeat;
   public long failureCount;
@@ -93,6 +95,10 @@ public class OperatorInfo
   public long checkpointTime;
   @RecordField(type = "stats")
   public long checkpointTimeMA;
+  @RecordField(type = "stats")
+  public long checkpointSize;
+  @RecordField(type = "stats")
+  public long checkpointRawSize;
 
   /**
    * @param info
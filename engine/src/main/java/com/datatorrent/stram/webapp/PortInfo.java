@@ -38,5 +38,7 @@ public class PortInfo
   public long tuplesPSMA;
   public long bufferServerBytesPSMA;
   public long queueSizeMA;
+  public long queueSizeP50;
+  public long queueSizeP99;
   public String recordingId;
 }
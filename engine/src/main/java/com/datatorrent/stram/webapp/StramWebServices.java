@@ -18,7 +18,9 @@
  */
 package com.datatorrent.stram.webapp;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -48,8 +50,13 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import org.codehaus.jackson.JsonEncoding;
 import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.JsonProcessingException;
 import org.codehaus.jackson.Version;
@@ -135,11 +142,16 @@ public class StramWebServices
   private StramAppContext appCtx;
   @Context
   private HttpServletResponse httpResponse;
+  @Context
+  private Request request;
   @Inject
   @Nullable
   private StreamingContainerManager dagManager;
   private ObjectMapper objectMapper = new JSONSerializationProvider().getContext(null);
   private boolean initialized = false;
+  private volatile JsonSnapshot<OperatorsInfo> operatorsSnapshot;
+  private volatile JsonSnapshot<StreamsInfo> streamsSnapshot;
+  private volatile JsonSnapshot<ContainersInfo> containersSnapshot;
 
   private OperatorDiscoverer operatorDiscoverer = new OperatorDiscoverer();
 
@@ -224,32 +236,115 @@ public class StramWebServices
   {
     init();
     Map<String, Object> result = new HashMap<>();
-    result.put("operators", dagManager.getOperatorInfoList());
-    result.put("streams", dagManager.getStreamInfoList());
+    result.put("operators", getOperatorsSnapshot().value.operators);
+    result.put("streams", getStreamsSnapshot().value.streams);
     return new JSONObject(objectMapper.writeValueAsString(result));
   }
 
   @GET
   @Path(PATH_PHYSICAL_PLAN_OPERATORS)
   @Produces(MediaType.APPLICATION_JSON)
-  public JSONObject getOperatorsInfo() throws Exception
+  public Response getOperatorsInfo() throws Exception
   {
     init();
-    OperatorsInfo nodeList = new OperatorsInfo();
-    nodeList.operators = dagManager.getOperatorInfoList();
-    // To get around the nasty JAXB problem for lists
-    return new JSONObject(objectMapper.writeValueAsString(nodeList));
+    return getSnapshotResponse(getOperatorsSnapshot());
   }
 
   @GET
   @Path(PATH_PHYSICAL_PLAN_STREAMS)
   @Produces(MediaType.APPLICATION_JSON)
-  public JSONObject getStreamsInfo() throws Exception
+  public Response getStreamsInfo() throws Exception
   {
     init();
-    StreamsInfo streamList = new StreamsInfo();
-    streamList.streams = dagManager.getStreamInfoList();
-    return new JSONObject(objectMapper.writeValueAsString(streamList));
+    return getSnapshotResponse(getStreamsSnapshot());
+  }
+
+  private JsonSnapshot<OperatorsInfo> getOperatorsSnapshot() throws IOException
+  {
+    long version = dagManager.getStatsVersion();
+    JsonSnapshot<OperatorsInfo> snapshot = operatorsSnapshot;
+    if (snapshot == null || snapshot.version != version) {
+      synchronized (this) {
+        snapshot = operatorsSnapshot;
+        if (snapshot == null || snapshot.version != version) {
+          OperatorsInfo nodeList = new OperatorsInfo();
+          nodeList.operators = dagManager.getOperatorInfoList();
+          operatorsSnapshot = snapshot = new JsonSnapshot<>(version, nodeList, writeJson(nodeList));
+        }
+      }
+    }
+    return snapshot;
+  }
+
+  private JsonSnapshot<StreamsInfo> getStreamsSnapshot() throws IOException
+  {
+    long version = dagManager.getStatsVersion();
+    JsonSnapshot<StreamsInfo> snapshot = streamsSnapshot;
+    if (snapshot == null || snapshot.version != version) {
+      synchronized (this) {
+        snapshot = streamsSnapshot;
+        if (snapshot == null || snapshot.version != version) {
+          StreamsInfo streamList = new StreamsInfo();
+          streamList.streams = dagManager.getStreamInfoList();
+          streamsSnapshot = snapshot = new JsonSnapshot<>(version, streamList, writeJson(streamList));
+        }
+      }
+    }
+    return snapshot;
+  }
+
+  private JsonSnapshot<ContainersInfo> getContainersSnapshot() throws IOException
+  {
+    long version = dagManager.getStatsVersion();
+    JsonSnapshot<ContainersInfo> snapshot = containersSnapshot;
+    if (snapshot == null || snapshot.version != version) {
+      synchronized (this) {
+        snapshot = containersSnapshot;
+        if (snapshot == null || snapshot.version != version) {
+          ContainersInfo ci = new ContainersInfo();
+          for (ContainerInfo containerInfo : dagManager.getCompletedContainerInfo()) {
+            ci.add(containerInfo);
+          }
+          // add itself (app master container)
+          ci.add(dagManager.getAppMasterContainerInfo());
+          for (StreamingContainerAgent sca : dagManager.getContainerAgents()) {
+            ci.add(sca.getContainerInfo());
+          }
+          containersSnapshot = snapshot = new JsonSnapshot<>(version, ci, writeJson(ci));
+        }
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Serialize the value with the streaming generator of the object mapper, which bypasses the intermediate
+   * {@link JSONObject}.
+   */
+  private void writeJson(Object value, OutputStream out) throws IOException
+  {
+    JsonGenerator generator = objectMapper.getJsonFactory().createJsonGenerator(out, JsonEncoding.UTF8);
+    objectMapper.writeValue(generator, value);
+    generator.flush();
+  }
+
+  private byte[] writeJson(Object value) throws IOException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+    writeJson(value, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Respond with the JSON of the snapshot or with 304 (not modified) when the client has the snapshot already.
+   */
+  private Response getSnapshotResponse(JsonSnapshot<?> snapshot)
+  {
+    Response.ResponseBuilder builder = request.evaluatePreconditions(snapshot.etag);
+    if (builder == null) {
+      builder = Response.ok(snapshot.json, MediaType.APPLICATION_JSON_TYPE);
+    }
+    return builder.tag(snapshot.etag).build();
   }
 
   @GET
@@ -442,35 +537,37 @@ public class StramWebServices
   @GET
   @Path(PATH_PHYSICAL_PLAN_CONTAINERS)
   @Produces(MediaType.APPLICATION_JSON)
-  public JSONObject listContainers(@QueryParam("states") String states) throws Exception
+  public Response listContainers(@QueryParam("states") String states) throws Exception
   {
     init();
-    Set<String> stateSet = null;
-    if (states != null) {
-      stateSet = new HashSet<>();
-      stateSet.addAll(Arrays.asList(StringUtils.split(states, ',')));
-    }
-    ContainersInfo ci = new ContainersInfo();
-    for (ContainerInfo containerInfo : dagManager.getCompletedContainerInfo()) {
-      if (stateSet == null || stateSet.contains(containerInfo.state)) {
-        ci.add(containerInfo);
-      }
+    JsonSnapshot<ContainersInfo> snapshot = getContainersSnapshot();
+    if (states == null) {
+      return getSnapshotResponse(snapshot);
     }
 
-    Collection<StreamingContainerAgent> containerAgents = dagManager.getContainerAgents();
-    // add itself (app master container)
-    ContainerInfo appMasterContainerInfo = dagManager.getAppMasterContainerInfo();
-    if (stateSet == null || stateSet.contains(appMasterContainerInfo.state)) {
-      ci.add(appMasterContainerInfo);
-    }
-    for (StreamingContainerAgent sca : containerAgents) {
-      ContainerInfo containerInfo = sca.getContainerInfo();
-      if (stateSet == null || stateSet.contains(containerInfo.state)) {
-        ci.add(containerInfo);
+    // the filtered containers do not change as long as the snapshot and the filter do not change
+    EntityTag etag = new EntityTag(snapshot.etag.getValue() + "-" + Integer.toHexString(states.hashCode()));
+    Response.ResponseBuilder builder = request.evaluatePreconditions(etag);
+    if (builder == null) {
+      Set<String> stateSet = new HashSet<>();
+      stateSet.addAll(Arrays.asList(StringUtils.split(states, ',')));
+      final ContainersInfo ci = new ContainersInfo();
+      for (ContainerInfo containerInfo : snapshot.value.getContainers()) {
+        if (stateSet.contains(containerInfo.state)) {
+          ci.add(containerInfo);
+        }
       }
+      builder = Response.ok(new StreamingOutput()
+      {
+        @Override
+        public void write(OutputStream out) throws IOException
+        {
+          writeJson(ci, out);
+        }
+
+      }, MediaType.APPLICATION_JSON_TYPE);
     }
-    // To get around the nasty JAXB problem for lists
-    return new JSONObject(objectMapper.writeValueAsString(ci));
+    return builder.tag(etag).build();
   }
 
   @GET
@@ -266,51 +266,67 @@ public class TypeGraph
   private TypeGraphVertex addNode(InputStream input, String resName) throws IOException
   {
     try {
-
       FastClassIndexReader fastClassIndexReader = new FastClassIndexReader(input);
-      String typeName = fastClassIndexReader.getName().replace('/', '.');
-      TypeGraphVertex tgv;
-      TypeGraphVertex ptgv;
-      if (typeGraph.containsKey(typeName)) {
-        tgv = typeGraph.get(typeName);
-        tgv.setIsRealNode(true);
-        tgv.setJarName(resName); // If tgv was already populated for superclass/interface, jar name needs to be updated
-        tgv.setIsInstantiable(fastClassIndexReader.isInstantiable());
-      } else {
-        tgv = new TypeGraphVertex(this, typeName, resName, true, fastClassIndexReader.isInstantiable());
-        typeGraph.put(typeName, tgv);
+      return addNode(fastClassIndexReader.getName(), fastClassIndexReader.getSuperName(),
+          fastClassIndexReader.getInterfaces(), fastClassIndexReader.isInstantiable(), resName);
+    } finally {
+      if (input != null) {
+        input.close();
+      }
+    }
+  }
+
+  /**
+   * Add the class read from the class file earlier.
+   *
+   * @param name internal name of the class
+   * @param superName internal name of the super class or null
+   * @param interfaces internal names of the interfaces or null
+   * @param instantiable whether the class is public and has a public no-arg constructor
+   * @param resName the jar or the class file
+   * @return the vertex of the class
+   */
+  public TypeGraphVertex addNode(String name, String superName, String[] interfaces, boolean instantiable,
+      String resName)
+  {
+    String typeName = name.replace('/', '.');
+    TypeGraphVertex tgv;
+    TypeGraphVertex ptgv;
+    if (typeGraph.containsKey(typeName)) {
+      tgv = typeGraph.get(typeName);
+      tgv.setIsRealNode(true);
+      tgv.setJarName(resName); // If tgv was already populated for superclass/interface, jar name needs to be updated
+      tgv.setIsInstantiable(instantiable);
+    } else {
+      tgv = new TypeGraphVertex(this, typeName, resName, true, instantiable);
+      typeGraph.put(typeName, tgv);
+    }
+    String immediateP = superName;
+    if (immediateP != null) {
+      immediateP = immediateP.replace('/', '.');
+      ptgv = typeGraph.get(immediateP);
+      if (ptgv == null) {
+        ptgv = new TypeGraphVertex(this, immediateP, resName);
+        typeGraph.put(immediateP, ptgv);
       }
-      String immediateP = fastClassIndexReader.getSuperName();
-      if (immediateP != null) {
-        immediateP = immediateP.replace('/', '.');
-        ptgv = typeGraph.get(immediateP);
+      tgv.ancestors.add(ptgv);
+      ptgv.descendants.add(tgv);
+    }
+    if (interfaces != null) {
+      for (String iface : interfaces) {
+        iface = iface.replace('/', '.');
+        ptgv = typeGraph.get(iface);
         if (ptgv == null) {
-          ptgv = new TypeGraphVertex(this, immediateP, resName);
-          typeGraph.put(immediateP, ptgv);
+          ptgv = new TypeGraphVertex(this, iface, resName);
+          typeGraph.put(iface, ptgv);
         }
         tgv.ancestors.add(ptgv);
         ptgv.descendants.add(tgv);
       }
-      if (fastClassIndexReader.getInterfaces() != null) {
-        for (String iface : fastClassIndexReader.getInterfaces()) {
-          iface = iface.replace('/', '.');
-          ptgv = typeGraph.get(iface);
-          if (ptgv == null) {
-            ptgv = new TypeGraphVertex(this, iface, resName);
-            typeGraph.put(iface, ptgv);
-          }
-          tgv.ancestors.add(ptgv);
-          ptgv.descendants.add(tgv);
-        }
-      }
-
-      updateInstantiableDescendants(tgv);
-      return tgv;
-    } finally {
-      if (input != null) {
-        input.close();
-      }
     }
+
+    updateInstantiableDescendants(tgv);
+    return tgv;
   }
 
   public TypeGraphVertex addNode(File file) throws IOException
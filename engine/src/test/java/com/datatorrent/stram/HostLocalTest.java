@@ -29,18 +29,24 @@ import org.junit.Test;
 
 import org.apache.hadoop.yarn.api.records.NodeReport;
 import org.apache.hadoop.yarn.api.records.NodeState;
+import org.apache.hadoop.yarn.client.api.AMRMClient.ContainerRequest;
 import org.apache.hadoop.yarn.server.utils.BuilderUtils;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
+import com.datatorrent.api.AffinityRule;
+import com.datatorrent.api.AffinityRulesSet;
 import com.datatorrent.api.Context.OperatorContext;
 import com.datatorrent.api.DAG.Locality;
 import com.datatorrent.common.partitioner.StatelessPartitioner;
+import com.datatorrent.common.util.AsyncFSStorageAgent;
 import com.datatorrent.stram.StreamingContainerAgent.ContainerStartRequest;
+import com.datatorrent.stram.api.Checkpoint;
 import com.datatorrent.stram.engine.GenericTestOperator;
 import com.datatorrent.stram.plan.logical.LogicalPlan;
+import com.datatorrent.stram.plan.physical.PTOperator;
 import com.datatorrent.stram.support.StramTestSupport.MemoryStorageAgent;
 
 public class HostLocalTest
@@ -298,4 +304,74 @@ public class HostLocalTest
       Assert.assertNull("Host is null", host);
     }
   }
+
+  @Test
+  public void testCheckpointLocality()
+  {
+    LogicalPlan dag = new LogicalPlan();
+    String appPath = new File("target", HostLocalTest.class.getName()).getAbsolutePath();
+    dag.getAttributes().put(com.datatorrent.api.Context.DAGContext.APPLICATION_PATH, appPath);
+    AsyncFSStorageAgent storageAgent = new AsyncFSStorageAgent(appPath + "/checkpoints", null);
+    storageAgent.setLocalCacheSize(1024 * 1024);
+    dag.setAttribute(OperatorContext.STORAGE_AGENT, storageAgent);
+    GenericTestOperator o1 = dag.addOperator("o1", GenericTestOperator.class);
+
+    StreamingContainerManager scm = new StreamingContainerManager(dag);
+    ResourceRequestHandler rr = new ResourceRequestHandler();
+    ContainerStartRequest csr = scm.containerStartRequests.poll();
+    Assert.assertNull("new container", rr.createContainerRequest(csr, true).getNodes());
+
+    /* the restarted container prefers the node of the cached checkpoints but may run elsewhere */
+    csr.container.host = "host1:8042";
+    Assert.assertNull("no checkpoint", rr.createContainerRequest(csr, true).getNodes());
+    PTOperator oper = scm.getPhysicalPlan().getOperators(dag.getMeta(o1)).get(0);
+    oper.setRecoveryCheckpoint(new Checkpoint(10, 0, 0));
+    ContainerRequest cr = rr.createContainerRequest(csr, true);
+    Assert.assertEquals("nodes", Lists.newArrayList("host1"), cr.getNodes());
+    Assert.assertTrue("relax locality", cr.getRelaxLocality());
+    Assert.assertNull("reissued request", rr.createContainerRequest(csr, false).getNodes());
+
+    /* blacklisted and unhealthy nodes are not preferred */
+    rr.updateBlacklist(Lists.newArrayList("host1"), null);
+    Assert.assertNull("blacklisted", rr.createContainerRequest(csr, true).getNodes());
+    rr.updateBlacklist(null, Lists.newArrayList("host1"));
+    Assert.assertEquals("nodes", Lists.newArrayList("host1"), rr.createContainerRequest(csr, true).getNodes());
+    NodeReport nr = BuilderUtils.newNodeReport(BuilderUtils.newNodeId("host1", 0), NodeState.UNHEALTHY, "httpAddress",
+        "rackName", BuilderUtils.newResource(0, 0), BuilderUtils.newResource(2048, 2), 0, null, 0);
+    rr.updateNodeReports(Lists.newArrayList(nr));
+    Assert.assertNull("unhealthy", rr.createContainerRequest(csr, true).getNodes());
+
+    storageAgent.setLocalCacheSize(0);
+    Assert.assertNull("no cache", rr.createContainerRequest(csr, true).getNodes());
+  }
+
+  @Test
+  public void testCheckpointLocalityAntiAffinity()
+  {
+    LogicalPlan dag = new LogicalPlan();
+    String appPath = new File("target", HostLocalTest.class.getName()).getAbsolutePath();
+    dag.getAttributes().put(com.datatorrent.api.Context.DAGContext.APPLICATION_PATH, appPath);
+    AsyncFSStorageAgent storageAgent = new AsyncFSStorageAgent(appPath + "/checkpoints", null);
+    storageAgent.setLocalCacheSize(1024 * 1024);
+    dag.setAttribute(OperatorContext.STORAGE_AGENT, storageAgent);
+    GenericTestOperator o1 = dag.addOperator("o1", GenericTestOperator.class);
+    GenericTestOperator o2 = dag.addOperator("o2", GenericTestOperator.class);
+    dag.addStream("stream1", o1.outport1, o2.inport1);
+    dag.getMeta(o2).getAttributes().put(OperatorContext.LOCALITY_HOST, "host1");
+    AffinityRulesSet ruleSet = new AffinityRulesSet();
+    ruleSet.setAffinityRules(Lists.newArrayList(new AffinityRule(AffinityRule.Type.ANTI_AFFINITY, Locality.NODE_LOCAL,
+        false, "o1", "o2")));
+    dag.setAttribute(com.datatorrent.api.Context.DAGContext.AFFINITY_RULES_SET, ruleSet);
+
+    StreamingContainerManager scm = new StreamingContainerManager(dag);
+    ResourceRequestHandler rr = new ResourceRequestHandler();
+    PTOperator oper = scm.getPhysicalPlan().getOperators(dag.getMeta(o1)).get(0);
+    oper.setRecoveryCheckpoint(new Checkpoint(10, 0, 0));
+
+    /* the node of the cached checkpoints holds the operator the container must not run with */
+    oper.getContainer().host = "host1:8042";
+    Assert.assertNull("anti-affinity", rr.getCheckpointHost(oper.getContainer()));
+    oper.getContainer().host = "host2:8042";
+    Assert.assertEquals("host", "host2", rr.getCheckpointHost(oper.getContainer()));
+  }
 }
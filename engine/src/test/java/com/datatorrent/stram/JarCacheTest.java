@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import com.datatorrent.stram.client.StramClientUtils;
+import com.datatorrent.stram.support.StramTestSupport.TestMeta;
+
+public class JarCacheTest
+{
+  private static final long EXPIRY_MILLIS = 24 * 60 * 60 * 1000L;
+
+  @Rule
+  public final TestMeta testMeta = new TestMeta();
+
+  private final Set<String> finishedApps = new HashSet<>();
+
+  private JarCache newJarCache(FileSystem fs)
+  {
+    return new JarCache(fs, new Path(testMeta.getPath(), StramClientUtils.SUBDIR_JAR_CACHE), EXPIRY_MILLIS)
+    {
+      @Override
+      protected boolean isFinished(String appId) throws IOException
+      {
+        return finishedApps.contains(appId);
+      }
+
+    };
+  }
+
+  private File newLocalFile(String dir, String name, String content) throws IOException
+  {
+    File file = new File(new File(testMeta.getPath(), dir), name);
+    FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  @Test
+  public void testAddAndCleanup() throws IOException
+  {
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+    JarCache cache = newJarCache(fs);
+
+    File jar1 = newLocalFile("lib1", "a.jar", "content1");
+    File jar2 = newLocalFile("lib2", "a.jar", "content1");
+    File jar3 = newLocalFile("lib3", "a.jar", "content2");
+    Path path1 = cache.getPath(jar1);
+    Assert.assertEquals("same content", path1, cache.getPath(jar2));
+    Path path3 = cache.getPath(jar3);
+    Assert.assertNotEquals("different content", path1, path3);
+    Assert.assertEquals("name", "a.jar", path1.getName());
+    Assert.assertTrue("cached path", JarCache.isCachedPath(path1));
+    Assert.assertTrue("in cache", cache.contains(path1));
+    Assert.assertFalse("not in cache", cache.contains(new Path(jar1.getAbsolutePath())));
+
+    cache.addReferences("app1", Arrays.asList(path1));
+    Assert.assertTrue("copied", cache.add(jar1, path1));
+    Assert.assertFalse("referenced", cache.add(jar2, path1));
+    Assert.assertEquals("content", "content1", FileUtils.readFileToString(new File(path1.toUri().getPath()), StandardCharsets.UTF_8));
+    cache.addReferences("app2", Collections.<Path>emptyList());
+    Assert.assertTrue("copied", cache.add(jar3, path3));
+
+    /* the entries are recent */
+    cache.cleanup(System.currentTimeMillis());
+    Assert.assertTrue(fs.exists(path1));
+    Assert.assertTrue(fs.exists(path3));
+
+    /* the entry referenced by a running application remains */
+    long currentTimeMillis = System.currentTimeMillis() + 2 * EXPIRY_MILLIS;
+    cache.cleanup(currentTimeMillis);
+    Assert.assertTrue(fs.exists(path1));
+    Assert.assertFalse(fs.exists(path3));
+
+    /* the cleanup runs at most once an hour */
+    finishedApps.add("app1");
+    cache.cleanup(currentTimeMillis);
+    Assert.assertTrue(fs.exists(path1));
+    cache.cleanup(currentTimeMillis + EXPIRY_MILLIS);
+    Assert.assertFalse(fs.exists(path1));
+  }
+
+  @Test
+  public void testReusedEntry() throws IOException
+  {
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+    JarCache cache = newJarCache(fs);
+
+    File jar = newLocalFile("lib1", "a.jar", "content1");
+    Path path = cache.getPath(jar);
+    Assert.assertTrue("copied", cache.add(jar, path));
+    long modificationTime = fs.getFileStatus(path).getModificationTime();
+    long currentTimeMillis = System.currentTimeMillis();
+    fs.setTimes(path.getParent(), currentTimeMillis - 2 * EXPIRY_MILLIS, -1);
+
+    /* a launch which uses the entry keeps it from being removed before its reference is read */
+    Assert.assertFalse("found", cache.add(jar, path));
+    cache.cleanup(currentTimeMillis + EXPIRY_MILLIS / 2);
+    Assert.assertTrue(fs.exists(path));
+    Assert.assertEquals("jar modification time", modificationTime, fs.getFileStatus(path).getModificationTime());
+  }
+
+}
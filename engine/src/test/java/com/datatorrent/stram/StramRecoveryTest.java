@@ -49,6 +49,8 @@ import org.apache.commons.lang.mutable.MutableBoolean;
 import org.apache.commons.lang.mutable.MutableInt;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.io.compress.zlib.ZlibCompressor;
 import org.apache.hadoop.ipc.RPC;
 import org.apache.hadoop.ipc.RPC.Server;
 import org.apache.hadoop.net.NetUtils;
@@ -456,6 +458,7 @@ public class StramRecoveryTest
     /* parent and current points to expected location */
     Assert.assertEquals(true, ((FSStorageAgent)csa.getParentStorageAgent()).path.contains("app1"));
     Assert.assertEquals(true, ((FSStorageAgent)csa.getCurrentStorageAgent()).path.contains("app2"));
+    assertFSStorageAgentSettings((FSStorageAgent)agent, (FSStorageAgent)csa.getCurrentStorageAgent());
 
     ids = csa.getWindowIds(o1p1.getId());
     Assert.assertArrayEquals("checkpoints copied", new long[] {o1p1.getRecoveryCheckpoint().getWindowId()}, ids);
@@ -490,23 +493,47 @@ public class StramRecoveryTest
     Assert.assertEquals(true, ((FSStorageAgent)parent.getParentStorageAgent()).path.contains("app1"));
     Assert.assertEquals(true, ((FSStorageAgent)parent.getCurrentStorageAgent()).path.contains("app2"));
     Assert.assertEquals(true, ((FSStorageAgent)csa.getCurrentStorageAgent()).path.contains("app3"));
+    assertFSStorageAgentSettings((FSStorageAgent)agent, (FSStorageAgent)csa.getCurrentStorageAgent());
 
     ids = csa.getWindowIds(o1p1.getId());
     Assert.assertArrayEquals("checkpoints copied", new long[] {o1p1.getRecoveryCheckpoint().getWindowId()}, ids);
   }
 
+  private static void assertFSStorageAgentSettings(FSStorageAgent expected, FSStorageAgent agent)
+  {
+    assertEquals("full checkpoint interval", expected.getFullCheckpointInterval(), agent.getFullCheckpointInterval());
+    assertEquals("compression codec", expected.getCompressionCodec(), agent.getCompressionCodec());
+    assertEquals("compression level", expected.getCompressionLevel(), agent.getCompressionLevel());
+    if (expected instanceof AsyncFSStorageAgent) {
+      assertEquals("sync checkpoint", ((AsyncFSStorageAgent)expected).isSyncCheckpoint(),
+          ((AsyncFSStorageAgent)agent).isSyncCheckpoint());
+      assertEquals("local cache size", ((AsyncFSStorageAgent)expected).getLocalCacheSize(),
+          ((AsyncFSStorageAgent)agent).getLocalCacheSize());
+    }
+  }
+
   @Test
   public void testRestartAppWithSyncAgent() throws Exception
   {
     final String appPath1 = testMeta.getPath() + "/app1";
-    testRestartApp(new FSStorageAgent(appPath1 + "/" + LogicalPlan.SUBDIR_CHECKPOINTS, null), appPath1);
+    FSStorageAgent agent = new FSStorageAgent(appPath1 + "/" + LogicalPlan.SUBDIR_CHECKPOINTS, null);
+    agent.setFullCheckpointInterval(5);
+    agent.setCompressionCodec(DefaultCodec.class.getName());
+    agent.setCompressionLevel(ZlibCompressor.CompressionLevel.BEST_SPEED);
+    testRestartApp(agent, appPath1);
   }
 
   @Test
   public void testRestartAppWithAsyncAgent() throws Exception
   {
     final String appPath1 = testMeta.getPath() + "/app1";
-    testRestartApp(new AsyncFSStorageAgent(appPath1 + "/" + LogicalPlan.SUBDIR_CHECKPOINTS, null), appPath1);
+    AsyncFSStorageAgent agent = new AsyncFSStorageAgent(appPath1 + "/" + LogicalPlan.SUBDIR_CHECKPOINTS, null);
+    agent.setFullCheckpointInterval(5);
+    agent.setCompressionCodec(DefaultCodec.class.getName());
+    agent.setCompressionLevel(ZlibCompressor.CompressionLevel.BEST_SPEED);
+    agent.setSyncCheckpoint(true);
+    agent.setLocalCacheSize(1024 * 1024);
+    testRestartApp(agent, appPath1);
   }
 
   @Test
@@ -27,6 +27,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -94,6 +95,7 @@ import com.datatorrent.stram.support.StramTestSupport.EmbeddedWebSocketServer;
 import com.datatorrent.stram.support.StramTestSupport.MemoryStorageAgent;
 import com.datatorrent.stram.support.StramTestSupport.TestMeta;
 import com.datatorrent.stram.tuple.Tuple;
+import com.datatorrent.stram.webapp.ContainerInfo;
 import com.datatorrent.stram.webapp.LogicalOperatorInfo;
 
 public class StreamingContainerManagerTest
@@ -584,6 +586,42 @@ public class StreamingContainerManagerTest
     Assert.assertArrayEquals("Saved windowIds", windowIds, windowsIds);
   }
 
+  @Test
+  public void testDeployAfterUpstreamContainers() throws Exception
+  {
+    GenericTestOperator o1 = dag.addOperator("o1", GenericTestOperator.class);
+    GenericTestOperator o2 = dag.addOperator("o2", GenericTestOperator.class);
+    dag.addStream("s1", o1.outport1, o2.inport1);
+    dag.setAttribute(OperatorContext.STORAGE_AGENT, new MemoryStorageAgent());
+
+    StreamingContainerManager scm = new StreamingContainerManager(dag);
+    PhysicalPlan plan = scm.getPhysicalPlan();
+    PTContainer c1 = plan.getOperators(dag.getMeta(o1)).get(0).getContainer();
+    PTContainer c2 = plan.getOperators(dag.getMeta(o2)).get(0).getContainer();
+    Assert.assertNotSame(c1, c2);
+    assignContainer(scm, "c1");
+    assignContainer(scm, "c2");
+
+    ContainerHeartbeat c2hb = new ContainerHeartbeat();
+    c2hb.setContainerStats(new ContainerStats(c2.getExternalId()));
+    ContainerHeartbeatResponse rsp = scm.processHeartbeat(c2hb);
+    Assert.assertNull("downstream deferred", rsp.deployRequest);
+    Assert.assertTrue("downstream deferred", rsp.hasPendingRequests);
+
+    ContainerHeartbeat c1hb = new ContainerHeartbeat();
+    c1hb.setContainerStats(new ContainerStats(c1.getExternalId()));
+    rsp = scm.processHeartbeat(c1hb);
+    Assert.assertEquals("upstream deployed " + rsp.deployRequest, 1, rsp.deployRequest.size());
+
+    rsp = scm.processHeartbeat(c2hb);
+    Assert.assertEquals("downstream deployed " + rsp.deployRequest, 1, rsp.deployRequest.size());
+
+    ContainerInfo ci = scm.getContainerAgent(c2.getExternalId()).getContainerInfo();
+    Assert.assertTrue("allocated " + ci.allocatedTime, ci.allocatedTime > 0);
+    Assert.assertTrue("started " + ci.startedTime, ci.startedTime >= ci.allocatedTime);
+    Assert.assertTrue("deployed " + ci.deployedTime, ci.deployedTime >= ci.startedTime);
+  }
+
   @Test
   public void testProcessHeartbeat() throws Exception
   {
@@ -1170,5 +1208,105 @@ public class StreamingContainerManagerTest
     lc.shutdown();
   }
 
+  @Test
+  public void testCriticalPathUpdates()
+  {
+    dag.setAttribute(OperatorContext.STORAGE_AGENT, new MemoryStorageAgent());
+
+    GenericTestOperator o1 = dag.addOperator("o1", GenericTestOperator.class);
+    GenericTestOperator o2 = dag.addOperator("o2", GenericTestOperator.class);
+    GenericTestOperator o3 = dag.addOperator("o3", GenericTestOperator.class);
+    GenericTestOperator o4 = dag.addOperator("o4", GenericTestOperator.class);
+
+    dag.addStream("stream1", o1.outport1, o2.inport1);
+    dag.addStream("stream2", o1.outport2, o3.inport1);
+    dag.addStream("stream3", o2.outport1, o4.inport1);
+    dag.addStream("stream4", o3.outport1, o4.inport2);
+
+    StreamingContainerManager scm = new StreamingContainerManager(dag);
+    // any latency change finds the path again, the kept path matches the path found from scratch
+    scm.criticalPathLatencyTolerance = 0;
+    PhysicalPlan physicalPlan = scm.getPhysicalPlan();
+    Map<PTContainer, MockContainer> mockContainers = new HashMap<>();
+    for (PTContainer c : physicalPlan.getContainers()) {
+      mockContainers.put(c, new MockContainer(scm, c));
+    }
+    for (MockContainer mc : mockContainers.values()) {
+      mc.deploy();
+    }
+    for (PTContainer c : mockContainers.keySet()) {
+      // skip buffer server purge in monitorHeartbeat
+      c.bufferServerAddress = null;
+    }
+
+    List<MockOperatorStats> operatorStats = new ArrayList<>();
+    for (GenericTestOperator o : Arrays.asList(o1, o2, o3, o4)) {
+      PTOperator oper = physicalPlan.getOperators(dag.getMeta(o)).get(0);
+      operatorStats.add(mockContainers.get(oper.getContainer()).stats(oper.getId()).checkpointWindowId(1)
+          .deployState(DeployState.ACTIVE));
+    }
+
+    // the operators report in random orders and the latencies are updated in between
+    List<MockContainer> containers = new ArrayList<>(mockContainers.values());
+    Random random = new Random(1);
+    long windowId = 100;
+    for (int i = 0; i < 100; i++) {
+      windowId += 1 + random.nextInt(3);
+      long o2WindowId = windowId - random.nextInt(4);
+      long o3WindowId = windowId - random.nextInt(4);
+      operatorStats.get(0).currentWindowId(windowId);
+      operatorStats.get(1).currentWindowId(o2WindowId);
+      operatorStats.get(2).currentWindowId(o3WindowId);
+      operatorStats.get(3).currentWindowId(Math.min(o2WindowId, o3WindowId) - random.nextInt(4));
+
+      Collections.shuffle(containers, random);
+      for (MockContainer mc : containers) {
+        if (random.nextInt(4) != 0) {
+          mc.sendHeartbeat();
+        }
+        if (random.nextBoolean()) {
+          scm.monitorHeartbeat(false);
+          StreamingContainerManager.CriticalPathInfo expected = scm.findCriticalPath();
+          Assert.assertNotNull("critical path " + i, scm.getCriticalPathInfo());
+          Assert.assertEquals("critical path latency " + i, expected.latency, scm.getCriticalPathInfo().latency);
+          Assert.assertEquals("critical path " + i, expected.path, scm.getCriticalPathInfo().path);
+        }
+      }
+    }
+
+    // the operators catch up, latency changes within the tolerance keep the path
+    windowId += 10;
+    for (MockOperatorStats mos : operatorStats) {
+      mos.currentWindowId(windowId);
+    }
+    for (int i = 0; i < 2; i++) {
+      for (MockContainer mc : containers) {
+        mc.sendHeartbeat();
+      }
+      scm.monitorHeartbeat(false);
+    }
+    long latency = scm.getCriticalPathInfo().latency;
+    scm.criticalPathLatencyTolerance = 1;
+    for (MockContainer mc : containers) {
+      mc.sendHeartbeat();
+    }
+    scm.monitorHeartbeat(false);
+    Assert.assertEquals("kept critical path latency", latency, scm.getCriticalPathInfo().latency);
+    Assert.assertTrue("critical path latency " + latency, scm.findCriticalPath().latency < latency);
+
+    // the latency is sampled only when the operators report
+    PTOperator o4p1 = physicalPlan.getOperators(dag.getMeta(o4)).get(0);
+    long count = o4p1.stats.latencyHistogram.getCount();
+    for (int i = 0; i < 3; i++) {
+      scm.monitorHeartbeat(false);
+    }
+    Assert.assertEquals("latency samples", count, o4p1.stats.latencyHistogram.getCount());
+    for (MockContainer mc : containers) {
+      mc.sendHeartbeat();
+    }
+    scm.monitorHeartbeat(false);
+    Assert.assertEquals("latency samples", count + 1, o4p1.stats.latencyHistogram.getCount());
+  }
+
   private static final Logger LOG = LoggerFactory.getLogger(StreamingContainerManagerTest.class);
 }
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.datatorrent.api.Stats;
+import com.datatorrent.stram.api.StreamingContainerUmbilicalProtocol.ContainerStats;
+import com.datatorrent.stram.api.StreamingContainerUmbilicalProtocol.OperatorHeartbeat;
+import com.datatorrent.stram.api.StreamingContainerUmbilicalProtocol.OperatorHeartbeat.DeployState;
+
+public class ContainerStatsCodecTest
+{
+  private static ContainerStats newContainerStats(long windowId, int windows, int tupleCount)
+  {
+    ContainerStats stats = new ContainerStats("container1");
+    for (int nodeId = 1; nodeId <= 2; nodeId++) {
+      OperatorHeartbeat hb = new OperatorHeartbeat();
+      hb.nodeId = nodeId;
+      hb.generatedTms = 1000 + windowId;
+      hb.intervalMs = 1000;
+      hb.state = DeployState.ACTIVE;
+      for (int i = 0; i < windows; i++) {
+        ContainerStats.OperatorStats os = new ContainerStats.OperatorStats();
+        os.windowId = windowId + i;
+        os.cpuTimeUsed = 100 * (windowId + i);
+        os.inputPorts = new ArrayList<>();
+        ContainerStats.OperatorStats.PortStats ps = new ContainerStats.OperatorStats.PortStats("input");
+        ps.tupleCount = tupleCount;
+        ps.endWindowTimestamp = 5000 + windowId + i;
+        ps.queueSize = 3;
+        os.inputPorts.add(ps);
+        os.outputPorts = new ArrayList<>();
+        ps = new ContainerStats.OperatorStats.PortStats("output");
+        ps.tupleCount = tupleCount;
+        ps.bufferServerBytes = 10 * tupleCount;
+        os.outputPorts.add(ps);
+        os.metrics = new HashMap<>();
+        os.metrics.put("count", (long)tupleCount);
+        os.metrics.put("names", new ArrayList<>(Arrays.asList("a", "b")));
+        hb.windowStats.add(os);
+      }
+      stats.addNodeStats(hb);
+    }
+    return stats;
+  }
+
+  private static void assertStatsEquals(ContainerStats expected, ContainerStats actual)
+  {
+    Assert.assertEquals("container id", expected.id, actual.id);
+    Assert.assertEquals("operators", expected.operators.size(), actual.operators.size());
+    for (int i = 0; i < expected.operators.size(); i++) {
+      OperatorHeartbeat ehb = expected.operators.get(i);
+      OperatorHeartbeat ahb = actual.operators.get(i);
+      Assert.assertEquals("node id", ehb.nodeId, ahb.nodeId);
+      Assert.assertEquals("generated", ehb.generatedTms, ahb.generatedTms);
+      Assert.assertEquals("interval", ehb.intervalMs, ahb.intervalMs);
+      Assert.assertEquals("state", ehb.state, ahb.state);
+      Assert.assertEquals("windows", ehb.windowStats.size(), ahb.windowStats.size());
+      for (int j = 0; j < ehb.windowStats.size(); j++) {
+        ContainerStats.OperatorStats eos = ehb.windowStats.get(j);
+        ContainerStats.OperatorStats aos = ahb.windowStats.get(j);
+        Assert.assertEquals("window id", eos.windowId, aos.windowId);
+        Assert.assertEquals("cpu time", eos.cpuTimeUsed, aos.cpuTimeUsed);
+        Assert.assertEquals("checkpoint", eos.checkpoint, aos.checkpoint);
+        Assert.assertEquals("metrics", eos.metrics, aos.metrics);
+        Assert.assertEquals("input ports", eos.inputPorts.toString(), aos.inputPorts.toString());
+        Assert.assertEquals("output ports", eos.outputPorts.toString(), aos.outputPorts.toString());
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException
+  {
+    ContainerStatsCodec.Encoder encoder = new ContainerStatsCodec.Encoder();
+    ContainerStatsCodec.Decoder decoder = new ContainerStatsCodec.Decoder();
+
+    ContainerStats stats = newContainerStats(100, 3, 7);
+    ContainerStats.OperatorStats os = stats.operators.get(0).windowStats.get(1);
+    os.checkpoint = new Checkpoint(99, 1, 10);
+    os.checkpointStats = new Stats.CheckpointStats();
+    os.checkpointStats.checkpointTime = 20;
+    os.checkpointStats.checkpointSize = 512;
+    byte[] first = encoder.encode(stats);
+    ContainerStats decoded = decoder.decode(stats.id, first);
+    assertStatsEquals(stats, decoded);
+    Assert.assertEquals("checkpoint size", 512, decoded.operators.get(0).windowStats.get(1).checkpointStats.checkpointSize);
+    Assert.assertNull("checkpoint stats", decoded.operators.get(0).windowStats.get(0).checkpointStats);
+
+    /* the same counters in the next frame are omitted */
+    stats = newContainerStats(103, 3, 7);
+    byte[] second = encoder.encode(stats);
+    assertStatsEquals(stats, decoder.decode(stats.id, second));
+    Assert.assertTrue("unchanged stats " + second.length + " " + first.length, second.length < first.length / 2);
+
+    /* the decoded stats do not share the metrics with the decoder */
+    decoded.operators.get(0).windowStats.get(0).metrics.put("count", 0L);
+    stats = newContainerStats(106, 1, 9);
+    stats.operators.remove(1);
+    stats.operators.get(0).windowStats.get(0).metrics.remove("names");
+    assertStatsEquals(stats, decoder.decode(stats.id, encoder.encode(stats)));
+  }
+
+  @Test
+  public void testReset() throws IOException
+  {
+    ContainerStatsCodec.Encoder encoder = new ContainerStatsCodec.Encoder();
+    ContainerStatsCodec.Decoder decoder = new ContainerStatsCodec.Decoder();
+
+    decoder.decode("container1", encoder.encode(newContainerStats(100, 2, 7)));
+    /* the frame lost on the way to the decoder */
+    encoder.encode(newContainerStats(102, 2, 8));
+    ContainerStats stats = newContainerStats(104, 2, 9);
+    try {
+      decoder.decode(stats.id, encoder.encode(stats));
+      Assert.fail("frame out of sequence decoded");
+    } catch (IOException ex) {
+      // expected
+    }
+
+    encoder.reset();
+    assertStatsEquals(stats, decoder.decode(stats.id, encoder.encode(stats)));
+    stats = newContainerStats(106, 2, 9);
+    assertStatsEquals(stats, decoder.decode(stats.id, encoder.encode(stats)));
+
+    /* the decoder of a restarted application master */
+    decoder = new ContainerStatsCodec.Decoder();
+    try {
+      decoder.decode(stats.id, encoder.encode(newContainerStats(108, 2, 9)));
+      Assert.fail("frame out of sequence decoded");
+    } catch (IOException ex) {
+      // expected
+    }
+  }
+
+}
@@ -37,8 +37,11 @@ import com.datatorrent.bufferserver.packet.DataTuple;
 import com.datatorrent.bufferserver.packet.MessageType;
 import com.datatorrent.bufferserver.packet.PayloadTuple;
 import com.datatorrent.bufferserver.packet.Tuple;
+import com.datatorrent.common.codec.JsonStreamCodec;
+import com.datatorrent.netlet.util.Slice;
 import com.datatorrent.stram.codec.DefaultStatefulStreamCodec.ClassIdPair;
 import com.datatorrent.stram.codec.StatefulStreamCodec.DataStatePair;
+import com.datatorrent.stram.plan.logical.DefaultKryoStreamCodec;
 
 /**
  *
@@ -161,6 +164,83 @@ public class DefaultStatefulStreamCodecTest
     Assert.assertArrayEquals(data1, data2);
   }
 
+  @Test
+  public void testBufferCodec()
+  {
+    DefaultStatefulStreamCodec<Object> coder = new DefaultStatefulStreamCodec<>();
+    BufferStreamCodec<Object> decoder = BufferStreamCodec.StreamCodecAdapter.forStream(coder);
+    Assert.assertNotSame(coder, decoder);
+
+    Output data = new Output(16, Integer.MAX_VALUE);
+    Output state = new Output(16, Integer.MAX_VALUE);
+    TestClass tc = new TestClass("hello!", 42);
+
+    /* the tuples are written after the headers into the reused outputs */
+    for (int i = 0; i < 2; i++) {
+      data.setPosition(5);
+      state.setPosition(1);
+      coder.write(tc, data, state);
+      if (i == 0) {
+        Assert.assertTrue("state", state.position() > 1);
+        decoder.readState(state.getBuffer(), 1, state.position() - 1);
+      } else {
+        Assert.assertEquals("state", 1, state.position());
+      }
+      Assert.assertEquals(tc, decoder.read(data.getBuffer(), 5, data.position() - 5));
+    }
+
+    /* the codecs which do not write into buffers are adapted */
+    BufferStreamCodec<Object> adapter = new BufferStreamCodec.StatefulStreamCodecAdapter<>(new DefaultStatefulStreamCodec<>());
+    decoder = new BufferStreamCodec.StatefulStreamCodecAdapter<>(new DefaultStatefulStreamCodec<>());
+    data.setPosition(1);
+    state.setPosition(0);
+    adapter.write(tc, data, state);
+    decoder.readState(state.getBuffer(), 0, state.position());
+    Assert.assertEquals(tc, decoder.read(data.getBuffer(), 1, data.position() - 1));
+
+    adapter = BufferStreamCodec.StreamCodecAdapter.forStream(new JsonStreamCodec<>());
+    Assert.assertTrue(adapter instanceof BufferStreamCodec.StreamCodecAdapter);
+    data.setPosition(0);
+    adapter.write("hello", data, state);
+    Assert.assertEquals("hello", adapter.read(data.getBuffer(), 0, data.position()));
+
+    /* the subclasses of the default codecs may override the stream codec methods */
+    Assert.assertTrue(BufferStreamCodec.StreamCodecAdapter.forStream(new DefaultKryoStreamCodec<>())
+        instanceof DefaultKryoStreamCodec);
+    Assert.assertTrue(BufferStreamCodec.StreamCodecAdapter.forStream(new PrefixedKryoStreamCodec())
+        instanceof BufferStreamCodec.StreamCodecAdapter);
+    Assert.assertTrue(BufferStreamCodec.StreamCodecAdapter.forStream(new SubclassedStatefulStreamCodec())
+        instanceof BufferStreamCodec.StatefulStreamCodecAdapter);
+
+    adapter = BufferStreamCodec.StreamCodecAdapter.forStream(new DefaultKryoStreamCodec<>());
+    for (int i = 0; i < 2; i++) {
+      data.setPosition(i);
+      adapter.write(tc, data, state);
+      Assert.assertEquals(tc, adapter.read(data.getBuffer(), i, data.position() - i));
+    }
+
+    adapter = BufferStreamCodec.StreamCodecAdapter.forStream(new PrefixedKryoStreamCodec());
+    data.setPosition(0);
+    adapter.write("hello", data, state);
+    Assert.assertEquals("prefixed hello", adapter.read(data.getBuffer(), 0, data.position()));
+  }
+
+  public static class PrefixedKryoStreamCodec extends DefaultKryoStreamCodec<Object>
+  {
+    private static final long serialVersionUID = 201611011200L;
+
+    @Override
+    public Object fromByteArray(Slice fragment)
+    {
+      return "prefixed " + super.fromByteArray(fragment);
+    }
+
+  }
+
+  public static class SubclassedStatefulStreamCodec extends DefaultStatefulStreamCodec<Object>
+  {
+  }
+
   public static class TestTuple
   {
     final Integer finalField;
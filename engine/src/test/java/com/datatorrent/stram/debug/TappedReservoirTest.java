@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.debug;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.datatorrent.stram.engine.AbstractReservoir;
+import com.datatorrent.stram.engine.TestSink;
+import com.datatorrent.stram.tuple.Tuple;
+
+import static com.datatorrent.bufferserver.packet.MessageType.BEGIN_WINDOW;
+
+public class TappedReservoirTest
+{
+  @Test
+  public void testSweepBatch()
+  {
+    AbstractReservoir reservoir = AbstractReservoir.newReservoir("input", 1024);
+    TestSink port = new TestSink();
+    TestSink tap = new TestSink();
+    reservoir.setSink(port);
+    TappedReservoir tappedReservoir = new TappedReservoir(reservoir, tap);
+
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue(reservoir.add(i));
+    }
+    Tuple t = new Tuple(BEGIN_WINDOW, 0L);
+    Assert.assertTrue(reservoir.add(t));
+
+    Assert.assertEquals(t, tappedReservoir.sweep());
+    Assert.assertEquals("tuples received by the port", 10, port.getResultCount());
+    Assert.assertEquals("tuples received by the tap", 10, tap.getResultCount());
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(i, port.collectedTuples.get(i));
+      Assert.assertEquals(i, tap.collectedTuples.get(i));
+    }
+  }
+
+}
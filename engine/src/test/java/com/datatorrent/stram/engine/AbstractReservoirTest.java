@@ -18,6 +18,9 @@
  */
 package com.datatorrent.stram.engine;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.locks.Condition;
@@ -34,6 +37,7 @@ import org.junit.runner.RunWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.datatorrent.api.BatchSink;
 import com.datatorrent.api.Sink;
 import com.datatorrent.netlet.util.CircularBuffer;
 import com.datatorrent.stram.tuple.Tuple;
@@ -227,6 +231,56 @@ public class AbstractReservoirTest
     reservoir.add(o);
   }
 
+  @Test
+  @Parameters({"com.datatorrent.stram.engine.AbstractReservoir$SpscArrayQueueReservoir",
+      "com.datatorrent.stram.engine.AbstractReservoir$SpscArrayBlockingQueueReservoir"})
+  public void testSweepBatch(final String reservoirClassName)
+  {
+    final AbstractReservoir reservoir = newReservoir(reservoirClassName, 1024);
+    final List<Object> received = new ArrayList<>();
+    final int[] batches = new int[1];
+    setSink(reservoir, new BatchSink<Object>()
+    {
+      @Override
+      public void putAll(Object[] tuples, int offset, int length)
+      {
+        batches[0]++;
+        received.addAll(Arrays.asList(tuples).subList(offset, offset + length));
+      }
+
+      @Override
+      public void put(Object tuple)
+      {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int getCount(boolean reset)
+      {
+        return received.size();
+      }
+    });
+
+    for (int i = 0; i < 300; i++) {
+      assertTrue(reservoir.add(i));
+    }
+    final Tuple t = new Tuple(BEGIN_WINDOW, 0L);
+    assertTrue(reservoir.add(t));
+    assertTrue(reservoir.add(300));
+
+    assertEquals(t, reservoir.sweep());
+    assertEquals(300, reservoir.getCount(false));
+    assertEquals(2, batches[0]);
+    for (int i = 0; i < 300; i++) {
+      assertEquals(i, received.get(i));
+    }
+    assertEquals(t, reservoir.remove());
+    assertNull(reservoir.sweep());
+    assertEquals(301, reservoir.getCount(false));
+    assertEquals(300, received.get(300));
+    assertTrue(reservoir.isEmpty());
+  }
+
   @Test
   @Ignore
   @Parameters(method = "performanceTestParameters")
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.datatorrent.api.Context.IdleStrategy;
+import com.datatorrent.stram.stream.InlineStream;
+
+public class IdlerTest
+{
+  @Test
+  public void testBlockWakeup() throws Exception
+  {
+    final InlineStream stream = new InlineStream(16);
+    stream.setup(new StreamContext("stream"));
+    final SweepableReservoir reservoir = stream.getReservoir();
+    final Idler idler = Idler.newInstance(IdleStrategy.BLOCK, TimeUnit.MINUTES.toMillis(1));
+    idler.watch(reservoir);
+
+    Thread consumer = new Thread("consumer")
+    {
+      @Override
+      public void run()
+      {
+        try {
+          while (reservoir.isEmpty()) {
+            idler.idle();
+          }
+        } catch (InterruptedException ex) {
+          throw new RuntimeException(ex);
+        }
+      }
+    };
+    consumer.start();
+    Thread.sleep(50);
+    Assert.assertTrue("consumer waiting", consumer.isAlive());
+
+    long start = System.nanoTime();
+    stream.put("tuple");
+    consumer.join(TimeUnit.SECONDS.toMillis(10));
+    Assert.assertFalse("consumer woken up", consumer.isAlive());
+    Assert.assertTrue("wakeup latency", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+  }
+
+  @Test
+  public void testInterrupt() throws Exception
+  {
+    for (IdleStrategy strategy : IdleStrategy.values()) {
+      Idler idler = Idler.newInstance(strategy, 1);
+      for (int i = 0; i < 20; i++) {
+        idler.idle();
+      }
+      idler.reset();
+      Thread.currentThread().interrupt();
+      try {
+        idler.idle();
+        Assert.fail(strategy + " ignored the interrupt");
+      } catch (InterruptedException ex) {
+        Assert.assertFalse(strategy + " interrupt status", Thread.currentThread().isInterrupted());
+      }
+    }
+  }
+
+}
@@ -19,6 +19,8 @@
 package com.datatorrent.stram.engine;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -28,6 +30,7 @@ import com.datatorrent.api.DefaultInputPort;
 import com.datatorrent.api.DefaultOutputPort;
 import com.datatorrent.api.InputOperator;
 import com.datatorrent.api.Operator;
+import com.datatorrent.api.Sink;
 import com.datatorrent.common.util.AsyncFSStorageAgent;
 import com.datatorrent.common.util.BaseOperator;
 import com.datatorrent.stram.StramLocalCluster;
@@ -104,6 +107,51 @@ public class SliderTest
     }
   }
 
+  public static class CombinableSum extends BaseOperator implements Operator.CombinableUnifier<Integer, Integer>
+  {
+    public final transient DefaultInputPort<Integer> inputPort = new DefaultInputPort<Integer>()
+    {
+      @Override
+      public void process(Integer tuple)
+      {
+        outputPort.emit(tuple);
+      }
+    };
+
+    public final transient DefaultOutputPort<Integer> outputPort = new DefaultOutputPort<Integer>()
+    {
+      @Override
+      public Unifier<Integer> getUnifier()
+      {
+        return new CombinableSum();
+      }
+    };
+
+    @Override
+    public void process(Integer tuple)
+    {
+      throw new IllegalStateException("Tuples are aggregated in the panes");
+    }
+
+    @Override
+    public Integer aggregate(Integer tuple)
+    {
+      return tuple;
+    }
+
+    @Override
+    public Integer combine(Integer older, Integer newer)
+    {
+      return older + newer;
+    }
+
+    @Override
+    public void emitAggregate(Integer aggregate)
+    {
+      outputPort.emit(aggregate);
+    }
+  }
+
   public static class Validator extends BaseOperator
   {
     public static int numbersValidated;
@@ -140,21 +188,39 @@ public class SliderTest
   }
 
   private void test(int applicationWindowCount, int slideByWindowCount) throws Exception
+  {
+    test(applicationWindowCount, slideByWindowCount, false);
+  }
+
+  private void test(int applicationWindowCount, int slideByWindowCount, boolean combinable) throws Exception
   {
     LogicalPlan dag = new LogicalPlan();
     String workingDir = new File("target/sliderTest").getAbsolutePath();
     dag.setAttribute(Context.OperatorContext.STORAGE_AGENT, new AsyncFSStorageAgent(workingDir, null));
     dag.getAttributes().put(LogicalPlan.STREAMING_WINDOW_SIZE_MILLIS, 100);
     Input input = dag.addOperator("Input", new Input());
-    Sum sum = dag.addOperator("Sum", new Sum());
+    Operator sum;
+    DefaultInputPort<Integer> sumInput;
+    DefaultOutputPort<Integer> sumOutput;
+    if (combinable) {
+      CombinableSum combinableSum = new CombinableSum();
+      sum = dag.addOperator("Sum", combinableSum);
+      sumInput = combinableSum.inputPort;
+      sumOutput = combinableSum.outputPort;
+    } else {
+      Sum plainSum = new Sum();
+      sum = dag.addOperator("Sum", plainSum);
+      sumInput = plainSum.inputPort;
+      sumOutput = plainSum.outputPort;
+    }
     dag.setOperatorAttribute(sum, OperatorContext.APPLICATION_WINDOW_COUNT, applicationWindowCount);
     dag.setOperatorAttribute(sum, OperatorContext.SLIDE_BY_WINDOW_COUNT, slideByWindowCount);
     Validator validate = dag.addOperator("validator", new Validator());
     Validator.numbersValidated = 0;
     validate.numberOfIntegers = applicationWindowCount;
     validate.slideByNumbers = slideByWindowCount;
-    dag.addStream("input-sum", input.defaultOutputPort, sum.inputPort);
-    dag.addStream("sum-validator", sum.outputPort, validate.validate);
+    dag.addStream("input-sum", input.defaultOutputPort, sumInput);
+    dag.addStream("sum-validator", sumOutput, validate.validate);
     StramLocalCluster lc = new StramLocalCluster(dag);
     lc.runAsync();
 
@@ -186,4 +252,58 @@ public class SliderTest
   {
     test(4, 2);
   }
+
+  @Test
+  public void testCombinableSlider() throws Exception
+  {
+    test(5, 2, true);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPanes()
+  {
+    final int buckets = 5;
+    final int slide = 2;
+    CombinableSum sum = new CombinableSum();
+    final List<Integer> emitted = new ArrayList<>();
+    sum.outputPort.setSink(new Sink<Object>()
+    {
+      @Override
+      public void put(Object tuple)
+      {
+        emitted.add((Integer)tuple);
+      }
+
+      @Override
+      public int getCount(boolean reset)
+      {
+        return 0;
+      }
+    });
+    Slider slider = new Slider((Operator.Unifier<Object>)(Operator.Unifier<?>)sum, buckets, slide);
+
+    List<Integer> windowSums = new ArrayList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int window = 0; window < 40; window++) {
+      slider.beginWindow(window);
+      int windowSum = 0;
+      /* every third window is empty */
+      for (int i = 0; window % 3 != 2 && i <= window; i++) {
+        slider.process(i);
+        windowSum += i;
+      }
+      slider.endWindow();
+      windowSums.add(windowSum);
+      if (windowSums.size() == buckets) {
+        int total = 0;
+        for (int s : windowSums) {
+          total += s;
+        }
+        expected.add(total);
+        windowSums = new ArrayList<>(windowSums.subList(slide, buckets));
+      }
+    }
+    Assert.assertEquals("sliding window sums", expected, emitted);
+  }
 }
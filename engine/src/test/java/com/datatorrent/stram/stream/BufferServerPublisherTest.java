@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.datatorrent.bufferserver.packet.MessageType;
+import com.datatorrent.netlet.util.VarInt;
+import com.datatorrent.stram.codec.BufferStreamCodec;
+import com.datatorrent.stram.codec.DefaultStatefulStreamCodec;
+import com.datatorrent.stram.engine.StreamContext;
+
+public class BufferServerPublisherTest
+{
+  @Test
+  public void testChunks()
+  {
+    final List<byte[]> chunks = new ArrayList<>();
+    final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+    BufferServerPublisher publisher = new BufferServerPublisher("publisher", 1024, 64)
+    {
+      @Override
+      public boolean send(byte[] array, int offset, int length)
+      {
+        /* the slice is copied out right away, the send queue is always drained */
+        boolean found = false;
+        for (byte[] chunk : chunks) {
+          found |= chunk == array;
+        }
+        if (!found) {
+          chunks.add(array);
+        }
+        sent.write(array, offset, length);
+        return true;
+      }
+    };
+    StreamContext context = new StreamContext("stream");
+    context.put(StreamContext.CODEC, new DefaultStatefulStreamCodec<>());
+    publisher.setup(context);
+    for (int i = 0; i < 100; i++) {
+      publisher.put("tuple " + i);
+    }
+    Assert.assertEquals("recycled chunks", 1, chunks.size());
+
+    /* the messages are length prefixed, the published bytes are those of the tuples */
+    BufferStreamCodec<Object> codec = BufferStreamCodec.StreamCodecAdapter.forStream(new DefaultStatefulStreamCodec<>());
+    byte[] bytes = sent.toByteArray();
+    VarInt.MutableInt offset = new VarInt.MutableInt();
+    int tuples = 0;
+    long tupleBytes = 0;
+    while (offset.integer < bytes.length) {
+      int size = VarInt.read(bytes, offset.integer, bytes.length, offset);
+      if (bytes[offset.integer] == MessageType.CODEC_STATE_VALUE) {
+        codec.readState(bytes, offset.integer + 1, size - 1);
+      } else {
+        Assert.assertEquals("message type", MessageType.PAYLOAD_VALUE, bytes[offset.integer]);
+        Assert.assertEquals("tuple " + tuples++, codec.read(bytes, offset.integer + 5, size - 5));
+        tupleBytes += size;
+      }
+      offset.integer += size;
+    }
+    Assert.assertEquals("tuples", 100, tuples);
+    Assert.assertEquals("published bytes", tupleBytes, publisher.getByteCount(false));
+  }
+
+}
@@ -31,6 +31,7 @@ import com.datatorrent.api.Sink;
 import com.datatorrent.api.StreamCodec;
 import com.datatorrent.bufferserver.packet.PayloadTuple;
 import com.datatorrent.netlet.util.Slice;
+import com.datatorrent.stram.codec.BufferStreamCodec;
 import com.datatorrent.stram.engine.SweepableReservoir;
 
 /**
@@ -87,19 +88,21 @@ public class BufferServerSubscriberTest
     BufferServerSubscriber bss = new BufferServerSubscriber("subscriber", 5)
     {
       {
-        serde = myserde;
+        codec = new BufferStreamCodec.StreamCodecAdapter<>(myserde);
       }
 
       @Override
-      public void suspendRead()
+      public boolean suspendReadIfResumed()
       {
         logger.debug("read suspended");
+        return true;
       }
 
       @Override
-      public void resumeRead()
+      public boolean resumeReadIfSuspended()
       {
         logger.debug("read resumed");
+        return true;
       }
 
     };
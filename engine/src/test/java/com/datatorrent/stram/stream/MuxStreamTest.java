@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.stream;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.datatorrent.api.StreamCodec;
+import com.datatorrent.netlet.util.Slice;
+import com.datatorrent.stram.engine.TestSink;
+import com.datatorrent.stram.tuple.EndWindowTuple;
+
+public class MuxStreamTest
+{
+  private static class CountingStreamCodec implements StreamCodec<Object>
+  {
+    int count;
+
+    @Override
+    public Object fromByteArray(Slice fragment)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Slice toByteArray(Object o)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getPartition(Object o)
+    {
+      count++;
+      return (Integer)o;
+    }
+
+  }
+
+  @Test
+  public void testPartitionRouting()
+  {
+    CountingStreamCodec codec = new CountingStreamCodec();
+    TestSink sink0 = new TestSink();
+    TestSink sink1 = new TestSink();
+    TestSink sink2 = new TestSink();
+    TestSink sink3 = new TestSink();
+    MuxStream stream = new MuxStream();
+    stream.setSink("0", new PartitionAwareSink<>(codec, new HashSet<>(Arrays.asList(0, 2)), 3, sink0));
+    stream.setSink("1", new PartitionAwareSink<>(codec, Collections.singleton(1), 3, sink1));
+    stream.setSink("2", new PartitionAwareSink<>(new CountingStreamCodec(), Collections.singleton(3), 3, sink2));
+    stream.setSink("3", sink3);
+    stream.activate(null);
+
+    EndWindowTuple endWindow = new EndWindowTuple(1);
+    stream.put(5);
+    stream.put(6);
+    stream.putAll(new Object[]{0, 7, 11, 1, endWindow, 2}, 1, 4);
+    Assert.assertEquals("partitions computed once", 5, codec.count);
+    Assert.assertEquals(Arrays.<Object>asList(6, endWindow), sink0.collectedTuples);
+    Assert.assertEquals(Arrays.<Object>asList(5, 1, endWindow), sink1.collectedTuples);
+    Assert.assertEquals(Arrays.<Object>asList(7, 11, endWindow), sink2.collectedTuples);
+    Assert.assertEquals(Arrays.<Object>asList(5, 6, 7, 11, 1, endWindow), sink3.collectedTuples);
+    Assert.assertEquals("count", 6, stream.getCount(false));
+  }
+
+  @Test
+  public void testLargeMask()
+  {
+    TestSink sink = new TestSink();
+    PartitionAwareSink<Object> pas = new PartitionAwareSink<>(new CountingStreamCodec(),
+        new HashSet<>(Arrays.asList(0x10000, 0x30001)), 0x3ffff, sink);
+    for (int partition : new int[]{1, 0x10000, 0x20000, 0x30001, 0x70001}) {
+      pas.put(partition);
+    }
+    Assert.assertEquals(Arrays.<Object>asList(0x10000, 0x30001, 0x70001), sink.collectedTuples);
+    Assert.assertEquals("count", 3, pas.getCount(false));
+  }
+
+}
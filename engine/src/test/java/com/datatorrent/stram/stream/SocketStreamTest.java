@@ -146,6 +146,27 @@ public class SocketStreamTest
     LOG.debug("input stream activated");
   }
 
+  /**
+   * Test buffer server stream with the publisher serializing the tuples into chunks smaller than the tuples sent
+   * through it, so that each tuple goes into a new chunk.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testBufferServerStreamWithBufferedPublisher() throws Exception
+  {
+    oss = new BufferServerPublisher(upstreamNodeId, 1024, 4);
+    oss.setup(ossContext);
+
+    iss.activate(issContext);
+    LOG.debug("input stream activated");
+
+    oss.activate(ossContext);
+    LOG.debug("output stream activated");
+
+    sendMessage();
+  }
+
   @Before
   public void init()
   {
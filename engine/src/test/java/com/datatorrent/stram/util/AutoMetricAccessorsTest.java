@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.datatorrent.api.AutoMetric;
+
+public class AutoMetricAccessorsTest
+{
+  static class Base
+  {
+    @AutoMetric
+    private long count;
+  }
+
+  static class Metrics extends Base
+  {
+    @AutoMetric
+    int size;
+    @AutoMetric
+    double rate;
+    @AutoMetric
+    float ratio;
+    @AutoMetric
+    boolean active;
+    @AutoMetric
+    String name;
+    long ignored;
+
+    @AutoMetric
+    public long getTotal()
+    {
+      return size + ((Base)this).count;
+    }
+  }
+
+  @Test
+  public void testCollect()
+  {
+    AutoMetricAccessors accessors = AutoMetricAccessors.get(Metrics.class);
+    Assert.assertSame(accessors, AutoMetricAccessors.get(Metrics.class));
+    Assert.assertEquals("metrics", 7, accessors.size());
+
+    Metrics metrics = new Metrics();
+    ((Base)metrics).count = 3;
+    metrics.size = 5;
+    metrics.rate = 0.5;
+    metrics.ratio = 0.25f;
+    metrics.active = true;
+    metrics.name = "metrics";
+
+    AutoMetricAccessors.Record record = accessors.newRecord();
+    Map<String, Object> values = new HashMap<>();
+    record.collect(metrics, null, values);
+    Assert.assertEquals(3L, values.get("count"));
+    Assert.assertEquals(5, values.get("size"));
+    Assert.assertEquals(0.5, values.get("rate"));
+    Assert.assertEquals(0.25f, values.get("ratio"));
+    Assert.assertEquals(true, values.get("active"));
+    Assert.assertEquals("metrics", values.get("name"));
+    Assert.assertEquals(8L, values.get("total"));
+    Assert.assertFalse(values.containsKey("ignored"));
+
+    /* the values which did not change are not boxed again */
+    Map<String, Object> next = new HashMap<>();
+    metrics.size = 1000;
+    record.collect(metrics, null, next);
+    Assert.assertSame(values.get("rate"), next.get("rate"));
+    Assert.assertSame(values.get("ratio"), next.get("ratio"));
+    Assert.assertSame(values.get("count"), next.get("count"));
+    Assert.assertEquals(1000, next.get("size"));
+    Assert.assertEquals(1003L, next.get("total"));
+
+    next.clear();
+    record.collect(metrics, Arrays.asList("size", "name"), next);
+    Assert.assertEquals("selected", 2, next.size());
+    Assert.assertEquals(1000, next.get("size"));
+  }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.datatorrent.stram.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.datatorrent.stram.util.MovingAverage.MovingAverageLong;
+import com.datatorrent.stram.util.MovingAverage.TimedMovingAverageLong;
+
+public class HistogramTest
+{
+  @Test
+  public void testBuckets()
+  {
+    int bucket = -1;
+    for (long value = 0; value < 100000; value++) {
+      int b = Histogram.getBucket(value);
+      Assert.assertTrue("bucket of " + value, b == bucket || b == bucket + 1);
+      Assert.assertTrue("highest value of " + value, Histogram.getHighestValue(b) >= value);
+      Assert.assertTrue("relative error of " + value, Histogram.getHighestValue(b) - value <= value / 8);
+      bucket = b;
+    }
+    Assert.assertEquals(Histogram.BUCKETS - 1, Histogram.getBucket(Long.MAX_VALUE));
+    Assert.assertEquals(0, Histogram.getBucket(-5));
+  }
+
+  @Test
+  public void testPercentiles()
+  {
+    Histogram histogram = new Histogram();
+    Assert.assertEquals(0, histogram.getPercentile(0.99));
+    for (int i = 1; i <= 100; i++) {
+      histogram.add(i);
+    }
+    Assert.assertEquals(100, histogram.getCount());
+    Assert.assertEquals(1, histogram.getPercentile(0));
+    Assert.assertEquals(7, histogram.getPercentile(0.07));
+    long p50 = histogram.getPercentile(0.5);
+    Assert.assertTrue("p50 " + p50, p50 >= 50 && p50 <= 55);
+    long p99 = histogram.getPercentile(0.99);
+    Assert.assertTrue("p99 " + p99, p99 >= 99 && p99 <= 103);
+
+    Histogram other = new Histogram();
+    for (int i = 0; i < 100; i++) {
+      other.add(1000);
+    }
+    histogram.merge(other);
+    Assert.assertTrue("p99 " + histogram.getPercentile(0.99), histogram.getPercentile(0.99) >= 1000);
+    histogram.subtract(other);
+    Assert.assertEquals(p99, histogram.getPercentile(0.99));
+  }
+
+  @Test
+  public void testSliding()
+  {
+    Histogram histogram = new Histogram.Sliding(100, 4);
+    for (int i = 0; i < 100; i++) {
+      histogram.add(1000);
+    }
+    Assert.assertTrue(histogram.getPercentile(0.5) >= 1000);
+    /* the old values are dropped a slice at a time */
+    for (int i = 0; i < 50; i++) {
+      histogram.add(1);
+    }
+    Assert.assertEquals(1, histogram.getPercentile(0.5));
+    Assert.assertEquals(100, histogram.getCount());
+    for (int i = 0; i < 100; i++) {
+      histogram.add(2);
+    }
+    Assert.assertEquals(2, histogram.getPercentile(1));
+
+    /* the merged values are dropped with the slice they were merged into */
+    Histogram other = new Histogram();
+    for (int i = 0; i < 10; i++) {
+      other.add(1000);
+    }
+    histogram.merge(other);
+    Assert.assertEquals(110, histogram.getCount());
+    Assert.assertEquals(1000, histogram.getPercentile(0.95), 1000 / 8);
+    for (int i = 0; i < 100; i++) {
+      histogram.add(3);
+    }
+    Assert.assertEquals(3, histogram.getPercentile(1));
+  }
+
+  @Test
+  public void testMovingAverages()
+  {
+    MovingAverageLong ma = new MovingAverageLong(3);
+    Assert.assertEquals(0, ma.getAvg());
+    ma.add(3);
+    Assert.assertEquals(3, ma.getAvg());
+    ma.add(6);
+    ma.add(9);
+    Assert.assertEquals(6, ma.getAvg());
+    ma.add(12);
+    Assert.assertEquals(9, ma.getAvg());
+
+    TimedMovingAverageLong tma = new TimedMovingAverageLong(4, 100);
+    Assert.assertEquals(0, tma.getAvg(), 0);
+    tma.add(10, 50);
+    Assert.assertEquals(0.2, tma.getAvg(), 0.0001);
+    tma.add(30, 50);
+    Assert.assertEquals(0.4, tma.getAvg(), 0.0001);
+    /* the oldest sample is not needed to cover the interval */
+    tma.add(100, 100);
+    Assert.assertEquals(1, tma.getAvg(), 0.0001);
+    tma.add(0, 10);
+    Assert.assertEquals(100.0 / 110, tma.getAvg(), 0.0001);
+    /* at most one sample less than the capacity is in the average */
+    tma = new TimedMovingAverageLong(3, 1000);
+    tma.add(1, 1);
+    tma.add(2, 1);
+    tma.add(3, 1);
+    Assert.assertEquals(2.5, tma.getAvg(), 0.0001);
+  }
+
+}
@@ -48,6 +48,7 @@ import org.codehaus.jettison.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Test;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.tools.ant.DirectoryScanner;
 
@@ -536,6 +537,39 @@ public class OperatorDiscoveryTest
   }
 
 
+  @Test
+  public void testJarIndex() throws Exception
+  {
+    StramTestSupport.createAppPackageFile();
+    File indexDirectory = new File("target/" + OperatorDiscoveryTest.class.getName() + "/operator-index");
+    FileUtils.deleteDirectory(indexDirectory);
+    try {
+      String[] classFilePath = getClassFileInClasspath();
+      String jar = new File("src/test/resources/testAppPackage/mydtapp/target/mydtapp-1.0-SNAPSHOT.jar").getAbsolutePath();
+      OperatorDiscoverer od = new OperatorDiscoverer(Lists.asList(jar, classFilePath).toArray(new String[]{}),
+          indexDirectory);
+      od.buildTypeGraph();
+      File[] indexes = indexDirectory.listFiles();
+      Assert.assertEquals("saved indexes", 1, indexes.length);
+      Assert.assertNotNull("vertex", od.getTypeGraph().getTypeGraphVertex("com.example.mydtapp.StdoutOperator"));
+      JSONObject desc = od.describeClass("com.example.mydtapp.StdoutOperator");
+
+      /* the unchanged jar is read from its index, also when it was copied */
+      File copy = new File(indexDirectory.getParentFile(), "mydtapp.jar");
+      FileUtils.copyFile(new File(jar), copy);
+      od = new OperatorDiscoverer(Lists.asList(copy.getAbsolutePath(), classFilePath).toArray(new String[]{}),
+          indexDirectory);
+      od.buildTypeGraph();
+      Assert.assertEquals("saved indexes", 1, indexDirectory.listFiles().length);
+      Assert.assertNotNull("vertex", od.getTypeGraph().getTypeGraphVertex("com.example.mydtapp.StdoutOperator"));
+      Assert.assertEquals("class", desc.toString(), od.describeClass("com.example.mydtapp.StdoutOperator").toString());
+      Assert.assertEquals("true", od.describeClass("com.example.mydtapp.StdoutOperator").getString("hasResource"));
+    } finally {
+      FileUtils.deleteDirectory(indexDirectory.getParentFile());
+      StramTestSupport.removeAppPackageFile();
+    }
+  }
+
   public static class Structured
   {
     private int size;
@@ -28,6 +28,8 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -348,6 +350,40 @@ public class StramWebServicesTest extends JerseyTest
         attrs.getString(Context.DAGContext.METRICS_TRANSPORT.getSimpleName()));
   }
 
+  @Test
+  public void testPhysicalPlanSnapshot() throws Exception
+  {
+    WebResource r = resource();
+    String[] paths = {StramWebServices.PATH_PHYSICAL_PLAN_OPERATORS, StramWebServices.PATH_PHYSICAL_PLAN_STREAMS,
+        StramWebServices.PATH_PHYSICAL_PLAN_CONTAINERS};
+    String[] keys = {"operators", "streams", "containers"};
+    for (int i = 0; i < paths.length; i++) {
+      ClientResponse response = r.path(StramWebServices.PATH).path(paths[i])
+          .accept(MediaType.APPLICATION_JSON).get(ClientResponse.class);
+      assertEquals(paths[i], Status.OK, response.getClientResponseStatus());
+      assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getType());
+      EntityTag etag = response.getEntityTag();
+      Assert.assertNotNull("entity tag " + paths[i], etag);
+      JSONObject json = response.getEntity(JSONObject.class);
+      assertTrue(keys[i], json.has(keys[i]));
+
+      response = r.path(StramWebServices.PATH).path(paths[i]).header(HttpHeaders.IF_NONE_MATCH, etag.toString())
+          .accept(MediaType.APPLICATION_JSON).get(ClientResponse.class);
+      assertEquals(paths[i], Status.NOT_MODIFIED, response.getClientResponseStatus());
+      assertEquals("entity tag " + paths[i], etag, response.getEntityTag());
+    }
+
+    ClientResponse response = r.path(StramWebServices.PATH).path(StramWebServices.PATH_PHYSICAL_PLAN_CONTAINERS)
+        .queryParam("states", "NONE").accept(MediaType.APPLICATION_JSON).get(ClientResponse.class);
+    assertEquals(Status.OK, response.getClientResponseStatus());
+    EntityTag etag = response.getEntityTag();
+    assertEquals("containers", 0, response.getEntity(JSONObject.class).getJSONArray("containers").length());
+    response = r.path(StramWebServices.PATH).path(StramWebServices.PATH_PHYSICAL_PLAN_CONTAINERS)
+        .queryParam("states", "NONE").header(HttpHeaders.IF_NONE_MATCH, etag.toString())
+        .accept(MediaType.APPLICATION_JSON).get(ClientResponse.class);
+    assertEquals(Status.NOT_MODIFIED, response.getClientResponseStatus());
+  }
+
   @Test
   public void testSubmitLogicalPlanChange() throws JSONException, Exception
   {